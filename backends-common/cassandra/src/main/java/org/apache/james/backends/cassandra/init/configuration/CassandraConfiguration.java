@@ -71,6 +71,7 @@ public class CassandraConfiguration {
     private static final String FETCH_ADVANCE_ROW_COUNT = "fetch.advance.row.count";
     private static final String CHUNK_SIZE_MESSAGE_READ = "chunk.size.message.read";
     private static final String CHUNK_SIZE_EXPUNGE = "chunk.size.expunge";
+    private static final String CHUNK_SIZE_FLAGS_UPDATE = "chunk.size.flags.update";
     private static final String BLOB_PART_SIZE = "mailbox.blob.part.size";
     private static final String ATTACHMENT_V2_MIGRATION_READ_TIMEOUT = "attachment.v2.migration.read.timeout";
     private static final String MESSAGE_ATTACHMENTID_READ_TIMEOUT = "message.attachmentids.read.timeout";
@@ -86,6 +87,7 @@ public class CassandraConfiguration {
     public static class Builder {
         private Optional<Integer> messageReadChunkSize = Optional.empty();
         private Optional<Integer> expungeChunkSize = Optional.empty();
+        private Optional<Integer> flagsUpdateChunkSize = Optional.empty();
         private Optional<Integer> flagsUpdateMessageIdMaxRetry = Optional.empty();
         private Optional<Integer> flagsUpdateMessageMaxRetry = Optional.empty();
         private Optional<Integer> modSeqMaxRetry = Optional.empty();
@@ -147,6 +149,12 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder flagsUpdateChunkSize(int value) {
+            Preconditions.checkArgument(value > 0, "flagsUpdateChunkSize needs to be strictly positive");
+            this.flagsUpdateChunkSize = Optional.of(value);
+            return this;
+        }
+
         public Builder flagsUpdateMessageIdMaxRetry(int value) {
             Preconditions.checkArgument(value > 0, "flagsUpdateMessageIdMaxRetry needs to be strictly positive");
             this.flagsUpdateMessageIdMaxRetry = Optional.of(value);
@@ -232,6 +240,11 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder flagsUpdateChunkSize(Optional<Integer> value) {
+            value.ifPresent(this::flagsUpdateChunkSize);
+            return this;
+        }
+
         public Builder flagsUpdateMessageIdMaxRetry(Optional<Integer> value) {
             value.ifPresent(this::flagsUpdateMessageIdMaxRetry);
             return this;
@@ -338,6 +351,7 @@ public class CassandraConfiguration {
             return new CassandraConfiguration(aclMaxRetry.orElse(DEFAULT_ACL_MAX_RETRY),
                 messageReadChunkSize.orElse(DEFAULT_MESSAGE_CHUNK_SIZE_ON_READ),
                 expungeChunkSize.orElse(DEFAULT_EXPUNGE_BATCH_SIZE),
+                flagsUpdateChunkSize.orElse(DEFAULT_UPDATE_FLAGS_BATCH_SIZE),
                 flagsUpdateMessageIdMaxRetry.orElse(DEFAULT_FLAGS_UPDATE_MESSAGE_ID_MAX_RETRY),
                 flagsUpdateMessageMaxRetry.orElse(DEFAULT_FLAGS_UPDATE_MESSAGE_MAX_RETRY),
                 modSeqMaxRetry.orElse(DEFAULT_MODSEQ_MAX_RETRY),
@@ -380,6 +394,8 @@ public class CassandraConfiguration {
                 propertiesConfiguration.getInteger(CHUNK_SIZE_MESSAGE_READ, null)))
             .expungeChunkSize(Optional.ofNullable(
                 propertiesConfiguration.getInteger(CHUNK_SIZE_EXPUNGE, null)))
+            .flagsUpdateChunkSize(Optional.ofNullable(
+                propertiesConfiguration.getInteger(CHUNK_SIZE_FLAGS_UPDATE, null)))
             .blobPartSize(Optional.ofNullable(
                 propertiesConfiguration.getInteger(BLOB_PART_SIZE, null)))
             .attachmentV2MigrationReadTimeout(Optional.ofNullable(
@@ -409,6 +425,7 @@ public class CassandraConfiguration {
 
     private final int messageReadChunkSize;
     private final int expungeChunkSize;
+    private final int flagsUpdateChunkSize;
     private final int flagsUpdateMessageIdMaxRetry;
     private final int flagsUpdateMessageMaxRetry;
     private final int modSeqMaxRetry;
@@ -429,7 +446,7 @@ public class CassandraConfiguration {
     private final boolean optimisticConsistencyLevel;
 
     @VisibleForTesting
-    CassandraConfiguration(int aclMaxRetry, int messageReadChunkSize, int expungeChunkSize,
+    CassandraConfiguration(int aclMaxRetry, int messageReadChunkSize, int expungeChunkSize, int flagsUpdateChunkSize,
                            int flagsUpdateMessageIdMaxRetry, int flagsUpdateMessageMaxRetry,
                            int modSeqMaxRetry, int uidMaxRetry, int fetchNextPageInAdvanceRow,
                            int blobPartSize, final int attachmentV2MigrationReadTimeout, int messageAttachmentIdsReadTimeout,
@@ -441,6 +458,7 @@ public class CassandraConfiguration {
         this.aclMaxRetry = aclMaxRetry;
         this.messageReadChunkSize = messageReadChunkSize;
         this.expungeChunkSize = expungeChunkSize;
+        this.flagsUpdateChunkSize = flagsUpdateChunkSize;
         this.flagsUpdateMessageIdMaxRetry = flagsUpdateMessageIdMaxRetry;
         this.flagsUpdateMessageMaxRetry = flagsUpdateMessageMaxRetry;
         this.modSeqMaxRetry = modSeqMaxRetry;
@@ -492,6 +510,10 @@ public class CassandraConfiguration {
         return expungeChunkSize;
     }
 
+    public int getFlagsUpdateChunkSize() {
+        return flagsUpdateChunkSize;
+    }
+
     public int getFlagsUpdateMessageIdMaxRetry() {
         return flagsUpdateMessageIdMaxRetry;
     }
@@ -548,6 +570,7 @@ public class CassandraConfiguration {
             return Objects.equals(this.aclMaxRetry, that.aclMaxRetry)
                 && Objects.equals(this.messageReadChunkSize, that.messageReadChunkSize)
                 && Objects.equals(this.expungeChunkSize, that.expungeChunkSize)
+                && Objects.equals(this.flagsUpdateChunkSize, that.flagsUpdateChunkSize)
                 && Objects.equals(this.flagsUpdateMessageIdMaxRetry, that.flagsUpdateMessageIdMaxRetry)
                 && Objects.equals(this.flagsUpdateMessageMaxRetry, that.flagsUpdateMessageMaxRetry)
                 && Objects.equals(this.modSeqMaxRetry, that.modSeqMaxRetry)
@@ -571,7 +594,7 @@ public class CassandraConfiguration {
 
     @Override
     public final int hashCode() {
-        return Objects.hash(aclMaxRetry, messageReadChunkSize, expungeChunkSize, flagsUpdateMessageIdMaxRetry,
+        return Objects.hash(aclMaxRetry, messageReadChunkSize, expungeChunkSize, flagsUpdateChunkSize, flagsUpdateMessageIdMaxRetry,
             flagsUpdateMessageMaxRetry, modSeqMaxRetry, uidMaxRetry, fetchNextPageInAdvanceRow,
             mailboxCountersReadRepairChanceOneHundred, mailboxCountersReadRepairChanceMax,
             blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout,
@@ -586,6 +609,7 @@ public class CassandraConfiguration {
             .add("aclMaxRetry", aclMaxRetry)
             .add("messageReadChunkSize", messageReadChunkSize)
             .add("expungeChunkSize", expungeChunkSize)
+            .add("flagsUpdateChunkSize", flagsUpdateChunkSize)
             .add("flagsUpdateMessageIdMaxRetry", flagsUpdateMessageIdMaxRetry)
             .add("flagsUpdateMessageMaxRetry", flagsUpdateMessageMaxRetry)
             .add("modSeqMaxRetry", modSeqMaxRetry)
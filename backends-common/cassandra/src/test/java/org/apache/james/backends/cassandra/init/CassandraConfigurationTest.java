@@ -70,6 +70,20 @@ class CassandraConfigurationTest {
             .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void flagsUpdateChunkSizeShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .flagsUpdateChunkSize(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void flagsUpdateChunkSizeShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .flagsUpdateChunkSize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void messageReadChunkSizeShouldThrowOnNegativeValue() {
         assertThatThrownBy(() -> CassandraConfiguration.builder()
@@ -209,6 +223,7 @@ class CassandraConfigurationTest {
         int blobPartSize = 10;
         int attachmentV2MigrationReadTimeout = 11;
         int messageAttachmentIdReadTimeout = 12;
+        int flagsUpdateChunkSize = 13;
         String consistencyLevelRegular = "LOCAL_QUORUM";
         String consistencyLevelLightweightTransaction = "LOCAL_SERIAL";
 
@@ -221,6 +236,7 @@ class CassandraConfigurationTest {
             .flagsUpdateMessageIdMaxRetry(flagsUpdateMessageIdMaxRetry)
             .messageReadChunkSize(messageReadChunkSize)
             .expungeChunkSize(expungeChunkSize)
+            .flagsUpdateChunkSize(flagsUpdateChunkSize)
             .blobPartSize(blobPartSize)
             .attachmentV2MigrationReadTimeout(attachmentV2MigrationReadTimeout)
             .messageAttachmentIdsReadTimeout(messageAttachmentIdReadTimeout)
@@ -237,6 +253,7 @@ class CassandraConfigurationTest {
             softly.assertThat(configuration.getFlagsUpdateMessageIdMaxRetry()).isEqualTo(flagsUpdateMessageIdMaxRetry);
             softly.assertThat(configuration.getMessageReadChunkSize()).isEqualTo(messageReadChunkSize);
             softly.assertThat(configuration.getExpungeChunkSize()).isEqualTo(expungeChunkSize);
+            softly.assertThat(configuration.getFlagsUpdateChunkSize()).isEqualTo(flagsUpdateChunkSize);
             softly.assertThat(configuration.getBlobPartSize()).isEqualTo(blobPartSize);
             softly.assertThat(configuration.getAttachmentV2MigrationReadTimeout()).isEqualTo(attachmentV2MigrationReadTimeout);
             softly.assertThat(configuration.getMessageAttachmentIdsReadTimeout()).isEqualTo(messageAttachmentIdReadTimeout);
@@ -38,6 +38,11 @@ public interface AttachmentManager extends AttachmentContentLoader {
 
     InputStream loadAttachmentContent(AttachmentId attachmentId, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException;
 
+    /**
+     * Loads at most length bytes of the attachment content, starting at offset.
+     */
+    InputStream loadAttachmentContent(AttachmentId attachmentId, long offset, long length, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException;
+
     @Override
     default InputStream load(AttachmentMetadata attachment, MailboxSession mailboxSession) throws IOException, AttachmentNotFoundException {
         return loadAttachmentContent(attachment.getAttachmentId(), mailboxSession);
@@ -298,7 +298,11 @@ public interface MailboxManager extends RequestAware, RightManager, MailboxAnnot
 
     enum MailboxSearchFetchType {
         Minimal,
-        Counters
+        Counters,
+        /**
+         * Counters along with the UID validity, next UID and highest MODSEQ of each mailbox, as needed by IMAP STATUS.
+         */
+        Status
     }
 
     /**
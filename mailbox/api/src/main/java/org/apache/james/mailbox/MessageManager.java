@@ -62,6 +62,8 @@ import org.reactivestreams.Publisher;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
+
 /**
  * Interface which represent a Mailbox
  * 
@@ -373,6 +375,20 @@ public interface MessageManager {
 
     Publisher<AppendResult> appendMessageReactive(AppendCommand appendCommand, MailboxSession session);
 
+    /**
+     * Appends several messages to this mailbox, in order: returned results follow the order of the commands, with
+     * increasing UIDs.
+     *
+     * Implementations may store the batch at once, for instance reserving UIDs and mod-sequence a single time.
+     */
+    default List<AppendResult> appendMessages(List<AppendCommand> appendCommands, MailboxSession session) throws MailboxException {
+        ImmutableList.Builder<AppendResult> results = ImmutableList.builder();
+        for (AppendCommand appendCommand : appendCommands) {
+            results.add(appendMessage(appendCommand, session));
+        }
+        return results.build();
+    }
+
     /**
      * Gets messages in the given range. The messages may get fetched under
      * the-hood in batches so the caller should check if
@@ -387,8 +403,38 @@ public interface MessageManager {
      */
     MessageResultIterator getMessages(MessageRange set, FetchGroup fetchGroup, MailboxSession mailboxSession) throws MailboxException;
 
+    /**
+     * Reactive version of {@link #getMessages(MessageRange, FetchGroup, MailboxSession)}.
+     *
+     * Messages are emitted ordered by UID, as requested by the subscriber, thus allowing to stream large ranges
+     * without buffering them.
+     */
+    Publisher<MessageResult> getMessagesReactive(MessageRange set, FetchGroup fetchGroup, MailboxSession mailboxSession);
+
     Publisher<ComposedMessageIdWithMetaData> listMessagesMetadata(MessageRange set, MailboxSession session);
 
+    /**
+     * Lists, ordered by UID, the metadata of the messages within the given range whose mod-sequence is strictly
+     * greater than changedSince.
+     *
+     * Implementations keeping an index of changes can answer in time proportional to the number of changes rather
+     * than to the size of the mailbox.
+     */
+    default Publisher<ComposedMessageIdWithMetaData> listMessagesMetadataChangedSince(MessageRange set, ModSeq changedSince, MailboxSession session) {
+        return Flux.from(listMessagesMetadata(set, session))
+            .filter(metadata -> metadata.getModSeq().compareTo(changedSince) > 0);
+    }
+
+    /**
+     * Lists, ordered by UID, the UIDs within the given range of the messages expunged after changedSince.
+     *
+     * @return an empty {@link Optional} when the mailbox does not keep an history of expunges. Callers then need to
+     * consider that every UID of the range missing from the mailbox might have been expunged.
+     */
+    default Optional<List<MessageUid>> listExpungedUidsSince(MessageRange set, ModSeq changedSince, MailboxSession session) throws MailboxException {
+        return Optional.empty();
+    }
+
     /**
      * Return the underlying {@link Mailbox}
      */
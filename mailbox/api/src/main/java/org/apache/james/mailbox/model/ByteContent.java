@@ -45,4 +45,11 @@ public final class ByteContent implements Content {
     public InputStream getInputStream() {
         return new ByteArrayInputStream(contents);
     }
+
+    @Override
+    public InputStream getInputStream(long offset, long length) {
+        int start = (int) Math.min(offset, contents.length);
+        int count = (int) Math.min(length, contents.length - start);
+        return new ByteArrayInputStream(contents, start, count);
+    }
 }
@@ -55,6 +55,11 @@ public class ByteSourceContent implements Content, Closeable {
         return byteSource.openStream();
     }
 
+    @Override
+    public InputStream getInputStream(long offset, long length) throws IOException {
+        return byteSource.slice(offset, length).openStream();
+    }
+
     @Override
     public long size() throws MailboxException {
         try {
@@ -22,8 +22,11 @@ package org.apache.james.mailbox.model;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.james.mailbox.exception.MailboxException;
 
+import com.google.common.io.ByteStreams;
+
 /**
  * IMAP needs to know the size of the content before it starts to write it out.
  * This interface allows direct writing whilst exposing total size.
@@ -33,6 +36,17 @@ public interface Content {
      * Return the content as {@link InputStream}
      */
     InputStream getInputStream() throws IOException;
+
+    /**
+     * Return at most length octets of the content, starting at offset, as {@link InputStream}
+     *
+     * Implementations able to directly access a part of the content should override it.
+     */
+    default InputStream getInputStream(long offset, long length) throws IOException {
+        InputStream inputStream = getInputStream();
+        IOUtils.skip(inputStream, offset);
+        return ByteStreams.limit(inputStream, length);
+    }
     
     /**
      * Size (in octets) of the content.
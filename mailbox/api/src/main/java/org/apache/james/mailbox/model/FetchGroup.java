@@ -37,6 +37,8 @@ public class FetchGroup extends Profiles<FetchGroup> {
         MIME_DESCRIPTOR,
         HEADERS,
         FULL_CONTENT,
+        // Full content only read by ranges
+        FULL_CONTENT_RANGE,
         BODY_CONTENT,
         MIME_HEADERS,
         MIME_CONTENT;
@@ -21,6 +21,10 @@ package org.apache.james.mailbox.model;
 
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
 
 import com.google.common.base.MoreObjects;
 
@@ -60,6 +64,59 @@ public class MailboxMetaData implements Comparable<MailboxMetaData> {
         HAS_NO_CHILDREN
     }
 
+    /**
+     * UID validity, next UID and highest MODSEQ of a mailbox.
+     */
+    public static class Sequences {
+        private final UidValidity uidValidity;
+        private final MessageUid uidNext;
+        private final ModSeq highestModSeq;
+
+        public Sequences(UidValidity uidValidity, MessageUid uidNext, ModSeq highestModSeq) {
+            this.uidValidity = uidValidity;
+            this.uidNext = uidNext;
+            this.highestModSeq = highestModSeq;
+        }
+
+        public UidValidity getUidValidity() {
+            return uidValidity;
+        }
+
+        public MessageUid getUidNext() {
+            return uidNext;
+        }
+
+        public ModSeq getHighestModSeq() {
+            return highestModSeq;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Sequences) {
+                Sequences that = (Sequences) o;
+
+                return Objects.equals(this.uidValidity, that.uidValidity)
+                    && Objects.equals(this.uidNext, that.uidNext)
+                    && Objects.equals(this.highestModSeq, that.highestModSeq);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(uidValidity, uidNext, highestModSeq);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("uidValidity", uidValidity)
+                .add("uidNext", uidNext)
+                .add("highestModSeq", highestModSeq)
+                .toString();
+        }
+    }
+
     public static  final Comparator<MailboxMetaData> COMPARATOR = Comparator
         .<MailboxMetaData, Boolean>comparing(metadata -> metadata.getPath().isInbox()).reversed()
         .thenComparing(metadata -> metadata.getPath().getName());
@@ -71,8 +128,13 @@ public class MailboxMetaData implements Comparable<MailboxMetaData> {
     private final MailboxId mailboxId;
     private final MailboxACL resolvedAcls;
     private final MailboxCounters counters;
+    private final Optional<Sequences> sequences;
 
     public MailboxMetaData(MailboxPath path, MailboxId mailboxId, char delimiter, Children inferiors, Selectability selectability, MailboxACL resolvedAcls, MailboxCounters counters) {
+        this(path, mailboxId, delimiter, inferiors, selectability, resolvedAcls, counters, Optional.empty());
+    }
+
+    public MailboxMetaData(MailboxPath path, MailboxId mailboxId, char delimiter, Children inferiors, Selectability selectability, MailboxACL resolvedAcls, MailboxCounters counters, Optional<Sequences> sequences) {
         this.path = path;
         this.mailboxId = mailboxId;
         this.delimiter = delimiter;
@@ -80,12 +142,20 @@ public class MailboxMetaData implements Comparable<MailboxMetaData> {
         this.selectability = selectability;
         this.resolvedAcls = resolvedAcls;
         this.counters = counters;
+        this.sequences = sequences;
     }
 
     public MailboxCounters getCounters() {
         return counters;
     }
 
+    /**
+     * Only retrieved by searches using {@link org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType#Status}.
+     */
+    public Optional<Sequences> getSequences() {
+        return sequences;
+    }
+
     public MailboxACL getResolvedAcls() {
         return resolvedAcls;
     }
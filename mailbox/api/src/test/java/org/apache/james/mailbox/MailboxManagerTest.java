@@ -69,6 +69,7 @@ import org.apache.james.mailbox.exception.TooLongMailboxNameException;
 import org.apache.james.mailbox.extension.PreDeletionHook;
 import org.apache.james.mailbox.mock.DataProvisioner;
 import org.apache.james.mailbox.model.ComposedMessageId;
+import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MailboxACL;
 import org.apache.james.mailbox.model.MailboxAnnotation;
@@ -832,6 +833,23 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
                 .satisfies(event -> assertThat(event.getUids()).hasSize(1));
         }
 
+        @Test
+        void appendingMessagesShouldFireASingleAddedEvent() throws Exception {
+            Mono.from(retrieveEventBus(mailboxManager).register(listener, new MailboxIdRegistrationKey(inboxId))).block();
+            inboxManager.appendMessages(ImmutableList.of(
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message)),
+                session);
+
+            assertThat(listener.getEvents())
+                .filteredOn(event -> event instanceof Added)
+                .hasSize(1)
+                .extracting(event -> (Added) event)
+                .element(0)
+                .satisfies(event -> assertThat(event.getMailboxId()).isEqualTo(inboxId))
+                .satisfies(event -> assertThat(event.getUids()).hasSize(2));
+        }
+
         @Test
         void expungeMessageShouldFireExpungedEvent() throws Exception {
             inboxManager.appendMessage(MessageManager.AppendCommand.builder().build(message), session);
@@ -2867,6 +2885,52 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
                 .isEmpty();
         }
 
+        @Test
+        void appendMessagesShouldReturnIncreasingUidsInCommandOrder() throws Exception {
+            ComposedMessageId first = inboxManager.appendMessage(AppendCommand.builder().build(message), session).getId();
+
+            List<MessageManager.AppendResult> results = inboxManager.appendMessages(ImmutableList.of(
+                    AppendCommand.builder().withFlags(new Flags(Flags.Flag.SEEN)).build(message),
+                    AppendCommand.builder().withFlags(new Flags(Flags.Flag.FLAGGED)).build(message)),
+                session);
+
+            assertThat(results)
+                .extracting(result -> result.getId().getUid())
+                .containsExactly(first.getUid().next(), first.getUid().next(2));
+        }
+
+        @Test
+        void appendMessagesShouldStoreEveryMessage() throws Exception {
+            inboxManager.appendMessages(ImmutableList.of(
+                    AppendCommand.builder().notRecent().withFlags(new Flags(Flags.Flag.SEEN)).build(message),
+                    AppendCommand.builder().notRecent().withFlags(new Flags(Flags.Flag.FLAGGED)).build(message)),
+                session);
+
+            assertThat(Flux.from(inboxManager.listMessagesMetadata(MessageRange.all(), session))
+                    .map(ComposedMessageIdWithMetaData::getFlags)
+                    .collectList().block())
+                .containsExactly(new Flags(Flags.Flag.SEEN), new Flags(Flags.Flag.FLAGGED));
+        }
+
+        @Test
+        void appendMessagesShouldUpdateMailboxCounters() throws Exception {
+            inboxManager.appendMessages(ImmutableList.of(
+                    AppendCommand.builder().withFlags(new Flags(Flags.Flag.SEEN)).build(message),
+                    AppendCommand.builder().build(message)),
+                session);
+
+            assertThat(inboxManager.getMailboxCounters(session))
+                .satisfies(counters -> {
+                    assertThat(counters.getCount()).isEqualTo(2);
+                    assertThat(counters.getUnseen()).isEqualTo(1);
+                });
+        }
+
+        @Test
+        void appendMessagesShouldAcceptEmptyBatches() throws Exception {
+            assertThat(inboxManager.appendMessages(ImmutableList.of(), session)).isEmpty();
+        }
+
         @Test
         void shouldBeAbleToAccessThreadIdOfAMessageAndThatThreadIdShouldWrapsMessageId() throws Exception {
             ComposedMessageId composeId1 = inboxManager.appendMessage(AppendCommand.builder().build(message), session).getId();
@@ -104,6 +104,7 @@ public class CassandraMailboxManager extends StoreMailboxManager {
             getMessageParser(),
             getMessageIdFactory(),
             configuration.getBatchSizes(),
+            configuration.getAppendBuffer(),
             getStoreRightManager(),
             getPreDeletionHooks(),
             getThreadIdGuessingAlgorithm());
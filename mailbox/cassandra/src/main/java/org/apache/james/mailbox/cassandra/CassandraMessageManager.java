@@ -28,6 +28,7 @@ import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.quota.QuotaManager;
 import org.apache.james.mailbox.quota.QuotaRootResolver;
+import org.apache.james.mailbox.store.AppendBuffer;
 import org.apache.james.mailbox.store.BatchSizes;
 import org.apache.james.mailbox.store.MessageFactory;
 import org.apache.james.mailbox.store.MessageStorer;
@@ -47,11 +48,12 @@ public class CassandraMessageManager extends StoreMessageManager {
                             EventBus eventBus, MailboxPathLocker locker, Mailbox mailbox, QuotaManager quotaManager,
                             QuotaRootResolver quotaRootResolver, MessageParser messageParser, MessageId.Factory messageIdFactory,
                             BatchSizes batchSizes,
+                            AppendBuffer appendBuffer,
                             StoreRightManager storeRightManager,
                             PreDeletionHooks preDeletionHooks,
                             ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm) {
         super(CassandraMailboxManager.MESSAGE_CAPABILITIES, mapperFactory, index, eventBus, locker, mailbox,
-            quotaManager, quotaRootResolver, batchSizes, storeRightManager,
+            quotaManager, quotaRootResolver, batchSizes, appendBuffer, storeRightManager,
             preDeletionHooks, new MessageStorer.WithAttachment(mapperFactory, messageIdFactory, new MessageFactory.StoreMessageFactory(), mapperFactory, messageParser, threadIdGuessingAlgorithm));
     }
 
@@ -46,6 +46,7 @@ import org.apache.james.mailbox.cassandra.mail.CassandraDeletedMessageDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraFirstUnseenDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxCounterDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxRecentsDAO;
+import org.apache.james.mailbox.cassandra.mail.CassandraMessageChangeLogDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAOV3;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageIdDAO;
@@ -100,6 +101,7 @@ public class DeleteMessageListener implements EventListener.ReactiveGroupEventLi
     private final CassandraApplicableFlagDAO applicableFlagDAO;
     private final CassandraFirstUnseenDAO firstUnseenDAO;
     private final CassandraDeletedMessageDAO deletedMessageDAO;
+    private final CassandraMessageChangeLogDAO changeLogDAO;
     private final CassandraMailboxCounterDAO counterDAO;
     private final CassandraMailboxRecentsDAO recentsDAO;
     private final BlobStore blobStore;
@@ -112,6 +114,7 @@ public class DeleteMessageListener implements EventListener.ReactiveGroupEventLi
                                  CassandraAttachmentMessageIdDAO attachmentMessageIdDAO, ACLMapper aclMapper,
                                  CassandraUserMailboxRightsDAO rightsDAO, CassandraApplicableFlagDAO applicableFlagDAO,
                                  CassandraFirstUnseenDAO firstUnseenDAO, CassandraDeletedMessageDAO deletedMessageDAO,
+                                 CassandraMessageChangeLogDAO changeLogDAO,
                                  CassandraMailboxCounterDAO counterDAO, CassandraMailboxRecentsDAO recentsDAO, BlobStore blobStore,
                                  CassandraConfiguration cassandraConfiguration) {
         this.threadDAO = threadDAO;
@@ -127,6 +130,7 @@ public class DeleteMessageListener implements EventListener.ReactiveGroupEventLi
         this.applicableFlagDAO = applicableFlagDAO;
         this.firstUnseenDAO = firstUnseenDAO;
         this.deletedMessageDAO = deletedMessageDAO;
+        this.changeLogDAO = changeLogDAO;
         this.counterDAO = counterDAO;
         this.recentsDAO = recentsDAO;
         this.blobStore = blobStore;
@@ -173,6 +177,7 @@ public class DeleteMessageListener implements EventListener.ReactiveGroupEventLi
                 applicableFlagDAO.delete(mailboxId),
                 firstUnseenDAO.removeAll(mailboxId),
                 deletedMessageDAO.removeAll(mailboxId),
+                changeLogDAO.removeAll(mailboxId),
                 counterDAO.delete(mailboxId),
                 recentsDAO.delete(mailboxId))
             .then();
@@ -22,6 +22,7 @@ package org.apache.james.mailbox.cassandra.mail;
 import static org.apache.james.blob.api.BlobStore.StoragePolicy.LOW_COST;
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
@@ -90,6 +91,15 @@ public class CassandraAttachmentMapper implements AttachmentMapper {
             .orElseThrow(() -> new AttachmentNotFoundException(attachmentId.toString()));
     }
 
+    @Override
+    public InputStream loadAttachmentContent(AttachmentId attachmentId, long offset, long length) throws AttachmentNotFoundException {
+        return attachmentDAOV2.getAttachment(attachmentId, messageIdFallback(attachmentId))
+            .flatMap(daoAttachment -> Mono.from(blobStore.readRange(blobStore.getDefaultBucketName(), daoAttachment.getBlobId(), offset, length)))
+            .map(ByteArrayInputStream::new)
+            .blockOptional()
+            .orElseThrow(() -> new AttachmentNotFoundException(attachmentId.toString()));
+    }
+
     private Mono<CassandraMessageId> messageIdFallback(AttachmentId attachmentId) {
         return attachmentMessageIdDAO.getOwnerMessageIds(attachmentId)
             .map(CassandraMessageId.class::cast)
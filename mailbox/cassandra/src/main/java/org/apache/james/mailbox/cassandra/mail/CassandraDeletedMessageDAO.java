@@ -30,6 +30,8 @@ import static org.apache.james.mailbox.cassandra.table.CassandraDeletedMessageTa
 import static org.apache.james.mailbox.cassandra.table.CassandraDeletedMessageTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraDeletedMessageTable.UID;
 
+import java.util.Collection;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -37,6 +39,7 @@ import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.model.MessageRange;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
@@ -123,12 +126,34 @@ public class CassandraDeletedMessageDAO {
                 .setLong(UID, uid.asLong()));
     }
 
+    public Mono<Void> addDeleted(CassandraId cassandraId, Collection<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        uids.forEach(uid -> batch.add(addStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid())
+            .setLong(UID, uid.asLong())));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
     public Mono<Void> removeDeleted(CassandraId cassandraId, MessageUid uid) {
         return cassandraAsyncExecutor.executeVoid(deleteStatement.bind()
             .setUUID(MAILBOX_ID, cassandraId.asUuid())
             .setLong(UID, uid.asLong()));
     }
 
+    public Mono<Void> removeDeleted(CassandraId cassandraId, Collection<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        uids.forEach(uid -> batch.add(deleteStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid())
+            .setLong(UID, uid.asLong())));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
     public Mono<Void> removeAll(CassandraId cassandraId) {
         return cassandraAsyncExecutor.executeVoid(deleteAllStatement.bind()
             .setUUID(MAILBOX_ID, cassandraId.asUuid()));
@@ -29,12 +29,15 @@ import static org.apache.james.mailbox.cassandra.table.CassandraFirstUnseenTable
 import static org.apache.james.mailbox.cassandra.table.CassandraFirstUnseenTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraFirstUnseenTable.UID;
 
+import java.util.Collection;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 
@@ -90,12 +93,34 @@ public class CassandraFirstUnseenDAO {
                 .setLong(UID, uid.asLong()));
     }
 
+    public Mono<Void> addUnread(CassandraId cassandraId, Collection<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        uids.forEach(uid -> batch.add(addStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid())
+            .setLong(UID, uid.asLong())));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
     public Mono<Void> removeUnread(CassandraId cassandraId, MessageUid uid) {
         return cassandraAsyncExecutor.executeVoid(deleteStatement.bind()
             .setUUID(MAILBOX_ID, cassandraId.asUuid())
             .setLong(UID, uid.asLong()));
     }
 
+    public Mono<Void> removeUnread(CassandraId cassandraId, Collection<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        uids.forEach(uid -> batch.add(deleteStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid())
+            .setLong(UID, uid.asLong())));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
     public Mono<Void> removeAll(CassandraId cassandraId) {
         return cassandraAsyncExecutor.executeVoid(deleteAllStatement.bind()
             .setUUID(MAILBOX_ID, cassandraId.asUuid()));
@@ -29,15 +29,18 @@ import javax.inject.Inject;
 import javax.mail.Flags;
 
 import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.MailboxCounters;
 import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.UpdatedFlags;
+import org.apache.james.mailbox.store.mail.ModSeqProvider;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.util.streams.Iterators;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import reactor.core.publisher.Flux;
@@ -51,18 +54,24 @@ public class CassandraIndexTableHandler {
     private final CassandraFirstUnseenDAO firstUnseenDAO;
     private final CassandraApplicableFlagDAO applicableFlagDAO;
     private final CassandraDeletedMessageDAO deletedMessageDAO;
+    private final CassandraMessageChangeLogDAO changeLogDAO;
+    private final ModSeqProvider modSeqProvider;
 
     @Inject
     public CassandraIndexTableHandler(CassandraMailboxRecentsDAO mailboxRecentDAO,
                                       CassandraMailboxCounterDAO mailboxCounterDAO,
                                       CassandraFirstUnseenDAO firstUnseenDAO,
                                       CassandraApplicableFlagDAO applicableFlagDAO,
-                                      CassandraDeletedMessageDAO deletedMessageDAO) {
+                                      CassandraDeletedMessageDAO deletedMessageDAO,
+                                      CassandraMessageChangeLogDAO changeLogDAO,
+                                      ModSeqProvider modSeqProvider) {
         this.mailboxRecentDAO = mailboxRecentDAO;
         this.mailboxCounterDAO = mailboxCounterDAO;
         this.firstUnseenDAO = firstUnseenDAO;
         this.applicableFlagDAO = applicableFlagDAO;
         this.deletedMessageDAO = deletedMessageDAO;
+        this.changeLogDAO = changeLogDAO;
+        this.modSeqProvider = modSeqProvider;
     }
 
     public Mono<Void> updateIndexOnDelete(ComposedMessageIdWithMetaData composedMessageIdWithMetaData, CassandraId mailboxId) {
@@ -72,11 +81,15 @@ public class CassandraIndexTableHandler {
                 updateFirstUnseenOnDelete(mailboxId, composedMessageIdWithMetaData.getFlags(), composedMessageIdWithMetaData.getComposedMessageId().getUid()),
                 mailboxRecentDAO.removeFromRecent(mailboxId, composedMessageIdWithMetaData.getComposedMessageId().getUid()),
                 updateDeletedMessageProjectionOnDelete(mailboxId, uid, composedMessageIdWithMetaData.getFlags()),
-                decrementCountersOnDelete(mailboxId, composedMessageIdWithMetaData.getFlags()))
+                decrementCountersOnDelete(mailboxId, composedMessageIdWithMetaData.getFlags()),
+                recordExpunges(mailboxId, ImmutableList.of(uid)))
             .then();
     }
 
-    public Mono<Void> updateIndexOnDelete(CassandraId mailboxId, Collection<MessageMetaData> metaData) {
+    /**
+     * Index an expunge for which the given mod-sequence was allocated.
+     */
+    public Mono<Void> updateIndexOnDelete(CassandraId mailboxId, Collection<MessageMetaData> metaData, ModSeq expungeModSeq) {
         return Flux.mergeDelayError(Queues.XS_BUFFER_SIZE,
                 Flux.fromIterable(metaData)
                     .flatMap(message -> updateFirstUnseenOnDelete(mailboxId, message.getFlags(), message.getUid()), DEFAULT_CONCURRENCY),
@@ -84,7 +97,10 @@ public class CassandraIndexTableHandler {
                     .flatMap(message -> updateRecentOnDelete(mailboxId, message.getUid(), message.getFlags()), DEFAULT_CONCURRENCY),
                 Flux.fromIterable(metaData)
                     .flatMap(message -> updateDeletedMessageProjectionOnDelete(mailboxId, message.getUid(), message.getFlags()), DEFAULT_CONCURRENCY),
-                decrementCountersOnDelete(mailboxId, metaData))
+                decrementCountersOnDelete(mailboxId, metaData),
+                changeLogDAO.recordExpunges(mailboxId, expungeModSeq, metaData.stream()
+                    .map(MessageMetaData::getUid)
+                    .collect(ImmutableList.toImmutableList())))
             .then();
     }
 
@@ -98,10 +114,25 @@ public class CassandraIndexTableHandler {
                     .flatMap(message -> updateDeletedMessageProjectionOnDelete(mailboxId, message.getComposedMessageId().getUid(), message.getFlags()), DEFAULT_CONCURRENCY),
             decrementCountersOnDeleteFlags(mailboxId, metaData.stream()
                 .map(ComposedMessageIdWithMetaData::getFlags)
+                .collect(ImmutableList.toImmutableList())),
+            recordExpunges(mailboxId, metaData.stream()
+                .map(message -> message.getComposedMessageId().getUid())
                 .collect(ImmutableList.toImmutableList())))
             .then();
     }
 
+    /**
+     * Expunges performed outside of an IMAP EXPUNGE (moves, deletions by message id) allocate a single mod-sequence
+     * for the whole batch, so that HIGHESTMODSEQ increases and QRESYNC clients get them reported as VANISHED.
+     */
+    private Mono<Void> recordExpunges(CassandraId mailboxId, List<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return Mono.empty();
+        }
+        return modSeqProvider.nextModSeqReactive(mailboxId)
+            .flatMap(expungeModSeq -> changeLogDAO.recordExpunges(mailboxId, expungeModSeq, uids));
+    }
+
     private Mono<Void> updateRecentOnDelete(CassandraId mailboxId, MessageUid uid, Flags flags) {
         if (flags.contains(Flags.Flag.RECENT)) {
             return mailboxRecentDAO.removeFromRecent(mailboxId, uid);
@@ -126,7 +157,8 @@ public class CassandraIndexTableHandler {
                 updateFirstUnseenOnAdd(mailboxId, message.createFlags(), message.getUid()),
                 addRecentOnSave(mailboxId, message),
                 incrementCountersOnSave(mailboxId, flags),
-                applicableFlagDAO.updateApplicableFlags(mailboxId, ImmutableSet.copyOf(flags.getUserFlags())))
+                applicableFlagDAO.updateApplicableFlags(mailboxId, ImmutableSet.copyOf(flags.getUserFlags())),
+                recordChangesOnAdd(mailboxId, ImmutableList.of(message)))
             .then();
     }
 
@@ -147,10 +179,24 @@ public class CassandraIndexTableHandler {
                 Flux.fromIterable(messages)
                     .flatMap(message -> addRecentOnSave(mailboxId, message), lowConcurrency),
                 incrementCountersOnSave(mailboxId, flags),
-                applicableFlagDAO.updateApplicableFlags(mailboxId, userFlags))
+                applicableFlagDAO.updateApplicableFlags(mailboxId, userFlags),
+                recordChangesOnAdd(mailboxId, messages))
             .then();
     }
 
+    private Mono<Void> recordChangesOnAdd(CassandraId mailboxId, Collection<MailboxMessage> messages) {
+        Mono<Void> recordChanges = changeLogDAO.recordChanges(mailboxId, messages.stream()
+            .collect(ImmutableMap.toImmutableMap(MailboxMessage::getUid, MailboxMessage::getModSeq)));
+        boolean firstMessageOfMailbox = messages.stream()
+            .anyMatch(message -> message.getUid().equals(MessageUid.MIN_VALUE));
+
+        if (firstMessageOfMailbox) {
+            // The mailbox never held messages before: its log is complete from now on
+            return recordChanges.then(changeLogDAO.markComplete(mailboxId));
+        }
+        return recordChanges;
+    }
+
     public Mono<Void> updateIndexOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
         return updateIndexOnFlagsUpdate(mailboxId, ImmutableList.of(updatedFlags));
     }
@@ -161,7 +207,10 @@ public class CassandraIndexTableHandler {
                 manageRecentOnFlagsUpdate(mailboxId, updatedFlags),
                 updateFirstUnseenOnFlagsUpdate(mailboxId, updatedFlags),
                 manageApplicableFlagsOnFlagsUpdate(mailboxId, updatedFlags),
-                updateDeletedOnFlagsUpdate(mailboxId, updatedFlags))
+                updateDeletedOnFlagsUpdate(mailboxId, updatedFlags),
+                changeLogDAO.recordChanges(mailboxId, updatedFlags.stream()
+                    .filter(UpdatedFlags::flagsChanged)
+                    .collect(ImmutableMap.toImmutableMap(UpdatedFlags::getUid, UpdatedFlags::getModSeq))))
             .then();
     }
 
@@ -173,19 +222,24 @@ public class CassandraIndexTableHandler {
     }
 
     private Mono<Void> updateDeletedOnFlagsUpdate(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
-        return Flux.fromIterable(updatedFlags)
-            .concatMap(flags -> updateDeletedOnFlagsUpdate(mailboxId, flags))
+        return Flux.mergeDelayError(Queues.XS_BUFFER_SIZE,
+                deletedMessageDAO.addDeleted(mailboxId, uidsModifiedToSet(updatedFlags, Flags.Flag.DELETED)),
+                deletedMessageDAO.removeDeleted(mailboxId, uidsModifiedToUnset(updatedFlags, Flags.Flag.DELETED)))
             .then();
     }
 
-    private Mono<Void> updateDeletedOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
-        if (updatedFlags.isModifiedToSet(Flags.Flag.DELETED)) {
-            return deletedMessageDAO.addDeleted(mailboxId, updatedFlags.getUid());
-        } else if (updatedFlags.isModifiedToUnset(Flags.Flag.DELETED)) {
-            return deletedMessageDAO.removeDeleted(mailboxId, updatedFlags.getUid());
-        } else {
-            return Mono.empty();
-        }
+    private ImmutableList<MessageUid> uidsModifiedToSet(List<UpdatedFlags> updatedFlags, Flags.Flag flag) {
+        return updatedFlags.stream()
+            .filter(flags -> flags.isModifiedToSet(flag))
+            .map(UpdatedFlags::getUid)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private ImmutableList<MessageUid> uidsModifiedToUnset(List<UpdatedFlags> updatedFlags, Flags.Flag flag) {
+        return updatedFlags.stream()
+            .filter(flags -> flags.isModifiedToUnset(flag))
+            .map(UpdatedFlags::getUid)
+            .collect(ImmutableList.toImmutableList());
     }
 
     private Mono<Void> decrementCountersOnDelete(CassandraId mailboxId, Flags flags) {
@@ -263,21 +317,12 @@ public class CassandraIndexTableHandler {
     }
 
     private Mono<Void> manageRecentOnFlagsUpdate(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
-        return Flux.fromIterable(updatedFlags)
-            .concatMap(flags -> manageRecentOnFlagsUpdate(mailboxId, flags))
+        return Flux.mergeDelayError(Queues.XS_BUFFER_SIZE,
+                mailboxRecentDAO.removeFromRecent(mailboxId, uidsModifiedToUnset(updatedFlags, Flags.Flag.RECENT)),
+                mailboxRecentDAO.addToRecent(mailboxId, uidsModifiedToSet(updatedFlags, Flags.Flag.RECENT)))
             .then();
     }
 
-    private Mono<Void> manageRecentOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
-        if (updatedFlags.isModifiedToUnset(Flags.Flag.RECENT)) {
-            return mailboxRecentDAO.removeFromRecent(mailboxId, updatedFlags.getUid());
-        }
-        if (updatedFlags.isModifiedToSet(Flags.Flag.RECENT)) {
-            return mailboxRecentDAO.addToRecent(mailboxId, updatedFlags.getUid());
-        }
-        return Mono.empty();
-    }
-
     private Mono<Void> updateFirstUnseenOnAdd(CassandraId mailboxId, Flags flags, MessageUid uid) {
         if (flags.contains(Flags.Flag.SEEN)) {
             return Mono.empty();
@@ -301,18 +346,9 @@ public class CassandraIndexTableHandler {
     }
 
     private Mono<Void> updateFirstUnseenOnFlagsUpdate(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
-        return Flux.fromIterable(updatedFlags)
-            .concatMap(flags -> updateFirstUnseenOnFlagsUpdate(mailboxId, flags))
+        return Flux.mergeDelayError(Queues.XS_BUFFER_SIZE,
+                firstUnseenDAO.addUnread(mailboxId, uidsModifiedToUnset(updatedFlags, Flags.Flag.SEEN)),
+                firstUnseenDAO.removeUnread(mailboxId, uidsModifiedToSet(updatedFlags, Flags.Flag.SEEN)))
             .then();
     }
-
-    private Mono<Void> updateFirstUnseenOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
-        if (updatedFlags.isModifiedToUnset(Flags.Flag.SEEN)) {
-            return firstUnseenDAO.addUnread(mailboxId, updatedFlags.getUid());
-        }
-        if (updatedFlags.isModifiedToSet(Flags.Flag.SEEN)) {
-            return firstUnseenDAO.removeUnread(mailboxId, updatedFlags.getUid());
-        }
-        return Mono.empty();
-    }
 }
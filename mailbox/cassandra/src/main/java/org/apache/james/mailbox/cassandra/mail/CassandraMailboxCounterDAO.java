@@ -22,6 +22,7 @@ package org.apache.james.mailbox.cassandra.mail;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.decr;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.in;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.incr;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
@@ -30,6 +31,9 @@ import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersT
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.UNSEEN;
 
+import java.util.Collection;
+import java.util.UUID;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -39,16 +43,20 @@ import org.apache.james.mailbox.model.MailboxCounters;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.Assignment;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailboxCounterDAO {
 
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement readStatement;
+    private final PreparedStatement readManyStatement;
     private final PreparedStatement incrementUnseenCountStatement;
     private final PreparedStatement incrementMessageCountStatement;
     private final PreparedStatement addToCounters;
@@ -63,6 +71,10 @@ public class CassandraMailboxCounterDAO {
     public CassandraMailboxCounterDAO(Session session) {
         cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
         readStatement = createReadStatement(session);
+        readManyStatement = session.prepare(
+            select(MAILBOX_ID, UNSEEN, COUNT)
+                .from(TABLE_NAME)
+                .where(in(MAILBOX_ID, bindMarker(MAILBOX_ID))));
         incrementMessageCountStatement = updateMailboxStatement(session, incr(COUNT));
         incrementUnseenCountStatement = updateMailboxStatement(session, incr(UNSEEN));
         addToCounters = session.prepare(update(TABLE_NAME)
@@ -114,6 +126,31 @@ public class CassandraMailboxCounterDAO {
                 .build());
     }
 
+    /**
+     * Reads the counters of several mailboxes with a single multi-partition query. Callers should keep the number
+     * of mailboxes reasonable as the coordinator needs to contact every partition.
+     *
+     * Mailboxes without counters are not returned.
+     */
+    public Flux<MailboxCounters> retrieveMailboxCounters(Collection<CassandraId> mailboxIds) {
+        if (mailboxIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return cassandraAsyncExecutor.executeRows(readManyStatement.bind()
+                .setList(MAILBOX_ID, mailboxIds.stream()
+                    .map(CassandraId::asUuid)
+                    .collect(ImmutableList.toImmutableList()), UUID.class))
+            .map(this::toCounters);
+    }
+
+    private MailboxCounters toCounters(Row row) {
+        return MailboxCounters.builder()
+            .mailboxId(CassandraId.of(row.getUUID(MAILBOX_ID)))
+            .count(row.getLong(COUNT))
+            .unseen(row.getLong(UNSEEN))
+            .build();
+    }
+
     public Mono<Void> resetCounters(MailboxCounters counters) {
         CassandraId mailboxId = (CassandraId) counters.getMailboxId();
 
@@ -24,6 +24,8 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 
+import java.util.Collection;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -31,6 +33,7 @@ import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.table.CassandraMailboxRecentsTable;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
@@ -101,6 +104,17 @@ public class CassandraMailboxRecentsDAO {
             .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, messageUid.asLong()));
     }
 
+    public Mono<Void> removeFromRecent(CassandraId mailboxId, Collection<MessageUid> messageUids) {
+        if (messageUids.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        messageUids.forEach(uid -> batch.add(deleteStatement.bind()
+            .setUUID(CassandraMailboxRecentsTable.MAILBOX_ID, mailboxId.asUuid())
+            .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, uid.asLong())));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
     public Mono<Void> delete(CassandraId mailboxId) {
         return cassandraAsyncExecutor.executeVoid(deleteAllStatement.bind()
             .setUUID(CassandraMailboxRecentsTable.MAILBOX_ID, mailboxId.asUuid()));
@@ -111,4 +125,15 @@ public class CassandraMailboxRecentsDAO {
             .setUUID(CassandraMailboxRecentsTable.MAILBOX_ID, mailboxId.asUuid())
             .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, messageUid.asLong()));
     }
+
+    public Mono<Void> addToRecent(CassandraId mailboxId, Collection<MessageUid> messageUids) {
+        if (messageUids.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        messageUids.forEach(uid -> batch.add(addStatement.bind()
+            .setUUID(CassandraMailboxRecentsTable.MAILBOX_ID, mailboxId.asUuid())
+            .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, uid.asLong())));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
 }
@@ -0,0 +1,238 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.gt;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.lte;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.set;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.timestamp;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.COMPLETE;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.EXPUNGED;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.MAILBOX_ID;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.MOD_SEQ;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.PRUNED_UP_TO;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.TABLE_NAME;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.UID;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.google.common.collect.Iterables;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records, for each mailbox, which uids changed or got expunged at which mod-sequence.
+ *
+ * Flag changes are only appended: a uid updated several times keeps its older entries, which readers have to
+ * discard by checking the current metadata of the message.
+ *
+ * In order to bound the size of a mailbox log, each time a recorded mod-sequence reaches a multiple of
+ * {@link #PRUNING_INTERVAL}, the entries older than the last {@link #RETENTION} mod-sequences are removed. The log then
+ * no longer covers changes since a pruned mod-sequence, and readers need to fall back to listing the mailbox.
+ */
+public class CassandraMessageChangeLogDAO {
+    private static final int BATCH_SIZE = 100;
+    static final long RETENTION = 10_000;
+    static final long PRUNING_INTERVAL = 1_000;
+    private static final String WRITE_TIMESTAMP = "writeTimestamp";
+
+    private final CassandraAsyncExecutor cassandraAsyncExecutor;
+    private final PreparedStatement insertStatement;
+    private final PreparedStatement markCompleteStatement;
+    private final PreparedStatement selectCoverageStatement;
+    private final PreparedStatement selectSinceStatement;
+    private final PreparedStatement updatePrunedUpToStatement;
+    private final PreparedStatement deleteUpToStatement;
+    private final PreparedStatement deleteAllStatement;
+
+    @Inject
+    public CassandraMessageChangeLogDAO(Session session) {
+        this.cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
+        this.insertStatement = prepareInsertStatement(session);
+        this.markCompleteStatement = prepareMarkCompleteStatement(session);
+        this.selectCoverageStatement = prepareSelectCoverageStatement(session);
+        this.selectSinceStatement = prepareSelectSinceStatement(session);
+        this.updatePrunedUpToStatement = prepareUpdatePrunedUpToStatement(session);
+        this.deleteUpToStatement = prepareDeleteUpToStatement(session);
+        this.deleteAllStatement = prepareDeleteAllStatement(session);
+    }
+
+    private PreparedStatement prepareInsertStatement(Session session) {
+        return session.prepare(insertInto(TABLE_NAME)
+            .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
+            .value(MOD_SEQ, bindMarker(MOD_SEQ))
+            .value(UID, bindMarker(UID))
+            .value(EXPUNGED, bindMarker(EXPUNGED)));
+    }
+
+    private PreparedStatement prepareMarkCompleteStatement(Session session) {
+        return session.prepare(update(TABLE_NAME)
+            .with(set(COMPLETE, true))
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
+    }
+
+    private PreparedStatement prepareSelectCoverageStatement(Session session) {
+        return session.prepare(select(COMPLETE, PRUNED_UP_TO)
+            .from(TABLE_NAME)
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID)))
+            .limit(1));
+    }
+
+    private PreparedStatement prepareSelectSinceStatement(Session session) {
+        return session.prepare(select(UID, EXPUNGED)
+            .from(TABLE_NAME)
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID)))
+            .and(gt(MOD_SEQ, bindMarker(MOD_SEQ))));
+    }
+
+    private PreparedStatement prepareUpdatePrunedUpToStatement(Session session) {
+        return session.prepare(update(TABLE_NAME)
+            .with(set(PRUNED_UP_TO, bindMarker(PRUNED_UP_TO)))
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID)))
+            .using(timestamp(bindMarker(WRITE_TIMESTAMP))));
+    }
+
+    private PreparedStatement prepareDeleteUpToStatement(Session session) {
+        return session.prepare(delete()
+            .from(TABLE_NAME)
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID)))
+            .and(lte(MOD_SEQ, bindMarker(MOD_SEQ))));
+    }
+
+    private PreparedStatement prepareDeleteAllStatement(Session session) {
+        return session.prepare(delete()
+            .from(TABLE_NAME)
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
+    }
+
+    public Mono<Void> recordChanges(CassandraId cassandraId, Map<MessageUid, ModSeq> changes) {
+        return Flux.fromIterable(Iterables.partition(changes.entrySet(), BATCH_SIZE))
+            .concatMap(chunk -> {
+                BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+                chunk.forEach(entry -> batch.add(insertStatement.bind()
+                    .setUUID(MAILBOX_ID, cassandraId.asUuid())
+                    .setLong(MOD_SEQ, entry.getValue().asLong())
+                    .setLong(UID, entry.getKey().asLong())
+                    .setBool(EXPUNGED, false)));
+                return cassandraAsyncExecutor.executeVoid(batch);
+            })
+            .then(pruneIfNeeded(cassandraId, changes.values().stream()));
+    }
+
+    public Mono<Void> recordExpunges(CassandraId cassandraId, ModSeq modSeq, Collection<MessageUid> uids) {
+        return Flux.fromIterable(Iterables.partition(uids, BATCH_SIZE))
+            .concatMap(chunk -> {
+                BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+                chunk.forEach(uid -> batch.add(insertStatement.bind()
+                    .setUUID(MAILBOX_ID, cassandraId.asUuid())
+                    .setLong(MOD_SEQ, modSeq.asLong())
+                    .setLong(UID, uid.asLong())
+                    .setBool(EXPUNGED, true)));
+                return cassandraAsyncExecutor.executeVoid(batch);
+            })
+            .then(pruneIfNeeded(cassandraId, Stream.of(modSeq)));
+    }
+
+    private Mono<Void> pruneIfNeeded(CassandraId cassandraId, Stream<ModSeq> recordedModSeqs) {
+        return recordedModSeqs
+            .map(ModSeq::asLong)
+            .filter(modSeq -> modSeq % PRUNING_INTERVAL == 0 && modSeq > RETENTION)
+            .max(Long::compare)
+            .map(modSeq -> prune(cassandraId, ModSeq.of(modSeq - RETENTION)))
+            .orElse(Mono.empty());
+    }
+
+    /**
+     * Removes the entries up to the given mod-sequence, which is recorded so that readers know the log no longer
+     * covers changes since an older mod-sequence.
+     */
+    public Mono<Void> prune(CassandraId cassandraId, ModSeq upTo) {
+        // Using the mod-sequence as write timestamp makes concurrent prunings converge to the highest one
+        return cassandraAsyncExecutor.executeVoid(updatePrunedUpToStatement.bind()
+                .setUUID(MAILBOX_ID, cassandraId.asUuid())
+                .setLong(PRUNED_UP_TO, upTo.asLong())
+                .setLong(WRITE_TIMESTAMP, upTo.asLong()))
+            .then(cassandraAsyncExecutor.executeVoid(deleteUpToStatement.bind()
+                .setUUID(MAILBOX_ID, cassandraId.asUuid())
+                .setLong(MOD_SEQ, upTo.asLong())));
+    }
+
+    /**
+     * Flags the log of this mailbox as holding every change since the mailbox creation, allowing readers to rely on it.
+     */
+    public Mono<Void> markComplete(CassandraId cassandraId) {
+        return cassandraAsyncExecutor.executeVoid(markCompleteStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid()));
+    }
+
+    /**
+     * Return true when the log holds every change and expunge performed after the given mod-sequence.
+     */
+    public Mono<Boolean> coversChangesSince(CassandraId cassandraId, ModSeq modSeq) {
+        return cassandraAsyncExecutor.executeSingleRow(selectCoverageStatement.bind()
+                .setUUID(MAILBOX_ID, cassandraId.asUuid()))
+            .map(row -> !row.isNull(COMPLETE) && row.getBool(COMPLETE)
+                && (row.isNull(PRUNED_UP_TO) || modSeq.asLong() >= row.getLong(PRUNED_UP_TO)))
+            .defaultIfEmpty(false);
+    }
+
+    public Flux<MessageUid> listUpdatedUidsSince(CassandraId cassandraId, ModSeq modSeq) {
+        return listSince(cassandraId, modSeq)
+            .filter(row -> !row.getBool(EXPUNGED))
+            .map(row -> MessageUid.of(row.getLong(UID)));
+    }
+
+    public Flux<MessageUid> listExpungedUidsSince(CassandraId cassandraId, ModSeq modSeq) {
+        return listSince(cassandraId, modSeq)
+            .filter(row -> row.getBool(EXPUNGED))
+            .map(row -> MessageUid.of(row.getLong(UID)));
+    }
+
+    private Flux<Row> listSince(CassandraId cassandraId, ModSeq modSeq) {
+        return cassandraAsyncExecutor.executeRows(selectSinceStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid())
+            .setLong(MOD_SEQ, modSeq.asLong()));
+    }
+
+    public Mono<Void> removeAll(CassandraId cassandraId) {
+        return cassandraAsyncExecutor.executeVoid(deleteAllStatement.bind()
+            .setUUID(MAILBOX_ID, cassandraId.asUuid()));
+    }
+}
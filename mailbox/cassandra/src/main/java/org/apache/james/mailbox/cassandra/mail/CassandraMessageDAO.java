@@ -322,6 +322,9 @@ public class CassandraMessageDAO {
     private Mono<byte[]> buildContentRetriever(FetchType fetchType, BlobId headerId, BlobId bodyId, int bodyStartOctet) {
         switch (fetchType) {
             case FULL:
+            case FULL_RANGE:
+            case STRUCTURE:
+                // Messages stored in this table have no precomputed structure
                 return getFullContent(headerId, bodyId);
             case HEADERS:
                 return getContent(headerId, SIZE_BASED);
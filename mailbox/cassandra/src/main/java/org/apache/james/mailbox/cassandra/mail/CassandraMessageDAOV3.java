@@ -51,6 +51,7 @@ import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.P
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.Properties.CONTENT_TYPE_PARAMETERS;
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.Properties.MEDIA_TYPE;
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.Properties.SUB_TYPE;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.STRUCTURE;
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.TEXTUAL_LINE_COUNT;
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.TEXTUAL_LINE_COUNT_LOWERCASE;
@@ -77,6 +78,7 @@ import org.apache.james.mailbox.model.AttachmentId;
 import org.apache.james.mailbox.model.ByteContent;
 import org.apache.james.mailbox.model.Cid;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
@@ -120,6 +122,8 @@ public class CassandraMessageDAOV3 {
     private final PreparedStatement delete;
     private final PreparedStatement select;
     private final PreparedStatement listBlobs;
+    private final PreparedStatement listStructures;
+    private final PreparedStatement updateStructure;
     private final Cid.CidParser cidParser;
     private final ConsistencyLevel consistencyLevel;
 
@@ -137,6 +141,8 @@ public class CassandraMessageDAOV3 {
         this.delete = prepareDelete(session);
         this.select = prepareSelect(session);
         this.listBlobs = prepareSelectBlobs(session);
+        this.listStructures = prepareSelectStructures(session);
+        this.updateStructure = prepareUpdateStructure(session);
         this.cidParser = Cid.parser().relaxed();
     }
 
@@ -151,6 +157,17 @@ public class CassandraMessageDAOV3 {
             .from(TABLE_NAME));
     }
 
+    private PreparedStatement prepareSelectStructures(Session session) {
+        return session.prepare(select(MESSAGE_ID, STRUCTURE)
+            .from(TABLE_NAME));
+    }
+
+    private PreparedStatement prepareUpdateStructure(Session session) {
+        return session.prepare(update(TABLE_NAME)
+            .with(set(STRUCTURE, bindMarker(STRUCTURE)))
+            .where(eq(MESSAGE_ID, bindMarker(MESSAGE_ID))));
+    }
+
     private PreparedStatement prepareInsert(Session session) {
         return session.prepare(update(TABLE_NAME)
             .with(set(INTERNAL_DATE, bindMarker(INTERNAL_DATE)))
@@ -171,6 +188,7 @@ public class CassandraMessageDAOV3 {
             .and(set(CONTENT_DISPOSITION_PARAMETERS, bindMarker(CONTENT_DISPOSITION_PARAMETERS)))
             .and(set(CONTENT_TYPE_PARAMETERS, bindMarker(CONTENT_TYPE_PARAMETERS)))
             .and(set(TEXTUAL_LINE_COUNT, bindMarker(TEXTUAL_LINE_COUNT)))
+            .and(set(STRUCTURE, bindMarker(STRUCTURE)))
             .and(prependAll(ATTACHMENTS, bindMarker(ATTACHMENTS)))
             .where(eq(MESSAGE_ID, bindMarker(MESSAGE_ID))));
     }
@@ -207,7 +225,8 @@ public class CassandraMessageDAOV3 {
             .setString(CONTENT_LOCATION, message.getProperties().getContentLocation())
             .setList(CONTENT_LANGUAGE, message.getProperties().getContentLanguage())
             .setMap(CONTENT_DISPOSITION_PARAMETERS, message.getProperties().getContentDispositionParameters())
-            .setMap(CONTENT_TYPE_PARAMETERS, message.getProperties().getContentTypeParameters());
+            .setMap(CONTENT_TYPE_PARAMETERS, message.getProperties().getContentTypeParameters())
+            .setString(STRUCTURE, message.getProperties().getMessageStructure().orElse(null));
 
         if (message.getAttachments().isEmpty()) {
             boundStatement.unset(ATTACHMENTS);
@@ -267,7 +286,8 @@ public class CassandraMessageDAOV3 {
             .setString(CONTENT_LOCATION, message.getProperties().getContentLocation())
             .setList(CONTENT_LANGUAGE, message.getProperties().getContentLanguage())
             .setMap(CONTENT_DISPOSITION_PARAMETERS, message.getProperties().getContentDispositionParameters())
-            .setMap(CONTENT_TYPE_PARAMETERS, message.getProperties().getContentTypeParameters());
+            .setMap(CONTENT_TYPE_PARAMETERS, message.getProperties().getContentTypeParameters())
+            .setString(STRUCTURE, message.getProperties().getMessageStructure().orElse(null));
 
         if (message.getAttachments().isEmpty()) {
             boundStatement.unset(ATTACHMENTS);
@@ -335,14 +355,16 @@ public class CassandraMessageDAOV3 {
         BlobId headerId = retrieveBlobId(HEADER_CONTENT, row);
         BlobId bodyId = retrieveBlobId(BODY_CONTENT, row);
         int bodyStartOctet = row.getInt(BODY_START_OCTET);
+        boolean hasStructure = row.getString(STRUCTURE) != null;
+        long size = row.getLong(FULL_CONTENT_OCTETS_LOWERCASE);
 
-        return buildContentRetriever(fetchType, headerId, bodyId, bodyStartOctet).map(content ->
+        return buildContentRetriever(fetchType, headerId, bodyId, bodyStartOctet, size, hasStructure).map(content ->
             new MessageRepresentation(
                 cassandraMessageId,
                 row.getTimestamp(INTERNAL_DATE_LOWERCASE),
-                row.getLong(FULL_CONTENT_OCTETS_LOWERCASE),
+                size,
                 row.getInt(BODY_START_OCTET_LOWERCASE),
-                new ByteContent(content),
+                content,
                 getProperties(row),
                 getAttachments(row).collect(ImmutableList.toImmutableList()),
                 headerId,
@@ -363,6 +385,7 @@ public class CassandraMessageDAOV3 {
         property.setContentDispositionParameters(row.get(CONTENT_DISPOSITION_PARAMETERS, MAP_OF_STRINGS_CODEC));
         property.setContentTypeParameters(row.get(CONTENT_TYPE_PARAMETERS, MAP_OF_STRINGS_CODEC));
         property.setTextualLineCount(row.getLong(TEXTUAL_LINE_COUNT_LOWERCASE));
+        property.setMessageStructure(row.getString(STRUCTURE));
         return property.build();
     }
 
@@ -385,22 +408,43 @@ public class CassandraMessageDAOV3 {
             .build();
     }
 
+    public Flux<CassandraMessageId> listMessagesWithoutStructure() {
+        return cassandraAsyncExecutor.executeRows(listStructures.bind())
+            .filter(row -> row.getString(STRUCTURE) == null)
+            .map(row -> CassandraMessageId.Factory.of(row.getUUID(MESSAGE_ID)));
+    }
+
+    public Mono<Void> updateStructure(CassandraMessageId messageId, String structure) {
+        return cassandraAsyncExecutor.executeVoid(updateStructure.bind()
+            .setUUID(MESSAGE_ID, messageId.get())
+            .setString(STRUCTURE, structure));
+    }
+
     public Mono<Void> delete(CassandraMessageId messageId) {
         return cassandraAsyncExecutor.executeVoid(delete.bind()
             .setUUID(MESSAGE_ID, messageId.get()));
     }
 
-    private Mono<byte[]> buildContentRetriever(FetchType fetchType, BlobId headerId, BlobId bodyId, int bodyStartOctet) {
+    private Mono<Content> buildContentRetriever(FetchType fetchType, BlobId headerId, BlobId bodyId, int bodyStartOctet, long size, boolean hasStructure) {
         switch (fetchType) {
             case FULL:
-                return getFullContent(headerId, bodyId);
+                return getFullContent(headerId, bodyId).map(ByteContent::new);
+            case FULL_RANGE:
+                // Requested ranges are read from the blob store when the content is read
+                return Mono.just(new MessageBlobsContent(blobStore, headerId, bodyId, bodyStartOctet, size));
             case HEADERS:
-                return getContent(headerId, SIZE_BASED);
+                return getContent(headerId, SIZE_BASED).map(ByteContent::new);
             case BODY:
                 return getContent(bodyId, LOW_COST)
-                    .map(data -> Bytes.concat(new byte[bodyStartOctet], data));
+                    .map(data -> new ByteContent(Bytes.concat(new byte[bodyStartOctet], data)));
             case METADATA:
-                return Mono.just(EMPTY_BYTE_ARRAY);
+                return Mono.just(new ByteContent(EMPTY_BYTE_ARRAY));
+            case STRUCTURE:
+                if (hasStructure) {
+                    return Mono.just(new ByteContent(EMPTY_BYTE_ARRAY));
+                }
+                // Messages stored before structures were precomputed: it needs to be computed from the content
+                return getFullContent(headerId, bodyId).map(ByteContent::new);
             default:
                 throw new RuntimeException("Unknown FetchType " + fetchType);
         }
@@ -57,6 +57,7 @@ import static org.apache.james.mailbox.cassandra.table.MessageIdToImapUid.THREAD
 import static org.apache.james.util.ReactorUtils.publishIfPresent;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -78,6 +79,7 @@ import org.apache.james.mailbox.model.ThreadId;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.util.streams.Limit;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Row;
@@ -278,14 +280,23 @@ public class CassandraMessageIdDAO {
     }
 
     public Mono<Void> updateMetadata(ComposedMessageId composedMessageId, UpdatedFlags updatedFlags) {
-        return cassandraAsyncExecutor.executeVoid(updateBoundStatement(composedMessageId, updatedFlags));
+        return cassandraAsyncExecutor.executeVoid(updateBoundStatement((CassandraId) composedMessageId.getMailboxId(), updatedFlags));
     }
 
-    private BoundStatement updateBoundStatement(ComposedMessageId id, UpdatedFlags updatedFlags) {
+    public Mono<Void> updateMetadata(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
+        if (updatedFlags.isEmpty()) {
+            return Mono.empty();
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        updatedFlags.forEach(flags -> batch.add(updateBoundStatement(mailboxId, flags)));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
+    private BoundStatement updateBoundStatement(CassandraId mailboxId, UpdatedFlags updatedFlags) {
         final BoundStatement boundStatement = update.bind()
             .setLong(MOD_SEQ, updatedFlags.getModSeq().asLong())
-            .setUUID(MAILBOX_ID, ((CassandraId) id.getMailboxId()).asUuid())
-            .setLong(IMAP_UID, id.getUid().asLong());
+            .setUUID(MAILBOX_ID, mailboxId.asUuid())
+            .setLong(IMAP_UID, updatedFlags.getUid().asLong());
 
         if (updatedFlags.isChanged(Flag.ANSWERED)) {
             boundStatement.setBool(ANSWERED, updatedFlags.isModifiedToSet(Flag.ANSWERED));
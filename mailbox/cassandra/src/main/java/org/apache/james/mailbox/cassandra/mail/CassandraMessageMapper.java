@@ -33,6 +33,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
@@ -73,6 +74,7 @@ import org.slf4j.LoggerFactory;
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Streams;
 
 import reactor.core.publisher.Flux;
@@ -85,6 +87,9 @@ public class CassandraMessageMapper implements MessageMapper {
     private static final byte[] EMPTY_BYTE_ARRAY = {};
 
     private static final int MAX_RETRY = 5;
+    private static final int LOW_CONCURRENCY = 4;
+    // Bounds the number of partitions read by a single multi-partition counters query
+    private static final int MAX_COUNTERS_PER_READ = 100;
     private static final Duration MIN_RETRY_BACKOFF = Duration.ofMillis(10);
     private static final Duration MAX_RETRY_BACKOFF = Duration.ofMillis(1000);
 
@@ -101,6 +106,7 @@ public class CassandraMessageMapper implements MessageMapper {
     private final CassandraFirstUnseenDAO firstUnseenDAO;
     private final AttachmentLoader attachmentLoader;
     private final CassandraDeletedMessageDAO deletedMessageDAO;
+    private final CassandraMessageChangeLogDAO changeLogDAO;
     private final BlobStore blobStore;
     private final CassandraConfiguration cassandraConfiguration;
     private final RecomputeMailboxCountersService recomputeMailboxCountersService;
@@ -112,7 +118,7 @@ public class CassandraMessageMapper implements MessageMapper {
                                   CassandraMessageIdToImapUidDAO imapUidDAO, CassandraMailboxCounterDAO mailboxCounterDAO,
                                   CassandraMailboxRecentsDAO mailboxRecentDAO, CassandraApplicableFlagDAO applicableFlagDAO,
                                   CassandraIndexTableHandler indexTableHandler, CassandraFirstUnseenDAO firstUnseenDAO,
-                                  CassandraDeletedMessageDAO deletedMessageDAO, BlobStore blobStore, CassandraConfiguration cassandraConfiguration,
+                                  CassandraDeletedMessageDAO deletedMessageDAO, CassandraMessageChangeLogDAO changeLogDAO, BlobStore blobStore, CassandraConfiguration cassandraConfiguration,
                                   RecomputeMailboxCountersService recomputeMailboxCountersService) {
         this.uidProvider = uidProvider;
         this.modSeqProvider = modSeqProvider;
@@ -127,6 +133,7 @@ public class CassandraMessageMapper implements MessageMapper {
         this.attachmentLoader = new AttachmentLoader(attachmentMapper);
         this.applicableFlagDAO = applicableFlagDAO;
         this.deletedMessageDAO = deletedMessageDAO;
+        this.changeLogDAO = changeLogDAO;
         this.blobStore = blobStore;
         this.cassandraConfiguration = cassandraConfiguration;
         this.recomputeMailboxCountersService = recomputeMailboxCountersService;
@@ -153,14 +160,27 @@ public class CassandraMessageMapper implements MessageMapper {
     public Mono<MailboxCounters> getMailboxCountersReactive(Mailbox mailbox) {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
         return readMailboxCounters(mailboxId)
-            .flatMap(counters -> {
-                if (!counters.isValid()) {
-                    return fixCounters(mailbox)
-                        .then(readMailboxCounters(mailboxId));
-                }
-                return Mono.just(counters);
-            })
-            .doOnNext(counters -> readRepair(mailbox, counters));
+            .flatMap(counters -> repairIfNeeded(mailbox, counters));
+    }
+
+    @Override
+    public Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        Map<CassandraId, Mailbox> mailboxesById = mailboxes.stream()
+            .collect(ImmutableMap.toImmutableMap(mailbox -> (CassandraId) mailbox.getMailboxId(), Function.identity(), (a, b) -> a));
+
+        return Flux.fromIterable(Iterables.partition(mailboxesById.keySet(), MAX_COUNTERS_PER_READ))
+            .concatMap(this::readMailboxCounters)
+            .flatMap(counters -> repairIfNeeded(mailboxesById.get((CassandraId) counters.getMailboxId()), counters), DEFAULT_CONCURRENCY);
+    }
+
+    private Mono<MailboxCounters> repairIfNeeded(Mailbox mailbox, MailboxCounters counters) {
+        if (!counters.isValid()) {
+            return fixCounters(mailbox)
+                .then(readMailboxCounters((CassandraId) mailbox.getMailboxId()))
+                .doOnNext(fixedCounters -> readRepair(mailbox, fixedCounters));
+        }
+        readRepair(mailbox, counters);
+        return Mono.just(counters);
     }
 
     public Mono<MailboxCounters> readMailboxCounters(CassandraId mailboxId) {
@@ -168,6 +188,14 @@ public class CassandraMessageMapper implements MessageMapper {
             .defaultIfEmpty(MailboxCounters.empty(mailboxId));
     }
 
+    private Flux<MailboxCounters> readMailboxCounters(List<CassandraId> mailboxIds) {
+        return mailboxCounterDAO.retrieveMailboxCounters(mailboxIds)
+            .collectMap(MailboxCounters::getMailboxId)
+            .flatMapIterable(countersById -> mailboxIds.stream()
+                .map(mailboxId -> countersById.getOrDefault(mailboxId, MailboxCounters.empty(mailboxId)))
+                .collect(ImmutableList.toImmutableList()));
+    }
+
     private void readRepair(Mailbox mailbox, MailboxCounters counters) {
         if (shouldReadRepair(counters)) {
             fixCounters(mailbox)
@@ -246,6 +274,37 @@ public class CassandraMessageMapper implements MessageMapper {
             .map(CassandraMessageMetadata::getComposedMessageId);
     }
 
+    @Override
+    public Flux<ComposedMessageIdWithMetaData> listMessagesMetadataChangedSince(Mailbox mailbox, MessageRange set, ModSeq changedSince) {
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+        return changeLogDAO.coversChangesSince(mailboxId, changedSince)
+            .flatMapMany(covered -> {
+                if (covered) {
+                    return changeLogDAO.listUpdatedUidsSince(mailboxId, changedSince)
+                        .filter(set::includes)
+                        .distinct()
+                        .sort()
+                        .concatMap(uid -> messageIdDAO.retrieve(mailboxId, uid).flatMap(Mono::justOrEmpty))
+                        .map(CassandraMessageMetadata::getComposedMessageId)
+                        .filter(metadata -> metadata.getModSeq().compareTo(changedSince) > 0);
+                }
+                return MessageMapper.super.listMessagesMetadataChangedSince(mailbox, set, changedSince);
+            });
+    }
+
+    @Override
+    public Mono<Boolean> hasExpungeHistory(Mailbox mailbox, ModSeq changedSince) {
+        return changeLogDAO.coversChangesSince((CassandraId) mailbox.getMailboxId(), changedSince);
+    }
+
+    @Override
+    public Flux<MessageUid> listExpungedUidsSince(Mailbox mailbox, MessageRange set, ModSeq changedSince) {
+        return changeLogDAO.listExpungedUidsSince((CassandraId) mailbox.getMailboxId(), changedSince)
+            .filter(set::includes)
+            .distinct()
+            .sort();
+    }
+
     @Override
     public Flux<MailboxMessage> findInMailboxReactive(Mailbox mailbox, MessageRange messageRange, FetchType ftype, int limitAsInt) {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
@@ -304,12 +363,20 @@ public class CassandraMessageMapper implements MessageMapper {
             .map(CassandraMessageMetadata::getComposedMessageId)
             .flatMap(this::expungeOne, cassandraConfiguration.getExpungeChunkSize())
             .collect(ImmutableMap.toImmutableMap(MailboxMessage::getUid, MailboxMessage::metaData))
-            .flatMap(messageMap -> indexTableHandler.updateIndexOnDelete(mailboxId, messageMap.values())
+            .flatMap(messageMap -> expungeModSeq(mailboxId, messageMap)
+                .flatMap(expungeModSeq -> indexTableHandler.updateIndexOnDelete(mailboxId, messageMap.values(), expungeModSeq))
                 .thenReturn(messageMap))
             .subscribeOn(Schedulers.elastic())
             .block();
     }
 
+    private Mono<ModSeq> expungeModSeq(CassandraId mailboxId, Map<MessageUid, MessageMetaData> expunged) {
+        if (expunged.isEmpty()) {
+            return Mono.empty();
+        }
+        return modSeqProvider.nextModSeqReactive(mailboxId);
+    }
+
     private Mono<SimpleMailboxMessage> expungeOne(ComposedMessageIdWithMetaData metaData) {
         return delete(metaData)
             .then(messageDAOV3.retrieveMessage(metaData, FetchType.METADATA)
@@ -344,6 +411,11 @@ public class CassandraMessageMapper implements MessageMapper {
         return modSeqProvider.highestModSeq(mailbox);
     }
 
+    @Override
+    public Mono<ModSeq> getHighestModSeqReactive(Mailbox mailbox) {
+        return modSeqProvider.highestModSeqReactive(mailbox.getMailboxId());
+    }
+
     @Override
     public MessageMetaData add(Mailbox mailbox, MailboxMessage message) throws MailboxException {
         return block(addReactive(mailbox, message));
@@ -360,6 +432,40 @@ public class CassandraMessageMapper implements MessageMapper {
             .map(MailboxMessage::metaData);
     }
 
+    @Override
+    public List<MessageMetaData> add(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
+        if (messages.isEmpty()) {
+            return ImmutableList.of();
+        }
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+
+        return block(addUidsAndModseq(messages, mailboxId)
+            .flatMap(list -> Flux.fromIterable(list)
+                .flatMapSequential(Throwing.function((MailboxMessage message) -> messageDAOV3.save(message)
+                    .map(headerAndBodyBlobIds -> CassandraMessageMetadata.from(message, headerAndBodyBlobIds.getT1()))).sneakyThrow(), LOW_CONCURRENCY)
+                .collectList()
+                .flatMap(metadata -> insertMetadata(metadata, list, mailboxId))
+                .thenReturn(list))
+            .map(list -> list.stream()
+                .map(MailboxMessage::metaData)
+                .collect(ImmutableList.toImmutableList())));
+    }
+
+    private Mono<List<MailboxMessage>> addUidsAndModseq(List<MailboxMessage> messages, CassandraId mailboxId) {
+        Mono<List<MessageUid>> uids = uidProvider.nextUids(mailboxId, messages.size());
+        Mono<ModSeq> nextModSeq = modSeqProvider.nextModSeqReactive(mailboxId);
+
+        return nextModSeq.flatMap(modSeq -> uids.map(uidList -> Pair.of(uidList, modSeq)))
+            .map(pair -> pair.getKey().stream()
+                .map(uid -> Pair.of(uid, pair.getRight())))
+            .map(uidsAndModSeq -> Streams.zip(uidsAndModSeq, messages.stream(),
+                (uidAndModseq, aMessage) -> {
+                    aMessage.setUid(uidAndModseq.getKey());
+                    aMessage.setModSeq((uidAndModseq.getValue()));
+                    return aMessage;
+                }).collect(ImmutableList.toImmutableList()));
+    }
+
     private Mono<MailboxMessage> addUidAndModseq(MailboxMessage message, CassandraId mailboxId) {
         Mono<MessageUid> messageUidMono = uidProvider
             .nextUidReactive(mailboxId)
@@ -454,8 +560,27 @@ public class CassandraMessageMapper implements MessageMapper {
     private Mono<FlagsUpdateStageResult> runUpdateStage(CassandraId mailboxId, Flux<ComposedMessageIdWithMetaData> toBeUpdated, FlagsUpdateCalculator flagsUpdateCalculator) {
         return computeNewModSeq(mailboxId)
             .flatMapMany(newModSeq -> toBeUpdated
-            .concatMap(metadata -> tryFlagsUpdate(flagsUpdateCalculator, newModSeq, metadata)))
-            .reduce(FlagsUpdateStageResult.none(), FlagsUpdateStageResult::merge)
+                .buffer(cassandraConfiguration.getFlagsUpdateChunkSize())
+                .flatMapSequential(chunk -> runUpdateChunk(mailboxId, chunk, flagsUpdateCalculator, newModSeq), LOW_CONCURRENCY))
+            .reduce(FlagsUpdateStageResult.none(), FlagsUpdateStageResult::merge);
+    }
+
+    /**
+     * Conditional updates of the imapUidTable are lightweight transactions on distinct partitions: they are run
+     * concurrently. Succeeded updates are then written to the messageIdTable and to the index tables, whose
+     * partition is the mailbox, as one batch per table for the whole chunk. Failed updates are left for the retry
+     * stage.
+     */
+    private Mono<FlagsUpdateStageResult> runUpdateChunk(CassandraId mailboxId, List<ComposedMessageIdWithMetaData> chunk,
+                                                        FlagsUpdateCalculator flagsUpdateCalculator, ModSeq newModSeq) {
+        return Flux.fromIterable(chunk)
+            .flatMapSequential(metadata -> tryFlagsUpdate(flagsUpdateCalculator, newModSeq, metadata))
+            .collectList()
+            .map(FlagsUpdateStageResult::merge)
+            .flatMap(result -> messageIdDAO.updateMetadata(mailboxId, result.getSucceeded().stream()
+                    .filter(UpdatedFlags::flagsChanged)
+                    .collect(ImmutableList.toImmutableList()))
+                .thenReturn(result))
             .flatMap(result -> updateIndexesForUpdatesResult(mailboxId, result));
     }
 
@@ -494,6 +619,11 @@ public class CassandraMessageMapper implements MessageMapper {
         return uidProvider.lastUid(mailbox);
     }
 
+    @Override
+    public Mono<Optional<MessageUid>> getLastUidReactive(Mailbox mailbox) {
+        return uidProvider.lastUidReactive(mailbox);
+    }
+
     @Override
     public Flags getApplicableFlag(Mailbox mailbox) {
         return ApplicableFlagBuilder.builder()
@@ -517,20 +647,7 @@ public class CassandraMessageMapper implements MessageMapper {
     private List<MessageMetaData> setInMailbox(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
 
-        Mono<List<MessageUid>> uids = uidProvider.nextUids(mailboxId, messages.size());
-        Mono<ModSeq> nextModSeq = modSeqProvider.nextModSeqReactive(mailboxId);
-
-        Mono<List<MailboxMessage>> messagesWithUidAndModSeq = nextModSeq.flatMap(modSeq -> uids.map(uidList -> Pair.of(uidList, modSeq)))
-            .map(pair -> pair.getKey().stream()
-                .map(uid -> Pair.of(uid, pair.getRight())))
-            .map(uidsAndModSeq -> Streams.zip(uidsAndModSeq, messages.stream(),
-                (uidAndModseq, aMessage) -> {
-                    aMessage.setUid(uidAndModseq.getKey());
-                    aMessage.setModSeq((uidAndModseq.getValue()));
-                    return aMessage;
-                }).collect(ImmutableList.toImmutableList()));
-
-        return block(messagesWithUidAndModSeq
+        return block(addUidsAndModseq(messages, mailboxId)
             .flatMap(list -> insertIds(list, mailboxId).thenReturn(list))
             .map(list -> list.stream()
                 .map(MailboxMessage::metaData)
@@ -565,12 +682,17 @@ public class CassandraMessageMapper implements MessageMapper {
     }
 
     private Mono<Void> insertIds(Collection<MailboxMessage> messages, CassandraId mailboxId) {
-        int lowConcurrency = 4;
-        return Flux.fromIterable(messages)
-            .map(message -> computeId(message, mailboxId))
+        return insertMetadata(messages.stream()
+                .map(message -> computeId(message, mailboxId))
+                .collect(ImmutableList.toImmutableList()),
+            messages, mailboxId);
+    }
+
+    private Mono<Void> insertMetadata(List<CassandraMessageMetadata> metadata, Collection<MailboxMessage> messages, CassandraId mailboxId) {
+        return Flux.fromIterable(metadata)
             .concatMap(id -> imapUidDAO.insert(id).thenReturn(id))
             .flatMap(id -> messageIdDAO.insert(id)
-                .retryWhen(Retry.backoff(MAX_RETRY, MIN_RETRY_BACKOFF).maxBackoff(MAX_RETRY_BACKOFF)), lowConcurrency)
+                .retryWhen(Retry.backoff(MAX_RETRY, MIN_RETRY_BACKOFF).maxBackoff(MAX_RETRY_BACKOFF)), LOW_CONCURRENCY)
             .then(indexTableHandler.updateIndexOnAdd(messages, mailboxId));
     }
 
@@ -626,13 +748,6 @@ public class CassandraMessageMapper implements MessageMapper {
             .uid(composedMessageId.getUid())
             .build();
 
-        return imapUidDAO.updateMetadata(composedMessageId, updatedFlags, previousModseq)
-            .flatMap(success -> {
-                if (success) {
-                    return messageIdDAO.updateMetadata(composedMessageId, updatedFlags).thenReturn(true);
-                } else {
-                    return Mono.just(false);
-                }
-            });
+        return imapUidDAO.updateMetadata(composedMessageId, updatedFlags, previousModseq);
     }
 }
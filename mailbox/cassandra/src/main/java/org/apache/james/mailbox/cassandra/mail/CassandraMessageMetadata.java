@@ -251,6 +251,11 @@ public class CassandraMessageMetadata {
             return delegate.getFullContent();
         }
 
+        @Override
+        public InputStream getFullContent(long offset, long length) throws IOException {
+            return delegate.getFullContent(offset, length);
+        }
+
         @Override
         public ThreadId getThreadId() {
             return delegate.getThreadId();
@@ -145,6 +145,12 @@ public class CassandraModSeqProvider implements ModSeqProvider {
         return unbox(() -> findHighestModSeq((CassandraId) mailboxId).block().orElse(ModSeq.first()));
     }
 
+    @Override
+    public Mono<ModSeq> highestModSeqReactive(MailboxId mailboxId) {
+        return findHighestModSeq((CassandraId) mailboxId)
+            .map(maybeHighestModSeq -> maybeHighestModSeq.orElse(ModSeq.first()));
+    }
+
     private Mono<Optional<ModSeq>> findHighestModSeq(CassandraId mailboxId) {
         return cassandraAsyncExecutor.executeSingleRowOptional(
             select.bind()
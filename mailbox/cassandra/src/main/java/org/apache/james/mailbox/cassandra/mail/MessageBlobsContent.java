@@ -0,0 +1,79 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.cassandra.mail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.mailbox.model.Content;
+
+import com.google.common.primitives.Bytes;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link Content} of a message stored as a header blob and a body blob. Nothing is read before the content is
+ * requested, and ranges are read from the blob store without reading the rest of the message.
+ */
+class MessageBlobsContent implements Content {
+    private static final byte[] EMPTY_BYTE_ARRAY = {};
+
+    private final BlobStore blobStore;
+    private final BlobId headerId;
+    private final BlobId bodyId;
+    private final long bodyStartOctet;
+    private final long size;
+
+    MessageBlobsContent(BlobStore blobStore, BlobId headerId, BlobId bodyId, long bodyStartOctet, long size) {
+        this.blobStore = blobStore;
+        this.headerId = headerId;
+        this.bodyId = bodyId;
+        this.bodyStartOctet = bodyStartOctet;
+        this.size = size;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(Mono.from(blobStore.readBytes(blobStore.getDefaultBucketName(), headerId, BlobStore.StoragePolicy.SIZE_BASED))
+            .zipWith(Mono.from(blobStore.readBytes(blobStore.getDefaultBucketName(), bodyId, BlobStore.StoragePolicy.LOW_COST)), Bytes::concat)
+            .block());
+    }
+
+    @Override
+    public InputStream getInputStream(long offset, long length) {
+        long end = offset + Math.min(length, Math.max(0, size - offset));
+        return new ByteArrayInputStream(readRange(headerId, offset, Math.min(end, bodyStartOctet) - offset)
+            .zipWith(readRange(bodyId, Math.max(offset - bodyStartOctet, 0), end - Math.max(offset, bodyStartOctet)), Bytes::concat)
+            .block());
+    }
+
+    private Mono<byte[]> readRange(BlobId blobId, long offset, long length) {
+        if (length <= 0) {
+            return Mono.just(EMPTY_BYTE_ARRAY);
+        }
+        return Mono.from(blobStore.readRange(blobStore.getDefaultBucketName(), blobId, offset, length));
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+}
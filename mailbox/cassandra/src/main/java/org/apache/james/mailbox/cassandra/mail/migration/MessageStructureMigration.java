@@ -0,0 +1,112 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail.migration;
+
+import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
+
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.migration.Migration;
+import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAOV3;
+import org.apache.james.mailbox.cassandra.mail.MessageRepresentation;
+import org.apache.james.mailbox.store.PrecomputedMimeDescriptor;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskExecutionDetails;
+import org.apache.james.task.TaskType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Computes the message structure (envelope and body structure) of messages stored before it was precomputed at
+ * append time.
+ */
+public class MessageStructureMigration implements Migration {
+    static class MessageStructureMigrationTask implements Task {
+        private final MessageStructureMigration migration;
+
+        MessageStructureMigrationTask(MessageStructureMigration migration) {
+            this.migration = migration;
+        }
+
+        @Override
+        public Result run() throws InterruptedException {
+            return migration.runTask();
+        }
+
+        @Override
+        public TaskType type() {
+            return TYPE;
+        }
+
+        @Override
+        public Optional<TaskExecutionDetails.AdditionalInformation> details() {
+            return Optional.empty();
+        }
+    }
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(MessageStructureMigration.class);
+    public static final TaskType TYPE = TaskType.of("cassandra-message-structure-migration");
+
+    private final CassandraMessageDAOV3 messageDAOV3;
+
+    @Inject
+    public MessageStructureMigration(CassandraMessageDAOV3 messageDAOV3) {
+        this.messageDAOV3 = messageDAOV3;
+    }
+
+    @Override
+    public void apply() {
+        messageDAOV3.listMessagesWithoutStructure()
+            .flatMap(this::migrate, DEFAULT_CONCURRENCY)
+            .doOnError(t -> LOGGER.error("Error while performing migration", t))
+            .subscribeOn(Schedulers.elastic())
+            .blockLast();
+    }
+
+    private Mono<Void> migrate(CassandraMessageId messageId) {
+        return messageDAOV3.retrieveMessage(messageId, MessageMapper.FetchType.FULL)
+            .flatMap(message -> Mono.fromCallable(() -> computeStructure(message)))
+            .flatMap(structure -> messageDAOV3.updateStructure(messageId, structure))
+            .onErrorResume(error -> handleErrorMigrate(messageId, error));
+    }
+
+    private Mono<Void> handleErrorMigrate(CassandraMessageId messageId, Throwable throwable) {
+        LOGGER.error("Failed to compute the structure of message {}", messageId.serialize(), throwable);
+        return Mono.error(throwable);
+    }
+
+    private String computeStructure(MessageRepresentation message) throws Exception {
+        return PrecomputedMimeDescriptor.compute(message.getContent(), message.getProperties(),
+                message.getSize() - message.getBodyStartOctet())
+            .serialize();
+    }
+
+    @Override
+    public Task asTask() {
+        return new MessageStructureMigrationTask(this);
+    }
+}
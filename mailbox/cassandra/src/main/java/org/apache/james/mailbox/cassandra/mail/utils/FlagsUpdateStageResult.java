@@ -19,6 +19,7 @@
 
 package org.apache.james.mailbox.cassandra.mail.utils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -41,6 +42,16 @@ public class FlagsUpdateStageResult {
         return new FlagsUpdateStageResult(ImmutableList.of(), ImmutableList.of());
     }
 
+    public static FlagsUpdateStageResult merge(Collection<FlagsUpdateStageResult> results) {
+        return new FlagsUpdateStageResult(
+            results.stream()
+                .flatMap(result -> result.failed.stream())
+                .collect(ImmutableList.toImmutableList()),
+            results.stream()
+                .flatMap(result -> result.succeeded.stream())
+                .collect(ImmutableList.toImmutableList()));
+    }
+
     private final ImmutableList<ComposedMessageId> failed;
     private final ImmutableList<UpdatedFlags> succeeded;
 
@@ -0,0 +1,53 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.modules;
+
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.COMPLETE;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.EXPUNGED;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.MAILBOX_ID;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.MOD_SEQ;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.PRUNED_UP_TO;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.TABLE_NAME;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageChangeLogTable.UID;
+
+import org.apache.james.backends.cassandra.components.CassandraModule;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.schemabuilder.SchemaBuilder;
+
+public interface CassandraMessageChangeLogModule {
+    CassandraModule MODULE = CassandraModule.table(TABLE_NAME)
+        .comment("Denormalisation table. Logs, by mod-sequence, the flag changes and the expunges of the messages of a mailbox. "
+            + "Allows CONDSTORE and QRESYNC resynchronisation to only read what changed since a given mod-sequence. "
+            + "The static complete column is set for mailboxes whose whole history is recorded. Entries are periodically "
+            + "pruned: the static prunedUpTo column holds the mod-sequence up to which they were removed.")
+        .options(options -> options
+            .compactionOptions(SchemaBuilder.sizedTieredStategy())
+            .clusteringOrder(MOD_SEQ, SchemaBuilder.Direction.ASC)
+            .clusteringOrder(UID, SchemaBuilder.Direction.ASC))
+        .statement(statement -> statement
+            .addPartitionKey(MAILBOX_ID, DataType.timeuuid())
+            .addClusteringColumn(MOD_SEQ, DataType.bigint())
+            .addClusteringColumn(UID, DataType.bigint())
+            .addColumn(EXPUNGED, DataType.cboolean())
+            .addStaticColumn(COMPLETE, DataType.cboolean())
+            .addStaticColumn(PRUNED_UP_TO, DataType.bigint()))
+        .build();
+}
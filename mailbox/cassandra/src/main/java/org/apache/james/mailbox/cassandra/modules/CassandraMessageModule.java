@@ -131,6 +131,7 @@ public interface CassandraMessageModule {
             .addColumn(CassandraMessageV3Table.Properties.CONTENT_LANGUAGE, frozenList(text()))
             .addColumn(CassandraMessageV3Table.Properties.CONTENT_DISPOSITION_PARAMETERS, frozenMap(text(), text()))
             .addColumn(CassandraMessageV3Table.Properties.CONTENT_TYPE_PARAMETERS, frozenMap(text(), text()))
+            .addColumn(CassandraMessageV3Table.STRUCTURE, text())
             .addUDTListColumn(CassandraMessageV2Table.ATTACHMENTS, SchemaBuilder.frozen(CassandraMessageV3Table.ATTACHMENTS)))
         .type(CassandraMessageV2Table.PROPERTIES)
         .statement(statement -> statement
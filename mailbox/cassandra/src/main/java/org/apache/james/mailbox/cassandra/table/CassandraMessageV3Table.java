@@ -38,6 +38,7 @@ public interface CassandraMessageV3Table {
     String HEADER_CONTENT = "headerContent";
     String HEADER_CONTENT_LOWERCASE = HEADER_CONTENT.toLowerCase(Locale.US);
     String ATTACHMENTS = "attachments";
+    String STRUCTURE = "structure";
 
     interface Properties {
         String MEDIA_TYPE = "mediaType";
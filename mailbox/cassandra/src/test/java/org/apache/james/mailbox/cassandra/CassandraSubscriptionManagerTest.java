@@ -35,6 +35,7 @@ import org.apache.james.mailbox.cassandra.mail.CassandraMailboxCounterDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxPathV3DAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxRecentsDAO;
+import org.apache.james.mailbox.cassandra.mail.CassandraMessageChangeLogDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAOV3;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageIdDAO;
@@ -80,6 +81,7 @@ class CassandraSubscriptionManagerTest implements SubscriptionManagerContract {
         CassandraFirstUnseenDAO firstUnseenDAO = null;
         CassandraApplicableFlagDAO applicableFlagDAO = null;
         CassandraDeletedMessageDAO deletedMessageDAO = null;
+        CassandraMessageChangeLogDAO changeLogDAO = null;
         CassandraAttachmentDAOV2 attachmentDAOV2 = null;
         CassandraAttachmentMessageIdDAO attachmentMessageIdDAO = null;
         CassandraACLMapper aclMapper = null;
@@ -108,6 +110,7 @@ class CassandraSubscriptionManagerTest implements SubscriptionManagerContract {
                 applicableFlagDAO,
                 attachmentDAOV2,
                 deletedMessageDAO,
+                changeLogDAO,
                 blobStore,
                 attachmentMessageIdDAO,
                 aclMapper,
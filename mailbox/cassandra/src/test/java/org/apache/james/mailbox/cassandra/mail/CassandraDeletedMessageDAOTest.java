@@ -35,6 +35,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 class CassandraDeletedMessageDAOTest {
     private static final CassandraId MAILBOX_ID = CassandraId.of(UUID.fromString("110e8400-e29b-11d4-a716-446655440000"));
     private static final MessageUid UID_1 = MessageUid.of(1);
@@ -76,6 +78,30 @@ class CassandraDeletedMessageDAOTest {
         assertThat(result).containsExactly(UID_1, UID_2);
     }
 
+    @Test
+    void addDeletedShouldAddAllUidsOfTheBatch() {
+        testee.addDeleted(MAILBOX_ID, ImmutableList.of(UID_1, UID_2)).block();
+
+        List<MessageUid> result = testee.retrieveDeletedMessage(MAILBOX_ID, MessageRange.all())
+                .collectList()
+                .block();
+
+        assertThat(result).containsExactly(UID_1, UID_2);
+    }
+
+    @Test
+    void removeDeletedShouldRemoveAllUidsOfTheBatch() {
+        testee.addDeleted(MAILBOX_ID, ImmutableList.of(UID_1, UID_2, UID_3)).block();
+
+        testee.removeDeleted(MAILBOX_ID, ImmutableList.of(UID_1, UID_3)).block();
+
+        List<MessageUid> result = testee.retrieveDeletedMessage(MAILBOX_ID, MessageRange.all())
+                .collectList()
+                .block();
+
+        assertThat(result).containsExactly(UID_2);
+    }
+
     @Test
     void retrieveDeletedMessageShouldNotReturnDeletedEntries() {
         testee.addDeleted(MAILBOX_ID, UID_1).block();
@@ -31,6 +31,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 class CassandraFirstUnseenDAOTest {
     private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
     private static final MessageUid UID_1 = MessageUid.of(1);
@@ -155,4 +157,29 @@ class CassandraFirstUnseenDAOTest {
         assertThat(testee.retrieveFirstUnread(MAILBOX_ID).block())
             .isEqualByComparingTo(UID_2);
     }
+
+    @Test
+    void addUnreadShouldAddAllUidsOfTheBatch() {
+        testee.addUnread(MAILBOX_ID, ImmutableList.of(UID_2, UID_1)).block();
+
+        assertThat(testee.retrieveFirstUnread(MAILBOX_ID).block())
+            .isEqualByComparingTo(UID_1);
+    }
+
+    @Test
+    void removeUnreadShouldRemoveAllUidsOfTheBatch() {
+        testee.addUnread(MAILBOX_ID, UID_1).block();
+        testee.addUnread(MAILBOX_ID, UID_2).block();
+
+        testee.removeUnread(MAILBOX_ID, ImmutableList.of(UID_1, UID_2)).block();
+
+        assertThat(testee.retrieveFirstUnread(MAILBOX_ID).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    void batchUpdatesShouldNotFailWhenEmpty() {
+        assertThatCode(() -> testee.removeUnread(MAILBOX_ID, ImmutableList.of()).block())
+            .doesNotThrowAnyException();
+    }
 }
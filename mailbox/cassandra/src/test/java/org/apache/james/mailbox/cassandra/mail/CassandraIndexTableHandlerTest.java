@@ -29,6 +29,8 @@ import javax.mail.Flags;
 import org.apache.james.backends.cassandra.CassandraCluster;
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
 import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.backends.cassandra.init.configuration.CassandraConsistenciesConfiguration;
 import org.apache.james.core.Username;
 import org.apache.james.mailbox.FlagsBuilder;
 import org.apache.james.mailbox.MessageUid;
@@ -40,6 +42,8 @@ import org.apache.james.mailbox.cassandra.modules.CassandraDeletedMessageModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraFirstUnseenModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxCounterModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxRecentsModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraMessageChangeLogModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
 import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.Mailbox;
@@ -72,7 +76,9 @@ class CassandraIndexTableHandlerTest {
             CassandraMailboxRecentsModule.MODULE,
             CassandraFirstUnseenModule.MODULE,
             CassandraApplicableFlagsModule.MODULE,
-            CassandraDeletedMessageModule.MODULE));
+            CassandraDeletedMessageModule.MODULE,
+            CassandraMessageChangeLogModule.MODULE,
+            CassandraModSeqModule.MODULE));
 
     private CassandraMailboxCounterDAO mailboxCounterDAO;
     private CassandraMailboxRecentsDAO mailboxRecentsDAO;
@@ -80,6 +86,8 @@ class CassandraIndexTableHandlerTest {
     private CassandraFirstUnseenDAO firstUnseenDAO;
     private CassandraIndexTableHandler testee;
     private CassandraDeletedMessageDAO deletedMessageDAO;
+    private CassandraMessageChangeLogDAO changeLogDAO;
+    private CassandraModSeqProvider modSeqProvider;
     private Mailbox mailbox;
 
     @BeforeEach
@@ -89,12 +97,18 @@ class CassandraIndexTableHandlerTest {
         firstUnseenDAO = new CassandraFirstUnseenDAO(cassandra.getConf());
         applicableFlagDAO = new CassandraApplicableFlagDAO(cassandra.getConf());
         deletedMessageDAO = new CassandraDeletedMessageDAO(cassandra.getConf());
+        changeLogDAO = new CassandraMessageChangeLogDAO(cassandra.getConf());
+        modSeqProvider = new CassandraModSeqProvider(cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            CassandraConsistenciesConfiguration.DEFAULT);
 
         testee = new CassandraIndexTableHandler(mailboxRecentsDAO,
                                                 mailboxCounterDAO,
                                                 firstUnseenDAO,
                                                 applicableFlagDAO,
-                                                deletedMessageDAO);
+                                                deletedMessageDAO,
+                                                changeLogDAO,
+                                                modSeqProvider);
 
         mailbox = new Mailbox(MailboxPath.forUser(Username.of("user"), "name"),
             UID_VALIDITY,
@@ -670,6 +684,22 @@ class CassandraIndexTableHandlerTest {
         assertThat(actual).isFalse();
     }
 
+    @Test
+    void updateIndexOnDeleteShouldAllocateAModSeqForTheExpunge() {
+        ModSeq highestModSeq = modSeqProvider.nextModSeqReactive(MAILBOX_ID).block();
+
+        testee.updateIndexOnDelete(new ComposedMessageIdWithMetaData(
+            new ComposedMessageId(MAILBOX_ID, CASSANDRA_MESSAGE_ID, MESSAGE_UID),
+            new Flags(),
+            MODSEQ,
+            ThreadId.fromBaseMessageId(CASSANDRA_MESSAGE_ID)), MAILBOX_ID).block();
+
+        assertThat(changeLogDAO.listExpungedUidsSince(MAILBOX_ID, highestModSeq).collectList().block())
+            .containsExactly(MESSAGE_UID);
+        assertThat(modSeqProvider.highestModSeqReactive(MAILBOX_ID).block())
+            .isEqualTo(highestModSeq.next());
+    }
+
     @Test
     void updateIndexOnAddShouldUpdateApplicableFlag() {
         Flags customFlags = new Flags("custom");
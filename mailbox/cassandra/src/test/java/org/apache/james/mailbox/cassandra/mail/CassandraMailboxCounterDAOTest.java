@@ -35,6 +35,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 class CassandraMailboxCounterDAOTest {
     private static final UidValidity UID_VALIDITY = UidValidity.of(15);
     private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
@@ -67,6 +69,35 @@ class CassandraMailboxCounterDAOTest {
         assertThat(testee.retrieveMailboxCounters(MAILBOX_ID).hasElement().block()).isFalse();
     }
 
+    @Test
+    void retrieveMailboxCountersShouldReadSeveralMailboxes() {
+        CassandraId otherMailboxId = CassandraId.timeBased();
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+        testee.incrementCount(otherMailboxId).block();
+
+        assertThat(testee.retrieveMailboxCounters(ImmutableList.of(MAILBOX_ID, otherMailboxId)).collectList().block())
+            .containsOnly(
+                MailboxCounters.builder()
+                    .mailboxId(MAILBOX_ID)
+                    .count(1)
+                    .unseen(1)
+                    .build(),
+                MailboxCounters.builder()
+                    .mailboxId(otherMailboxId)
+                    .count(1)
+                    .unseen(0)
+                    .build());
+    }
+
+    @Test
+    void retrieveMailboxCountersShouldOmitMailboxesWithoutCounters() {
+        testee.incrementCount(MAILBOX_ID).block();
+
+        assertThat(testee.retrieveMailboxCounters(ImmutableList.of(MAILBOX_ID, CassandraId.timeBased())).collectList().block())
+            .extracting(MailboxCounters::getMailboxId)
+            .containsOnly(MAILBOX_ID);
+    }
+
     @Test
     void incrementCountShouldAddOneWhenAbsent() {
         testee.incrementCount(MAILBOX_ID).block();
@@ -33,6 +33,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 class CassandraMailboxRecentDAOTest {
     private static final MessageUid UID1 = MessageUid.of(36L);
     private static final MessageUid UID2 = MessageUid.of(37L);
@@ -131,6 +133,29 @@ class CassandraMailboxRecentDAOTest {
             .containsOnly(UID1);
     }
 
+    @Test
+    void addToRecentShouldAddAllUidsOfTheBatch() {
+        testee.addToRecent(CASSANDRA_ID, ImmutableList.of(UID1, UID2)).block();
+
+        assertThat(testee.getRecentMessageUidsInMailbox(CASSANDRA_ID)
+                .collectList()
+                .block())
+            .containsOnly(UID1, UID2);
+    }
+
+    @Test
+    void removeFromRecentShouldRemoveAllUidsOfTheBatch() {
+        testee.addToRecent(CASSANDRA_ID, UID1).block();
+        testee.addToRecent(CASSANDRA_ID, UID2).block();
+
+        testee.removeFromRecent(CASSANDRA_ID, ImmutableList.of(UID1, UID2)).block();
+
+        assertThat(testee.getRecentMessageUidsInMailbox(CASSANDRA_ID)
+                .collectList()
+                .block())
+            .isEmpty();
+    }
+
     @Test
     void addToRecentShouldBeIdempotent() {
         testee.addToRecent(CASSANDRA_ID, UID1).block();
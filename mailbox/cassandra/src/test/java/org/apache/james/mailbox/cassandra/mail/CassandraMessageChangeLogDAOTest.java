@@ -0,0 +1,157 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.modules.CassandraMessageChangeLogModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+class CassandraMessageChangeLogDAOTest {
+    private static final CassandraId MAILBOX_ID = CassandraId.of(UUID.fromString("110e8400-e29b-11d4-a716-446655440000"));
+    private static final MessageUid UID_1 = MessageUid.of(1);
+    private static final MessageUid UID_2 = MessageUid.of(2);
+    private static final MessageUid UID_3 = MessageUid.of(3);
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(CassandraMessageChangeLogModule.MODULE);
+
+    private CassandraMessageChangeLogDAO testee;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        testee = new CassandraMessageChangeLogDAO(cassandra.getConf());
+    }
+
+    @Test
+    void coversChangesSinceShouldReturnFalseByDefault() {
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.first()).block()).isFalse();
+    }
+
+    @Test
+    void coversChangesSinceShouldReturnTrueWhenMarked() {
+        testee.markComplete(MAILBOX_ID).block();
+
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.first()).block()).isTrue();
+    }
+
+    @Test
+    void coversChangesSinceShouldReturnFalseBeforePrunedModSeq() {
+        testee.markComplete(MAILBOX_ID).block();
+
+        testee.prune(MAILBOX_ID, ModSeq.of(10)).block();
+
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.of(9)).block()).isFalse();
+    }
+
+    @Test
+    void coversChangesSinceShouldReturnTrueAfterPrunedModSeq() {
+        testee.markComplete(MAILBOX_ID).block();
+
+        testee.prune(MAILBOX_ID, ModSeq.of(10)).block();
+
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.of(10)).block()).isTrue();
+    }
+
+    @Test
+    void pruneShouldKeepTheHighestPrunedModSeq() {
+        testee.markComplete(MAILBOX_ID).block();
+
+        testee.prune(MAILBOX_ID, ModSeq.of(10)).block();
+        testee.prune(MAILBOX_ID, ModSeq.of(5)).block();
+
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.of(9)).block()).isFalse();
+    }
+
+    @Test
+    void pruneShouldRemoveOlderEntries() {
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_1, ModSeq.of(1), UID_2, ModSeq.of(2))).block();
+        testee.recordExpunges(MAILBOX_ID, ModSeq.of(3), ImmutableList.of(UID_3)).block();
+
+        testee.prune(MAILBOX_ID, ModSeq.of(2)).block();
+
+        assertThat(testee.listUpdatedUidsSince(MAILBOX_ID, ModSeq.first()).collectList().block()).isEmpty();
+        assertThat(testee.listExpungedUidsSince(MAILBOX_ID, ModSeq.first()).collectList().block()).containsExactly(UID_3);
+    }
+
+    @Test
+    void recordChangesShouldPruneEntriesOutOfRetentionWhenReachingPruningInterval() {
+        long pruningModSeq = CassandraMessageChangeLogDAO.RETENTION + CassandraMessageChangeLogDAO.PRUNING_INTERVAL;
+        testee.markComplete(MAILBOX_ID).block();
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_1, ModSeq.of(1))).block();
+
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_2, ModSeq.of(pruningModSeq))).block();
+
+        assertThat(testee.listUpdatedUidsSince(MAILBOX_ID, ModSeq.first()).collectList().block()).containsExactly(UID_2);
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.first()).block()).isFalse();
+    }
+
+    @Test
+    void listUpdatedUidsSinceShouldReturnChangesAfterModSeq() {
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_1, ModSeq.of(1), UID_2, ModSeq.of(2))).block();
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_3, ModSeq.of(3))).block();
+
+        assertThat(testee.listUpdatedUidsSince(MAILBOX_ID, ModSeq.of(1)).collectList().block())
+            .containsExactly(UID_2, UID_3);
+    }
+
+    @Test
+    void listUpdatedUidsSinceShouldNotReturnExpunges() {
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_1, ModSeq.of(1), UID_2, ModSeq.of(2))).block();
+        testee.recordExpunges(MAILBOX_ID, ModSeq.of(3), ImmutableList.of(UID_1)).block();
+
+        assertThat(testee.listUpdatedUidsSince(MAILBOX_ID, ModSeq.first()).collectList().block())
+            .containsExactly(UID_1, UID_2);
+    }
+
+    @Test
+    void listExpungedUidsSinceShouldReturnExpungesAfterModSeq() {
+        testee.recordExpunges(MAILBOX_ID, ModSeq.of(3), ImmutableList.of(UID_1)).block();
+        testee.recordExpunges(MAILBOX_ID, ModSeq.of(5), ImmutableList.of(UID_2, UID_3)).block();
+
+        assertThat(testee.listExpungedUidsSince(MAILBOX_ID, ModSeq.of(3)).collectList().block())
+            .containsExactly(UID_2, UID_3);
+    }
+
+    @Test
+    void removeAllShouldDropTheLog() {
+        testee.markComplete(MAILBOX_ID).block();
+        testee.recordChanges(MAILBOX_ID, ImmutableMap.of(UID_1, ModSeq.of(1))).block();
+        testee.recordExpunges(MAILBOX_ID, ModSeq.of(2), ImmutableList.of(UID_1)).block();
+
+        testee.removeAll(MAILBOX_ID).block();
+
+        assertThat(testee.listUpdatedUidsSince(MAILBOX_ID, ModSeq.first()).collectList().block()).isEmpty();
+        assertThat(testee.listExpungedUidsSince(MAILBOX_ID, ModSeq.first()).collectList().block()).isEmpty();
+        assertThat(testee.coversChangesSince(MAILBOX_ID, ModSeq.first()).block()).isFalse();
+    }
+}
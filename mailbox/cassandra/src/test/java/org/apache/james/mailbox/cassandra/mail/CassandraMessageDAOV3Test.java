@@ -45,6 +45,7 @@ import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
 import org.apache.james.mailbox.model.ByteContent;
 import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.ThreadId;
@@ -53,6 +54,7 @@ import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
 import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -67,6 +69,7 @@ class CassandraMessageDAOV3Test {
     private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
     private static final String CONTENT = "Subject: Test7 \n\nBody7\n.\n";
     private static final String CONTENT_2 = "Subject: Test3 \n\nBody23\n.\n";
+    private static final String STRUCTURE = "{\"structure\":\"any\"}";
     private static final MessageUid messageUid = MessageUid.of(1);
     private static final List<MessageAttachmentMetadata> NO_ATTACHMENT = ImmutableList.of();
 
@@ -183,6 +186,95 @@ class CassandraMessageDAOV3Test {
             .isEqualTo(CONTENT.substring(0, BODY_START));
     }
 
+    @Test
+    void saveShouldStoreMessageStructure() throws Exception {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure(STRUCTURE);
+        message = createMessage(messageId, threadId, CONTENT, BODY_START, propertyBuilder, NO_ATTACHMENT);
+
+        testee.save(message).block();
+
+        MessageRepresentation messageRepresentation =
+            toMessage(testee.retrieveMessage(messageIdWithMetadata, MessageMapper.FetchType.METADATA));
+
+        assertThat(messageRepresentation.getProperties().getMessageStructure()).contains(STRUCTURE);
+    }
+
+    @Test
+    void retrieveMessageShouldNotReadContentWhenStructureIsStored() throws Exception {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure(STRUCTURE);
+        message = createMessage(messageId, threadId, CONTENT, BODY_START, propertyBuilder, NO_ATTACHMENT);
+
+        testee.save(message).block();
+
+        MessageRepresentation messageRepresentation =
+            toMessage(testee.retrieveMessage(messageIdWithMetadata, MessageMapper.FetchType.STRUCTURE));
+
+        assertThat(IOUtils.toString(messageRepresentation.getContent().getInputStream(), StandardCharsets.UTF_8))
+            .isEmpty();
+    }
+
+    @Test
+    void retrieveMessageShouldReadFullContentWhenNoStructureIsStored() throws Exception {
+        message = createMessage(messageId, threadId, CONTENT, BODY_START, new PropertyBuilder(), NO_ATTACHMENT);
+
+        testee.save(message).block();
+
+        MessageRepresentation messageRepresentation =
+            toMessage(testee.retrieveMessage(messageIdWithMetadata, MessageMapper.FetchType.STRUCTURE));
+
+        assertThat(IOUtils.toString(messageRepresentation.getContent().getInputStream(), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT);
+    }
+
+    @Test
+    void retrieveMessageShouldReadRangesOverlappingHeadersAndBodyWhenFullRange() throws Exception {
+        message = createMessage(messageId, threadId, CONTENT, BODY_START, new PropertyBuilder(), NO_ATTACHMENT);
+
+        testee.save(message).block();
+
+        MessageRepresentation messageRepresentation =
+            toMessage(testee.retrieveMessage(messageIdWithMetadata, MessageMapper.FetchType.FULL_RANGE));
+
+        Content content = messageRepresentation.getContent();
+        assertThat(IOUtils.toString(content.getInputStream(10, 10), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT.substring(10, 20));
+        assertThat(IOUtils.toString(content.getInputStream(2, 5), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT.substring(2, 7));
+        assertThat(IOUtils.toString(content.getInputStream(BODY_START + 1, 100), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT.substring(BODY_START + 1));
+        assertThat(IOUtils.toString(content.getInputStream(), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT);
+    }
+
+    @Test
+    void listMessagesWithoutStructureShouldReturnOnlyMessagesWithoutStructure() throws Exception {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure(STRUCTURE);
+        testee.save(createMessage(messageId, threadId, CONTENT, BODY_START, propertyBuilder, NO_ATTACHMENT)).block();
+        testee.save(createMessage(messageId2, threadId, CONTENT_2, BODY_START, new PropertyBuilder(), NO_ATTACHMENT)).block();
+
+        assertThat(testee.listMessagesWithoutStructure().collectList().block())
+            .containsOnly(messageId2);
+    }
+
+    @Test
+    void updateStructureShouldStoreMessageStructure() throws Exception {
+        message = createMessage(messageId, threadId, CONTENT, BODY_START, new PropertyBuilder(), NO_ATTACHMENT);
+        testee.save(message).block();
+
+        testee.updateStructure(messageId, STRUCTURE).block();
+
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(toMessage(testee.retrieveMessage(messageIdWithMetadata, MessageMapper.FetchType.METADATA))
+                .getProperties().getMessageStructure())
+                .contains(STRUCTURE);
+            softly.assertThat(testee.listMessagesWithoutStructure().collectList().block())
+                .isEmpty();
+        });
+    }
+
     @Test
     void blobReferencesShouldBeEmptyByDefault() {
         assertThat(blobReferenceSource.listReferencedBlobs().collectList().block())
@@ -32,6 +32,7 @@ import org.apache.james.mailbox.cassandra.modules.CassandraFirstUnseenModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxCounterModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxRecentsModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraMessageChangeLogModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraQuotaModule;
@@ -52,6 +53,7 @@ public interface MailboxAggregateModule {
         CassandraMailboxCounterModule.MODULE,
         CassandraMailboxModule.MODULE,
         CassandraMailboxRecentsModule.MODULE,
+        CassandraMessageChangeLogModule.MODULE,
         CassandraMessageModule.MODULE,
         CassandraModSeqModule.MODULE,
         CassandraSchemaVersionModule.MODULE,
@@ -0,0 +1,154 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.cassandra.mail.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import javax.mail.Flags;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionModule;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.cassandra.CassandraBlobModule;
+import org.apache.james.blob.cassandra.CassandraBlobStoreFactory;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAOV3;
+import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+
+class MessageStructureMigrationTest {
+    private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
+    private static final String CONTENT = "Subject: Test7\r\nContent-Type: text/plain\r\n\r\nBody7\r\n.\r\n";
+    private static final int BODY_START = CONTENT.indexOf("\r\n\r\n") + 4;
+    private static final String STRUCTURE = "{\"structure\":\"any\"}";
+
+    public static final CassandraModule MODULES = CassandraModule.aggregateModules(
+        CassandraMessageModule.MODULE,
+        CassandraBlobModule.MODULE,
+        CassandraSchemaVersionModule.MODULE);
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(MODULES);
+
+    private CassandraMessageDAOV3 daoV3;
+    private CassandraMessageId.Factory messageIdFactory;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        BlobStore blobStore = CassandraBlobStoreFactory.forTesting(cassandra.getConf(), new RecordingMetricFactory())
+            .passthrough();
+        daoV3 = new CassandraMessageDAOV3(
+            cassandra.getConf(),
+            cassandra.getTypesProvider(),
+            blobStore,
+            new HashBlobId.Factory(),
+            cassandraCluster.getCassandraConsistenciesConfiguration());
+        messageIdFactory = new CassandraMessageId.Factory();
+    }
+
+    @Test
+    void migrationShouldComputeTheStructureOfMessagesWithoutStructure() throws Exception {
+        CassandraMessageId messageId1 = messageIdFactory.generate();
+        CassandraMessageId messageId2 = messageIdFactory.generate();
+        daoV3.save(createMessage(messageId1, new PropertyBuilder())).block();
+        daoV3.save(createMessage(messageId2, new PropertyBuilder())).block();
+
+        new MessageStructureMigration(daoV3).apply();
+
+        assertThat(daoV3.listMessagesWithoutStructure().collectList().block())
+            .isEmpty();
+        assertThat(daoV3.retrieveMessage(messageId1, MessageMapper.FetchType.METADATA).block()
+                .getProperties().getMessageStructure())
+            .isPresent();
+    }
+
+    @Test
+    void migrationShouldPreserveExistingStructures() throws Exception {
+        CassandraMessageId messageId = messageIdFactory.generate();
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure(STRUCTURE);
+        daoV3.save(createMessage(messageId, propertyBuilder)).block();
+
+        new MessageStructureMigration(daoV3).apply();
+
+        assertThat(daoV3.retrieveMessage(messageId, MessageMapper.FetchType.METADATA).block()
+                .getProperties().getMessageStructure())
+            .contains(STRUCTURE);
+    }
+
+    @Test
+    void runTaskShouldReturnCompletedWhenAllMessagesAreMigrated() throws Exception {
+        daoV3.save(createMessage(messageIdFactory.generate(), new PropertyBuilder())).block();
+
+        assertThat(new MessageStructureMigration(daoV3).asTask().run())
+            .isEqualTo(Task.Result.COMPLETED);
+    }
+
+    @Test
+    void runTaskShouldReturnPartialWhenAMessageFailsToBeMigrated() throws Exception {
+        daoV3.save(createMessage(messageIdFactory.generate(), new PropertyBuilder())).block();
+        CassandraMessageDAOV3 failingDao = spy(daoV3);
+        doReturn(Mono.error(new RuntimeException("Dummy failure")))
+            .when(failingDao).updateStructure(any(), any());
+
+        assertThat(new MessageStructureMigration(failingDao).asTask().run())
+            .isEqualTo(Task.Result.PARTIAL);
+    }
+
+    private SimpleMailboxMessage createMessage(MessageId messageId, PropertyBuilder propertyBuilder) {
+        return SimpleMailboxMessage.builder()
+            .messageId(messageId)
+            .threadId(ThreadId.fromBaseMessageId(messageId))
+            .mailboxId(MAILBOX_ID)
+            .uid(MessageUid.of(1))
+            .internalDate(new Date())
+            .bodyStartOctet(BODY_START)
+            .size(CONTENT.length())
+            .content(new ByteContent(CONTENT.getBytes(StandardCharsets.UTF_8)))
+            .flags(new Flags())
+            .properties(propertyBuilder)
+            .addAttachments(ImmutableList.of())
+            .build();
+    }
+}
@@ -120,6 +120,22 @@ class FlagsUpdateStageResultTest {
             .isEqualTo(new FlagsUpdateStageResult(ImmutableList.of(), ImmutableList.of(UPDATED_FLAGS, OTHER_UPDATED_FLAGS)));
     }
 
+    @Test
+    void mergeShouldReturnNoneWhenNoResults() {
+        assertThat(FlagsUpdateStageResult.merge(ImmutableList.of()))
+            .isEqualTo(FlagsUpdateStageResult.none());
+    }
+
+    @Test
+    void mergeShouldPreserveResultOrder() {
+        assertThat(FlagsUpdateStageResult.merge(ImmutableList.of(
+                FlagsUpdateStageResult.success(UPDATED_FLAGS),
+                FlagsUpdateStageResult.fail(UID),
+                FlagsUpdateStageResult.success(OTHER_UPDATED_FLAGS),
+                FlagsUpdateStageResult.fail(OTHER_UID))))
+            .isEqualTo(new FlagsUpdateStageResult(ImmutableList.of(UID, OTHER_UID), ImmutableList.of(UPDATED_FLAGS, OTHER_UPDATED_FLAGS)));
+    }
+
     @Test
     void getFailedShouldReturnFailedUid() {
         FlagsUpdateStageResult flagsUpdateStageResult = new FlagsUpdateStageResult(ImmutableList.of(UID), ImmutableList.of(UPDATED_FLAGS));
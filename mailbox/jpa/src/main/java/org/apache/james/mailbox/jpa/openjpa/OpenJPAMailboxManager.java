@@ -51,6 +51,20 @@ public class OpenJPAMailboxManager extends StoreMailboxManager {
         MailboxCapabilities.Move,
         MailboxCapabilities.Annotation);
 
+    public OpenJPAMailboxManager(JPAMailboxSessionMapperFactory mapperFactory,
+                                 SessionProvider sessionProvider,
+                                 MessageParser messageParser,
+                                 MessageId.Factory messageIdFactory,
+                                 EventBus eventBus,
+                                 StoreMailboxAnnotationManager annotationManager,
+                                 StoreRightManager storeRightManager,
+                                 QuotaComponents quotaComponents,
+                                 MessageSearchIndex index,
+                                 ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm) {
+        this(mapperFactory, sessionProvider, messageParser, messageIdFactory, eventBus, annotationManager,
+            storeRightManager, quotaComponents, index, MailboxManagerConfiguration.DEFAULT, threadIdGuessingAlgorithm);
+    }
+
     @Inject
     public OpenJPAMailboxManager(JPAMailboxSessionMapperFactory mapperFactory,
                                  SessionProvider sessionProvider,
@@ -61,11 +75,12 @@ public class OpenJPAMailboxManager extends StoreMailboxManager {
                                  StoreRightManager storeRightManager,
                                  QuotaComponents quotaComponents,
                                  MessageSearchIndex index,
+                                 MailboxManagerConfiguration configuration,
                                  ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm) {
         super(mapperFactory, sessionProvider, new JVMMailboxPathLocker(),
             messageParser, messageIdFactory, annotationManager,
             eventBus, storeRightManager, quotaComponents,
-            index, MailboxManagerConfiguration.DEFAULT, PreDeletionHooks.NO_PRE_DELETION_HOOK, threadIdGuessingAlgorithm);
+            index, configuration, PreDeletionHooks.NO_PRE_DELETION_HOOK, threadIdGuessingAlgorithm);
     }
 
     @Override
@@ -79,6 +94,7 @@ public class OpenJPAMailboxManager extends StoreMailboxManager {
             getQuotaComponents().getQuotaRootResolver(),
             getMessageIdFactory(),
             configuration.getBatchSizes(),
+            configuration.getAppendBuffer(),
             getStoreRightManager(),
             getThreadIdGuessingAlgorithm());
     }
@@ -88,6 +88,7 @@ public class InMemoryMailboxManager extends StoreMailboxManager {
             getMessageParser(),
             getMessageIdFactory(),
             configuration.getBatchSizes(),
+            configuration.getAppendBuffer(),
             getStoreRightManager(),
             getPreDeletionHooks(),
             getThreadIdGuessingAlgorithm());
@@ -21,9 +21,15 @@ package org.apache.james.mailbox.inmemory.mail;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
@@ -35,6 +41,8 @@ import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.inmemory.InMemoryId;
+import org.apache.james.mailbox.model.ComposedMessageId;
+import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageMetaData;
@@ -49,14 +57,90 @@ import org.apache.james.mailbox.store.mail.utils.ApplicableFlagCalculator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public class InMemoryMessageMapper extends AbstractMessageMapper {
+    /**
+     * Mod-sequence index of a mailbox: current mod-sequence of each message, and mod-sequence of each expunge.
+     *
+     * Like the Cassandra change log, expunges older than the last {@link #RETENTION} mod-sequences are pruned, at most
+     * once every {@link #PRUNING_INTERVAL} mod-sequences.
+     */
+    private static class MailboxChanges {
+        private static final long RETENTION = 10_000;
+        private static final long PRUNING_INTERVAL = 1_000;
+
+        private final Map<MessageUid, ModSeq> modSeqs = new HashMap<>();
+        private final NavigableMap<ModSeq, Set<MessageUid>> updates = new TreeMap<>();
+        private final NavigableMap<ModSeq, Set<MessageUid>> expunges = new TreeMap<>();
+        private ModSeq prunedUpTo = ModSeq.first();
+
+        synchronized void updated(MessageUid uid, ModSeq modSeq) {
+            unindex(uid);
+            modSeqs.put(uid, modSeq);
+            updates.computeIfAbsent(modSeq, any -> new HashSet<>()).add(uid);
+        }
+
+        synchronized void expunged(MessageUid uid, ModSeq modSeq) {
+            unindex(uid);
+            expunges.computeIfAbsent(modSeq, any -> new HashSet<>()).add(uid);
+            pruneIfNeeded(modSeq);
+        }
+
+        synchronized boolean coversExpungesSince(ModSeq changedSince) {
+            return changedSince.compareTo(prunedUpTo) >= 0;
+        }
+
+        synchronized List<MessageUid> updatedSince(ModSeq changedSince, MessageRange set) {
+            return select(updates, changedSince, set);
+        }
+
+        synchronized List<MessageUid> expungedSince(ModSeq changedSince, MessageRange set) {
+            return select(expunges, changedSince, set);
+        }
+
+        private void pruneIfNeeded(ModSeq modSeq) {
+            if (modSeq.asLong() - prunedUpTo.asLong() >= RETENTION + PRUNING_INTERVAL) {
+                prunedUpTo = ModSeq.of(modSeq.asLong() - RETENTION);
+                expunges.headMap(prunedUpTo, true).clear();
+            }
+        }
+
+        private void unindex(MessageUid uid) {
+            Optional.ofNullable(modSeqs.remove(uid))
+                .ifPresent(previous -> updates.computeIfPresent(previous, (modSeq, uids) -> {
+                    uids.remove(uid);
+                    return uids.isEmpty() ? null : uids;
+                }));
+        }
+
+        private List<MessageUid> select(NavigableMap<ModSeq, Set<MessageUid>> index, ModSeq changedSince, MessageRange set) {
+            return index.tailMap(changedSince, false)
+                .values()
+                .stream()
+                .flatMap(Set::stream)
+                .filter(set::includes)
+                .sorted()
+                .collect(ImmutableList.toImmutableList());
+        }
+    }
+
     private final Map<InMemoryId, Map<MessageUid, MailboxMessage>> mailboxByUid;
+    private final Map<InMemoryId, MailboxChanges> changesByMailbox;
+    private final ModSeqProvider modSeqProvider;
     private static final int INITIAL_SIZE = 256;
 
     public InMemoryMessageMapper(MailboxSession session, UidProvider uidProvider,
             ModSeqProvider modSeqProvider) {
         super(session, uidProvider, modSeqProvider);
         this.mailboxByUid = new ConcurrentHashMap<>(INITIAL_SIZE);
+        this.changesByMailbox = new ConcurrentHashMap<>(INITIAL_SIZE);
+        this.modSeqProvider = modSeqProvider;
+    }
+
+    private MailboxChanges getChangesForMailbox(MailboxId mailboxId) {
+        return changesByMailbox.computeIfAbsent((InMemoryId) mailboxId, any -> new MailboxChanges());
     }
 
     private Map<MessageUid, MailboxMessage> getMembershipByUidForMailbox(Mailbox mailbox) {
@@ -100,8 +184,13 @@ public class InMemoryMessageMapper extends AbstractMessageMapper {
     }
 
     @Override
-    public void delete(Mailbox mailbox, MailboxMessage message) {
-        getMembershipByUidForMailbox(mailbox).remove(message.getUid());
+    public void delete(Mailbox mailbox, MailboxMessage message) throws MailboxException {
+        delete(mailbox.getMailboxId(), message.getUid(), modSeqProvider.nextModSeq(mailbox));
+    }
+
+    private void delete(MailboxId mailboxId, MessageUid uid, ModSeq expungeModSeq) {
+        getMembershipByUidForMailbox(mailboxId).remove(uid);
+        getChangesForMailbox(mailboxId).expunged(uid, expungeModSeq);
     }
 
     @Override
@@ -109,7 +198,7 @@ public class InMemoryMessageMapper extends AbstractMessageMapper {
         InMemoryId originalMailboxId = (InMemoryId) original.getMailboxId();
         MessageUid uid = original.getUid();
         MessageMetaData messageMetaData = copy(mailbox, original);
-        getMembershipByUidForId(originalMailboxId).remove(uid);
+        delete(originalMailboxId, uid, modSeqProvider.nextModSeq(originalMailboxId));
         return messageMetaData;
     }
 
@@ -163,14 +252,38 @@ public class InMemoryMessageMapper extends AbstractMessageMapper {
     }
 
     @Override
-    public Map<MessageUid, MessageMetaData> deleteMessages(Mailbox mailbox, List<MessageUid> uids) {
+    public Map<MessageUid, MessageMetaData> deleteMessages(Mailbox mailbox, List<MessageUid> uids) throws MailboxException {
+        ModSeq expungeModSeq = modSeqProvider.nextModSeq(mailbox);
         return getMembershipByUidForMailbox(mailbox).values()
             .stream()
             .filter(message -> uids.contains(message.getUid()))
-            .peek(message -> delete(mailbox, message))
+            .peek(message -> delete(mailbox.getMailboxId(), message.getUid(), expungeModSeq))
             .collect(ImmutableMap.toImmutableMap(MailboxMessage::getUid, MailboxMessage::metaData));
     }
 
+    @Override
+    public Flux<ComposedMessageIdWithMetaData> listMessagesMetadataChangedSince(Mailbox mailbox, MessageRange set, ModSeq changedSince) {
+        Map<MessageUid, MailboxMessage> membership = getMembershipByUidForMailbox(mailbox);
+        return Flux.fromIterable(getChangesForMailbox(mailbox.getMailboxId()).updatedSince(changedSince, set))
+            .concatMap(uid -> Mono.justOrEmpty(membership.get(uid)))
+            .filter(message -> message.getModSeq().compareTo(changedSince) > 0)
+            .map(message -> new ComposedMessageIdWithMetaData(
+                new ComposedMessageId(message.getMailboxId(), message.getMessageId(), message.getUid()),
+                message.createFlags(),
+                message.getModSeq(),
+                message.getThreadId()));
+    }
+
+    @Override
+    public Mono<Boolean> hasExpungeHistory(Mailbox mailbox, ModSeq changedSince) {
+        return Mono.fromCallable(() -> getChangesForMailbox(mailbox.getMailboxId()).coversExpungesSince(changedSince));
+    }
+
+    @Override
+    public Flux<MessageUid> listExpungedUidsSince(Mailbox mailbox, MessageRange set, ModSeq changedSince) {
+        return Flux.fromIterable(getChangesForMailbox(mailbox.getMailboxId()).expungedSince(changedSince, set));
+    }
+
     @Override
     public Flags getApplicableFlag(Mailbox mailbox) {
         return new ApplicableFlagCalculator(getMembershipByUidForId((InMemoryId) mailbox.getMailboxId()).values())
@@ -179,6 +292,7 @@ public class InMemoryMessageMapper extends AbstractMessageMapper {
 
     public void deleteAll() {
         mailboxByUid.clear();
+        changesByMailbox.clear();
     }
 
     @Override
@@ -201,6 +315,7 @@ public class InMemoryMessageMapper extends AbstractMessageMapper {
         copy.setUid(message.getUid());
         copy.setModSeq(message.getModSeq());
         getMembershipByUidForMailbox(mailbox).put(message.getUid(), copy);
+        getChangesForMailbox(mailbox.getMailboxId()).updated(message.getUid(), message.getModSeq());
 
         return message.metaData();
     }
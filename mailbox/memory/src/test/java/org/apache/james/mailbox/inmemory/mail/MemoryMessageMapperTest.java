@@ -19,13 +19,59 @@
 
 package org.apache.james.mailbox.inmemory.mail;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.store.mail.model.MapperProvider;
 import org.apache.james.mailbox.store.mail.model.MessageMapperTest;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
 
 class MemoryMessageMapperTest extends MessageMapperTest {
-    
+    private InMemoryMapperProvider mapperProvider;
+
     @Override
     protected MapperProvider createMapperProvider() {
-        return new InMemoryMapperProvider();
+        mapperProvider = new InMemoryMapperProvider();
+        return mapperProvider;
+    }
+
+    @Test
+    void expungesOlderThanTheRetentionShouldBePruned() throws MailboxException {
+        saveMessages();
+        ModSeq beforeFirstExpunge = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        messageMapper.deleteMessages(benwaInboxMailbox, ImmutableList.of(message1.getUid()));
+        advanceModSeq(11_000);
+        ModSeq beforeSecondExpunge = messageMapper.getHighestModSeq(benwaInboxMailbox);
+
+        messageMapper.deleteMessages(benwaInboxMailbox, ImmutableList.of(message2.getUid()));
+
+        assertThat(messageMapper.hasExpungeHistory(benwaInboxMailbox, beforeFirstExpunge).block()).isFalse();
+        assertThat(messageMapper.hasExpungeHistory(benwaInboxMailbox, beforeSecondExpunge).block()).isTrue();
+        assertThat(messageMapper.listExpungedUidsSince(benwaInboxMailbox, MessageRange.all(), beforeSecondExpunge).collectList().block())
+            .containsExactly(message2.getUid());
+    }
+
+    @Test
+    void expungesWithinTheRetentionShouldBeKept() throws MailboxException {
+        saveMessages();
+        ModSeq beforeFirstExpunge = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        messageMapper.deleteMessages(benwaInboxMailbox, ImmutableList.of(message1.getUid()));
+        advanceModSeq(9_000);
+
+        messageMapper.deleteMessages(benwaInboxMailbox, ImmutableList.of(message2.getUid()));
+
+        assertThat(messageMapper.hasExpungeHistory(benwaInboxMailbox, beforeFirstExpunge).block()).isTrue();
+        assertThat(messageMapper.listExpungedUidsSince(benwaInboxMailbox, MessageRange.all(), beforeFirstExpunge).collectList().block())
+            .containsExactly(message1.getUid(), message2.getUid());
+    }
+
+    private void advanceModSeq(int count) throws MailboxException {
+        for (int i = 0; i < count; i++) {
+            mapperProvider.generateModSeq(benwaInboxMailbox);
+        }
     }
 }
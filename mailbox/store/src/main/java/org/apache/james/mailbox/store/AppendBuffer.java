@@ -0,0 +1,237 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Buffers the content of messages appended from an {@link InputStream}, so that it can be read several times.
+ *
+ * Messages up to the in-memory threshold are held in memory, bigger messages spill to a temporary file, like SMTP does
+ * with its BufferedDeferredFileOutputStream.
+ *
+ * At most poolSize threshold sized arrays are allocated and reused across appends: they are given back once the content
+ * is closed. When all of them are in use, messages are read in an array sized after their content instead.
+ */
+public class AppendBuffer {
+    public static final int DEFAULT_IN_MEMORY_THRESHOLD = 100 * 1024;
+    public static final int DEFAULT_POOL_SIZE = 16;
+    public static final AppendBuffer DEFAULT = new AppendBuffer(DEFAULT_IN_MEMORY_THRESHOLD, DEFAULT_POOL_SIZE, Optional.empty());
+
+    static final String IN_MEMORY_METRIC_NAME = "mailbox:append:buffer:inMemory";
+    static final String SPILLED_METRIC_NAME = "mailbox:append:buffer:spilled";
+
+    public interface BufferedContent extends Content, Closeable {
+
+    }
+
+    private class InMemoryContent implements BufferedContent {
+        private final byte[] buffer;
+        private final int length;
+        private final boolean pooled;
+        private boolean closed = false;
+
+        private InMemoryContent(byte[] buffer, int length, boolean pooled) {
+            this.buffer = buffer;
+            this.length = length;
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized InputStream getInputStream() throws IOException {
+            checkNotClosed();
+            return new ByteArrayInputStream(buffer, 0, length);
+        }
+
+        @Override
+        public synchronized InputStream getInputStream(long offset, long length) throws IOException {
+            checkNotClosed();
+            InputStream stream = new ByteArrayInputStream(buffer, 0, this.length);
+            ByteStreams.skipFully(stream, Math.min(offset, this.length));
+            return ByteStreams.limit(stream, length);
+        }
+
+        @Override
+        public long size() {
+            return length;
+        }
+
+        @Override
+        public synchronized void close() {
+            // The buffer will be handed to another append: it must not be read once released
+            if (!closed) {
+                closed = true;
+                if (pooled) {
+                    release(buffer);
+                }
+            }
+        }
+
+        private void checkNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException("Buffered content had been released");
+            }
+        }
+    }
+
+    private static class FileContent implements BufferedContent {
+        private final File file;
+
+        private FileContent(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FileInputStream(file);
+        }
+
+        @Override
+        public long size() {
+            return file.length();
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    private final int inMemoryThreshold;
+    private final int poolSize;
+    private final Queue<byte[]> pool;
+    private final AtomicInteger allocatedBuffers;
+    private final Optional<Metric> inMemoryMetric;
+    private final Optional<Metric> spilledMetric;
+
+    @Inject
+    public AppendBuffer(MetricFactory metricFactory) {
+        this(DEFAULT_IN_MEMORY_THRESHOLD, DEFAULT_POOL_SIZE, metricFactory);
+    }
+
+    public AppendBuffer(int inMemoryThreshold, int poolSize, MetricFactory metricFactory) {
+        this(inMemoryThreshold, poolSize, Optional.of(metricFactory));
+    }
+
+    private AppendBuffer(int inMemoryThreshold, int poolSize, Optional<MetricFactory> metricFactory) {
+        Preconditions.checkArgument(inMemoryThreshold > 0, "'inMemoryThreshold' needs to be strictly positive");
+        Preconditions.checkArgument(poolSize >= 0, "'poolSize' needs to be positive");
+
+        this.inMemoryThreshold = inMemoryThreshold;
+        this.poolSize = poolSize;
+        this.pool = new ConcurrentLinkedQueue<>();
+        this.allocatedBuffers = new AtomicInteger();
+        this.inMemoryMetric = metricFactory.map(factory -> factory.generate(IN_MEMORY_METRIC_NAME));
+        this.spilledMetric = metricFactory.map(factory -> factory.generate(SPILLED_METRIC_NAME));
+    }
+
+    public BufferedContent buffer(InputStream stream) throws IOException {
+        Optional<byte[]> pooledBuffer = borrow();
+        if (pooledBuffer.isPresent()) {
+            return bufferInPooledArray(pooledBuffer.get(), stream);
+        }
+        return bufferInSizedArray(stream);
+    }
+
+    private BufferedContent bufferInPooledArray(byte[] buffer, InputStream stream) throws IOException {
+        try {
+            int length = IOUtils.read(stream, buffer);
+            if (length < buffer.length) {
+                inMemoryMetric.ifPresent(Metric::increment);
+                return new InMemoryContent(buffer, length, true);
+            }
+            int next = stream.read();
+            if (next == -1) {
+                inMemoryMetric.ifPresent(Metric::increment);
+                return new InMemoryContent(buffer, length, true);
+            }
+            BufferedContent spilled = spill(buffer, new SequenceInputStream(new ByteArrayInputStream(new byte[] {(byte) next}), stream));
+            release(buffer);
+            spilledMetric.ifPresent(Metric::increment);
+            return spilled;
+        } catch (IOException | RuntimeException e) {
+            release(buffer);
+            throw e;
+        }
+    }
+
+    private BufferedContent bufferInSizedArray(InputStream stream) throws IOException {
+        byte[] head = ByteStreams.toByteArray(ByteStreams.limit(stream, inMemoryThreshold + 1L));
+        if (head.length <= inMemoryThreshold) {
+            inMemoryMetric.ifPresent(Metric::increment);
+            return new InMemoryContent(head, head.length, false);
+        }
+        BufferedContent spilled = spill(head, stream);
+        spilledMetric.ifPresent(Metric::increment);
+        return spilled;
+    }
+
+    private BufferedContent spill(byte[] head, InputStream remaining) throws IOException {
+        File file = File.createTempFile("imap", ".msg");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            out.write(head);
+            // The head array is free again once written: reuse it for copying the remaining bytes
+            IOUtils.copyLarge(remaining, out, head);
+            return new FileContent(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+    }
+
+    private Optional<byte[]> borrow() {
+        byte[] pooled = pool.poll();
+        if (pooled != null) {
+            return Optional.of(pooled);
+        }
+        if (allocatedBuffers.getAndUpdate(allocated -> Math.min(allocated + 1, poolSize)) < poolSize) {
+            return Optional.of(new byte[inMemoryThreshold]);
+        }
+        return Optional.empty();
+    }
+
+    private void release(byte[] buffer) {
+        pool.offer(buffer);
+    }
+}
@@ -22,7 +22,7 @@ package org.apache.james.mailbox.store;
 import javax.inject.Inject;
 
 public class MailboxManagerConfiguration {
-    public static final MailboxManagerConfiguration DEFAULT = new MailboxManagerConfiguration(BatchSizes.defaultValues());
+    public static final MailboxManagerConfiguration DEFAULT = new MailboxManagerConfiguration(BatchSizes.defaultValues(), AppendBuffer.DEFAULT);
 
     static class NoMailboxConfiguration extends MailboxManagerConfiguration {
         // Spring hack
@@ -33,16 +33,26 @@ public class MailboxManagerConfiguration {
     }
 
     private final BatchSizes batchSizes;
+    private final AppendBuffer appendBuffer;
 
-    @Inject
     public MailboxManagerConfiguration(BatchSizes batchSizes) {
+        this(batchSizes, AppendBuffer.DEFAULT);
+    }
+
+    @Inject
+    public MailboxManagerConfiguration(BatchSizes batchSizes, AppendBuffer appendBuffer) {
         this.batchSizes = batchSizes;
+        this.appendBuffer = appendBuffer;
     }
 
     public BatchSizes getBatchSizes() {
         return batchSizes;
     }
 
+    public AppendBuffer getAppendBuffer() {
+        return appendBuffer;
+    }
+
     public MessageBatcher getCopyBatcher() {
         return new MessageBatcher(batchSizes.getCopyBatchSize().orElse(MessageBatcher.NO_BATCH_SIZE));
     }
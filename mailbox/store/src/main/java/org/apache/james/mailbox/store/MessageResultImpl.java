@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import javax.mail.Flags;
 
@@ -277,35 +278,23 @@ public class MessageResultImpl implements MessageResult {
 
     @Override
     public MimeDescriptor getMimeDescriptor() throws MailboxException {
-        
-        // check if we need to create the MimeDescriptor which is done in a lazy fashion because
-        // it can be relative expensive on big messages and slow mailbox implementations
+        // The structure is computed at append time. Messages stored before that need it to be computed from their content,
+        // which is done in a lazy fashion because it can be relative expensive on big messages and slow mailbox implementations
         if (mimeDescriptor == null) {
-            try {
-                if (isComposite(message.getMediaType())) {
-                    mimeDescriptor = MimeDescriptorImpl.build(getFullContent().getInputStream());
-                } else {
-                    mimeDescriptor = new LazyMimeDescriptor(this, message);
+            Optional<String> messageStructure = message.getProperties().getMessageStructure();
+            if (messageStructure.isPresent()) {
+                mimeDescriptor = PrecomputedMimeDescriptor.deserialize(messageStructure.get());
+            } else {
+                try {
+                    mimeDescriptor = PrecomputedMimeDescriptor.compute(getFullContent(), message.getProperties(), message.getBodyOctets());
+                } catch (IOException | MimeException e) {
+                    throw new MailboxException("Unable to create the MimeDescriptor", e);
                 }
-            } catch (IOException | MimeException e) {
-                throw new MailboxException("Unable to create the MimeDescriptor", e);
             }
         }
         return mimeDescriptor;
     }
 
-    /**
-     * Is this a composite media type (as per RFC2045)?
-     *
-     * TODO: Move to Mime4j
-     * @param mediaType possibly null
-     * @return true when the type is composite,
-     * false otherwise
-     */
-    private boolean isComposite(String mediaType) {
-        return "message".equalsIgnoreCase(mediaType) || "multipart".equalsIgnoreCase(mediaType);
-    }
-    
     @Override
     public Headers getHeaders() {
         return headers;
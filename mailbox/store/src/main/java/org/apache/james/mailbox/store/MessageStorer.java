@@ -52,11 +52,70 @@ import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 public interface MessageStorer {
+    /**
+     * A parsed message, waiting to be stored
+     */
+    class MessageToStore {
+        private final Date internalDate;
+        private final int size;
+        private final int bodyStartOctet;
+        private final Content content;
+        private final Flags flags;
+        private final PropertyBuilder propertyBuilder;
+        private final Optional<Message> maybeMessage;
+        private final HeaderImpl headers;
+
+        public MessageToStore(Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, HeaderImpl headers) {
+            this.internalDate = internalDate;
+            this.size = size;
+            this.bodyStartOctet = bodyStartOctet;
+            this.content = content;
+            this.flags = flags;
+            this.propertyBuilder = propertyBuilder;
+            this.maybeMessage = maybeMessage;
+            this.headers = headers;
+        }
+
+        public Date getInternalDate() {
+            return internalDate;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getBodyStartOctet() {
+            return bodyStartOctet;
+        }
+
+        public Content getContent() {
+            return content;
+        }
+
+        public Flags getFlags() {
+            return flags;
+        }
+
+        public PropertyBuilder getPropertyBuilder() {
+            return propertyBuilder;
+        }
+
+        public Optional<Message> getMaybeMessage() {
+            return maybeMessage;
+        }
+
+        public HeaderImpl getHeaders() {
+            return headers;
+        }
+    }
+
     /**
      * If supported by the underlying implementation, this method will parse the messageContent to retrieve associated
      * attachments and will store them.
@@ -65,6 +124,18 @@ public interface MessageStorer {
      */
     Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) throws MailboxException;
 
+    /**
+     * Stores several messages at once, in order. Implementations relying on {@link MessageMapper#add(Mailbox, List)}
+     * reserve uids and mod-sequence once for the whole batch.
+     */
+    default Mono<List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>>> appendMessagesToStore(Mailbox mailbox, List<MessageToStore> messages, MailboxSession session) {
+        return Flux.fromIterable(messages)
+            .concatMap(Throwing.function((MessageToStore message) -> appendMessageToStore(mailbox, message.getInternalDate(), message.getSize(),
+                message.getBodyStartOctet(), message.getContent(), message.getFlags(), message.getPropertyBuilder(), message.getMaybeMessage(),
+                session, message.getHeaders())).sneakyThrow())
+            .collectList();
+    }
+
     /**
      * MessageStorer parsing, storing and returning AttachmentMetadata
      *
@@ -94,24 +165,47 @@ public interface MessageStorer {
         @Override
         public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+            MessageToStore messageToStore = new MessageToStore(internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, headers);
+
+            return messageMapper
+                .executeReactive(createMessage(mailbox, messageToStore, session)
+                    .flatMap(pair -> Mono.from(messageMapper.addReactive(mailbox, pair.getLeft()))
+                        .map(metadata -> Pair.of(metadata, Optional.of(pair.getRight())))));
+        }
+
+        @Override
+        public Mono<List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>>> appendMessagesToStore(Mailbox mailbox, List<MessageToStore> messages, MailboxSession session) {
+            MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+
+            return messageMapper
+                .executeReactive(Flux.fromIterable(messages)
+                    .concatMap(message -> createMessage(mailbox, message, session))
+                    .collectList()
+                    .flatMap(pairs -> Mono.fromCallable(() -> messageMapper.add(mailbox, pairs.stream()
+                            .map(Pair::getLeft)
+                            .collect(ImmutableList.toImmutableList())))
+                        .map(metadata -> Streams.zip(metadata.stream(), pairs.stream(),
+                                (messageMetaData, pair) -> Pair.of(messageMetaData, Optional.of(pair.getRight())))
+                            .collect(ImmutableList.toImmutableList()))));
+        }
+
+        private Mono<Pair<MailboxMessage, List<MessageAttachmentMetadata>>> createMessage(Mailbox mailbox, MessageToStore toStore, MailboxSession session) {
             MessageId messageId = messageIdFactory.generate();
-            Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(headers);
-            Optional<MimeMessageId> inReplyTo = MimeMessageHeadersUtil.parseInReplyTo(headers);
-            Optional<List<MimeMessageId>> references = MimeMessageHeadersUtil.parseReferences(headers);
-            Optional<Subject> subject = MimeMessageHeadersUtil.parseSubject(headers);
+            Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(toStore.getHeaders());
+            Optional<MimeMessageId> inReplyTo = MimeMessageHeadersUtil.parseInReplyTo(toStore.getHeaders());
+            Optional<List<MimeMessageId>> references = MimeMessageHeadersUtil.parseReferences(toStore.getHeaders());
+            Optional<Subject> subject = MimeMessageHeadersUtil.parseSubject(toStore.getHeaders());
 
-            return mapperFactory.getMessageMapper(session)
-                .executeReactive(
-                    storeAttachments(messageId, content, maybeMessage, session)
-                        .zipWith(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session))
-                        .flatMap(Throwing.function((Tuple2<List<MessageAttachmentMetadata>, ThreadId> pair) -> {
-                                List<MessageAttachmentMetadata> attachments = pair.getT1();
-                                ThreadId threadId = pair.getT2();
+            return storeAttachments(messageId, toStore.getContent(), toStore.getMaybeMessage(), session)
+                .zipWith(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session))
+                .map(Throwing.function((Tuple2<List<MessageAttachmentMetadata>, ThreadId> pair) -> {
+                    List<MessageAttachmentMetadata> attachments = pair.getT1();
+                    ThreadId threadId = pair.getT2();
 
-                                MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, attachments);
-                                return Mono.from(messageMapper.addReactive(mailbox, message))
-                                    .map(metadata -> Pair.of(metadata, Optional.of(attachments)));
-                            }).sneakyThrow()));
+                    MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, toStore.getInternalDate(), toStore.getSize(), toStore.getBodyStartOctet(),
+                        toStore.getContent(), toStore.getFlags(), toStore.getPropertyBuilder(), attachments);
+                    return Pair.of(message, attachments);
+                }).sneakyThrow());
         }
 
         private Mono<List<MessageAttachmentMetadata>> storeAttachments(MessageId messageId, Content messageContent, Optional<Message> maybeMessage, MailboxSession session) {
@@ -160,19 +254,38 @@ public interface MessageStorer {
         @Override
         public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) throws MailboxException {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+            MessageToStore messageToStore = new MessageToStore(internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, headers);
+
+            return messageMapper
+                .executeReactive(createMessage(mailbox, messageToStore, session)
+                    .flatMap(message -> Mono.from(messageMapper.addReactive(mailbox, message))
+                        .map(metadata -> Pair.of(metadata, Optional.empty()))));
+        }
+
+        @Override
+        public Mono<List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>>> appendMessagesToStore(Mailbox mailbox, List<MessageToStore> messages, MailboxSession session) {
+            MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+
+            return messageMapper
+                .executeReactive(Flux.fromIterable(messages)
+                    .concatMap(message -> createMessage(mailbox, message, session))
+                    .collectList()
+                    .flatMap(mailboxMessages -> Mono.fromCallable(() -> messageMapper.add(mailbox, mailboxMessages)))
+                    .map(metadata -> metadata.stream()
+                        .map(messageMetaData -> Pair.<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>of(messageMetaData, Optional.empty()))
+                        .collect(ImmutableList.toImmutableList())));
+        }
+
+        private Mono<MailboxMessage> createMessage(Mailbox mailbox, MessageToStore toStore, MailboxSession session) {
             MessageId messageId = messageIdFactory.generate();
-            Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(headers);
-            Optional<MimeMessageId> inReplyTo = MimeMessageHeadersUtil.parseInReplyTo(headers);
-            Optional<List<MimeMessageId>> references = MimeMessageHeadersUtil.parseReferences(headers);
-            Optional<Subject> subject = MimeMessageHeadersUtil.parseSubject(headers);
-
-            return mapperFactory.getMessageMapper(session)
-                .executeReactive(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session)
-                    .flatMap(Throwing.function((ThreadId threadId) -> {
-                        MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, ImmutableList.of());
-                        return Mono.from(messageMapper.addReactive(mailbox, message))
-                            .map(metadata -> Pair.of(metadata, Optional.empty()));
-                    })));
+            Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(toStore.getHeaders());
+            Optional<MimeMessageId> inReplyTo = MimeMessageHeadersUtil.parseInReplyTo(toStore.getHeaders());
+            Optional<List<MimeMessageId>> references = MimeMessageHeadersUtil.parseReferences(toStore.getHeaders());
+            Optional<Subject> subject = MimeMessageHeadersUtil.parseSubject(toStore.getHeaders());
+
+            return threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session)
+                .map(Throwing.function((ThreadId threadId) -> messageFactory.createMessage(messageId, threadId, mailbox, toStore.getInternalDate(), toStore.getSize(),
+                    toStore.getBodyStartOctet(), toStore.getContent(), toStore.getFlags(), toStore.getPropertyBuilder(), ImmutableList.of())).sneakyThrow());
         }
     }
 }
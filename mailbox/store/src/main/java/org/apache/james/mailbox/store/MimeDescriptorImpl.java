@@ -63,6 +63,14 @@ public class MimeDescriptorImpl implements MimeDescriptor {
         return createDescriptor(parser);
     }
 
+    /**
+     * Builds the descriptor of an entity whose headers were already read from the given parser, continuing the
+     * parsing from its current state.
+     */
+    public static MimeDescriptorImpl build(MimeTokenStream parser, Collection<Header> headers) throws IOException, MimeException {
+        return createDescriptor(parser, parser.getState(), headers);
+    }
+
     private static MimeDescriptorImpl createDescriptor(MimeTokenStream parser) throws IOException, MimeException {
         EntityState next = parser.next();
         final Collection<Header> headers = new ArrayList<>();
@@ -75,7 +83,10 @@ public class MimeDescriptorImpl implements MimeDescriptor {
             }
             next = parser.next();
         }
+        return createDescriptor(parser, next, headers);
+    }
 
+    private static MimeDescriptorImpl createDescriptor(MimeTokenStream parser, EntityState next, Collection<Header> headers) throws IOException, MimeException {
         final MimeDescriptorImpl mimeDescriptorImpl;
         switch (next) {
             case T_BODY:
@@ -0,0 +1,380 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MimeDescriptor;
+import org.apache.james.mailbox.store.mail.model.impl.Properties;
+import org.apache.james.mime4j.MimeException;
+import org.apache.james.mime4j.codec.DecodeMonitor;
+import org.apache.james.mime4j.field.LenientFieldParser;
+import org.apache.james.mime4j.message.DefaultBodyDescriptorBuilder;
+import org.apache.james.mime4j.stream.EntityState;
+import org.apache.james.mime4j.stream.Field;
+import org.apache.james.mime4j.stream.MimeConfig;
+import org.apache.james.mime4j.stream.MimeTokenStream;
+import org.apache.james.mime4j.stream.RecursionMode;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+
+/**
+ * {@link MimeDescriptor} computed once, when the message is appended, and persisted alongside the message properties.
+ *
+ * It holds the body structure of the message together with the headers needed to build the IMAP ENVELOPE of the
+ * message and of its embedded messages, so that FETCH ENVELOPE and FETCH BODYSTRUCTURE do not need to read nor parse
+ * the message content. The References header is kept as well, so that THREAD=REFERENCES does not need to read the
+ * message headers either.
+ *
+ * Other headers are dropped to keep the serialized form compact: {@link #headers()} only exposes these headers.
+ */
+@JsonAutoDetect(getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, fieldVisibility = Visibility.NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PrecomputedMimeDescriptor implements MimeDescriptor {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final LenientFieldParser FIELD_PARSER = new LenientFieldParser();
+    private static final Set<String> RETAINED_HEADERS = ImmutableSet.of("date", "subject", "from", "sender", "reply-to",
+        "to", "cc", "bcc", "in-reply-to", "message-id", "references");
+
+    /**
+     * Computes the structure of a message.
+     *
+     * Composite messages are fully parsed, while the structure of other messages is derived from their properties,
+     * mirroring what {@link MessageResultImpl#getMimeDescriptor()} does when no precomputed structure is available.
+     */
+    public static PrecomputedMimeDescriptor compute(Content content, Properties properties, long bodyOctets) throws IOException, MimeException, MailboxException {
+        try (InputStream inputStream = content.getInputStream()) {
+            MimeTokenStream parser = new MimeTokenStream(MimeConfig.PERMISSIVE,
+                new DefaultBodyDescriptorBuilder(null, FIELD_PARSER, DecodeMonitor.SILENT));
+            parser.setRecursionMode(RecursionMode.M_NO_RECURSE);
+            parser.parse(inputStream);
+
+            ImmutableList.Builder<Field> fields = ImmutableList.builder();
+            EntityState next = parser.next();
+            while (next != EntityState.T_BODY && next != EntityState.T_END_OF_STREAM && next != EntityState.T_START_MULTIPART) {
+                if (next == EntityState.T_FIELD) {
+                    fields.add(parser.getField());
+                }
+                next = parser.next();
+            }
+            return compute(parser, fields.build(), properties, bodyOctets);
+        }
+    }
+
+    /**
+     * Computes the structure of a message from a parser having just read its header fields, so that the message is
+     * parsed once. The parser needs not to recurse into embedded messages. Only composite messages are parsed further.
+     */
+    public static PrecomputedMimeDescriptor compute(MimeTokenStream parser, List<Field> fields, Properties properties, long bodyOctets) throws IOException, MimeException, MailboxException {
+        List<Header> headers = fields.stream()
+            .map(ResultUtils::createHeader)
+            .collect(ImmutableList.toImmutableList());
+        List<Header> retainedHeaders = retainedHeaders(headers.iterator());
+
+        if (isComposite(properties.getMediaType())) {
+            return copy(MimeDescriptorImpl.build(parser, headers), retainedHeaders);
+        }
+        return new PrecomputedMimeDescriptor(properties.getMediaType(), properties.getSubType(), properties.getContentID(),
+            properties.getContentDescription(), properties.getContentLocation(), properties.getContentMD5(),
+            properties.getContentTransferEncoding(), properties.getContentLanguage(), properties.getContentDispositionType(),
+            properties.getContentDispositionParameters(), Optional.ofNullable(properties.getTextualLineCount()).orElse(-1L),
+            bodyOctets, properties.getContentTypeParameters(), retainedHeaders, ImmutableList.of(), null);
+    }
+
+    public static PrecomputedMimeDescriptor deserialize(String value) throws MailboxException {
+        try {
+            return OBJECT_MAPPER.readValue(value, PrecomputedMimeDescriptor.class);
+        } catch (JsonProcessingException e) {
+            throw new MailboxException("Unable to deserialize message structure", e);
+        }
+    }
+
+    private static boolean isComposite(String mediaType) {
+        return "message".equalsIgnoreCase(mediaType) || "multipart".equalsIgnoreCase(mediaType);
+    }
+
+    private static PrecomputedMimeDescriptor copy(MimeDescriptor descriptor) throws MailboxException {
+        return copy(descriptor, retainedHeaders(descriptor.headers()));
+    }
+
+    private static PrecomputedMimeDescriptor copy(MimeDescriptor descriptor, List<Header> headers) throws MailboxException {
+        ImmutableList.Builder<PrecomputedMimeDescriptor> parts = ImmutableList.builder();
+        for (Iterator<MimeDescriptor> it = descriptor.parts(); it.hasNext();) {
+            parts.add(copy(it.next()));
+        }
+        PrecomputedMimeDescriptor embeddedMessage = null;
+        if (descriptor.embeddedMessage() != null) {
+            embeddedMessage = copy(descriptor.embeddedMessage());
+        }
+        return new PrecomputedMimeDescriptor(descriptor.getMimeType(), descriptor.getMimeSubType(), descriptor.getContentID(),
+            descriptor.getContentDescription(), descriptor.getContentLocation(), descriptor.getContentMD5(),
+            descriptor.getTransferContentEncoding(), descriptor.getLanguages(), descriptor.getDisposition(),
+            descriptor.getDispositionParams(), descriptor.getLines(), descriptor.getBodyOctets(),
+            descriptor.contentTypeParameters(), headers, parts.build(), embeddedMessage);
+    }
+
+    private static List<Header> retainedHeaders(Iterator<Header> headers) {
+        return ImmutableList.copyOf(Iterators.filter(headers, header -> RETAINED_HEADERS.contains(header.getName().toLowerCase(Locale.US))));
+    }
+
+    private static class HeaderDTO {
+        private final String name;
+        private final String value;
+
+        @JsonCreator
+        HeaderDTO(@JsonProperty("name") String name, @JsonProperty("value") String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @JsonProperty("name")
+        public String getName() {
+            return name;
+        }
+
+        @JsonProperty("value")
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private final String type;
+    private final String subType;
+    private final String contentId;
+    private final String contentDescription;
+    private final String location;
+    private final String md5;
+    private final String transferEncoding;
+    private final List<String> languages;
+    private final String disposition;
+    private final Map<String, String> dispositionParams;
+    private final long lines;
+    private final long bodyOctets;
+    private final Map<String, String> contentTypeParameters;
+    private final List<Header> headers;
+    private final List<PrecomputedMimeDescriptor> parts;
+    private final PrecomputedMimeDescriptor embeddedMessage;
+
+    private PrecomputedMimeDescriptor(String type, String subType, String contentId, String contentDescription,
+                                      String location, String md5, String transferEncoding, List<String> languages,
+                                      String disposition, Map<String, String> dispositionParams, long lines, long bodyOctets,
+                                      Map<String, String> contentTypeParameters, List<Header> headers,
+                                      List<PrecomputedMimeDescriptor> parts, PrecomputedMimeDescriptor embeddedMessage) {
+        this.type = type;
+        this.subType = subType;
+        this.contentId = contentId;
+        this.contentDescription = contentDescription;
+        this.location = location;
+        this.md5 = md5;
+        this.transferEncoding = transferEncoding;
+        this.languages = languages;
+        this.disposition = disposition;
+        this.dispositionParams = dispositionParams;
+        this.lines = lines;
+        this.bodyOctets = bodyOctets;
+        this.contentTypeParameters = contentTypeParameters;
+        this.headers = headers;
+        this.parts = parts;
+        this.embeddedMessage = embeddedMessage;
+    }
+
+    @JsonCreator
+    private static PrecomputedMimeDescriptor fromJson(@JsonProperty("type") String type,
+                                                       @JsonProperty("subType") String subType,
+                                                       @JsonProperty("id") String contentId,
+                                                       @JsonProperty("description") String contentDescription,
+                                                       @JsonProperty("location") String location,
+                                                       @JsonProperty("md5") String md5,
+                                                       @JsonProperty("encoding") String transferEncoding,
+                                                       @JsonProperty("languages") List<String> languages,
+                                                       @JsonProperty("disposition") String disposition,
+                                                       @JsonProperty("dispositionParams") Map<String, String> dispositionParams,
+                                                       @JsonProperty("lines") long lines,
+                                                       @JsonProperty("octets") long bodyOctets,
+                                                       @JsonProperty("params") Map<String, String> contentTypeParameters,
+                                                       @JsonProperty("headers") List<HeaderDTO> headers,
+                                                       @JsonProperty("parts") List<PrecomputedMimeDescriptor> parts,
+                                                       @JsonProperty("embedded") PrecomputedMimeDescriptor embeddedMessage) {
+        return new PrecomputedMimeDescriptor(type, subType, contentId, contentDescription, location, md5, transferEncoding,
+            languages, disposition, dispositionParams, lines, bodyOctets, contentTypeParameters,
+            Optional.ofNullable(headers).orElse(ImmutableList.of())
+                .stream()
+                .map(header -> new Header(header.getName(), header.getValue()))
+                .collect(ImmutableList.toImmutableList()),
+            Optional.ofNullable(parts).orElse(ImmutableList.of()),
+            embeddedMessage);
+    }
+
+    public String serialize() {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialize message structure", e);
+        }
+    }
+
+    @Override
+    @JsonProperty("type")
+    public String getMimeType() {
+        return type;
+    }
+
+    @Override
+    @JsonProperty("subType")
+    public String getMimeSubType() {
+        return subType;
+    }
+
+    @Override
+    @JsonProperty("id")
+    public String getContentID() {
+        return contentId;
+    }
+
+    @Override
+    @JsonProperty("description")
+    public String getContentDescription() {
+        return contentDescription;
+    }
+
+    @Override
+    @JsonProperty("location")
+    public String getContentLocation() {
+        return location;
+    }
+
+    @Override
+    @JsonProperty("md5")
+    public String getContentMD5() {
+        return md5;
+    }
+
+    @Override
+    @JsonProperty("encoding")
+    public String getTransferContentEncoding() {
+        return transferEncoding;
+    }
+
+    @Override
+    @JsonProperty("languages")
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    @Override
+    @JsonProperty("disposition")
+    public String getDisposition() {
+        return disposition;
+    }
+
+    @Override
+    @JsonProperty("dispositionParams")
+    public Map<String, String> getDispositionParams() {
+        return dispositionParams;
+    }
+
+    @Override
+    @JsonProperty("lines")
+    public long getLines() {
+        return lines;
+    }
+
+    @Override
+    @JsonProperty("octets")
+    public long getBodyOctets() {
+        return bodyOctets;
+    }
+
+    @Override
+    @JsonProperty("params")
+    public Map<String, String> contentTypeParameters() {
+        return contentTypeParameters;
+    }
+
+    @JsonProperty("headers")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<HeaderDTO> headersDTO() {
+        return headers.stream()
+            .map(header -> new HeaderDTO(header.getName(), header.getValue()))
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    @JsonProperty("parts")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<PrecomputedMimeDescriptor> partList() {
+        return parts;
+    }
+
+    @Override
+    @JsonProperty("embedded")
+    public MimeDescriptor embeddedMessage() {
+        return embeddedMessage;
+    }
+
+    @Override
+    public Iterator<MimeDescriptor> parts() {
+        return ImmutableList.<MimeDescriptor>copyOf(parts).iterator();
+    }
+
+    @Override
+    public Iterator<Header> headers() {
+        return headers.iterator();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        StringBuilder sb = new StringBuilder();
+        for (Header header : headers) {
+            sb.append(header.getName()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        sb.append("\r\n");
+        return new ByteArrayInputStream(sb.toString().getBytes(US_ASCII));
+    }
+
+    @Override
+    public long size() {
+        // Add for CRLF
+        return headers.stream()
+            .mapToLong(header -> header.size() + 2)
+            .sum() + 2;
+    }
+}
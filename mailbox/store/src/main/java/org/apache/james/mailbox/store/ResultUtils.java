@@ -51,9 +51,23 @@ public class ResultUtils {
         FetchGroup.Profile.HEADERS,
         FetchGroup.Profile.BODY_CONTENT,
         FetchGroup.Profile.FULL_CONTENT,
+        FetchGroup.Profile.FULL_CONTENT_RANGE,
         FetchGroup.Profile.MIME_DESCRIPTOR);
 
     public static List<Header> createHeaders(MailboxMessage document) throws IOException {
+        try (InputStream headerContent = document.getHeaderContent()) {
+            return createHeaders(headerContent, document);
+        }
+    }
+
+    /**
+     * Parses the headers found at the beginning of the given stream. Reading stops at the end of the header section.
+     */
+    public static List<Header> createHeaders(InputStream content) throws IOException {
+        return createHeaders(content, content);
+    }
+
+    private static List<Header> createHeaders(InputStream content, Object source) throws IOException {
         List<Header> results = new ArrayList<>();
         MimeStreamParser parser = new MimeStreamParser(MimeConfig.PERMISSIVE);
         parser.setContentHandler(new AbstractContentHandler() {
@@ -64,38 +78,44 @@ public class ResultUtils {
             
             @Override
             public void field(Field field) throws MimeException {
-                String fieldValue;
-                if (field instanceof RawField) {
-                    // check if we can access the body in the raw form so no unfolding was done under the hood
-                    ByteSequence raw = field.getRaw();
-                    int len = raw.length();
-                    int off = ((RawField) field).getDelimiterIdx() + 1;
-                    if (len > off + 1 && (raw.byteAt(off) & 0xff) == 0x20) {
-                        off++;
-                    }
-                
-                    fieldValue = ContentUtil.decode(raw, off, len - off);
-                } else {
-                    fieldValue = field.getBody();
-                }
-                if (fieldValue.endsWith("\r\f")) {
-                    fieldValue = fieldValue.substring(0,fieldValue.length() - 2);
-                }
-                if (fieldValue.startsWith(" ")) {
-                    fieldValue = fieldValue.substring(1);
-                }
-                
-                Header header = new Header(field.getName(), fieldValue);
-                results.add(header);
+                results.add(createHeader(field));
             }
         });
         try {
-            parser.parse(document.getHeaderContent());
+            parser.parse(content);
         } catch (MimeException e) {
-            throw new IOException("Unable to parse headers of message " + document, e);
+            throw new IOException("Unable to parse headers of message " + source, e);
         }
         return results;
     }
+
+    /**
+     * Converts a parsed header field, keeping its raw value when available so that no unfolding is performed.
+     */
+    public static Header createHeader(Field field) {
+        String fieldValue;
+        if (field instanceof RawField) {
+            // check if we can access the body in the raw form so no unfolding was done under the hood
+            ByteSequence raw = field.getRaw();
+            int len = raw.length();
+            int off = ((RawField) field).getDelimiterIdx() + 1;
+            if (len > off + 1 && (raw.byteAt(off) & 0xff) == 0x20) {
+                off++;
+            }
+
+            fieldValue = ContentUtil.decode(raw, off, len - off);
+        } else {
+            fieldValue = field.getBody();
+        }
+        if (fieldValue.endsWith("\r\f")) {
+            fieldValue = fieldValue.substring(0,fieldValue.length() - 2);
+        }
+        if (fieldValue.startsWith(" ")) {
+            fieldValue = fieldValue.substring(1);
+        }
+
+        return new Header(field.getName(), fieldValue);
+    }
     
     /**
      * Return the {@link MessageResult} for the given {@link MailboxMessage} and {@link FetchGroup}
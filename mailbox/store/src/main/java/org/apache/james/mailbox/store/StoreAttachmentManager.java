@@ -85,6 +85,17 @@ public class StoreAttachmentManager implements AttachmentManager {
 
     @Override
     public InputStream loadAttachmentContent(AttachmentId attachmentId, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException {
+        checkAccessible(attachmentId, mailboxSession);
+        return attachmentMapperFactory.getAttachmentMapper(mailboxSession).loadAttachmentContent(attachmentId);
+    }
+
+    @Override
+    public InputStream loadAttachmentContent(AttachmentId attachmentId, long offset, long length, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException {
+        checkAccessible(attachmentId, mailboxSession);
+        return attachmentMapperFactory.getAttachmentMapper(mailboxSession).loadAttachmentContent(attachmentId, offset, length);
+    }
+
+    private void checkAccessible(AttachmentId attachmentId, MailboxSession mailboxSession) throws AttachmentNotFoundException {
         try {
             if (!exists(attachmentId, mailboxSession)) {
                 throw new AttachmentNotFoundException(attachmentId.getId());
@@ -92,6 +103,5 @@ public class StoreAttachmentManager implements AttachmentManager {
         } catch (MailboxException e) {
             throw new RuntimeException(e);
         }
-        return attachmentMapperFactory.getAttachmentMapper(mailboxSession).loadAttachmentContent(attachmentId);
     }
 }
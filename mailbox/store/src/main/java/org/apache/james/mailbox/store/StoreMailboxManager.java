@@ -22,6 +22,7 @@ package org.apache.james.mailbox.store;
 import static org.apache.james.mailbox.store.MailboxReactorUtils.block;
 import static org.apache.james.mailbox.store.MailboxReactorUtils.blockOptional;
 import static org.apache.james.mailbox.store.mail.AbstractMessageMapper.UNLIMITED;
+import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -45,7 +46,9 @@ import org.apache.james.mailbox.MailboxPathLocker;
 import org.apache.james.mailbox.MailboxPathLocker.LockAwareExecution;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.MetadataWithMailboxId;
+import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.SessionProvider;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.InboxAlreadyCreated;
@@ -103,6 +106,8 @@ import com.google.common.collect.Lists;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import reactor.util.retry.Retry;
 import reactor.util.retry.RetryBackoffSpec;
 
@@ -269,7 +274,7 @@ public class StoreMailboxManager implements MailboxManager {
     protected StoreMessageManager createMessageManager(Mailbox mailbox, MailboxSession session) throws MailboxException {
         return new StoreMessageManager(DEFAULT_NO_MESSAGE_CAPABILITIES, getMapperFactory(), getMessageSearchIndex(), getEventBus(),
             getLocker(), mailbox, quotaManager,
-            getQuotaComponents().getQuotaRootResolver(), configuration.getBatchSizes(),
+            getQuotaComponents().getQuotaRootResolver(), configuration.getBatchSizes(), configuration.getAppendBuffer(),
             getStoreRightManager(), preDeletionHooks, new MessageStorer.WithoutAttachment(mailboxSessionMapperFactory, messageIdFactory, new MessageFactory.StoreMessageFactory(), threadIdGuessingAlgorithm));
     }
 
@@ -660,21 +665,31 @@ public class StoreMailboxManager implements MailboxManager {
 
     private Function<Flux<Mailbox>, Flux<MailboxMetaData>> metadataTransformation(MailboxSearchFetchType fetchType, MailboxSession session, List<Mailbox> mailboxes) {
         if (fetchType == MailboxSearchFetchType.Counters) {
-            return withCounters(session, mailboxes);
+            return withCounters(session, mailboxes, false);
+        }
+        if (fetchType == MailboxSearchFetchType.Status) {
+            return withCounters(session, mailboxes, true);
         }
         return withoutCounters(session, mailboxes);
     }
 
-    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withCounters(MailboxSession session, List<Mailbox> mailboxes) {
+    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withCounters(MailboxSession session, List<Mailbox> mailboxes, boolean withSequences) {
         MessageMapper messageMapper = mailboxSessionMapperFactory.getMessageMapper(session);
         Map<MailboxPath, Boolean> parentMap = parentMap(mailboxes, session);
-        int concurrency = 4;
         return mailboxFlux -> mailboxFlux
-            .flatMap(mailbox -> retrieveCounters(messageMapper, mailbox, session)
-                .map(Throwing.<MailboxCounters, MailboxMetaData>function(
-                    counters -> toMailboxMetadata(session, parentMap, mailbox, counters))
-                    .sneakyThrow()),
-                concurrency);
+            .collectList()
+            .flatMapMany(matchingMailboxes -> {
+                List<Mailbox> readableMailboxes = readableMailboxes(matchingMailboxes, session);
+                return Mono.zip(retrieveCounters(messageMapper, readableMailboxes),
+                        retrieveSequences(messageMapper, readableMailboxes, withSequences))
+                    .flatMapIterable(countersAndSequences -> matchingMailboxes.stream()
+                        .map(Throwing.<Mailbox, MailboxMetaData>function(
+                            mailbox -> toMailboxMetadata(session, parentMap, mailbox,
+                                countersAndSequences.getT1().getOrDefault(mailbox.getMailboxId(), MailboxCounters.empty(mailbox.getMailboxId())),
+                                sequences(mailbox, countersAndSequences.getT2(), withSequences)))
+                            .sneakyThrow())
+                        .collect(ImmutableList.toImmutableList()));
+            });
     }
 
     private Map<MailboxPath, Boolean> parentMap(List<Mailbox> mailboxes, MailboxSession session) {
@@ -693,14 +708,46 @@ public class StoreMailboxManager implements MailboxManager {
         Map<MailboxPath, Boolean> parentMap = parentMap(mailboxes, session);
         return mailboxFlux -> mailboxFlux
                 .map(Throwing.<Mailbox, MailboxMetaData>function(
-                    mailbox -> toMailboxMetadata(session, parentMap, mailbox, MailboxCounters.empty(mailbox.getMailboxId())))
+                    mailbox -> toMailboxMetadata(session, parentMap, mailbox, MailboxCounters.empty(mailbox.getMailboxId()), Optional.empty()))
                     .sneakyThrow());
     }
 
-    private Mono<MailboxCounters> retrieveCounters(MessageMapper messageMapper, Mailbox mailbox, MailboxSession session) {
-        return messageMapper.getMailboxCountersReactive(mailbox)
-            .filter(Throwing.<MailboxCounters>predicate(counter -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
-            .switchIfEmpty(Mono.just(MailboxCounters.empty(mailbox.getMailboxId())));
+    private List<Mailbox> readableMailboxes(List<Mailbox> mailboxes, MailboxSession session) {
+        return mailboxes.stream()
+            .filter(Throwing.<Mailbox>predicate(mailbox -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private Mono<Map<MailboxId, MailboxCounters>> retrieveCounters(MessageMapper messageMapper, List<Mailbox> readableMailboxes) {
+        if (readableMailboxes.isEmpty()) {
+            return Mono.just(ImmutableMap.of());
+        }
+        return messageMapper.getMailboxCountersReactive(readableMailboxes)
+            .collectMap(MailboxCounters::getMailboxId);
+    }
+
+    private Mono<Map<MailboxId, MailboxMetaData.Sequences>> retrieveSequences(MessageMapper messageMapper, List<Mailbox> readableMailboxes, boolean withSequences) {
+        if (!withSequences || readableMailboxes.isEmpty()) {
+            return Mono.just(ImmutableMap.of());
+        }
+        return Flux.fromIterable(readableMailboxes)
+            .flatMap(mailbox -> Mono.zip(messageMapper.getLastUidReactive(mailbox), messageMapper.getHighestModSeqReactive(mailbox))
+                .map(lastUidAndHighestModSeq -> Tuples.of(mailbox.getMailboxId(), new MailboxMetaData.Sequences(
+                    mailbox.getUidValidity(),
+                    lastUidAndHighestModSeq.getT1().map(MessageUid::next).orElse(MessageUid.MIN_VALUE),
+                    lastUidAndHighestModSeq.getT2()))), DEFAULT_CONCURRENCY)
+            .collectMap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    /**
+     * Mailboxes that can not be read get neutral sequences, like {@link MessageManager.MailboxMetaData#sensibleInformationFree}.
+     */
+    private Optional<MailboxMetaData.Sequences> sequences(Mailbox mailbox, Map<MailboxId, MailboxMetaData.Sequences> sequences, boolean withSequences) {
+        if (!withSequences) {
+            return Optional.empty();
+        }
+        return Optional.of(sequences.getOrDefault(mailbox.getMailboxId(),
+            new MailboxMetaData.Sequences(mailbox.getUidValidity(), MessageUid.MIN_VALUE, ModSeq.first())));
     }
 
     private Flux<Mailbox> searchMailboxes(MailboxQuery mailboxQuery, MailboxSession session, Right right) {
@@ -749,7 +796,8 @@ public class StoreMailboxManager implements MailboxManager {
             .map(Mailbox::getMailboxId);
     }
 
-    private MailboxMetaData toMailboxMetadata(MailboxSession session, Map<MailboxPath, Boolean> parentMap, Mailbox mailbox, MailboxCounters counters) throws UnsupportedRightException {
+    private MailboxMetaData toMailboxMetadata(MailboxSession session, Map<MailboxPath, Boolean> parentMap, Mailbox mailbox, MailboxCounters counters,
+                                              Optional<MailboxMetaData.Sequences> sequences) throws UnsupportedRightException {
         return new MailboxMetaData(
             mailbox.generateAssociatedPath(),
             mailbox.getMailboxId(),
@@ -757,7 +805,8 @@ public class StoreMailboxManager implements MailboxManager {
             computeChildren(parentMap, mailbox),
             Selectability.NONE,
             storeRightManager.getResolvedMailboxACL(mailbox, session),
-            counters);
+            counters,
+            sequences);
     }
 
     private MailboxMetaData.Children computeChildren(Map<MailboxPath, Boolean> parentMap, Mailbox mailbox) {
@@ -24,10 +24,6 @@ import static org.apache.james.mailbox.store.mail.AbstractMessageMapper.UNLIMITE
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -44,7 +40,6 @@ import java.util.function.Function;
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
 
-import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.events.EventBus;
@@ -75,6 +70,7 @@ import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageMoves;
 import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MessageResultIterator;
 import org.apache.james.mailbox.model.QuotaRoot;
 import org.apache.james.mailbox.model.SearchQuery;
@@ -103,7 +99,6 @@ import org.apache.james.mime4j.stream.MimeTokenStream;
 import org.apache.james.mime4j.stream.RecursionMode;
 import org.apache.james.util.IteratorWrapper;
 import org.apache.james.util.io.BodyOffsetInputStream;
-import org.apache.james.util.io.InputStreamConsummer;
 import org.apache.james.util.streams.Iterators;
 import org.reactivestreams.Publisher;
 
@@ -166,6 +161,7 @@ public class StoreMessageManager implements MessageManager {
     private final QuotaRootResolver quotaRootResolver;
     private final MailboxPathLocker locker;
     private final BatchSizes batchSizes;
+    private final AppendBuffer appendBuffer;
     private final PreDeletionHooks preDeletionHooks;
     private final MessageStorer messageStorer;
 
@@ -173,7 +169,7 @@ public class StoreMessageManager implements MessageManager {
                                MessageSearchIndex index, EventBus eventBus,
                                MailboxPathLocker locker, Mailbox mailbox,
                                QuotaManager quotaManager, QuotaRootResolver quotaRootResolver, BatchSizes batchSizes,
-                               StoreRightManager storeRightManager, PreDeletionHooks preDeletionHooks, MessageStorer messageStorer) {
+                               AppendBuffer appendBuffer, StoreRightManager storeRightManager, PreDeletionHooks preDeletionHooks, MessageStorer messageStorer) {
         this.messageCapabilities = messageCapabilities;
         this.eventBus = eventBus;
         this.mailbox = mailbox;
@@ -183,6 +179,7 @@ public class StoreMessageManager implements MessageManager {
         this.quotaManager = quotaManager;
         this.quotaRootResolver = quotaRootResolver;
         this.batchSizes = batchSizes;
+        this.appendBuffer = appendBuffer;
         this.storeRightManager = storeRightManager;
         this.preDeletionHooks = preDeletionHooks;
         this.messageStorer = messageStorer;
@@ -335,55 +332,16 @@ public class StoreMessageManager implements MessageManager {
 
     @Override
     public AppendResult appendMessage(InputStream msgIn, Date internalDate, final MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet) throws MailboxException {
-        File file = null;
-
         if (!isWriteable(mailboxSession)) {
             throw new ReadOnlyException(getMailboxPath());
         }
 
-        try {
-            // Create a temporary file and copy the message to it. We will work
-            // with the file as
-            // source for the InputStream
-            file = File.createTempFile("imap", ".msg");
-            try (FileOutputStream out = new FileOutputStream(file);
-                BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
-                BufferedInputStream tmpMsgIn = new BufferedInputStream(new TeeInputStream(msgIn, bufferedOut));
-                BodyOffsetInputStream bIn = new BodyOffsetInputStream(tmpMsgIn)) {
-                Pair<PropertyBuilder, HeaderImpl> pair = parseProperties(bIn);
-                PropertyBuilder propertyBuilder = pair.getLeft();
-                HeaderImpl headers = pair.getRight();
-
-                InputStreamConsummer.consume(tmpMsgIn);
-                bufferedOut.flush();
-                int bodyStartOctet = getBodyStartOctet(bIn);
-                File finalFile = file;
-                Optional<Message> unparsedMimeMessqage = Optional.empty();
-                return MailboxReactorUtils.block(createAndDispatchMessage(computeInternalDate(internalDate),
-                    mailboxSession, new Content() {
-                        @Override
-                        public InputStream getInputStream() throws IOException {
-                            return new FileInputStream(finalFile);
-                        }
-
-                        @Override
-                        public long size() {
-                            return finalFile.length();
-                        }
-                    }, propertyBuilder,
-                    getFlags(mailboxSession, isRecent, flagsToBeSet), bodyStartOctet, unparsedMimeMessqage, headers));
-            }
-        } catch (IOException | MimeException e) {
+        // Buffer the message, in memory for small ones, in a temporary file otherwise, so that it can be read again
+        // once parsed
+        try (AppendBuffer.BufferedContent content = appendBuffer.buffer(msgIn)) {
+            return MailboxReactorUtils.block(appendMessage(content, internalDate, mailboxSession, isRecent, flagsToBeSet, Optional.empty()));
+        } catch (IOException e) {
             throw new MailboxException("Unable to parse message", e);
-        } finally {
-            // delete the temporary file if one was specified
-            if (file != null) {
-                if (!file.delete()) {
-                    // Don't throw an IOException. The message could be appended
-                    // and the temporary file
-                    // will be deleted hopefully some day
-                }
-            }
         }
     }
 
@@ -393,25 +351,48 @@ public class StoreMessageManager implements MessageManager {
                 throw new ReadOnlyException(getMailboxPath());
             }
 
-            try (InputStream contentStream = msgIn.getInputStream();
-                    BufferedInputStream bufferedContentStream = new BufferedInputStream(contentStream);
-                    BodyOffsetInputStream bIn = new BodyOffsetInputStream(bufferedContentStream)) {
-                Pair<PropertyBuilder, HeaderImpl> pair = parseProperties(bIn);
-                PropertyBuilder propertyBuilder = pair.getLeft();
-                HeaderImpl headers = pair.getRight();
-                int bodyStartOctet = getBodyStartOctet(bIn);
-
-                return createAndDispatchMessage(computeInternalDate(internalDate),
-                    mailboxSession, msgIn, propertyBuilder,
-                    getFlags(mailboxSession, isRecent, flagsToBeSet), bodyStartOctet, maybeMessage, headers);
-            } catch (IOException | MimeException e) {
-                throw new MailboxException("Unable to parse message", e);
-            }
+            return createAndDispatchMessage(mailboxSession,
+                prepareMessage(msgIn, internalDate, mailboxSession, isRecent, flagsToBeSet, maybeMessage));
         }).flatMap(Function.identity())
             .subscribeOn(Schedulers.elastic());
     }
 
-    private Pair<PropertyBuilder, HeaderImpl> parseProperties(BodyOffsetInputStream bIn) throws IOException, MimeException {
+    @Override
+    public List<AppendResult> appendMessages(List<AppendCommand> appendCommands, MailboxSession mailboxSession) throws MailboxException {
+        if (appendCommands.isEmpty()) {
+            return ImmutableList.of();
+        }
+        if (!isWriteable(mailboxSession)) {
+            throw new ReadOnlyException(getMailboxPath());
+        }
+
+        ImmutableList.Builder<MessageStorer.MessageToStore> messages = ImmutableList.builder();
+        for (AppendCommand appendCommand : appendCommands) {
+            messages.add(prepareMessage(appendCommand.getMsgIn(), appendCommand.getInternalDate(), mailboxSession,
+                appendCommand.isRecent(), appendCommand.getFlags(), appendCommand.getMaybeParsedMessage()));
+        }
+        return MailboxReactorUtils.block(createAndDispatchMessages(mailboxSession, messages.build())
+            .subscribeOn(Schedulers.elastic()));
+    }
+
+    private MessageStorer.MessageToStore prepareMessage(Content msgIn, Date internalDate, MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet, Optional<Message> maybeMessage) throws MailboxException {
+        try (InputStream contentStream = msgIn.getInputStream();
+                BufferedInputStream bufferedContentStream = new BufferedInputStream(contentStream);
+                BodyOffsetInputStream bIn = new BodyOffsetInputStream(bufferedContentStream)) {
+            int size = (int) msgIn.size();
+            Pair<PropertyBuilder, HeaderImpl> pair = parseProperties(bIn, size);
+            PropertyBuilder propertyBuilder = pair.getLeft();
+            HeaderImpl headers = pair.getRight();
+            int bodyStartOctet = getBodyStartOctet(bIn);
+
+            return new MessageStorer.MessageToStore(computeInternalDate(internalDate), size, bodyStartOctet, msgIn,
+                getFlags(mailboxSession, isRecent, flagsToBeSet), propertyBuilder, maybeMessage, headers);
+        } catch (IOException | MimeException e) {
+            throw new MailboxException("Unable to parse message", e);
+        }
+    }
+
+    private Pair<PropertyBuilder, HeaderImpl> parseProperties(BodyOffsetInputStream bIn, int size) throws IOException, MimeException, MailboxException {
         // Disable line length... This should be handled by the smtp server
         // component and not the parser itself
         // https://issues.apache.org/jira/browse/IMAP-122
@@ -422,6 +403,8 @@ public class StoreMessageManager implements MessageManager {
         final MediaType mediaType = getMediaType(descriptor);
         final PropertyBuilder propertyBuilder = getPropertyBuilder(descriptor, mediaType.mediaType, mediaType.subType);
         setTextualLinesCount(parser, mediaType.mediaType, propertyBuilder);
+        // The structure of composite messages is computed by continuing this parsing, so that the message is parsed once
+        propertyBuilder.setMessageStructure(computeMessageStructure(parser, headers, propertyBuilder, size - getBodyStartOctet(bIn)));
         return new ImmutablePair<>(propertyBuilder, headers);
     }
 
@@ -505,14 +488,14 @@ public class StoreMessageManager implements MessageManager {
         return bodyStartOctet;
     }
 
-    private Mono<AppendResult> createAndDispatchMessage(Date internalDate, MailboxSession mailboxSession, Content content, PropertyBuilder propertyBuilder, Flags flags, int bodyStartOctet, Optional<Message> maybeMessage, HeaderImpl headers) throws MailboxException {
-        int size = (int) content.size();
+    private Mono<AppendResult> createAndDispatchMessage(MailboxSession mailboxSession, MessageStorer.MessageToStore message) throws MailboxException {
         QuotaRoot quotaRoot = quotaRootResolver.getQuotaRoot(mailbox);
         return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
             .map(quotas -> new QuotaChecker(quotas, quotaRoot))
-            .doOnNext(Throwing.consumer((QuotaChecker quotaChecker) -> quotaChecker.tryAddition(1, size)).sneakyThrow())
+            .doOnNext(Throwing.consumer((QuotaChecker quotaChecker) -> quotaChecker.tryAddition(1, message.getSize())).sneakyThrow())
             .then(Mono.from(locker.executeReactiveWithLockReactive(getMailboxPath(),
-                messageStorer.appendMessageToStore(mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, mailboxSession, headers)
+                messageStorer.appendMessageToStore(mailbox, message.getInternalDate(), message.getSize(), message.getBodyStartOctet(),
+                        message.getContent(), message.getFlags(), message.getPropertyBuilder(), message.getMaybeMessage(), mailboxSession, message.getHeaders())
                     .flatMap(data -> eventBus.dispatch(EventFactory.added()
                             .randomEventId()
                             .mailboxSession(mailboxSession)
@@ -524,6 +507,40 @@ public class StoreMessageManager implements MessageManager {
                 MailboxPathLocker.LockType.Write)));
     }
 
+    private Mono<List<AppendResult>> createAndDispatchMessages(MailboxSession mailboxSession, List<MessageStorer.MessageToStore> messages) throws MailboxException {
+        long totalSize = messages.stream()
+            .mapToLong(MessageStorer.MessageToStore::getSize)
+            .sum();
+        QuotaRoot quotaRoot = quotaRootResolver.getQuotaRoot(mailbox);
+        return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
+            .map(quotas -> new QuotaChecker(quotas, quotaRoot))
+            .doOnNext(Throwing.consumer((QuotaChecker quotaChecker) -> quotaChecker.tryAddition(messages.size(), totalSize)).sneakyThrow())
+            .then(Mono.from(locker.executeReactiveWithLockReactive(getMailboxPath(),
+                messageStorer.appendMessagesToStore(mailbox, messages, mailboxSession)
+                    .flatMap(data -> eventBus.dispatch(EventFactory.added()
+                            .randomEventId()
+                            .mailboxSession(mailboxSession)
+                            .mailbox(mailbox)
+                            .addMetaData(data.stream()
+                                .map(Pair::getLeft)
+                                .collect(ImmutableList.toImmutableList()))
+                            .build(),
+                        new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                        .thenReturn(data.stream()
+                            .map(pair -> computeAppendResult(pair, mailbox))
+                            .collect(ImmutableList.toImmutableList()))),
+                MailboxPathLocker.LockType.Write)));
+    }
+
+    private String computeMessageStructure(MimeTokenStream parser, HeaderImpl headers, PropertyBuilder propertyBuilder, long bodyOctets) throws MailboxException {
+        try {
+            return PrecomputedMimeDescriptor.compute(parser, headers.getFields(), propertyBuilder.build(), bodyOctets)
+                .serialize();
+        } catch (IOException | MimeException e) {
+            throw new MailboxException("Unable to compute the message structure", e);
+        }
+    }
+
     private AppendResult computeAppendResult(Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> data, Mailbox mailbox) {
         MessageMetaData messageMetaData = data.getLeft();
         ComposedMessageId ids = new ComposedMessageId(mailbox.getMailboxId(), messageMetaData.getMessageId(), messageMetaData.getUid());
@@ -723,12 +740,38 @@ public class StoreMessageManager implements MessageManager {
         return new StoreMessageResultIterator(messageMapper, mailbox, set, batchSizes, fetchGroup);
     }
 
+    @Override
+    public Publisher<MessageResult> getMessagesReactive(MessageRange set, FetchGroup fetchGroup, MailboxSession mailboxSession) {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(mailboxSession);
+        return StoreMessageResultIterator.readByBatches(messageMapper, mailbox, set, batchSizes, fetchGroup);
+    }
+
     @Override
     public Publisher<ComposedMessageIdWithMetaData> listMessagesMetadata(MessageRange set, MailboxSession session) {
         MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
         return messageMapper.listMessagesMetadata(mailbox, set);
     }
 
+    @Override
+    public Publisher<ComposedMessageIdWithMetaData> listMessagesMetadataChangedSince(MessageRange set, ModSeq changedSince, MailboxSession session) {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+        return messageMapper.listMessagesMetadataChangedSince(mailbox, set, changedSince);
+    }
+
+    @Override
+    public Optional<List<MessageUid>> listExpungedUidsSince(MessageRange set, ModSeq changedSince, MailboxSession session) throws MailboxException {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+        return MailboxReactorUtils.block(messageMapper.hasExpungeHistory(mailbox, changedSince)
+            .flatMap(hasHistory -> {
+                if (hasHistory) {
+                    return messageMapper.listExpungedUidsSince(mailbox, set, changedSince)
+                        .collect(ImmutableList.toImmutableList())
+                        .map(Optional::of);
+                }
+                return Mono.just(Optional.empty());
+            }));
+    }
+
     /**
      * Return a List which holds all uids of recent messages and optional reset
      * the recent flag on the messages for the uids
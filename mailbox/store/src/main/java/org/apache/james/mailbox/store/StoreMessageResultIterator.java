@@ -25,6 +25,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 import javax.mail.Flags;
 
@@ -53,9 +55,46 @@ import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.fge.lambdas.Throwing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public class StoreMessageResultIterator implements MessageResultIterator {
     private static final Logger LOGGER = LoggerFactory.getLogger(StoreMessageResultIterator.class);
 
+    /**
+     * Reactive counterpart of this iterator: the range is read by batches sized after the fetch type, and the next
+     * batch is only read once the previous one got consumed, so that at most one batch is held in memory.
+     */
+    static Flux<MessageResult> readByBatches(MessageMapper mapper, Mailbox mailbox, MessageRange range, BatchSizes batchSizes, FetchGroup group) {
+        FetchType fetchType = getFetchType(group);
+        int batchSize = batchSizeFromFetchType(batchSizes, fetchType);
+
+        return readBatch(mapper, mailbox, range, fetchType, batchSize)
+            .expand(batch -> nextRange(range, batch, batchSize)
+                .map(nextRange -> readBatch(mapper, mailbox, nextRange, fetchType, batchSize))
+                .orElse(Mono.empty()))
+            .concatMapIterable(Function.identity(), 1)
+            .map(Throwing.<MailboxMessage, MessageResult>function(message -> ResultUtils.loadMessageResult(message, group)).sneakyThrow());
+    }
+
+    private static Mono<List<MailboxMessage>> readBatch(MessageMapper mapper, Mailbox mailbox, MessageRange range, FetchType fetchType, int batchSize) {
+        return Mono.defer(() -> mapper.findInMailboxReactive(mailbox, range, fetchType, batchSize)
+            .collectList());
+    }
+
+    private static Optional<MessageRange> nextRange(MessageRange range, List<MailboxMessage> batch, int batchSize) {
+        if (batch.size() < batchSize) {
+            return Optional.empty();
+        }
+        MessageUid lastUid = batch.get(batch.size() - 1).getUid();
+        if (lastUid.compareTo(range.getUidTo()) >= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(MessageRange.range(lastUid.next(), range.getUidTo()));
+    }
+
     private Iterator<MailboxMessage> next = null;
     private MailboxException exception;
     private final Mailbox mailbox;
@@ -117,18 +156,20 @@ public class StoreMessageResultIterator implements MessageResultIterator {
             range = MessageRange.range(cursor, to);
             break;
         }
-        next = mapper.findInMailbox(mailbox, range, ftype, batchSizeFromFetchType(ftype));
+        next = mapper.findInMailbox(mailbox, range, ftype, batchSizeFromFetchType(batchSizes, ftype));
     }
 
-    private int batchSizeFromFetchType(FetchType fetchType) {
+    private static int batchSizeFromFetchType(BatchSizes batchSizes, FetchType fetchType) {
         switch (fetchType) {
         case METADATA:
             return batchSizes.getFetchMetadata();
+        case STRUCTURE:
         case HEADERS:
             return batchSizes.getFetchHeaders();
         case BODY:
             return batchSizes.getFetchBody();
         case FULL:
+        case FULL_RANGE:
             return batchSizes.getFetchFull();
         }
         throw new RuntimeException("Unknown fetchTpe: " + fetchType);
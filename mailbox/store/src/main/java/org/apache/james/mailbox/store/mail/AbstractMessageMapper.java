@@ -128,6 +128,29 @@ public abstract class AbstractMessageMapper extends TransactionalMapper implemen
         
     }
 
+    @Override
+    public List<MessageMetaData> add(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
+        if (messages.isEmpty()) {
+            return ImmutableList.of();
+        }
+        List<MessageUid> uids = uidProvider.nextUids(mailbox.getMailboxId(), messages.size()).block();
+
+        // if a mailbox does not support mod-sequences the provider may be null
+        Optional<ModSeq> modSeq = Optional.empty();
+        if (modSeqProvider != null) {
+            modSeq = Optional.of(modSeqProvider.nextModSeq(mailbox));
+        }
+
+        ImmutableList.Builder<MessageMetaData> result = ImmutableList.builder();
+        for (int i = 0; i < messages.size(); i++) {
+            MailboxMessage message = messages.get(i);
+            message.setUid(uids.get(i));
+            modSeq.ifPresent(message::setModSeq);
+            result.add(save(mailbox, message));
+        }
+        return result.build();
+    }
+
     
     @Override
     public MessageMetaData copy(Mailbox mailbox, MailboxMessage original) throws MailboxException {
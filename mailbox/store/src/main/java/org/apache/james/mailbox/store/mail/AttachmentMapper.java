@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.james.mailbox.exception.AttachmentNotFoundException;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.AttachmentId;
@@ -32,6 +33,8 @@ import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.ParsedAttachment;
 import org.apache.james.mailbox.store.transaction.Mapper;
 
+import com.google.common.io.ByteStreams;
+
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -39,6 +42,15 @@ public interface AttachmentMapper extends Mapper {
 
     InputStream loadAttachmentContent(AttachmentId attachmentId) throws AttachmentNotFoundException, IOException;
 
+    /**
+     * Loads at most length bytes of the attachment content, starting at offset.
+     */
+    default InputStream loadAttachmentContent(AttachmentId attachmentId, long offset, long length) throws AttachmentNotFoundException, IOException {
+        InputStream content = loadAttachmentContent(attachmentId);
+        IOUtils.skip(content, offset);
+        return ByteStreams.limit(content, length);
+    }
+
     AttachmentMetadata getAttachment(AttachmentId attachmentId) throws AttachmentNotFoundException;
 
     List<AttachmentMetadata> getAttachments(Collection<AttachmentId> attachmentIds);
@@ -49,6 +49,8 @@ public class FetchGroupConverter {
         boolean full = fetchTypes.contains(MessageMapper.FetchType.FULL);
         boolean headers = fetchTypes.contains(MessageMapper.FetchType.HEADERS);
         boolean body = fetchTypes.contains(MessageMapper.FetchType.BODY);
+        boolean structure = fetchTypes.contains(MessageMapper.FetchType.STRUCTURE);
+        boolean fullRange = fetchTypes.contains(MessageMapper.FetchType.FULL_RANGE);
 
         if (full) {
             return MessageMapper.FetchType.FULL;
@@ -56,6 +58,19 @@ public class FetchGroupConverter {
         if (headers && body) {
             return MessageMapper.FetchType.FULL;
         }
+        if (structure && (headers || body)) {
+            // Messages without a precomputed structure need their full content to compute it
+            return MessageMapper.FetchType.FULL;
+        }
+        if (fullRange && (headers || body || structure)) {
+            return MessageMapper.FetchType.FULL;
+        }
+        if (fullRange) {
+            return MessageMapper.FetchType.FULL_RANGE;
+        }
+        if (structure) {
+            return MessageMapper.FetchType.STRUCTURE;
+        }
         if (headers) {
             return MessageMapper.FetchType.HEADERS;
         }
@@ -71,12 +86,15 @@ public class FetchGroupConverter {
                 return MessageMapper.FetchType.HEADERS;
             case BODY_CONTENT:
                 return MessageMapper.FetchType.BODY;
+            case MIME_DESCRIPTOR:
+                // The mimedescriptor is precomputed at append time and stored with the message properties.
+                // Mappers fall back to the full content for messages stored without it.
+                return MessageMapper.FetchType.STRUCTURE;
+            case FULL_CONTENT_RANGE:
+                return MessageMapper.FetchType.FULL_RANGE;
             case FULL_CONTENT:
             case MIME_CONTENT:
             case MIME_HEADERS:
-            case MIME_DESCRIPTOR:
-                // If we need the mimedescriptor we MAY need the full profile later too.
-                // This gives us no other choice then request it
                 return MessageMapper.FetchType.FULL;
             default:
                 throw new NotImplementedException("Unsupported FetchGroup Profile" + profile);
@@ -20,6 +20,7 @@ package org.apache.james.mailbox.store.mail;
 
 import static javax.mail.Flags.Flag.RECENT;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,7 @@ import org.apache.james.mailbox.store.FlagsUpdateCalculator;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.Property;
 import org.apache.james.mailbox.store.transaction.Mapper;
+import org.apache.james.util.ReactorUtils;
 import org.apache.james.util.streams.Iterators;
 import org.reactivestreams.Publisher;
 
@@ -83,6 +85,32 @@ public interface MessageMapper extends Mapper {
                 message.getThreadId()));
     }
 
+    /**
+     * Return the metadata of the messages of the given range whose mod-sequence is strictly greater than
+     * changedSince, ordered by uid.
+     *
+     * Implementations are encouraged to rely on an index of changes rather than to list the whole range.
+     */
+    default Flux<ComposedMessageIdWithMetaData> listMessagesMetadataChangedSince(Mailbox mailbox, MessageRange set, ModSeq changedSince) {
+        return listMessagesMetadata(mailbox, set)
+            .filter(metadata -> metadata.getModSeq().compareTo(changedSince) > 0);
+    }
+
+    /**
+     * Return true when {@link #listExpungedUidsSince(Mailbox, MessageRange, ModSeq)} knows about every expunge
+     * performed in this mailbox after changedSince.
+     */
+    default Mono<Boolean> hasExpungeHistory(Mailbox mailbox, ModSeq changedSince) {
+        return Mono.just(false);
+    }
+
+    /**
+     * Return the uids of the given range expunged after changedSince, ordered by uid.
+     */
+    default Flux<MessageUid> listExpungedUidsSince(Mailbox mailbox, MessageRange set, ModSeq changedSince) {
+        return Flux.empty();
+    }
+
     default Flux<MailboxMessage> findInMailboxReactive(Mailbox mailbox, MessageRange set, FetchType type, int limit) {
         try {
             return Iterators.toFlux(findInMailbox(mailbox, set, type, limit));
@@ -108,6 +136,16 @@ public interface MessageMapper extends Mapper {
         return Mono.fromCallable(() -> getMailboxCounters(mailbox));
     }
 
+    /**
+     * Return the counters of several mailboxes at once. Implementations are encouraged to batch reads.
+     *
+     * No ordering is guaranteed.
+     */
+    default Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        return Flux.fromIterable(mailboxes)
+            .flatMap(this::getMailboxCountersReactive, ReactorUtils.DEFAULT_CONCURRENCY);
+    }
+
     /**
      * Delete the given {@link MailboxMessage}
      */
@@ -142,6 +180,16 @@ public interface MessageMapper extends Mapper {
             .subscribeOn(Schedulers.elastic());
     }
 
+    /**
+     * Add the given {@link MailboxMessage}s to the underlying storage, in order. Implementations are encouraged to
+     * reserve uids and mod-sequence once for the whole batch.
+     */
+    default List<MessageMetaData> add(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
+        return messages.stream()
+            .map(Throwing.<MailboxMessage, MessageMetaData>function(message -> add(mailbox, message)).sneakyThrow())
+            .collect(ImmutableList.toImmutableList());
+    }
+
     /**
      * Update flags for the given {@link MessageRange}. Only the flags may be modified after a message was saved to a mailbox.
      *
@@ -205,12 +253,19 @@ public interface MessageMapper extends Mapper {
      */
     Optional<MessageUid> getLastUid(Mailbox mailbox) throws MailboxException;
 
+    default Mono<Optional<MessageUid>> getLastUidReactive(Mailbox mailbox) {
+        return Mono.fromCallable(() -> getLastUid(mailbox));
+    }
 
     /**
      * Return the higest mod-sequence which were used for storing a MailboxMessage in the {@link Mailbox}
      */
     ModSeq getHighestModSeq(Mailbox mailbox) throws MailboxException;
 
+    default Mono<ModSeq> getHighestModSeqReactive(Mailbox mailbox) {
+        return Mono.fromCallable(() -> getHighestModSeq(mailbox));
+    }
+
     Flags getApplicableFlag(Mailbox mailbox) throws MailboxException;
 
     /**
@@ -240,6 +295,18 @@ public interface MessageMapper extends Mapper {
          * </p>
          */
         METADATA,
+        /**
+         * Fetch the {@link #METADATA} and the {@link Property}'s for the {@link MailboxMessage}, including the message
+         * structure computed at append time. This includes:
+         *
+         * <p>
+         * {@link MailboxMessage#getProperties()}
+         * </p>
+         *
+         * Messages stored without a precomputed structure are returned with their full content so that the structure
+         * can still be computed from it.
+         */
+        STRUCTURE,
         /**
          * Fetch the {@link #METADATA}, {@link Property}'s and the {@link #HEADERS}'s for the {@link MailboxMessage}. This includes:
          * 
@@ -262,7 +329,15 @@ public interface MessageMapper extends Mapper {
          * Fetch the complete {@link MailboxMessage}
          * 
          */
-        FULL;
+        FULL,
+
+        /**
+         * Fetch the {@link #METADATA} and the full content of the {@link MailboxMessage}, which will only be read by
+         * ranges through {@link MailboxMessage#getFullContent(long, long)}.
+         *
+         * Mappers able to read a range of the stored content can defer reading it. Others treat it as {@link #FULL}.
+         */
+        FULL_RANGE;
     }
 
 }
\ No newline at end of file
@@ -62,4 +62,8 @@ public interface ModSeqProvider {
     default Mono<ModSeq> nextModSeqReactive(MailboxId mailboxId) {
         return Mono.fromCallable(() -> nextModSeq(mailboxId));
     }
+
+    default Mono<ModSeq> highestModSeqReactive(MailboxId mailboxId) {
+        return Mono.fromCallable(() -> highestModSeq(mailboxId));
+    }
 }
@@ -78,6 +78,11 @@ public abstract class DelegatingMailboxMessage implements MailboxMessage {
         return message.getFullContent();
     }
 
+    @Override
+    public InputStream getFullContent(long offset, long length) throws IOException {
+        return message.getFullContent(offset, length);
+    }
+
     @Override
     public Properties getProperties() {
         return message.getProperties();
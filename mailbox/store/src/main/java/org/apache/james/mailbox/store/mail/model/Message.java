@@ -23,10 +23,13 @@ import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.store.mail.model.impl.Properties;
 
+import com.google.common.io.ByteStreams;
+
 public interface Message {
 
     MessageId getMessageId();
@@ -94,6 +97,17 @@ public interface Message {
      */
     InputStream getFullContent() throws IOException;
 
+    /**
+     * Returns at most length octets of the full raw content, starting at offset.
+     *
+     * Implementations able to directly access a part of their content should override it.
+     */
+    default InputStream getFullContent(long offset, long length) throws IOException {
+        InputStream inputStream = getFullContent();
+        IOUtils.skip(inputStream, offset);
+        return ByteStreams.limit(inputStream, length);
+    }
+
     /**
      * Gets a read-only list of meta-data properties.
      * For properties with multiple values, this list will contain
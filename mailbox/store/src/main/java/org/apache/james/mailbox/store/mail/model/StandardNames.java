@@ -214,4 +214,16 @@ public class StandardNames {
     * @see #NAMESPACE_RFC_2183
     */
    public static final String MIME_CONTENT_DISPOSITION_PARAMETER_SPACE = MIME_CONTENT_DISPOSITION_SPACE + "/params";
+
+   /**
+    * Namespace for the message structure (envelope and body structure) precomputed at append time.
+    */
+   public static final String NAMESPACE_JAMES_STRUCTURE = "http://james.apache.org/structure";
+
+   /**
+    * Local name for the serialized message structure property.
+    * The value may be split into several ordered properties sharing this name.
+    * @see #NAMESPACE_JAMES_STRUCTURE
+    */
+   public static final String MESSAGE_STRUCTURE_NAME = "structure";
 }
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.mailbox.store.mail.model.impl;
 
+import static org.apache.james.mailbox.store.mail.model.StandardNames.MESSAGE_STRUCTURE_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_DESCRIPTION_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_DESCRIPTION_SPACE;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_DISPOSITION_PARAMETER_SPACE;
@@ -37,11 +38,13 @@ import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTE
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_MEDIA_TYPE_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_MIME_TYPE_SPACE;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_SUB_TYPE_NAME;
+import static org.apache.james.mailbox.store.mail.model.StandardNames.NAMESPACE_JAMES_STRUCTURE;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -218,6 +221,20 @@ public class Properties {
         return getValues(MIME_CONTENT_LANGUAGE_SPACE, MIME_CONTENT_LANGUAGE_NAME);
     }
 
+    /**
+     * Gets the serialized message structure computed at append time.
+     *
+     * @return the serialized message structure,
+     * or empty for messages stored without it
+     */
+    public Optional<String> getMessageStructure() {
+        List<String> chunks = getValues(NAMESPACE_JAMES_STRUCTURE, MESSAGE_STRUCTURE_NAME);
+        if (chunks.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(String.join("", chunks));
+    }
+
     public List<Property> toProperties() {
         return new ArrayList<>(properties);
     }
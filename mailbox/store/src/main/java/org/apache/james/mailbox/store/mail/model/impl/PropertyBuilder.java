@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.mailbox.store.mail.model.impl;
 
+import static org.apache.james.mailbox.store.mail.model.StandardNames.MESSAGE_STRUCTURE_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_DESCRIPTION_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_DESCRIPTION_SPACE;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_DISPOSITION_PARAMETER_SPACE;
@@ -38,19 +39,24 @@ import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTE
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_MEDIA_TYPE_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_MIME_TYPE_SPACE;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_SUB_TYPE_NAME;
+import static org.apache.james.mailbox.store.mail.model.StandardNames.NAMESPACE_JAMES_STRUCTURE;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.james.mailbox.store.mail.model.Property;
 
+import com.google.common.base.Splitter;
+
 /**
  * Builds properties
  */
 public class PropertyBuilder {
     private static final int INITIAL_CAPACITY = 32;
+    private static final int MESSAGE_STRUCTURE_CHUNK_SIZE = 1000;
 
     private Long textualLineCount;
     private final List<Property> properties;
@@ -248,6 +254,19 @@ public class PropertyBuilder {
         setProperty(MIME_CONTENT_LANGUAGE_SPACE, MIME_CONTENT_LANGUAGE_NAME, values);
     }
     
+    /**
+     * Sets the serialized message structure computed at append time.
+     * The value is split in chunks so that each property value stays small enough for every backend.
+     *
+     * @param value serialized message structure,
+     * or null to remove
+     */
+    public void setMessageStructure(String value) {
+        setProperty(NAMESPACE_JAMES_STRUCTURE, MESSAGE_STRUCTURE_NAME, Optional.ofNullable(value)
+            .map(structure -> Splitter.fixedLength(MESSAGE_STRUCTURE_CHUNK_SIZE).splitToList(structure))
+            .orElse(null));
+    }
+    
     /**
      * Builds a list of properties.
      * @return not null
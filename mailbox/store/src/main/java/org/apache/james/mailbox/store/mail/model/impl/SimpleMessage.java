@@ -112,6 +112,11 @@ public class SimpleMessage implements Message {
         return content.getInputStream();
     }
 
+    @Override
+    public InputStream getFullContent(long offset, long length) throws IOException {
+        return content.getInputStream(offset, length);
+    }
+
     @Override
     public Properties getProperties() {
         return properties;
@@ -65,4 +65,14 @@ public final class InputStreamContent implements Content {
        
     }
 
+    @Override
+    public InputStream getInputStream(long offset, long length) throws IOException {
+        switch (type) {
+        case FULL:
+            return m.getFullContent(offset, length);
+        default:
+            return m.getFullContent(m.getHeaderOctets() + offset, Math.max(0, Math.min(length, m.getBodyOctets() - offset)));
+        }
+    }
+
 }
@@ -0,0 +1,167 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static org.apache.james.mailbox.store.AppendBuffer.IN_MEMORY_METRIC_NAME;
+import static org.apache.james.mailbox.store.AppendBuffer.SPILLED_METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+class AppendBufferTest {
+    private static final int THRESHOLD = 16;
+    private static final byte[] SMALL = "small".getBytes();
+    private static final byte[] EXACT = Strings.repeat("a", THRESHOLD).getBytes();
+    private static final byte[] BIG = Strings.repeat("0123456789", 10).getBytes();
+
+    private RecordingMetricFactory metricFactory;
+    private AppendBuffer testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new AppendBuffer(THRESHOLD, 2, metricFactory);
+    }
+
+    @Test
+    void smallContentShouldBeReadableSeveralTimes() throws Exception {
+        try (AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(SMALL))) {
+            assertThat(IOUtils.toByteArray(content.getInputStream())).isEqualTo(SMALL);
+            assertThat(IOUtils.toByteArray(content.getInputStream())).isEqualTo(SMALL);
+            assertThat(content.size()).isEqualTo(SMALL.length);
+        }
+    }
+
+    @Test
+    void smallContentShouldBeKeptInMemory() throws Exception {
+        testee.buffer(new ByteArrayInputStream(SMALL)).close();
+
+        assertThat(metricFactory.countFor(IN_MEMORY_METRIC_NAME)).isEqualTo(1);
+        assertThat(metricFactory.countFor(SPILLED_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void contentOfThresholdSizeShouldBeKeptInMemory() throws Exception {
+        try (AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(EXACT))) {
+            assertThat(IOUtils.toByteArray(content.getInputStream())).isEqualTo(EXACT);
+        }
+
+        assertThat(metricFactory.countFor(IN_MEMORY_METRIC_NAME)).isEqualTo(1);
+        assertThat(metricFactory.countFor(SPILLED_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void bigContentShouldBeReadableSeveralTimes() throws Exception {
+        try (AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(BIG))) {
+            assertThat(IOUtils.toByteArray(content.getInputStream())).isEqualTo(BIG);
+            assertThat(IOUtils.toByteArray(content.getInputStream())).isEqualTo(BIG);
+            assertThat(content.size()).isEqualTo(BIG.length);
+        }
+    }
+
+    @Test
+    void bigContentShouldSpill() throws Exception {
+        testee.buffer(new ByteArrayInputStream(BIG)).close();
+
+        assertThat(metricFactory.countFor(SPILLED_METRIC_NAME)).isEqualTo(1);
+        assertThat(metricFactory.countFor(IN_MEMORY_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void emptyContentShouldBeSupported() throws Exception {
+        try (AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(new byte[0]))) {
+            assertThat(content.getInputStream()).isEmpty();
+            assertThat(content.size()).isZero();
+        }
+    }
+
+    @Test
+    void rangeReadShouldReturnTheRequestedBytes() throws Exception {
+        try (AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(SMALL))) {
+            assertThat(IOUtils.toByteArray(content.getInputStream(1, 3))).isEqualTo("mal".getBytes());
+        }
+    }
+
+    @Test
+    void releasedInMemoryContentShouldNotBeReadable() throws Exception {
+        AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(SMALL));
+        content.close();
+
+        assertThatThrownBy(content::getInputStream)
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void releasedBuffersShouldNotCorruptLaterContents() throws Exception {
+        testee.buffer(new ByteArrayInputStream(EXACT)).close();
+
+        try (AppendBuffer.BufferedContent content = testee.buffer(new ByteArrayInputStream(SMALL))) {
+            assertThat(IOUtils.toByteArray(content.getInputStream())).isEqualTo(SMALL);
+        }
+    }
+
+    @Test
+    void contentsShouldBeBufferedWhenAllPooledArraysAreInUse() throws Exception {
+        try (AppendBuffer.BufferedContent first = testee.buffer(new ByteArrayInputStream(EXACT));
+             AppendBuffer.BufferedContent second = testee.buffer(new ByteArrayInputStream(EXACT));
+             AppendBuffer.BufferedContent small = testee.buffer(new ByteArrayInputStream(SMALL));
+             AppendBuffer.BufferedContent exact = testee.buffer(new ByteArrayInputStream(EXACT));
+             AppendBuffer.BufferedContent big = testee.buffer(new ByteArrayInputStream(BIG))) {
+            assertThat(IOUtils.toByteArray(small.getInputStream())).isEqualTo(SMALL);
+            assertThat(IOUtils.toByteArray(exact.getInputStream())).isEqualTo(EXACT);
+            assertThat(IOUtils.toByteArray(big.getInputStream())).isEqualTo(BIG);
+        }
+
+        assertThat(metricFactory.countFor(IN_MEMORY_METRIC_NAME)).isEqualTo(4);
+        assertThat(metricFactory.countFor(SPILLED_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void contentsShouldBeBufferedWhenPoolingIsDisabled() throws Exception {
+        AppendBuffer testee = new AppendBuffer(THRESHOLD, 0, metricFactory);
+
+        try (AppendBuffer.BufferedContent small = testee.buffer(new ByteArrayInputStream(SMALL));
+             AppendBuffer.BufferedContent big = testee.buffer(new ByteArrayInputStream(BIG))) {
+            assertThat(IOUtils.toByteArray(small.getInputStream())).isEqualTo(SMALL);
+            assertThat(IOUtils.toByteArray(big.getInputStream())).isEqualTo(BIG);
+        }
+    }
+
+    @Test
+    void constructorShouldRejectNegativePoolSize() {
+        assertThatThrownBy(() -> new AppendBuffer(THRESHOLD, -1, metricFactory))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructorShouldRejectNonPositiveThreshold() {
+        assertThatThrownBy(() -> new AppendBuffer(0, 2, metricFactory))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,170 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Iterator;
+
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MimeDescriptor;
+import org.apache.james.mailbox.store.mail.model.impl.Properties;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class PrecomputedMimeDescriptorTest {
+    private static final String SIMPLE_MESSAGE = "Date: Thu, 6 Jan 2022 10:00:00 +0000\r\n" +
+        "From: alice@domain.tld\r\n" +
+        "To: bob@domain.tld\r\n" +
+        "Subject: Simple\r\n" +
+        "X-Custom: ignored\r\n" +
+        "Content-Type: text/plain; charset=UTF-8\r\n" +
+        "\r\n" +
+        "Hello\r\n" +
+        "Bob\r\n";
+
+    private static final String MULTIPART_MESSAGE = "From: alice@domain.tld\r\n" +
+        "Subject: Multipart\r\n" +
+        "Received: from somewhere\r\n" +
+        "Content-Type: multipart/mixed; boundary=\"frontier\"\r\n" +
+        "\r\n" +
+        "--frontier\r\n" +
+        "Content-Type: text/plain\r\n" +
+        "\r\n" +
+        "Body\r\n" +
+        "--frontier\r\n" +
+        "Content-Type: message/rfc822\r\n" +
+        "\r\n" +
+        "From: carol@domain.tld\r\n" +
+        "Subject: Embedded\r\n" +
+        "X-Custom: ignored\r\n" +
+        "\r\n" +
+        "Embedded body\r\n" +
+        "--frontier--\r\n";
+
+    @Test
+    void computeShouldDeriveSimpleStructureFromProperties() throws Exception {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMediaType("text");
+        propertyBuilder.setSubType("plain");
+        propertyBuilder.setCharset("UTF-8");
+        propertyBuilder.setTextualLineCount(2L);
+
+        PrecomputedMimeDescriptor descriptor = PrecomputedMimeDescriptor.compute(content(SIMPLE_MESSAGE), propertyBuilder.build(), 10);
+
+        assertThat(descriptor.getMimeType()).isEqualTo("text");
+        assertThat(descriptor.getMimeSubType()).isEqualTo("plain");
+        assertThat(descriptor.contentTypeParameters()).containsEntry("charset", "UTF-8");
+        assertThat(descriptor.getLines()).isEqualTo(2L);
+        assertThat(descriptor.getBodyOctets()).isEqualTo(10L);
+        assertThat(descriptor.parts()).isExhausted();
+        assertThat(descriptor.embeddedMessage()).isNull();
+    }
+
+    @Test
+    void computeShouldOnlyRetainEnvelopeHeaders() throws Exception {
+        PrecomputedMimeDescriptor descriptor = PrecomputedMimeDescriptor.compute(content(SIMPLE_MESSAGE), textProperties(), 10);
+
+        assertThat(headerNames(descriptor.headers()))
+            .containsExactly("Date", "From", "To", "Subject");
+    }
+
+    @Test
+    void computeShouldRetainThreadingHeaders() throws Exception {
+        String message = "Message-ID: <2@domain.tld>\r\n" +
+            "In-Reply-To: <1@domain.tld>\r\n" +
+            "References: <0@domain.tld> <1@domain.tld>\r\n" +
+            "Subject: Re: Simple\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "\r\n" +
+            "Hello\r\n";
+
+        PrecomputedMimeDescriptor descriptor = PrecomputedMimeDescriptor.compute(content(message), textProperties(), 7);
+
+        assertThat(headerNames(descriptor.headers()))
+            .containsExactly("Message-ID", "In-Reply-To", "References", "Subject");
+    }
+
+    @Test
+    void computeShouldParseCompositeMessages() throws Exception {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMediaType("multipart");
+        propertyBuilder.setSubType("mixed");
+
+        PrecomputedMimeDescriptor descriptor = PrecomputedMimeDescriptor.compute(content(MULTIPART_MESSAGE), propertyBuilder.build(), 0);
+
+        ImmutableList<MimeDescriptor> parts = ImmutableList.copyOf(descriptor.parts());
+        assertThat(parts).hasSize(2);
+        assertThat(parts.get(0).getMimeSubType()).isEqualTo("plain");
+        assertThat(headerNames(parts.get(1).embeddedMessage().headers()))
+            .containsExactly("From", "Subject");
+        assertThat(headerNames(descriptor.headers()))
+            .containsExactly("From", "Subject");
+    }
+
+    @Test
+    void deserializeShouldReturnSerializedStructure() throws Exception {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMediaType("multipart");
+        propertyBuilder.setSubType("mixed");
+        PrecomputedMimeDescriptor descriptor = PrecomputedMimeDescriptor.compute(content(MULTIPART_MESSAGE), propertyBuilder.build(), 0);
+
+        PrecomputedMimeDescriptor deserialized = PrecomputedMimeDescriptor.deserialize(descriptor.serialize());
+
+        assertThat(deserialized.serialize()).isEqualTo(descriptor.serialize());
+        assertThat(deserialized.getMimeType()).isEqualTo("multipart");
+        assertThat(ImmutableList.copyOf(deserialized.parts()).get(1).embeddedMessage().getMimeSubType())
+            .isEqualTo(ImmutableList.copyOf(descriptor.parts()).get(1).embeddedMessage().getMimeSubType());
+        assertThat(deserialized.size()).isEqualTo(descriptor.size());
+    }
+
+    @Test
+    void deserializeShouldPreserveNullValues() throws Exception {
+        PrecomputedMimeDescriptor descriptor = PrecomputedMimeDescriptor.compute(content(SIMPLE_MESSAGE), textProperties(), 10);
+
+        PrecomputedMimeDescriptor deserialized = PrecomputedMimeDescriptor.deserialize(descriptor.serialize());
+
+        assertThat(deserialized.getContentID()).isNull();
+        assertThat(deserialized.getDisposition()).isNull();
+        assertThat(deserialized.parts()).isExhausted();
+    }
+
+    private Properties textProperties() {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMediaType("text");
+        propertyBuilder.setSubType("plain");
+        return propertyBuilder.build();
+    }
+
+    private ImmutableList<String> headerNames(Iterator<Header> headers) {
+        return ImmutableList.copyOf(headers)
+            .stream()
+            .map(Header::getName)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private ByteContent content(String message) {
+        return new ByteContent(message.getBytes(US_ASCII));
+    }
+}
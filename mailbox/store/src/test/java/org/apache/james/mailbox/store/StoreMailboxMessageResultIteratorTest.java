@@ -58,6 +58,7 @@ class StoreMailboxMessageResultIteratorTest {
 
     private final class TestMessageMapper implements MessageMapper {
         private final MessageRange messageRange;
+        private final List<MessageRange> requestedRanges = new ArrayList<>();
 
         public TestMessageMapper(MessageRange messageRange) {
             this.messageRange = messageRange;
@@ -75,6 +76,7 @@ class StoreMailboxMessageResultIteratorTest {
 
         @Override
         public Iterator<MailboxMessage> findInMailbox(Mailbox mailbox, MessageRange set, FetchType type, int limit) {
+            requestedRanges.add(set);
             List<MailboxMessage> messages = new ArrayList<>();
             for (MessageUid uid: Iterables.limit(set, limit)) {
                 if (messageRange.includes(uid)) {
@@ -172,6 +174,51 @@ class StoreMailboxMessageResultIteratorTest {
             .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
     }
 
+    @Test
+    void readByBatchesShouldReturnAllMessagesOfTheRange() {
+        MessageRange range = MessageRange.range(MessageUid.of(1), MessageUid.of(10));
+        BatchSizes batchSize = BatchSizes.uniqueBatchSize(3);
+
+        assertThat(StoreMessageResultIterator.readByBatches(new TestMessageMapper(MessageRange.all()), null, range, batchSize, FetchGroup.MINIMAL).collectList().block())
+            .extracting(input -> input.getUid().asLong())
+            .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void readByBatchesShouldReadTheRangeByBatches() {
+        MessageRange range = MessageRange.range(MessageUid.of(1), MessageUid.of(10));
+        BatchSizes batchSize = BatchSizes.uniqueBatchSize(3);
+        TestMessageMapper mapper = new TestMessageMapper(MessageRange.all());
+
+        StoreMessageResultIterator.readByBatches(mapper, null, range, batchSize, FetchGroup.MINIMAL).blockLast();
+
+        assertThat(mapper.requestedRanges).containsExactly(
+            MessageRange.range(MessageUid.of(1), MessageUid.of(10)),
+            MessageRange.range(MessageUid.of(4), MessageUid.of(10)),
+            MessageRange.range(MessageUid.of(7), MessageUid.of(10)),
+            MessageRange.one(MessageUid.of(10)));
+    }
+
+    @Test
+    void readByBatchesShouldOnlyReadTheNextBatchWhenRequested() {
+        MessageRange range = MessageRange.range(MessageUid.of(1), MessageUid.of(10));
+        BatchSizes batchSize = BatchSizes.uniqueBatchSize(3);
+        TestMessageMapper mapper = new TestMessageMapper(MessageRange.all());
+
+        StoreMessageResultIterator.readByBatches(mapper, null, range, batchSize, FetchGroup.MINIMAL).take(2).blockLast();
+
+        assertThat(mapper.requestedRanges).hasSize(1);
+    }
+
+    @Test
+    void readByBatchesShouldStopWhenABatchIsIncomplete() {
+        BatchSizes batchSize = BatchSizes.uniqueBatchSize(3);
+        TestMessageMapper mapper = new TestMessageMapper(MessageRange.range(MessageUid.of(1), MessageUid.of(4)));
+
+        assertThat(StoreMessageResultIterator.readByBatches(mapper, null, MessageRange.all(), batchSize, FetchGroup.MINIMAL).collectList().block())
+            .hasSize(4);
+    }
+
     @Test
     void nextShouldReturnFirstElement() {
         MessageRange range = MessageUid.of(1).toRange();
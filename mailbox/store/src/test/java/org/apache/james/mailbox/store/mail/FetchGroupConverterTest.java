@@ -43,8 +43,14 @@ class FetchGroupConverterTest {
             Arguments.arguments(FetchGroup.FULL_CONTENT, FetchType.FULL),
             Arguments.arguments(FetchGroup.BODY_CONTENT.with(Profile.HEADERS), FetchType.FULL),
             Arguments.arguments(FetchGroup.MINIMAL.with(Profile.MIME_CONTENT), FetchType.FULL),
-            Arguments.arguments(FetchGroup.MINIMAL.with(Profile.MIME_DESCRIPTOR), FetchType.FULL),
+            Arguments.arguments(FetchGroup.MINIMAL.with(Profile.MIME_DESCRIPTOR), FetchType.STRUCTURE),
+            Arguments.arguments(FetchGroup.HEADERS.with(Profile.MIME_DESCRIPTOR), FetchType.FULL),
+            Arguments.arguments(FetchGroup.BODY_CONTENT.with(Profile.MIME_DESCRIPTOR), FetchType.FULL),
             Arguments.arguments(FetchGroup.MINIMAL.with(Profile.MIME_HEADERS), FetchType.FULL),
+            Arguments.arguments(FetchGroup.MINIMAL.with(Profile.FULL_CONTENT_RANGE), FetchType.FULL_RANGE),
+            Arguments.arguments(FetchGroup.FULL_CONTENT.with(Profile.FULL_CONTENT_RANGE), FetchType.FULL),
+            Arguments.arguments(FetchGroup.HEADERS.with(Profile.FULL_CONTENT_RANGE), FetchType.FULL),
+            Arguments.arguments(FetchGroup.MINIMAL.with(Profile.MIME_DESCRIPTOR, Profile.FULL_CONTENT_RANGE), FetchType.FULL),
             Arguments.arguments(FetchGroup.MINIMAL.addPartContent(new MimePath(PARTS), EnumSet.noneOf(Profile.class)), FetchType.FULL),
             Arguments.arguments(FetchGroup.MINIMAL.addPartContent(new MimePath(PARTS), Profile.HEADERS), FetchType.FULL),
             Arguments.arguments(FetchGroup.MINIMAL.addPartContent(new MimePath(PARTS), Profile.BODY_CONTENT), FetchType.FULL),
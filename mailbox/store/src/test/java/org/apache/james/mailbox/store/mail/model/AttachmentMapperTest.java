@@ -131,6 +131,40 @@ public abstract class AttachmentMapperTest {
             .hasSameContentAs(new ByteArrayInputStream(bytes));
     }
 
+    @Test
+    void loadAttachmentContentShouldReturnRequestedRange() throws Exception {
+        byte[] bytes = "payload".getBytes(StandardCharsets.UTF_8);
+
+        MessageId messageId1 = generateMessageId();
+        AttachmentMetadata stored = attachmentMapper.storeAttachments(ImmutableList.of(ParsedAttachment.builder()
+            .contentType("content")
+            .content(ByteSource.wrap(bytes))
+            .noName()
+            .noCid()
+            .inline(false)), messageId1).get(0)
+            .getAttachment();
+
+        assertThat(attachmentMapper.loadAttachmentContent(stored.getAttachmentId(), 2, 3))
+            .hasContent("ylo");
+    }
+
+    @Test
+    void loadAttachmentContentShouldTruncateRangesEndingAfterTheContent() throws Exception {
+        byte[] bytes = "payload".getBytes(StandardCharsets.UTF_8);
+
+        MessageId messageId1 = generateMessageId();
+        AttachmentMetadata stored = attachmentMapper.storeAttachments(ImmutableList.of(ParsedAttachment.builder()
+            .contentType("content")
+            .content(ByteSource.wrap(bytes))
+            .noName()
+            .noCid()
+            .inline(false)), messageId1).get(0)
+            .getAttachment();
+
+        assertThat(attachmentMapper.loadAttachmentContent(stored.getAttachmentId(), 3, 100))
+            .hasContent("load");
+    }
+
     @Test
     void getAttachmentsShouldThrowWhenNullAttachmentId() {
         assertThatThrownBy(() -> attachmentMapper.getAttachments(null))
@@ -580,6 +580,108 @@ public abstract class MessageMapperTest {
         assertThat(messageMapper.getHighestModSeq(benwaInboxMailbox)).isGreaterThan(modSeq);
     }
 
+    @Test
+    void listMessagesMetadataChangedSinceShouldReturnMessagesUpdatedAfterModSeq() throws MailboxException {
+        saveMessages();
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        messageMapper.updateFlags(benwaInboxMailbox, message2.getUid(), new FlagsUpdateCalculator(new Flags(Flag.FLAGGED), FlagsUpdateMode.ADD));
+        messageMapper.updateFlags(benwaInboxMailbox, message4.getUid(), new FlagsUpdateCalculator(new Flags(Flag.FLAGGED), FlagsUpdateMode.ADD));
+
+        assertThat(messageMapper.listMessagesMetadataChangedSince(benwaInboxMailbox, MessageRange.all(), modSeq)
+                .map(metadata -> metadata.getComposedMessageId().getUid())
+                .collectList()
+                .block())
+            .containsExactly(message2.getUid(), message4.getUid());
+    }
+
+    @Test
+    void listMessagesMetadataChangedSinceShouldFilterOnRange() throws MailboxException {
+        saveMessages();
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        messageMapper.updateFlags(benwaInboxMailbox, new FlagsUpdateCalculator(new Flags(Flag.FLAGGED), FlagsUpdateMode.ADD), MessageRange.all());
+
+        assertThat(messageMapper.listMessagesMetadataChangedSince(benwaInboxMailbox, MessageRange.range(message2.getUid(), message3.getUid()), modSeq)
+                .map(metadata -> metadata.getComposedMessageId().getUid())
+                .collectList()
+                .block())
+            .containsExactly(message2.getUid(), message3.getUid());
+    }
+
+    @Test
+    void listMessagesMetadataChangedSinceShouldReturnUpToDateMetadata() throws MailboxException {
+        saveMessages();
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        messageMapper.updateFlags(benwaInboxMailbox, message2.getUid(), new FlagsUpdateCalculator(new Flags(Flag.FLAGGED), FlagsUpdateMode.ADD));
+        messageMapper.updateFlags(benwaInboxMailbox, message2.getUid(), new FlagsUpdateCalculator(new Flags(Flag.ANSWERED), FlagsUpdateMode.ADD));
+
+        assertThat(messageMapper.listMessagesMetadataChangedSince(benwaInboxMailbox, MessageRange.all(), modSeq)
+                .collectList()
+                .block())
+            .hasSize(1)
+            .allSatisfy(metadata -> {
+                assertThat(metadata.getFlags().contains(Flag.FLAGGED)).isTrue();
+                assertThat(metadata.getFlags().contains(Flag.ANSWERED)).isTrue();
+                assertThat(metadata.getModSeq()).isEqualTo(messageMapper.getHighestModSeq(benwaInboxMailbox));
+            });
+    }
+
+    @Test
+    void listMessagesMetadataChangedSinceShouldNotReturnExpungedMessages() throws MailboxException {
+        saveMessages();
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        markThenPerformDeleteMessages(MessageRange.all());
+
+        assertThat(messageMapper.listMessagesMetadataChangedSince(benwaInboxMailbox, MessageRange.all(), modSeq)
+                .collectList()
+                .block())
+            .isEmpty();
+    }
+
+    @Test
+    void listExpungedUidsSinceShouldReturnUidsExpungedAfterModSeq() throws MailboxException {
+        saveMessages();
+        Assume.assumeTrue(messageMapper.hasExpungeHistory(benwaInboxMailbox, ModSeq.first()).block());
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        markThenPerformDeleteMessages(MessageRange.all());
+
+        assertThat(messageMapper.listExpungedUidsSince(benwaInboxMailbox, MessageRange.all(), modSeq).collectList().block())
+            .containsExactly(message1.getUid(), message4.getUid());
+    }
+
+    @Test
+    void listExpungedUidsSinceShouldFilterOnRange() throws MailboxException {
+        saveMessages();
+        Assume.assumeTrue(messageMapper.hasExpungeHistory(benwaInboxMailbox, ModSeq.first()).block());
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+        markThenPerformDeleteMessages(MessageRange.all());
+
+        assertThat(messageMapper.listExpungedUidsSince(benwaInboxMailbox, MessageRange.from(message2.getUid()), modSeq).collectList().block())
+            .containsExactly(message4.getUid());
+    }
+
+    @Test
+    void listExpungedUidsSinceShouldNotReturnUidsExpungedBeforeModSeq() throws MailboxException {
+        saveMessages();
+        Assume.assumeTrue(messageMapper.hasExpungeHistory(benwaInboxMailbox, ModSeq.first()).block());
+        markThenPerformDeleteMessages(MessageRange.all());
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+
+        assertThat(messageMapper.listExpungedUidsSince(benwaInboxMailbox, MessageRange.all(), modSeq).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void deleteMessagesShouldIncrementModSeqWhenExpungeHistoryIsKept() throws MailboxException {
+        saveMessages();
+        Assume.assumeTrue(messageMapper.hasExpungeHistory(benwaInboxMailbox, ModSeq.first()).block());
+        List<MessageUid> uids = markThenPerformRetrieveMessagesMarkedForDeletion(MessageRange.all());
+        ModSeq modSeq = messageMapper.getHighestModSeq(benwaInboxMailbox);
+
+        messageMapper.deleteMessages(benwaInboxMailbox, uids);
+
+        assertThat(messageMapper.getHighestModSeq(benwaInboxMailbox)).isGreaterThan(modSeq);
+    }
+
     @Test
     void getLastUidShouldReturnEmptyOnEmptyMailbox() throws MailboxException {
         assertThat(messageMapper.getLastUid(benwaInboxMailbox)).isEqualTo(Optional.empty());
@@ -26,6 +26,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.apache.james.mailbox.store.mail.model.Property;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.base.Strings;
+
 class PropertyBuilderTest {
     @Test
     void emptyPropertyBuilderShouldCreateEmptyProperties() {
@@ -39,4 +41,39 @@ class PropertyBuilderTest {
         assertThat(propertyBuilder.toProperties())
             .containsOnly(new Property(MIME_CONTENT_MD5_SPACE, MIME_CONTENT_MD5_NAME, "123"));
     }
+
+    @Test
+    void messageStructureShouldBeAbsentByDefault() {
+        assertThat(new PropertyBuilder().build().getMessageStructure()).isEmpty();
+    }
+
+    @Test
+    void setMessageStructureShouldBeReadBackFromProperties() {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure("{\"type\":\"text\"}");
+
+        assertThat(propertyBuilder.build().getMessageStructure()).contains("{\"type\":\"text\"}");
+    }
+
+    @Test
+    void setMessageStructureShouldSplitLongValues() {
+        String structure = Strings.repeat("a", 2500);
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure(structure);
+
+        assertThat(propertyBuilder.toProperties())
+            .extracting(Property::getValue)
+            .allSatisfy(value -> assertThat(value).hasSizeLessThanOrEqualTo(1000))
+            .hasSize(3);
+        assertThat(propertyBuilder.build().getMessageStructure()).contains(structure);
+    }
+
+    @Test
+    void setMessageStructureShouldRemoveExistingValueWhenNull() {
+        PropertyBuilder propertyBuilder = new PropertyBuilder();
+        propertyBuilder.setMessageStructure("{}");
+        propertyBuilder.setMessageStructure(null);
+
+        assertThat(propertyBuilder.build().getMessageStructure()).isEmpty();
+    }
 }
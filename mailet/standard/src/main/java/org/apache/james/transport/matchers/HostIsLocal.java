@@ -31,6 +31,7 @@ import javax.mail.MessagingException;
 import org.apache.james.core.Domain;
 import org.apache.james.core.MailAddress;
 import org.apache.mailet.Mail;
+import org.apache.mailet.PureMatcher;
 import org.apache.mailet.base.GenericMatcher;
 
 import com.google.common.collect.ImmutableList;
@@ -40,6 +41,7 @@ import com.google.common.collect.ImmutableListMultimap;
  * Matches mail to Domains which are local
  * .
  */
+@PureMatcher
 public class HostIsLocal extends GenericMatcher {
     @Override
     public Collection<MailAddress> match(Mail mail) throws MessagingException {
@@ -27,12 +27,14 @@ import javax.mail.MessagingException;
 
 import org.apache.james.core.MailAddress;
 import org.apache.mailet.Mail;
+import org.apache.mailet.PureMatcher;
 import org.apache.mailet.base.GenericMatcher;
 
 /**
  * Matches mail where the recipient is local.
  * @version 1.0.0, 24/04/1999
  */
+@PureMatcher
 public class RecipientIsLocal extends GenericMatcher {
     @Override
     public Collection<MailAddress> match(Mail mail) throws MessagingException {
@@ -22,11 +22,13 @@ import java.util.Collection;
 
 import org.apache.james.core.MailAddress;
 import org.apache.mailet.Mail;
+import org.apache.mailet.PureMatcher;
 import org.apache.mailet.base.GenericMatcher;
 
 /**
  * Matches mail where the sender is local.
  */
+@PureMatcher
 public class SenderIsLocal extends GenericMatcher {
 
     @Override
@@ -67,6 +67,13 @@ public abstract class Fetch implements ImapTestConstants {
             .run("FetchEnvelope");
     }
 
+    @Test
+    public void testFetchBinaryUS() throws Exception {
+        simpleScriptedTestProtocol
+            .withLocale(Locale.US)
+            .run("FetchBinary");
+    }
+
     @Test
     public void testFetchTextUS() throws Exception {
         simpleScriptedTestProtocol
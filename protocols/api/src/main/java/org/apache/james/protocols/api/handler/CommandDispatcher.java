@@ -33,9 +33,13 @@ import org.apache.james.protocols.api.BaseRequest;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.Request;
 import org.apache.james.protocols.api.Response;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 
 /**
  *  A CommandDispatcher is responsible to call the right {@link CommandHandler} for a given Command
@@ -128,55 +132,56 @@ public class CommandDispatcher<SessionT extends ProtocolSession> implements Exte
     
     @Override
     public Response onLine(SessionT session, ByteBuffer line) {
+        return Mono.from(onLineReactive(session, line)).block();
+    }
+
+    @Override
+    public Publisher<Response> onLineReactive(SessionT session, ByteBuffer line) {
         Request request;
         try {
             
             request = parseRequest(session, line);
             if (request == null) {
-                return null;
+                return Mono.empty();
             }
         } catch (Exception e) {
             LOGGER.debug("Unable to parse request", e);
-            return session.newFatalErrorResponse();
-        }
-        try {
-            return dispatchCommandHandlers(session, request);
-        } catch (Exception e) {
-            LOGGER.error("Error dispatching command for request {}", request.getCommand(), e);
-            return session.newFatalErrorResponse();
+            return Mono.fromSupplier(session::newFatalErrorResponse);
         }
+        return Mono.defer(() -> dispatchCommandHandlers(session, request))
+            .onErrorResume(e -> {
+                LOGGER.error("Error dispatching command for request {}", request.getCommand(), e);
+                return Mono.fromSupplier(session::newFatalErrorResponse);
+            });
     }
     
     /**
-     * Dispatch the {@link CommandHandler}'s for the given {@link Request} and return a {@link Response} or <code>null</code> if non should get written
-     * back to the client
+     * Dispatch the {@link CommandHandler}'s for the given {@link Request} and return a {@link Response} or an empty
+     * publisher if non should get written back to the client
      * @return response
      */
-    protected Response dispatchCommandHandlers(SessionT session, Request request) {
+    protected Mono<Response> dispatchCommandHandlers(SessionT session, Request request) {
         LOGGER.debug("{} received: {}", getClass().getName(), request.getCommand());
         List<CommandHandler<SessionT>> commandHandlers = getCommandHandlers(request.getCommand(), session);
         // fetch the command handlers registered to the command
 
         if (commandHandlers == null) {
-            return session.newCommandNotFoundErrorResponse();
+            return Mono.fromSupplier(session::newCommandNotFoundErrorResponse);
         }
 
-        for (CommandHandler<SessionT> commandHandler : commandHandlers) {
-            final long start = System.currentTimeMillis();
-            Response response = commandHandler.onCommand(session, request);
-            if (response != null) {
-                long executionTime = System.currentTimeMillis() - start;
-
-                // now process the result handlers
-                response = executeResultHandlers(session, response, executionTime, commandHandler, rHandlers.iterator());
-                if (response != null) {
-                    return response;
-                }
-            }
-
-
-        }
-        return null;
+        // Handlers are called one after the other until one of them returns a response
+        return Flux.fromIterable(commandHandlers)
+            .concatMap(commandHandler -> {
+                long start = System.currentTimeMillis();
+                return Mono.from(commandHandler.onCommandReactive(session, request))
+                    .flatMap(response -> {
+                        long executionTime = System.currentTimeMillis() - start;
+
+                        // now process the result handlers
+                        return Mono.justOrEmpty(executeResultHandlers(session, response, executionTime, commandHandler, rHandlers.iterator()));
+                    });
+            })
+            .next();
     }
 
     private Response executeResultHandlers(final SessionT session, Response responseFuture, final long executionTime, final CommandHandler<SessionT> cHandler, final Iterator<ProtocolHandlerResultHandler<Response, SessionT>> resultHandlers) {
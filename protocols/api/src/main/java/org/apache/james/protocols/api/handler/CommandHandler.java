@@ -26,6 +26,9 @@ import java.util.Collection;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.Request;
 import org.apache.james.protocols.api.Response;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 
 /**
@@ -39,6 +42,15 @@ public interface CommandHandler<SessionT extends ProtocolSession> extends Protoc
      * Handle the command
     **/
     Response onCommand(SessionT session, Request request);
+
+    /**
+     * Reactive counterpart of {@link #onCommand(ProtocolSession, Request)}
+     *
+     * @return publisher of the response, empty if no response is to be written
+     */
+    default Publisher<Response> onCommandReactive(SessionT session, Request request) {
+        return Mono.fromCallable(() -> onCommand(session, request));
+    }
     
     /**
      * Return a Collection of implemented commands
@@ -23,6 +23,9 @@ import java.nio.ByteBuffer;
 
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.Response;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Implementations of this Interface will get called after a full line (terminated with {@link ProtocolSession#getLineDelimiter()}) was received.
@@ -39,5 +42,18 @@ public interface LineHandler<SessionT extends ProtocolSession> extends ProtocolH
      * @return response or null
      */
     Response onLine(SessionT session, ByteBuffer buffer);
-    
+
+    /**
+     * Reactive counterpart of {@link #onLine(ProtocolSession, ByteBuffer)}.
+     *
+     * Handlers relying on slow remote calls should override it so that the response can be computed without holding
+     * a thread.
+     *
+     * @param session not null
+     * @param buffer not null
+     * @return publisher of the response, empty if no response is to be written
+     */
+    default Publisher<Response> onLineReactive(SessionT session, ByteBuffer buffer) {
+        return Mono.fromCallable(() -> onLine(session, buffer));
+    }
 }
@@ -34,6 +34,7 @@ public class ImapConfiguration {
     public static final boolean DEFAULT_ENABLE_IDLE = true;
     public static final long DEFAULT_HEARTBEAT_INTERVAL_IN_SECONDS = 2 * 60;
     public static final TimeUnit DEFAULT_HEARTBEAT_INTERVAL_UNIT = TimeUnit.SECONDS;
+    public static final long DEFAULT_BINARY_SIZE_CACHE_SIZE = 10_000;
 
     public static Builder builder() {
         return new Builder();
@@ -51,6 +52,7 @@ public class ImapConfiguration {
         private Optional<Boolean> enableIdle;
         private ImmutableSet<String> disabledCaps;
         private Optional<Boolean> isCondstoreEnable;
+        private Optional<Long> binarySizeCacheSize;
 
         private Builder() {
             this.idleTimeInterval = Optional.empty();
@@ -58,6 +60,7 @@ public class ImapConfiguration {
             this.enableIdle = Optional.empty();
             this.disabledCaps = ImmutableSet.of();
             this.isCondstoreEnable = Optional.empty();
+            this.binarySizeCacheSize = Optional.empty();
         }
 
         public Builder idleTimeInterval(long idleTimeInterval) {
@@ -96,6 +99,15 @@ public class ImapConfiguration {
             return this;
         }
 
+        /**
+         * Maximum count of decoded part sizes remembered for BINARY and BINARY.SIZE fetches. 0 disables the cache.
+         */
+        public Builder binarySizeCacheSize(long binarySizeCacheSize) {
+            Preconditions.checkArgument(binarySizeCacheSize >= 0, "The binary size cache size should not be negative");
+            this.binarySizeCacheSize = Optional.of(binarySizeCacheSize);
+            return this;
+        }
+
         public ImapConfiguration build() {
             ImmutableSet<Capability> normalizeDisableCaps = disabledCaps.stream()
                     .filter(Builder::noBlankString)
@@ -107,7 +119,8 @@ public class ImapConfiguration {
                     idleTimeInterval.orElse(DEFAULT_HEARTBEAT_INTERVAL_IN_SECONDS),
                     idleTimeIntervalUnit.orElse(DEFAULT_HEARTBEAT_INTERVAL_UNIT),
                     normalizeDisableCaps,
-                    isCondstoreEnable.orElse(DEFAULT_CONDSTORE_DISABLE));
+                    isCondstoreEnable.orElse(DEFAULT_CONDSTORE_DISABLE),
+                    binarySizeCacheSize.orElse(DEFAULT_BINARY_SIZE_CACHE_SIZE));
         }
     }
 
@@ -116,13 +129,15 @@ public class ImapConfiguration {
     private final ImmutableSet<Capability> disabledCaps;
     private final boolean enableIdle;
     private final boolean isCondstoreEnable;
+    private final long binarySizeCacheSize;
 
-    private ImapConfiguration(boolean enableIdle, long idleTimeInterval, TimeUnit idleTimeIntervalUnit, ImmutableSet<Capability> disabledCaps, boolean isCondstoreEnable) {
+    private ImapConfiguration(boolean enableIdle, long idleTimeInterval, TimeUnit idleTimeIntervalUnit, ImmutableSet<Capability> disabledCaps, boolean isCondstoreEnable, long binarySizeCacheSize) {
         this.enableIdle = enableIdle;
         this.idleTimeInterval = idleTimeInterval;
         this.idleTimeIntervalUnit = idleTimeIntervalUnit;
         this.disabledCaps = disabledCaps;
         this.isCondstoreEnable = isCondstoreEnable;
+        this.binarySizeCacheSize = binarySizeCacheSize;
     }
 
     public long getIdleTimeInterval() {
@@ -145,6 +160,10 @@ public class ImapConfiguration {
         return isCondstoreEnable;
     }
 
+    public long getBinarySizeCacheSize() {
+        return binarySizeCacheSize;
+    }
+
     @Override
     public final boolean equals(Object obj) {
         if (obj instanceof ImapConfiguration) {
@@ -153,14 +172,15 @@ public class ImapConfiguration {
                 && Objects.equal(that.getIdleTimeInterval(), idleTimeInterval)
                 && Objects.equal(that.getIdleTimeIntervalUnit(), idleTimeIntervalUnit)
                 && Objects.equal(that.getDisabledCaps(), disabledCaps)
-                && Objects.equal(that.isCondstoreEnable(), isCondstoreEnable);
+                && Objects.equal(that.isCondstoreEnable(), isCondstoreEnable)
+                && Objects.equal(that.getBinarySizeCacheSize(), binarySizeCacheSize);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hashCode(enableIdle, idleTimeInterval, idleTimeIntervalUnit, disabledCaps, isCondstoreEnable);
+        return Objects.hashCode(enableIdle, idleTimeInterval, idleTimeIntervalUnit, disabledCaps, isCondstoreEnable, binarySizeCacheSize);
     }
 
     @Override
@@ -171,6 +191,7 @@ public class ImapConfiguration {
                 .add("idleTimeIntervalUnit", idleTimeIntervalUnit)
                 .add("disabledCaps", disabledCaps)
                 .add("isCondstoreEnable", isCondstoreEnable)
+                .add("binarySizeCacheSize", binarySizeCacheSize)
                 .toString();
     }
 }
@@ -59,6 +59,8 @@ public interface ImapConstants {
 
     byte BYTE_CLOSE_BRACE = 0x7D;
 
+    byte BYTE_TILDE = 0x7E;
+
     char DQUOTE = '\"';
 
     String VERSION = "IMAP4rev1";
@@ -96,6 +98,18 @@ public interface ImapConstants {
     Capability SUPPORTS_UIDPLUS = Capability.of("UIDPLUS");
 
     Capability SUPPORTS_ANNOTATION = Capability.of("ANNOTATION");
+
+    Capability SUPPORTS_SORT = Capability.of("SORT");
+
+    Capability SUPPORTS_THREAD_REFERENCES = Capability.of("THREAD=REFERENCES");
+
+    Capability SUPPORTS_THREAD_ORDEREDSUBJECT = Capability.of("THREAD=ORDEREDSUBJECT");
+
+    Capability SUPPORTS_LIST_STATUS = Capability.of("LIST-STATUS");
+
+    Capability SUPPORTS_BINARY = Capability.of("BINARY");
+
+    Capability SUPPORTS_MULTIAPPEND = Capability.of("MULTIAPPEND");
     
     String INBOX_NAME = "INBOX";
 
@@ -150,6 +164,12 @@ public interface ImapConstants {
 
     String STATUS_HIGHESTMODSEQ = "HIGHESTMODSEQ";
 
+    String STATUS_SIZE = "SIZE";
+
+    String LIST_RETURN = "RETURN";
+
+    String LIST_RETURN_STATUS = "STATUS";
+
     ImapCommand CAPABILITY_COMMAND = ImapCommand.anyStateCommand("CAPABILITY");
     ImapCommand COMPRESS_COMMAND = ImapCommand.anyStateCommand("COMPRESS");
     ImapCommand LOGOUT_COMMAND = ImapCommand.anyStateCommand("LOGOUT");
@@ -196,6 +216,9 @@ public interface ImapConstants {
     ImapCommand FETCH_COMMAND = ImapCommand.selectedStateCommand("FETCH");
     ImapCommand MOVE_COMMAND = ImapCommand.selectedStateCommand("MOVE");
     ImapCommand SEARCH_COMMAND = ImapCommand.selectedStateCommand("SEARCH");
+    // RFC-5256 IMAP SORT and THREAD
+    ImapCommand SORT_COMMAND = ImapCommand.selectedStateCommand("SORT");
+    ImapCommand THREAD_COMMAND = ImapCommand.selectedStateCommand("THREAD");
     ImapCommand STORE_COMMAND = ImapCommand.selectedStateCommand("STORE");
     ImapCommand UID_COMMAND = ImapCommand.selectedStateCommand("UID");
 
@@ -224,6 +247,10 @@ public interface ImapConstants {
     String FETCH_BODY_STRUCTURE = "BODYSTRUCTURE";
 
     String FETCH_BODY = "BODY";
+
+    String FETCH_BINARY = "BINARY";
+
+    String FETCH_BINARY_SIZE = "BINARY.SIZE";
     
     String FETCH_MODSEQ = "MODSEQ";
 
@@ -94,6 +94,8 @@ public class HumanReadableText {
 
     public static final HumanReadableText SEARCH_FAILED = new HumanReadableText("org.apache.james.imap.SEARCH_FAILED", "failed. Search failed.");
 
+    public static final HumanReadableText UNKNOWN_CTE = new HumanReadableText("org.apache.james.imap.UNKNOWN_CTE", "failed. Unknown Content-Transfer-Encoding.");
+
     public static final HumanReadableText COUNT_FAILED = new HumanReadableText("org.apache.james.imap.COUNT_FAILED", "failed. Count failed.");
 
     public static final HumanReadableText SAVE_FAILED = new HumanReadableText("org.apache.james.imap.SAVE_FAILED", "failed. Save failed.");
@@ -25,5 +25,13 @@ public enum SectionType {
     HEADER,
     HEADER_FIELDS,
     HEADER_NOT_FIELDS,
-    CONTENT
+    CONTENT,
+    /**
+     * Content of a part with its Content-Transfer-Encoding removed. See RFC-3516 BINARY[].
+     */
+    BINARY,
+    /**
+     * Size of a part once its Content-Transfer-Encoding is removed. See RFC-3516 BINARY.SIZE[].
+     */
+    BINARY_SIZE
 }
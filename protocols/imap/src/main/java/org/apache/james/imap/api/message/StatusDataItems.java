@@ -29,7 +29,8 @@ public class StatusDataItems {
         UID_NEXT,
         UID_VALIDITY,
         UNSEEN,
-        HIGHEST_MODSEQ
+        HIGHEST_MODSEQ,
+        SIZE
     }
 
     private final EnumSet<StatusItem> statusItems;
@@ -62,6 +63,25 @@ public class StatusDataItems {
         return statusItems.contains(StatusItem.HIGHEST_MODSEQ);
     }
 
+    public boolean isSize() {
+        return statusItems.contains(StatusItem.SIZE);
+    }
+
+    /**
+     * @return true if some requested items need the UID validity, next UID or highest MODSEQ of the mailbox
+     */
+    public boolean requiresSequences() {
+        return isUidNext() || isUidValidity() || isHighestModSeq();
+    }
+
+    /**
+     * @return true if some requested items can not be computed from the mailbox search metadata, ie from the
+     * mailbox counters and sequences, and need the mailbox to be loaded
+     */
+    public boolean requiresMailboxLoading() {
+        return isRecent() || isSize();
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -71,6 +91,7 @@ public class StatusDataItems {
             .add("uidValidity", isUidValidity())
             .add("unseen", isUnseen())
             .add("highestModSeq", isHighestModSeq())
+            .add("size", isSize())
             .toString();
     }
 }
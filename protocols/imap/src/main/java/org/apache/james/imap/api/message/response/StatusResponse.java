@@ -344,6 +344,15 @@ public interface StatusResponse extends ImapResponseMessage {
             return new ResponseCode("NOMODSEQ");
         }
 
+        /**
+         * Create a RFC3516 <code>UNKNOWN-CTE</code> response code
+         *
+         * @return <code>ResponseCode</code>
+         */
+        public static ResponseCode unknownCte() {
+            return new ResponseCode("UNKNOWN-CTE");
+        }
+
 
         
         /**
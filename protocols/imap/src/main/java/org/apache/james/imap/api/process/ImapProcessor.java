@@ -57,5 +57,14 @@ public interface ImapProcessor {
          * @param message <code>not null</code>
          */
         void respond(ImapResponseMessage message);
+
+        /**
+         * Waits for the client to read enough of the responses written so far for further responses to be
+         * accepted. Processors writing many responses call it between them so that responses to a slow client
+         * are not all buffered in memory.
+         */
+        default void awaitWritability() {
+
+        }
     }
 }
@@ -24,7 +24,9 @@ import java.io.IOException;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import javax.mail.Flags;
 
@@ -38,13 +40,17 @@ import org.apache.james.imap.decode.ImapRequestLineReader;
 import org.apache.james.imap.decode.base.AbstractImapCommandParser;
 import org.apache.james.imap.message.Literal;
 import org.apache.james.imap.message.request.AppendRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 
 /**
- * Parses APPEND command
+ * Parses APPEND command, including the MULTIAPPEND extension (RFC 3502)
  */
 public class AppendCommandParser extends AbstractImapCommandParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppendCommandParser.class);
+
     private final Clock clock;
 
     public AppendCommandParser(StatusResponseFactory statusResponseFactory, Clock clock) {
@@ -78,18 +84,54 @@ public class AppendCommandParser extends AbstractImapCommandParser {
         return LocalDateTime.now(clock);
     }
 
-    @Override
-    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
-        String mailboxName = request.mailbox();
+    /**
+     * Tells whether another message follows the literal that was just read. The end of the
+     * line is consumed when no other message is appended.
+     */
+    private boolean hasMoreMessages(ImapRequestLineReader request) throws DecodingException {
+        char next = request.nextChar();
+        if (next == '\r' || next == '\n') {
+            request.eol();
+            return false;
+        }
+        return true;
+    }
+
+    private AppendRequest.Message parseMessage(ImapRequestLineReader request) throws IOException {
         Flags flags = parseFlags(request);
         LocalDateTime datetime = parseDateTime(request);
         request.nextWordChar();
 
+        Literal literal = request.consumeLiteral(false).right;
+        return new AppendRequest.Message(flags, Date.from(datetime.atZone(ZoneId.systemDefault()).toInstant()), literal);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
+        String mailboxName = request.mailbox();
+        List<AppendRequest.Message> messages = new ArrayList<>();
+
         try {
-            Literal literal = request.consumeLiteral(true).right;
-            return new AppendRequest(mailboxName, flags, Date.from(datetime.atZone(ZoneId.systemDefault()).toInstant()), literal, tag);
+            do {
+                messages.add(parseMessage(request));
+            } while (hasMoreMessages(request));
+            return new AppendRequest(mailboxName, messages, tag);
+        } catch (DecodingException e) {
+            release(messages);
+            throw e;
         } catch (IOException e) {
+            release(messages);
             throw new DecodingException(SOCKET_IO_FAILURE, "Error copying content", e);
         }
     }
+
+    private void release(List<AppendRequest.Message> messages) {
+        for (AppendRequest.Message message : messages) {
+            try {
+                message.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not release literal of an invalid APPEND request", e);
+            }
+        }
+    }
 }
@@ -145,7 +145,7 @@ public class FetchCommandParser extends AbstractUidCommandParser {
                 numberOfOctets = null;
             }
 
-            BodyFetchElement bodyFetchElement = createBodyElement(parameter, firstOctet, numberOfOctets);
+            BodyFetchElement bodyFetchElement = createBodyElement(name, parameter, firstOctet, numberOfOctets);
             boolean isPeek = isPeek(name);
             fetch.add(bodyFetchElement, isPeek);
         }
@@ -193,11 +193,42 @@ public class FetchCommandParser extends AbstractUidCommandParser {
                 return false;
             case "BODY.PEEK":
                 return true;
+            case "BINARY":
+                return false;
+            case "BINARY.PEEK":
+            case "BINARY.SIZE":
+                return true;
             default:
                 throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attibute: " + name + "[]");
         }
     }
 
+    private BodyFetchElement createBodyElement(String name, String parameter, Long firstOctet, Long numberOfOctets) throws DecodingException {
+        switch (name.toUpperCase(Locale.US)) {
+            case "BINARY":
+            case "BINARY.PEEK":
+                return createBinaryElement(ImapConstants.FETCH_BINARY, SectionType.BINARY, parameter, firstOctet, numberOfOctets);
+            case "BINARY.SIZE":
+                if (firstOctet != null) {
+                    throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Partial fetch is not allowed for BINARY.SIZE");
+                }
+                return createBinaryElement(ImapConstants.FETCH_BINARY_SIZE, SectionType.BINARY_SIZE, parameter, null, null);
+            default:
+                return createBodyElement(parameter, firstOctet, numberOfOctets);
+        }
+    }
+
+    /**
+     * BINARY sections only accept a part number, as specified in RFC-3516.
+     */
+    private BodyFetchElement createBinaryElement(String name, SectionType sectionType, String parameter, Long firstOctet, Long numberOfOctets) throws DecodingException {
+        FetchPartPathDecoder decoder = new FetchPartPathDecoder();
+        if (decoder.decode(parameter) != SectionType.CONTENT) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid " + name + " section: " + parameter);
+        }
+        return new BodyFetchElement(name + "[" + parameter + "]", sectionType, decoder.getPath(), null, firstOctet, numberOfOctets);
+    }
+
     private BodyFetchElement createBodyElement(String parameter, Long firstOctet, Long numberOfOctets) throws DecodingException {
         String responseName = "BODY[" + parameter + "]";
         FetchPartPathDecoder decoder = new FetchPartPathDecoder();
@@ -18,10 +18,14 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.decode.DecodingException;
@@ -75,10 +79,60 @@ public class ListCommandParser extends AbstractUidCommandParser {
     protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
         String referenceName = request.mailbox();
         String mailboxPattern = listMailbox(request);
+        Optional<StatusDataItems> returnStatus = returnStatus(request);
         request.eol();
+        if (returnStatus.isPresent()) {
+            return new ListRequest(referenceName, mailboxPattern, returnStatus, tag);
+        }
         return createMessage(referenceName, mailboxPattern, tag);
     }
 
+    /**
+     * Reads the optional <code>RETURN (STATUS (...))</code> LIST-STATUS return option. See RFC5819
+     */
+    protected Optional<StatusDataItems> returnStatus(ImapRequestLineReader request) throws DecodingException {
+        char next = request.nextChar();
+        while (next == ' ') {
+            request.consume();
+            next = request.nextChar();
+        }
+        if (next == '\r' || next == '\n') {
+            return Optional.empty();
+        }
+
+        String returnKeyword = request.atom();
+        if (!returnKeyword.equalsIgnoreCase(ImapConstants.LIST_RETURN)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown LIST argument: '" + returnKeyword + "'");
+        }
+        request.nextWordChar();
+        request.consumeChar('(');
+
+        Optional<StatusDataItems> returnStatus = Optional.empty();
+        while (request.nextWordChar() != ')') {
+            String returnOption = request.atom();
+            if (returnOption.equalsIgnoreCase(ImapConstants.LIST_RETURN_STATUS)) {
+                returnStatus = Optional.of(listStatusDataItems(request));
+            } else {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unsupported LIST return option: '" + returnOption + "'");
+            }
+        }
+        request.consumeChar(')');
+        return returnStatus;
+    }
+
+    /**
+     * SIZE is not accepted by LIST-STATUS: it requires reading the metadata of every message of each listed mailbox.
+     * Clients needing it should issue a STATUS command for the mailboxes they are interested in. STATUS=SIZE is not
+     * advertised as RFC8438 would then require accepting it here.
+     */
+    private StatusDataItems listStatusDataItems(ImapRequestLineReader request) throws DecodingException {
+        StatusDataItems statusDataItems = StatusCommandParser.statusDataItems(request);
+        if (statusDataItems.isSize()) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "SIZE is not supported as a LIST-STATUS return option");
+        }
+        return statusDataItems;
+    }
+
     protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
         return new ListRequest(referenceName, mailboxPattern, tag);
     }
@@ -0,0 +1,120 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parse RFC5256 SORT commands, eg <code>SORT (REVERSE DATE SUBJECT) UTF-8 ALL</code>
+ */
+public class SortCommandParser extends SearchCommandParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortCommandParser.class);
+    private static final String REVERSE = "REVERSE";
+
+    public SortCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.SORT_COMMAND, statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
+        try {
+            List<Sort> sorts = sortCriteria(request);
+            Charset charset = Charset.forName(request.astring());
+            SearchKey searchKey = decode(session, request, charset, false);
+            return new SortRequest(sorts, searchKey, useUids, tag);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            LOGGER.debug("Unable to decode request", e);
+            return unsupportedCharset(tag);
+        }
+    }
+
+    private List<Sort> sortCriteria(ImapRequestLineReader request) throws DecodingException {
+        ImmutableList.Builder<Sort> sorts = ImmutableList.builder();
+        request.nextWordChar();
+        request.consumeChar('(');
+
+        boolean reverse = false;
+        boolean done = false;
+        while (!done) {
+            String key = request.atom().toUpperCase(Locale.US);
+            if (key.equals(REVERSE)) {
+                if (reverse) {
+                    throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "REVERSE can not be repeated");
+                }
+                reverse = true;
+            } else {
+                sorts.add(new Sort(sortClause(key), reverse ? Order.REVERSE : Order.NATURAL));
+                reverse = false;
+            }
+            if (request.nextWordChar() == ')') {
+                request.consume();
+                done = true;
+            }
+        }
+        if (reverse) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "REVERSE needs to be followed by a sort key");
+        }
+        // Ties are broken by message order. See RFC5256 section 3
+        return sorts.add(new Sort(SortClause.Uid))
+            .build();
+    }
+
+    private SortClause sortClause(String key) throws DecodingException {
+        switch (key) {
+        case "ARRIVAL":
+            return SortClause.Arrival;
+        case "CC":
+            return SortClause.MailboxCc;
+        case "DATE":
+            return SortClause.SentDate;
+        case "FROM":
+            return SortClause.MailboxFrom;
+        case "SIZE":
+            return SortClause.Size;
+        case "SUBJECT":
+            return SortClause.BaseSubject;
+        case "TO":
+            return SortClause.MailboxTo;
+        default:
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown sort key: '" + key + "'");
+        }
+    }
+}
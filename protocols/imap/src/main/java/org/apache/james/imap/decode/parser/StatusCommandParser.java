@@ -39,8 +39,6 @@ import com.google.common.collect.ImmutableList;
  * Parse STATUS commands
  */
 public class StatusCommandParser extends AbstractImapCommandParser {
-    private static final ImapRequestLineReader.NoopCharValidator NOOP_CHAR_VALIDATOR = new ImapRequestLineReader.NoopCharValidator();
-
     public StatusCommandParser(StatusResponseFactory statusResponseFactory) {
         super(ImapConstants.STATUS_COMMAND, statusResponseFactory);
     }
@@ -53,39 +51,39 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return new StatusRequest(mailboxName, statusDataItems, tag);
     }
 
-    private StatusDataItems statusDataItems(ImapRequestLineReader request) throws DecodingException {
+    /**
+     * Reads a parenthesized list of status data items. Also used by LIST-STATUS.
+     */
+    static StatusDataItems statusDataItems(ImapRequestLineReader request) throws DecodingException {
         ImmutableList<String> words = splitWords(request);
 
         EnumSet<StatusDataItems.StatusItem> items = EnumSet.copyOf(words.stream()
-            .map(Throwing.function(this::parseStatus).sneakyThrow())
+            .map(Throwing.function(StatusCommandParser::parseStatus).sneakyThrow())
             .collect(ImmutableList.toImmutableList()));
 
         return new StatusDataItems(items);
     }
 
-    private ImmutableList<String> splitWords(ImapRequestLineReader request) throws DecodingException {
+    private static ImmutableList<String> splitWords(ImapRequestLineReader request) throws DecodingException {
         ImmutableList.Builder<String> words = ImmutableList.builder();
 
         request.nextWordChar();
         request.consumeChar('(');
-        String nextWord = request.consumeWord(NOOP_CHAR_VALIDATOR);
 
-        while (!nextWord.endsWith(")")) {
-            words.add(nextWord);
-            nextWord = request.consumeWord(NOOP_CHAR_VALIDATOR);
+        // Atoms stop on the closing ")", which allows status items to be nested in LIST-STATUS return options
+        while (request.nextWordChar() != ')') {
+            String nextWord = request.atom();
             if (nextWord.isEmpty()) {
                 // Throw to avoid an infinite loop...
                 throw new DecodingException(HumanReadableText.FAILED, "Empty word encountered");
             }
+            words.add(nextWord);
         }
-        // Got the closing ")", may be attached to a word.
-        if (nextWord.length() > 1) {
-            words.add(nextWord.substring(0, nextWord.length() - 1));
-        }
+        request.consumeChar(')');
         return words.build();
     }
 
-    private StatusDataItems.StatusItem parseStatus(String nextWord) throws DecodingException {
+    private static StatusDataItems.StatusItem parseStatus(String nextWord) throws DecodingException {
         // All the matching must be done in a case-insensitive fashion.
         // See rfc3501 9. Formal Syntax and IMAP-282
         if (nextWord.equalsIgnoreCase(ImapConstants.STATUS_MESSAGES)) {
@@ -101,6 +99,9 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         } else if (nextWord.equalsIgnoreCase(ImapConstants.STATUS_HIGHESTMODSEQ)) {
             // HIGHESTMODSEQ status item as defined in RFC4551 3.6 HIGHESTMODSEQ Status Data Items
             return StatusDataItems.StatusItem.HIGHEST_MODSEQ;
+        } else if (nextWord.equalsIgnoreCase(ImapConstants.STATUS_SIZE)) {
+            // SIZE status item as defined in RFC8438
+            return StatusDataItems.StatusItem.SIZE;
         } else {
             throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown status item: '" + nextWord + "'");
         }
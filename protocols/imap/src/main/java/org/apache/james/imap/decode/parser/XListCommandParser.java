@@ -18,10 +18,14 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.ImapRequestLineReader;
 import org.apache.james.imap.message.request.XListRequest;
 
 /**
@@ -32,6 +36,12 @@ public class XListCommandParser extends ListCommandParser {
         super(ImapConstants.XLIST_COMMAND, statusResponseFactory);
     }
 
+    @Override
+    protected Optional<StatusDataItems> returnStatus(ImapRequestLineReader request) {
+        // Return options are a LIST extension
+        return Optional.empty();
+    }
+
     @Override
     protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
         return new XListRequest(referenceName, mailboxPattern, tag);
@@ -77,6 +77,7 @@ public class FetchResponseEncoder implements ImapResponseEncoder<FetchResponse>
         encodeBodyStructure(composer, fetchResponse.getBodyStructure());
         encodeUid(composer, fetchResponse);
         encodeBodyElements(composer, fetchResponse.getElements());
+        encodeBinarySizes(composer, fetchResponse.getBinarySizes());
 
         composer.closeParen().end();
     }
@@ -260,7 +261,20 @@ public class FetchResponseEncoder implements ImapResponseEncoder<FetchResponse>
             for (FetchResponse.BodyElement element : elements) {
                 final String name = element.getName();
                 composer.message(name);
-                composer.literal(element);
+                if (element.isBinary()) {
+                    composer.literal8(element);
+                } else {
+                    composer.literal(element);
+                }
+            }
+        }
+    }
+
+    private void encodeBinarySizes(ImapResponseComposer composer, Map<String, Long> binarySizes) throws IOException {
+        if (binarySizes != null) {
+            for (Map.Entry<String, Long> binarySize : binarySizes.entrySet()) {
+                composer.message(binarySize.getKey());
+                composer.message(binarySize.getValue());
             }
         }
     }
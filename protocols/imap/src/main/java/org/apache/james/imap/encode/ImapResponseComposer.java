@@ -123,6 +123,13 @@ public interface ImapResponseComposer {
      */
     ImapResponseComposer end() throws IOException;
 
+    /**
+     * Waits for the content written so far to be consumed enough for more content to be accepted
+     *
+     * @see ImapResponseWriter#awaitWritability()
+     */
+    void awaitWritability();
+
     /**
      * Write a tag
      * 
@@ -151,6 +158,17 @@ public interface ImapResponseComposer {
      */
     ImapResponseComposer literal(Literal literal) throws IOException;
 
+    /**
+     * Compose a {@link Literal} as a RFC-3516 <code>literal8</code>, which
+     * may carry NUL octets, and write it to the socket. Everything which was
+     * buffered before will get written too
+     *
+     * @param literal
+     * @return self
+     * @throws IOException
+     */
+    ImapResponseComposer literal8(Literal literal) throws IOException;
+
     /**
      * Write a '('
      * 
@@ -49,4 +49,12 @@ public interface ImapResponseWriter {
      */
     void write(byte[] buffer) throws IOException;
 
+    /**
+     * Waits for the content written so far to be consumed enough for more content to be accepted. Writers
+     * that do not buffer writes return immediately.
+     */
+    default void awaitWritability() {
+
+    }
+
 }
@@ -44,6 +44,7 @@ public class MailboxStatusResponseEncoder implements ImapConstants, ImapResponse
         ModSeq highestModSeq = response.getHighestModSeq();
         UidValidity uidValidity = response.getUidValidity();
         Long unseen = response.getUnseen();
+        Long size = response.getSize();
         String mailboxName = response.getMailbox();
 
         composer.untagged();
@@ -86,6 +87,11 @@ public class MailboxStatusResponseEncoder implements ImapConstants, ImapResponse
             composer.message(unseenValue);
         }
 
+        if (size != null) {
+            composer.message(STATUS_SIZE);
+            composer.message(size);
+        }
+
         composer.closeParen();
         composer.end();
     }
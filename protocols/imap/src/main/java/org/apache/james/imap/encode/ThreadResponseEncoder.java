@@ -0,0 +1,73 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.encode;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.message.response.ThreadResponse;
+
+/**
+ * Encodes RFC5256 <code>THREAD</code> responses, eg <code>* THREAD (2)(3 6 (4 23)(44 7 96))</code>
+ */
+public class ThreadResponseEncoder implements ImapResponseEncoder<ThreadResponse> {
+    @Override
+    public Class<ThreadResponse> acceptableMessages() {
+        return ThreadResponse.class;
+    }
+
+    @Override
+    public void encode(ThreadResponse response, ImapResponseComposer composer) throws IOException {
+        composer.untagged();
+        composer.commandName(ImapConstants.THREAD_COMMAND);
+        encodeNested(response.getThreads(), composer);
+        composer.end();
+    }
+
+    private void encodeNested(List<ThreadResponse.Node> nodes, ImapResponseComposer composer) throws IOException {
+        boolean first = true;
+        for (ThreadResponse.Node node : nodes) {
+            if (!first) {
+                // Sibling thread lists are not separated by spaces
+                composer.skipNextSpace();
+            }
+            composer.openParen();
+            encodeMembers(node, composer);
+            composer.closeParen();
+            first = false;
+        }
+    }
+
+    private void encodeMembers(ThreadResponse.Node node, ImapResponseComposer composer) throws IOException {
+        ThreadResponse.Node current = node;
+        if (!current.getId().isPresent()) {
+            // Dummy nodes only group their children, eg ((3)(5))
+            encodeNested(current.getChildren(), composer);
+            return;
+        }
+        composer.message(current.getId().get());
+        // Single child chains are written inline, iteratively as they can be long
+        while (current.getChildren().size() == 1 && current.getChildren().get(0).getId().isPresent()) {
+            current = current.getChildren().get(0);
+            composer.message(current.getId().get());
+        }
+        encodeNested(current.getChildren(), composer);
+    }
+}
@@ -126,6 +126,11 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
         return this;
     }
 
+    @Override
+    public void awaitWritability() {
+        writer.awaitWritability();
+    }
+
     @Override
     public ImapResponseComposer tag(Tag tag) throws IOException {
         writeASCII(tag.asString());
@@ -271,6 +276,17 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
     @Override
     public ImapResponseComposer literal(Literal literal) throws IOException {
         space();
+        return writeLiteral(literal);
+    }
+
+    @Override
+    public ImapResponseComposer literal8(Literal literal) throws IOException {
+        space();
+        buffer.write(BYTE_TILDE);
+        return writeLiteral(literal);
+    }
+
+    private ImapResponseComposer writeLiteral(Literal literal) throws IOException {
         buffer.write(BYTE_OPEN_BRACE);
         final long size = literal.size();
         writeASCII(Long.toString(size));
@@ -46,6 +46,11 @@ public class ResponseEncoder implements Responder {
         }
     }
 
+    @Override
+    public void awaitWritability() {
+        composer.awaitWritability();
+    }
+
     /**
      * Gets the recorded failure.
      * 
@@ -18,8 +18,11 @@
  ****************************************************************/
 package org.apache.james.imap.message.request;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
 
 import com.google.common.base.MoreObjects;
 
@@ -28,10 +31,17 @@ public class ListRequest extends AbstractImapRequest {
 
     private final String mailboxPattern;
 
+    private final Optional<StatusDataItems> returnStatus;
+
     public ListRequest(String referenceName, String mailboxPattern, Tag tag) {
+        this(referenceName, mailboxPattern, Optional.empty(), tag);
+    }
+
+    public ListRequest(String referenceName, String mailboxPattern, Optional<StatusDataItems> returnStatus, Tag tag) {
         super(tag, ImapConstants.LIST_COMMAND);
         this.baseReferenceName = referenceName;
         this.mailboxPattern = mailboxPattern;
+        this.returnStatus = returnStatus;
     }
 
     public final String getBaseReferenceName() {
@@ -42,11 +52,19 @@ public class ListRequest extends AbstractImapRequest {
         return mailboxPattern;
     }
 
+    /**
+     * @return the status data items to return for each listed mailbox. See RFC5819 LIST-STATUS
+     */
+    public final Optional<StatusDataItems> getReturnStatus() {
+        return returnStatus;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("baseReferenceName", baseReferenceName)
             .add("mailboxPattern", mailboxPattern)
+            .add("returnStatus", returnStatus)
             .toString();
     }
 }
@@ -0,0 +1,62 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.message.request;
+
+import java.util.List;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.mailbox.model.SearchQuery;
+
+import com.google.common.base.MoreObjects;
+
+public class SortRequest extends AbstractImapRequest {
+    private final List<SearchQuery.Sort> sorts;
+    private final SearchKey searchKey;
+    private final boolean useUids;
+
+    public SortRequest(List<SearchQuery.Sort> sorts, SearchKey searchKey, boolean useUids, Tag tag) {
+        super(tag, ImapConstants.SORT_COMMAND);
+        this.sorts = sorts;
+        this.searchKey = searchKey;
+        this.useUids = useUids;
+    }
+
+    public final List<SearchQuery.Sort> getSorts() {
+        return sorts;
+    }
+
+    public final SearchKey getSearchKey() {
+        return searchKey;
+    }
+
+    public final boolean isUseUids() {
+        return useUids;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("sorts", sorts)
+            .add("searchKey", searchKey)
+            .add("useUids", useUids)
+            .toString();
+    }
+}
@@ -18,6 +18,8 @@
  ****************************************************************/
 package org.apache.james.imap.message.response;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -31,6 +33,8 @@ import org.apache.james.mailbox.MessageSequenceNumber;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
 
+import com.google.common.io.ByteStreams;
+
 public final class FetchResponse implements ImapResponseMessage {
     private final MessageSequenceNumber messageNumber;
     private final Flags flags;
@@ -42,8 +46,13 @@ public final class FetchResponse implements ImapResponseMessage {
     private final Structure body;
     private final Structure bodystructure;
     private final ModSeq modSeq;
+    private final Map<String, Long> binarySizes;
 
     public FetchResponse(MessageSequenceNumber messageNumber, Flags flags, MessageUid uid, ModSeq modSeq, Date internalDate, Long size, Envelope envelope, Structure body, Structure bodystructure, List<BodyElement> elements) {
+        this(messageNumber, flags, uid, modSeq, internalDate, size, envelope, body, bodystructure, elements, null);
+    }
+
+    public FetchResponse(MessageSequenceNumber messageNumber, Flags flags, MessageUid uid, ModSeq modSeq, Date internalDate, Long size, Envelope envelope, Structure body, Structure bodystructure, List<BodyElement> elements, Map<String, Long> binarySizes) {
         this.messageNumber = messageNumber;
         this.flags = flags;
         this.uid = uid;
@@ -54,6 +63,7 @@ public final class FetchResponse implements ImapResponseMessage {
         this.body = body;
         this.bodystructure = bodystructure;
         this.modSeq = modSeq;
+        this.binarySizes = binarySizes;
     }
 
     /**
@@ -144,6 +154,16 @@ public final class FetchResponse implements ImapResponseMessage {
     public List<BodyElement> getElements() {
         return elements;
     }
+
+    /**
+     * Gets the decoded sizes requested by <code>BINARY.SIZE</code>.
+     *
+     * @return sizes indexed by the response name, or null if the <code>FETCH</code> did not include
+     *         <code>BINARY.SIZE</code>
+     */
+    public Map<String, Long> getBinarySizes() {
+        return binarySizes;
+    }
     
     /**
      * Return the mod-sequence for the message or null if the <code>FETCH</code> did not 
@@ -294,6 +314,25 @@ public final class FetchResponse implements ImapResponseMessage {
          */
         String getName();
 
+        /**
+         * Whether this element had its transfer encoding removed, as requested by <code>BINARY</code>. Such
+         * content may contain NUL octets and is thus written as a <code>literal8</code>.
+         */
+        default boolean isBinary() {
+            return false;
+        }
+
+        /**
+         * Return at most length octets of this element, starting at offset.
+         *
+         * Elements backed by a content able to serve ranged reads should override it so that partial fetches
+         * do not need to read the full element.
+         */
+        default InputStream getInputStream(long offset, long length) throws IOException {
+            InputStream inputStream = getInputStream();
+            ByteStreams.exhaust(ByteStreams.limit(inputStream, offset));
+            return ByteStreams.limit(inputStream, length);
+        }
     }
 
     /**
@@ -35,9 +35,11 @@ public class MailboxStatusResponse implements ImapResponseMessage {
     private final Long unseen;
     private final String mailbox;
     private final ModSeq highestModSeq;
+    private final Long size;
 
-    public MailboxStatusResponse(Long messages, Long recent, MessageUid uidNext, ModSeq highestModSeq, UidValidity uidValidity, Long unseen, String mailbox) {
+    public MailboxStatusResponse(Long size, Long messages, Long recent, MessageUid uidNext, ModSeq highestModSeq, UidValidity uidValidity, Long unseen, String mailbox) {
         super();
+        this.size = size;
         this.messages = messages;
         this.recent = recent;
         this.uidNext = uidNext;
@@ -57,6 +59,15 @@ public class MailboxStatusResponse implements ImapResponseMessage {
         return messages;
     }
 
+    /**
+     * Gets the <code>SIZE</code> of the mailbox. See RFC8438
+     *
+     * @return the total size of the messages of the mailbox, in octets, (if requested) or null (if not)
+     */
+    public final Long getSize() {
+        return size;
+    }
+
     /**
      * Gets the <code>RECENT</code> count for the mailbox.
      * 
@@ -112,6 +123,6 @@ public class MailboxStatusResponse implements ImapResponseMessage {
     }
 
     public String toString() {
-        return "Status response[mailbox='" + mailbox + "' messages=" + messages + " recent=" + recent + " uidnext=" + uidNext + " uidvalidity=" + uidValidity + " unseen=" + unseen + "]";
+        return "Status response[mailbox='" + mailbox + "' messages=" + messages + " recent=" + recent + " uidnext=" + uidNext + " uidvalidity=" + uidValidity + " unseen=" + unseen + " size=" + size + "]";
     }
 }
@@ -0,0 +1,65 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.message.response;
+
+import java.util.Arrays;
+
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * A <code>SORT</code> response. See RFC5256
+ */
+public class SortResponse implements ImapResponseMessage {
+    private final long[] ids;
+
+    /**
+     * @param ids sorted ids, not null
+     */
+    public SortResponse(long[] ids) {
+        this.ids = ids;
+    }
+
+    public final long[] getIds() {
+        return ids;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof SortResponse) {
+            SortResponse that = (SortResponse) o;
+
+            return Arrays.equals(this.ids, that.ids);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("ids", Arrays.toString(ids))
+            .toString();
+    }
+}
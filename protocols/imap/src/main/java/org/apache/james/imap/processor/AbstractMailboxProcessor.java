@@ -61,7 +61,6 @@ import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageRange.Type;
-import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
 import org.slf4j.Logger;
@@ -534,7 +533,7 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
     /**
      * Send VANISHED responses if needed. 
      */
-    protected void respondVanished(SelectedMailbox selectedMailbox, List<MessageRange> ranges, long changedSince, MailboxMetaData metaData, Responder responder) throws MailboxException {
+    protected void respondVanished(MessageManager mailbox, MailboxSession mailboxSession, SelectedMailbox selectedMailbox, List<MessageRange> ranges, long changedSince, MailboxMetaData metaData, Responder responder) throws MailboxException {
         // RFC5162 4.2. Server Implementations Storing Minimal State
         //  
         //      A server that stores the HIGHESTMODSEQ value at the time of the last
@@ -546,37 +545,53 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
         //      as above.  In the case where there have been no expunges, the server
         //      can ignore this data.
         if (metaData.getHighestModSeq().asLong() > changedSince) {
-            SearchQuery.Builder searchQuery = SearchQuery.builder();
-            SearchQuery.UidRange[] nRanges = new SearchQuery.UidRange[ranges.size()];
-            Set<MessageUid> vanishedUids = new HashSet<>();
-            for (int i = 0; i < ranges.size(); i++) {
-                MessageRange r = ranges.get(i);
-                SearchQuery.UidRange nr;
-                if (r.getType() == Type.ONE) {
-                    nr = new SearchQuery.UidRange(r.getUidFrom());
-                } else {
-                    nr = new SearchQuery.UidRange(r.getUidFrom(), r.getUidTo());
-                }
-                MessageUid from = nr.getLowValue();
-                MessageUid to = nr.getHighValue();
-                while (from.compareTo(to) <= 0) {
-                    MessageUid copy = from;
-                    selectedMailbox.msn(from).fold(
-                        () -> vanishedUids.add(copy),
-                        msn -> {
-                            // ignore still there
-                            return true;
-                        });
-                    from = from.next();
-                }
-                nRanges[i] = nr;
-
+            Optional<Set<MessageUid>> expungedUids = expungedSince(mailbox, mailboxSession, selectedMailbox, ranges, changedSince);
+            Set<MessageUid> vanishedUids;
+            if (expungedUids.isPresent()) {
+                vanishedUids = expungedUids.get();
+            } else {
+                vanishedUids = missingUids(selectedMailbox, ranges);
             }
             UidRange[] vanishedIdRanges = uidRanges(MessageRange.toRanges(vanishedUids));
             responder.respond(new VanishedResponse(vanishedIdRanges, true));
         }
-        
-        
+    }
+
+    /**
+     * Relies on the expunge history of the mailbox, when available, so that the cost is bound to the number of
+     * expunges rather than to the size of the requested ranges.
+     */
+    private Optional<Set<MessageUid>> expungedSince(MessageManager mailbox, MailboxSession mailboxSession, SelectedMailbox selectedMailbox, List<MessageRange> ranges, long changedSince) throws MailboxException {
+        Set<MessageUid> vanishedUids = new HashSet<>();
+        for (MessageRange range : ranges) {
+            Optional<List<MessageUid>> expunged = mailbox.listExpungedUidsSince(range, ModSeq.of(changedSince), mailboxSession);
+            if (!expunged.isPresent()) {
+                return Optional.empty();
+            }
+            expunged.get().stream()
+                .filter(uid -> !selectedMailbox.msn(uid).asInt().isPresent())
+                .forEach(vanishedUids::add);
+        }
+        return Optional.of(vanishedUids);
+    }
+
+    private Set<MessageUid> missingUids(SelectedMailbox selectedMailbox, List<MessageRange> ranges) throws MailboxException {
+        Set<MessageUid> vanishedUids = new HashSet<>();
+        for (MessageRange r : ranges) {
+            MessageUid from = r.getUidFrom();
+            MessageUid to = r.getUidTo();
+            while (from.compareTo(to) <= 0) {
+                MessageUid copy = from;
+                selectedMailbox.msn(from).fold(
+                    () -> vanishedUids.add(copy),
+                    msn -> {
+                        // ignore still there
+                        return true;
+                    });
+                from = from.next();
+            }
+        }
+        return vanishedUids;
     }
     
     
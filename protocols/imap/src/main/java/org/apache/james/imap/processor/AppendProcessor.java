@@ -20,11 +20,11 @@
 package org.apache.james.imap.processor;
 
 import java.io.Closeable;
-import java.util.Date;
-
-import javax.mail.Flags;
+import java.util.List;
 
+import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
 import org.apache.james.imap.api.message.UidRange;
 import org.apache.james.imap.api.message.response.StatusResponse;
 import org.apache.james.imap.api.message.response.StatusResponse.ResponseCode;
@@ -37,10 +37,9 @@ import org.apache.james.imap.message.request.AppendRequest;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MailboxNotFoundException;
-import org.apache.james.mailbox.model.ComposedMessageId;
-import org.apache.james.mailbox.model.Content;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.UidValidity;
 import org.apache.james.metrics.api.MetricFactory;
@@ -48,7 +47,9 @@ import org.apache.james.util.MDCBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
+import com.google.common.collect.ImmutableList;
+
+public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(AppendProcessor.class);
 
     public AppendProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory statusResponseFactory,
@@ -59,9 +60,6 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
     @Override
     protected void processRequest(AppendRequest request, ImapSession session, Responder responder) {
         final String mailboxName = request.getMailboxName();
-        final Content messageIn = request.getMessage().asMailboxContent();
-        final Date datetime = request.getDatetime();
-        final Flags flags = request.getFlags();
         final MailboxPath mailboxPath = PathConverter.forSession(session).buildFullPath(mailboxName);
 
         session.stopDetectingCommandInjection();
@@ -69,7 +67,7 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
         try {
             final MailboxManager mailboxManager = getMailboxManager();
             final MessageManager mailbox = mailboxManager.getMailbox(mailboxPath, session.getMailboxSession());
-            appendToMailbox(messageIn, datetime, flags, session, request, mailbox, responder, mailboxPath);
+            appendToMailbox(session, request, mailbox, responder, mailboxPath);
         } catch (MailboxNotFoundException e) {
             LOGGER.debug("Append failed for mailbox {}", mailboxPath, e);
             
@@ -103,21 +101,28 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
         no(request, responder, HumanReadableText.FAILURE_NO_SUCH_MAILBOX, StatusResponse.ResponseCode.tryCreate());
     }
 
-    private void appendToMailbox(Content message, Date datetime, Flags flagsToBeSet, ImapSession session, AppendRequest request, MessageManager mailbox, Responder responder, MailboxPath mailboxPath) {
+    private void appendToMailbox(ImapSession session, AppendRequest request, MessageManager mailbox, Responder responder, MailboxPath mailboxPath) {
         try {
             final MailboxSession mailboxSession = session.getMailboxSession();
             final SelectedMailbox selectedMailbox = session.getSelected();
             final boolean isSelectedMailbox = selectedMailbox != null && selectedMailbox.getMailboxId().equals(mailbox.getId());
 
-            final ComposedMessageId messageId = mailbox.appendMessage(
-                MessageManager.AppendCommand.builder()
-                    .withInternalDate(datetime)
-                    .withFlags(flagsToBeSet)
+            ImmutableList.Builder<MessageManager.AppendCommand> commands = ImmutableList.builder();
+            for (AppendRequest.Message message : request.getMessages()) {
+                commands.add(MessageManager.AppendCommand.builder()
+                    .withInternalDate(message.getDatetime())
+                    .withFlags(message.getFlags())
                     .isRecent(!isSelectedMailbox)
-                    .build(message), mailboxSession)
-                .getId();
+                    .build(message.getLiteral().asMailboxContent()));
+            }
+
+            // Messages of a MULTIAPPEND are stored as a single batch
+            List<MessageUid> uids = mailbox.appendMessages(commands.build(), mailboxSession)
+                .stream()
+                .map(result -> result.getId().getUid())
+                .collect(ImmutableList.toImmutableList());
             if (isSelectedMailbox) {
-                selectedMailbox.addRecent(messageId.getUid());
+                uids.forEach(selectedMailbox::addRecent);
             }
 
             // get folder UIDVALIDITY
@@ -127,8 +132,7 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
 
             unsolicitedResponses(session, responder, false);
 
-            // in case of MULTIAPPEND support we will push more then one UID here
-            okComplete(request, ResponseCode.appendUid(uidValidity, new UidRange[] { new UidRange(messageId.getUid()) }), responder);
+            okComplete(request, ResponseCode.appendUid(uidValidity, toUidRanges(uids)), responder);
         } catch (MailboxNotFoundException e) {
             // Indicates that the mailbox does not exist
             // So TRY CREATE
@@ -140,6 +144,18 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
         }
     }
 
+    private UidRange[] toUidRanges(List<MessageUid> uids) {
+        return UidRange.mergeRanges(uids.stream()
+                .map(UidRange::new)
+                .collect(ImmutableList.toImmutableList()))
+            .toArray(UidRange[]::new);
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return ImmutableList.of(ImapConstants.SUPPORTS_MULTIAPPEND);
+    }
+
     @Override
     protected Closeable addContextToMDC(AppendRequest request) {
         return MDCBuilder.create()
@@ -0,0 +1,116 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.james.mime4j.codec.DecodeMonitor;
+import org.apache.james.mime4j.codec.DecoderUtil;
+
+/**
+ * Extracts the base subject of a message, as defined in RFC5256 section 2.1.
+ *
+ * The base subject is used by the <code>ORDEREDSUBJECT</code> and <code>REFERENCES</code> threading algorithms to group
+ * replies and forwards together with their original message.
+ */
+final class BaseSubject {
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+    private static final Pattern TRAILER = Pattern.compile("(?:\\s*\\(fwd\\))*\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEADER = Pattern.compile("^(?:\\s+|(?:re|fwd?)\\s*(?:\\[[^\\[\\]]*\\]\\s*)?:)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BLOB = Pattern.compile("^\\[[^\\[\\]]*\\]\\s*");
+    private static final String FWD_HEADER = "[FWD:";
+    private static final String FWD_TRAILER = "]";
+
+    static String of(String subject) {
+        return extract(subject).baseSubject;
+    }
+
+    /**
+     * A subject is a reply or a forward when extracting its base subject removed a <code>Re:</code> or
+     * <code>Fwd:</code> leader, a <code>(fwd)</code> trailer or a <code>[Fwd: ...]</code> wrapper.
+     */
+    static boolean isReplyOrForward(String subject) {
+        return extract(subject).replyOrForward;
+    }
+
+    private static Extraction extract(String subject) {
+        String decoded = DecoderUtil.decodeEncodedWords(subject, DecodeMonitor.SILENT);
+        Extraction current = new Extraction(WHITESPACES.matcher(decoded).replaceAll(" ")
+            .toUpperCase(Locale.US), false);
+
+        while (true) {
+            current = removeTrailers(current);
+            current = removeLeaders(current);
+
+            String value = current.baseSubject;
+            if (value.startsWith(FWD_HEADER) && value.endsWith(FWD_TRAILER)) {
+                current = new Extraction(value.substring(FWD_HEADER.length(), value.length() - FWD_TRAILER.length()), true);
+            } else {
+                return current;
+            }
+        }
+    }
+
+    private static Extraction removeTrailers(Extraction extraction) {
+        Matcher trailer = TRAILER.matcher(extraction.baseSubject);
+        if (trailer.find()) {
+            boolean forward = !trailer.group().trim().isEmpty();
+            return new Extraction(extraction.baseSubject.substring(0, trailer.start()), extraction.replyOrForward || forward);
+        }
+        return extraction;
+    }
+
+    private static Extraction removeLeaders(Extraction extraction) {
+        String current = extraction.baseSubject;
+        boolean replyOrForward = extraction.replyOrForward;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Matcher leader = LEADER.matcher(current);
+            if (leader.find()) {
+                replyOrForward = replyOrForward || !leader.group().trim().isEmpty();
+                current = current.substring(leader.end());
+                changed = true;
+            }
+            Matcher blob = BLOB.matcher(current);
+            // A leading blob is only removed if something remains afterward
+            if (blob.find() && blob.end() < current.length()) {
+                current = current.substring(blob.end());
+                changed = true;
+            }
+        }
+        return new Extraction(current, replyOrForward);
+    }
+
+    private static class Extraction {
+        private final String baseSubject;
+        private final boolean replyOrForward;
+
+        private Extraction(String baseSubject, boolean replyOrForward) {
+            this.baseSubject = baseSubject;
+            this.replyOrForward = replyOrForward;
+        }
+    }
+
+    private BaseSubject() {
+    }
+}
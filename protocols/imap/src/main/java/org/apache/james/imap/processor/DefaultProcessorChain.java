@@ -91,13 +91,21 @@ public class DefaultProcessorChain {
         SearchProcessor searchProcessor = new SearchProcessor(listProcessor, mailboxManager, statusResponseFactory, metricFactory);
         // WITHIN extension
         capabilityProcessor.addProcessor(searchProcessor);
-
-        SelectProcessor selectProcessor = new SelectProcessor(searchProcessor, mailboxManager, eventBus, statusResponseFactory, metricFactory);
+        // LIST-STATUS extension
+        capabilityProcessor.addProcessor(listProcessor);
+        SortProcessor sortProcessor = new SortProcessor(searchProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        ThreadProcessor threadProcessor = new ThreadProcessor(sortProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        // SORT and THREAD extensions
+        capabilityProcessor.addProcessor(sortProcessor);
+        capabilityProcessor.addProcessor(threadProcessor);
+
+        SelectProcessor selectProcessor = new SelectProcessor(threadProcessor, mailboxManager, eventBus, statusResponseFactory, metricFactory);
         NamespaceProcessor namespaceProcessor = new NamespaceProcessor(selectProcessor, mailboxManager, statusResponseFactory, metricFactory);
 
         capabilityProcessor.addProcessor(xlistProcessor);
 
-        ImapProcessor fetchProcessor = new FetchProcessor(namespaceProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        FetchProcessor fetchProcessor = new FetchProcessor(namespaceProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        capabilityProcessor.addProcessor(fetchProcessor);
         StartTLSProcessor startTLSProcessor = new StartTLSProcessor(fetchProcessor, statusResponseFactory);
 
         UnselectProcessor unselectProcessor = new UnselectProcessor(startTLSProcessor, mailboxManager, statusResponseFactory, metricFactory);
@@ -124,6 +132,9 @@ public class DefaultProcessorChain {
         // added to announce UIDPLUS support
         capabilityProcessor.addProcessor(expungeProcessor);
 
+        // announce the MULTIAPPEND extension. See RFC3502
+        capabilityProcessor.addProcessor(appendProcessor);
+
         // announce the UNSELECT extension. See RFC3691
         capabilityProcessor.addProcessor(unselectProcessor);
 
@@ -19,13 +19,21 @@
 
 package org.apache.james.imap.processor;
 
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Counters;
 import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Minimal;
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Status;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.Optional;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.api.display.ModifiedUtf7;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.ImapResponseMessage;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapProcessor;
@@ -34,8 +42,10 @@ import org.apache.james.imap.api.process.MailboxType;
 import org.apache.james.imap.main.PathConverter;
 import org.apache.james.imap.message.request.ListRequest;
 import org.apache.james.imap.message.response.ListResponse;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxConstants;
 import org.apache.james.mailbox.model.MailboxMetaData;
@@ -47,14 +57,26 @@ import org.apache.james.util.MDCBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class ListProcessor extends AbstractMailboxProcessor<ListRequest> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ListProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(ImapConstants.SUPPORTS_LIST_STATUS);
+    private static final int STATUS_CONCURRENCY = 4;
 
     public ListProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory factory,
             MetricFactory metricFactory) {
         super(ListRequest.class, next, mailboxManager, factory, metricFactory);
     }
 
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
     /**
      * (from rfc3501)<br>
      * The LIST command returns a subset of names from the complete set of all
@@ -77,7 +99,7 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
             if (mailboxPatternString.length() == 0) {
                 respondNamespace(baseReferenceName, responder, mailboxSession);
             } else {
-                respondMailboxList(baseReferenceName, mailboxPatternString, session, responder, mailboxSession);
+                respondMailboxList(baseReferenceName, mailboxPatternString, request.getReturnStatus(), session, responder, mailboxSession);
             }
             okComplete(request, responder);
         } catch (MailboxException e) {
@@ -119,7 +141,7 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
         }
     }
 
-    private void respondMailboxList(String referenceName, String mailboxName, ImapSession session, Responder responder, MailboxSession mailboxSession) throws MailboxException {
+    private void respondMailboxList(String referenceName, String mailboxName, Optional<StatusDataItems> returnStatus, ImapSession session, Responder responder, MailboxSession mailboxSession) throws MailboxException {
         // If the mailboxPattern is fully qualified, ignore the
         // reference name.
         String finalReferencename = referenceName;
@@ -132,6 +154,9 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
 
         MailboxPath basePath = computeBasePath(session, finalReferencename, isRelative);
 
+        // LIST-STATUS: counters and sequences of all listed mailboxes are read at once by the mailbox search
+        MailboxManager.MailboxSearchFetchType fetchType = returnStatus.map(this::fetchType).orElse(Minimal);
+
         getMailboxManager().search(
                 MailboxQuery.builder()
                     .userAndNamespaceFrom(basePath)
@@ -139,10 +164,57 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
                         basePath.getName(),
                         ModifiedUtf7.decodeModifiedUTF7(mailboxName),
                         mailboxSession.getPathDelimiter()))
-                    .build(), Minimal, mailboxSession)
-            .doOnNext(metaData -> processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath())))
+                    .build(), fetchType, mailboxSession)
+            .flatMapSequential(metaData -> computeStatus(isRelative, metaData, returnStatus, mailboxSession)
+                    .map(status -> Pair.of(metaData, status)),
+                STATUS_CONCURRENCY)
+            .doOnNext(metaDataWithStatus -> {
+                MailboxMetaData metaData = metaDataWithStatus.getLeft();
+                processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath()));
+                // See RFC5819: STATUS responses are sent after the LIST response of the mailbox
+                metaDataWithStatus.getRight().ifPresent(responder::respond);
+            })
             .then()
             .block();
+
+        if (returnStatus.map(StatusDataItems::isHighestModSeq).orElse(false)) {
+            // Like STATUS, LIST-STATUS with HIGHESTMODSEQ is a CONDSTORE enabling command
+            EnableProcessor.getEnabledCapabilities(session).add(ImapConstants.SUPPORTS_CONDSTORE);
+        }
+    }
+
+    private Mono<Optional<MailboxStatusResponse>> computeStatus(boolean relative, MailboxMetaData metaData, Optional<StatusDataItems> returnStatus, MailboxSession mailboxSession) {
+        if (returnStatus.isEmpty() || metaData.getSelectability() == MailboxMetaData.Selectability.NOSELECT) {
+            return Mono.just(Optional.empty());
+        }
+        StatusDataItems statusDataItems = returnStatus.get();
+        String mailboxName = mailboxName(relative, metaData.getPath(), metaData.getHierarchyDelimiter());
+
+        if (!statusDataItems.requiresMailboxLoading()) {
+            return Mono.just(Optional.of(StatusProcessor.computeStatusResponse(mailboxName, statusDataItems, metaData)));
+        }
+        // RECENT needs the recent messages of the mailbox. SIZE is rejected by the parser as it is too expensive to
+        // compute for every listed mailbox.
+        return Mono.fromCallable(() -> {
+                MessageManager mailbox = getMailboxManager().getMailbox(metaData.getId(), mailboxSession);
+                return StatusProcessor.computeStatusResponse(mailboxName, statusDataItems,
+                    StatusProcessor.retrieveMetadata(mailbox, statusDataItems, mailboxSession),
+                    null);
+            })
+            .map(Optional::of)
+            .onErrorResume(MailboxException.class, e -> {
+                // Status of a single mailbox failing should not fail the whole listing
+                LOGGER.warn("Failed to compute LIST-STATUS for mailbox {}", metaData.getPath(), e);
+                return Mono.just(Optional.empty());
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private MailboxManager.MailboxSearchFetchType fetchType(StatusDataItems statusDataItems) {
+        if (statusDataItems.requiresSequences()) {
+            return Status;
+        }
+        return Counters;
     }
 
     private MailboxPath computeBasePath(ImapSession session, String finalReferencename, boolean isRelative) {
@@ -0,0 +1,287 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.james.imap.message.response.ThreadResponse;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Threads messages with the <code>REFERENCES</code> algorithm, as defined in RFC5256 section 2.2.
+ *
+ * Messages are linked to their parents using their <code>Message-ID</code>, <code>References</code> and
+ * <code>In-Reply-To</code> headers. Referenced messages that are not part of the threaded messages are kept as
+ * dummies while linking, then pruned. Remaining threads are grouped by base subject, and siblings are ordered by
+ * sent date.
+ */
+final class ReferencesThreading {
+    private static final Pattern MESSAGE_ID = Pattern.compile("<[^<>\\s]+>");
+
+    /**
+     * The headers of a message needed to thread it
+     */
+    static class Message {
+        static Message of(long id, Optional<String> messageId, Optional<String> references, Optional<String> inReplyTo,
+                          Optional<String> subject) {
+            List<String> referencedIds = references.map(ReferencesThreading::messageIds)
+                .filter(ids -> !ids.isEmpty())
+                .orElseGet(() -> inReplyTo.map(ReferencesThreading::messageIds)
+                    .flatMap(ids -> ids.stream().findFirst())
+                    .map(ImmutableList::of)
+                    .orElse(ImmutableList.of()));
+
+            return new Message(id,
+                messageId.flatMap(value -> messageIds(value).stream().findFirst()),
+                referencedIds,
+                subject.orElse(""));
+        }
+
+        private final long id;
+        private final Optional<String> messageId;
+        private final List<String> references;
+        private final String baseSubject;
+        private final boolean replyOrForward;
+
+        private Message(long id, Optional<String> messageId, List<String> references, String subject) {
+            this.id = id;
+            this.messageId = messageId;
+            this.references = references;
+            this.baseSubject = BaseSubject.of(subject);
+            this.replyOrForward = BaseSubject.isReplyOrForward(subject);
+        }
+    }
+
+    private static class Container {
+        private final List<Container> children = new ArrayList<>();
+        private Optional<Message> message = Optional.empty();
+        private int rank;
+        private Container parent;
+
+        boolean isDummy() {
+            return !message.isPresent();
+        }
+
+        void addChild(Container child) {
+            if (child.parent != null) {
+                child.parent.children.remove(child);
+            }
+            child.parent = this;
+            children.add(child);
+        }
+
+        /**
+         * Linking the given child to this container is not allowed when this container is the child itself or one of
+         * its descendants, as it would introduce a loop.
+         */
+        boolean canAdopt(Container child) {
+            for (Container current = this; current != null; current = current.parent) {
+                if (current == child) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String baseSubject() {
+            return message.map(value -> value.baseSubject)
+                .orElseGet(() -> children.get(0).baseSubject());
+        }
+
+        boolean isReplyOrForward() {
+            return message.map(value -> value.replyOrForward).orElse(false);
+        }
+
+        int sentDateRank() {
+            return message.map(any -> rank)
+                .orElseGet(() -> children.get(0).sentDateRank());
+        }
+    }
+
+    /**
+     * @param messages the messages to thread, ordered by sent date
+     */
+    static List<ThreadResponse.Node> thread(List<Message> messages) {
+        List<Container> containers = link(messages);
+
+        List<Container> rootSet = containers.stream()
+            .filter(container -> container.parent == null)
+            .collect(ImmutableList.toImmutableList());
+
+        List<Container> roots = groupBySubject(sort(prune(rootSet, true)));
+
+        return sort(roots).stream()
+            .map(ReferencesThreading::asNode)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private static List<Container> link(List<Message> messages) {
+        Map<String, Container> idTable = new HashMap<>();
+        Set<Container> containers = new LinkedHashSet<>();
+
+        for (int rank = 0; rank < messages.size(); rank++) {
+            Message message = messages.get(rank);
+            // Messages without Message-ID or with a duplicated one get a container of their own
+            Container container = message.messageId
+                .map(messageId -> idTable.computeIfAbsent(messageId, any -> new Container()))
+                .filter(Container::isDummy)
+                .orElseGet(Container::new);
+            container.message = Optional.of(message);
+            container.rank = rank;
+            containers.add(container);
+
+            Container previous = null;
+            for (String reference : message.references) {
+                Container current = idTable.computeIfAbsent(reference, any -> new Container());
+                containers.add(current);
+                if (previous != null && current.parent == null && previous.canAdopt(current)) {
+                    previous.addChild(current);
+                }
+                previous = current;
+            }
+
+            if (container.parent != null) {
+                container.parent.children.remove(container);
+                container.parent = null;
+            }
+            if (previous != null && previous.canAdopt(container)) {
+                previous.addChild(container);
+            }
+        }
+        return ImmutableList.copyOf(containers);
+    }
+
+    /**
+     * Removes dummies without children, and replaces dummies by their children unless it would promote several
+     * children to the root set.
+     */
+    private static List<Container> prune(List<Container> containers, boolean root) {
+        List<Container> result = new ArrayList<>();
+        for (Container container : containers) {
+            List<Container> children = prune(ImmutableList.copyOf(container.children), false);
+            container.children.clear();
+            children.forEach(container::addChild);
+
+            if (!container.isDummy()) {
+                result.add(container);
+            } else if (children.size() == 1 || (!root && !children.isEmpty())) {
+                result.addAll(children);
+            } else if (!children.isEmpty()) {
+                result.add(container);
+            }
+        }
+        if (root) {
+            result.forEach(container -> container.parent = null);
+        }
+        return result;
+    }
+
+    private static List<Container> groupBySubject(List<Container> roots) {
+        Map<String, Container> subjectTable = new HashMap<>();
+        for (Container root : roots) {
+            String subject = root.baseSubject();
+            if (subject.isEmpty()) {
+                continue;
+            }
+            Container existing = subjectTable.get(subject);
+            if (existing == null
+                || (root.isDummy() && !existing.isDummy())
+                || (!existing.isDummy() && existing.isReplyOrForward() && !root.isDummy() && !root.isReplyOrForward())) {
+                subjectTable.put(subject, root);
+            }
+        }
+
+        for (Container root : roots) {
+            String subject = root.baseSubject();
+            Container existing = subjectTable.get(subject);
+            if (subject.isEmpty() || existing == root) {
+                continue;
+            }
+            if (existing.isDummy() && root.isDummy()) {
+                ImmutableList.copyOf(root.children).forEach(existing::addChild);
+            } else if (existing.isDummy()) {
+                existing.addChild(root);
+            } else if (root.isDummy()) {
+                root.addChild(existing);
+                subjectTable.put(subject, root);
+            } else if (!existing.isReplyOrForward() && root.isReplyOrForward()) {
+                existing.addChild(root);
+            } else {
+                Container dummy = new Container();
+                dummy.addChild(existing);
+                dummy.addChild(root);
+                subjectTable.put(subject, dummy);
+            }
+        }
+
+        Set<Container> result = new LinkedHashSet<>();
+        for (Container root : roots) {
+            Container top = root;
+            while (top.parent != null) {
+                top = top.parent;
+            }
+            if (!top.isDummy() || !top.children.isEmpty()) {
+                result.add(top);
+            }
+        }
+        return ImmutableList.copyOf(result);
+    }
+
+    private static List<Container> sort(List<Container> containers) {
+        containers.forEach(container -> {
+            List<Container> children = sort(container.children);
+            container.children.clear();
+            container.children.addAll(children);
+        });
+        return containers.stream()
+            .sorted(Comparator.comparingInt(Container::sentDateRank))
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private static ThreadResponse.Node asNode(Container container) {
+        List<ThreadResponse.Node> children = container.children.stream()
+            .map(ReferencesThreading::asNode)
+            .collect(ImmutableList.toImmutableList());
+        return container.message
+            .map(message -> ThreadResponse.Node.of(message.id, children))
+            .orElseGet(() -> ThreadResponse.Node.dummy(children));
+    }
+
+    private static List<String> messageIds(String header) {
+        Matcher matcher = MESSAGE_ID.matcher(header);
+        ImmutableList.Builder<String> ids = ImmutableList.builder();
+        while (matcher.find()) {
+            ids.add(matcher.group());
+        }
+        return ids.build();
+    }
+
+    private ReferencesThreading() {
+    }
+}
@@ -0,0 +1,111 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.SortResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MessageRangeException;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Handles the <code>SORT</code> command. See RFC5256
+ *
+ * Sorting is delegated to the mailbox search index, which already orders results by the {@link SearchQuery.Sort}
+ * of the query.
+ */
+public class SortProcessor extends AbstractMailboxProcessor<SortRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(ImapConstants.SUPPORTS_SORT);
+
+    public SortProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory factory,
+            MetricFactory metricFactory) {
+        super(SortRequest.class, next, mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    protected void processRequest(SortRequest request, ImapSession session, Responder responder) {
+        final boolean useUids = request.isUseUids();
+
+        try {
+            MessageManager mailbox = getSelectedMailbox(session)
+                .orElseThrow(() -> new MailboxException("Session not in SELECTED state"));
+
+            SearchQuery query = SearchProcessor.toQueryBuilder(request.getSearchKey(), session)
+                .sorts(request.getSorts())
+                .build();
+            Collection<MessageUid> uids = Flux.from(mailbox.search(query, session.getMailboxSession()))
+                .collect(ImmutableList.toImmutableList())
+                .block();
+            long[] ids = SearchProcessor.asResults(session, useUids, uids)
+                .stream()
+                .mapToLong(x -> x)
+                .toArray();
+
+            responder.respond(new SortResponse(ids));
+
+            boolean omitExpunged = (!useUids);
+            unsolicitedResponses(session, responder, omitExpunged, useUids);
+            okComplete(request, responder);
+        } catch (MessageRangeException e) {
+            LOGGER.debug("Sort failed in mailbox {} because of an invalid sequence-set ", session.getSelected().getMailboxId(), e);
+            taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
+        } catch (MailboxException e) {
+            LOGGER.error("Sort failed in mailbox {}", session.getSelected().getMailboxId(), e);
+            no(request, responder, HumanReadableText.SEARCH_FAILED);
+        } finally {
+            session.setAttribute(SearchProcessor.SEARCH_MODSEQ, null);
+        }
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected Closeable addContextToMDC(SortRequest request) {
+        return MDCBuilder.create()
+            .addToContext(MDCBuilder.ACTION, "SORT")
+            .addToContext("useUid", Boolean.toString(request.isUseUids()))
+            .build();
+    }
+}
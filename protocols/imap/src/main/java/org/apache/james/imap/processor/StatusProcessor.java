@@ -35,13 +35,22 @@ import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxMetaData;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.UidValidity;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.MDCBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Flux;
+
 public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
     private static final Logger LOGGER = LoggerFactory.getLogger(StatusProcessor.class);
 
@@ -59,8 +68,10 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         try {
             LOGGER.debug("Status called on mailbox named {}", mailboxPath);
 
-            MessageManager.MailboxMetaData metaData = retrieveMetadata(mailboxPath, statusDataItems, mailboxSession);
-            MailboxStatusResponse response = computeStatusResponse(request, statusDataItems, metaData);
+            MessageManager mailbox = getMailboxManager().getMailbox(mailboxPath, mailboxSession);
+            MessageManager.MailboxMetaData metaData = retrieveMetadata(mailbox, statusDataItems, mailboxSession);
+            MailboxStatusResponse response = computeStatusResponse(request.getMailboxName(), statusDataItems, metaData,
+                size(mailbox, statusDataItems, mailboxSession));
 
             // Enable CONDSTORE as this is a CONDSTORE enabling command
             if (response.getHighestModSeq() != null) {
@@ -76,23 +87,64 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private MessageManager.MailboxMetaData retrieveMetadata(MailboxPath mailboxPath, StatusDataItems statusDataItems, MailboxSession mailboxSession) throws MailboxException {
-        MessageManager mailbox = getMailboxManager().getMailbox(mailboxPath, mailboxSession);
+    static MessageManager.MailboxMetaData retrieveMetadata(MessageManager mailbox, StatusDataItems statusDataItems, MailboxSession mailboxSession) throws MailboxException {
         MessageManager.MailboxMetaData.FetchGroup fetchGroup = computeFetchGroup(statusDataItems);
         return mailbox.getMetaData(false, mailboxSession, fetchGroup);
     }
 
-    private MailboxStatusResponse computeStatusResponse(StatusRequest request, StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    static MailboxStatusResponse computeStatusResponse(String mailboxName, StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData, Long size) {
         Long messages = messages(statusDataItems, metaData);
         Long recent = recent(statusDataItems, metaData);
         MessageUid uidNext = uidNext(statusDataItems, metaData);
         UidValidity uidValidity = uidValidity(statusDataItems, metaData);
         Long unseen = unseen(statusDataItems, metaData);
         ModSeq highestModSeq = highestModSeq(statusDataItems, metaData);
-        return new MailboxStatusResponse(messages, recent, uidNext, highestModSeq, uidValidity, unseen, request.getMailboxName());
+        return new MailboxStatusResponse(size, messages, recent, uidNext, highestModSeq, uidValidity, unseen, mailboxName);
+    }
+
+    /**
+     * Builds the status response from the metadata returned by the mailbox search, without loading the mailbox.
+     *
+     * @see StatusDataItems#requiresMailboxLoading()
+     */
+    static MailboxStatusResponse computeStatusResponse(String mailboxName, StatusDataItems statusDataItems, MailboxMetaData metaData) {
+        Preconditions.checkArgument(!statusDataItems.requiresMailboxLoading(), "RECENT and SIZE can not be computed from the mailbox search metadata");
+
+        MailboxCounters.Sanitized counters = metaData.getCounters().sanitize();
+        Long messages = statusDataItems.isMessages() ? counters.getCount() : null;
+        Long unseen = statusDataItems.isUnseen() ? counters.getUnseen() : null;
+        if (!statusDataItems.requiresSequences()) {
+            return new MailboxStatusResponse(null, messages, null, null, null, null, unseen, mailboxName);
+        }
+
+        MailboxMetaData.Sequences sequences = metaData.getSequences()
+            .orElseThrow(() -> new IllegalArgumentException("Sequences of " + metaData.getPath() + " were not retrieved"));
+        MessageUid uidNext = statusDataItems.isUidNext() ? sequences.getUidNext() : null;
+        UidValidity uidValidity = statusDataItems.isUidValidity() ? sequences.getUidValidity() : null;
+        ModSeq highestModSeq = statusDataItems.isHighestModSeq() ? sequences.getHighestModSeq() : null;
+        return new MailboxStatusResponse(null, messages, null, uidNext, highestModSeq, uidValidity, unseen, mailboxName);
+    }
+
+    /**
+     * Computes the total size of the messages of the mailbox, as defined in RFC8438.
+     *
+     * No per mailbox size counter is maintained, so this reads the metadata of every message of the mailbox: its
+     * cost grows with the mailbox size. For this reason SIZE is only accepted by STATUS, and not as a LIST-STATUS
+     * return option. RFC8438 requires servers advertising both LIST-STATUS and STATUS=SIZE to accept it in LIST-STATUS,
+     * hence STATUS=SIZE is not advertised.
+     */
+    static Long size(MessageManager mailbox, StatusDataItems statusDataItems, MailboxSession mailboxSession) {
+        if (statusDataItems.isSize()) {
+            return Flux.from(mailbox.getMessagesReactive(MessageRange.all(), FetchGroup.MINIMAL, mailboxSession))
+                .map(MessageResult::getSize)
+                .reduce(0L, Long::sum)
+                .block();
+        } else {
+            return null;
+        }
     }
 
-    private MessageManager.MailboxMetaData.FetchGroup computeFetchGroup(StatusDataItems statusDataItems) {
+    private static MessageManager.MailboxMetaData.FetchGroup computeFetchGroup(StatusDataItems statusDataItems) {
         if (statusDataItems.isUnseen()) {
             return MessageManager.MailboxMetaData.FetchGroup.UNSEEN_COUNT;
         } else {
@@ -100,7 +152,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private Long unseen(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static Long unseen(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isUnseen()) {
             return metaData.getUnseenCount();
         } else {
@@ -108,7 +160,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private UidValidity uidValidity(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static UidValidity uidValidity(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isUidValidity()) {
             return metaData.getUidValidity();
         } else {
@@ -116,7 +168,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private ModSeq highestModSeq(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static ModSeq highestModSeq(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isHighestModSeq()) {
             return metaData.getHighestModSeq();
         } else {
@@ -124,7 +176,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
     
-    private MessageUid uidNext(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static MessageUid uidNext(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isUidNext()) {
             return metaData.getUidNext();
         } else {
@@ -132,7 +184,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private Long recent(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static Long recent(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isRecent()) {
             return metaData.countRecent();
         } else {
@@ -140,7 +192,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private Long messages(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static Long messages(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isMessages()) {
            return metaData.getMessageCount();
         } else {
@@ -0,0 +1,215 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.request.ThreadAlgorithm;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MessageRangeException;
+import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Handles the <code>THREAD</code> command. See RFC5256
+ *
+ * <ul>
+ *     <li><code>ORDEREDSUBJECT</code> groups messages by base subject. The first message of each group is the
+ *     parent of all the others.</li>
+ *     <li><code>REFERENCES</code> builds the reply tree from the <code>Message-ID</code>, <code>References</code>
+ *     and <code>In-Reply-To</code> headers, see {@link ReferencesThreading}.</li>
+ * </ul>
+ *
+ * In both cases messages are ordered by sent date, and threads by the sent date of their first message.
+ */
+public class ThreadProcessor extends AbstractMailboxProcessor<ThreadRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(ImapConstants.SUPPORTS_THREAD_ORDEREDSUBJECT,
+        ImapConstants.SUPPORTS_THREAD_REFERENCES);
+    private static final String SUBJECT = "Subject";
+    private static final String MESSAGE_ID = "Message-ID";
+    private static final String REFERENCES = "References";
+    private static final String IN_REPLY_TO = "In-Reply-To";
+    // Threading headers are part of the structure precomputed upon append, which spares reading the header blobs
+    private static final FetchGroup THREADING_HEADERS = FetchGroup.MINIMAL.with(FetchGroup.Profile.MIME_DESCRIPTOR);
+
+    public ThreadProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory factory,
+            MetricFactory metricFactory) {
+        super(ThreadRequest.class, next, mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    protected void processRequest(ThreadRequest request, ImapSession session, Responder responder) {
+        final boolean useUids = request.isUseUids();
+
+        try {
+            MessageManager mailbox = getSelectedMailbox(session)
+                .orElseThrow(() -> new MailboxException("Session not in SELECTED state"));
+            MailboxSession mailboxSession = session.getMailboxSession();
+
+            SearchQuery query = SearchProcessor.toQueryBuilder(request.getSearchKey(), session)
+                .sorts(new SearchQuery.Sort(SearchQuery.Sort.SortClause.SentDate),
+                    new SearchQuery.Sort(SearchQuery.Sort.SortClause.Uid))
+                .build();
+            List<MessageUid> uids = Flux.from(mailbox.search(query, mailboxSession))
+                .collect(ImmutableList.toImmutableList())
+                .block();
+
+            List<ThreadResponse.Node> threads = computeThreads(request.getAlgorithm(), session, useUids, mailbox, mailboxSession, uids);
+
+            responder.respond(new ThreadResponse(threads));
+
+            boolean omitExpunged = (!useUids);
+            unsolicitedResponses(session, responder, omitExpunged, useUids);
+            okComplete(request, responder);
+        } catch (MessageRangeException e) {
+            LOGGER.debug("Thread failed in mailbox {} because of an invalid sequence-set ", session.getSelected().getMailboxId(), e);
+            taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
+        } catch (MailboxException e) {
+            LOGGER.error("Thread failed in mailbox {}", session.getSelected().getMailboxId(), e);
+            no(request, responder, HumanReadableText.SEARCH_FAILED);
+        } finally {
+            session.setAttribute(SearchProcessor.SEARCH_MODSEQ, null);
+        }
+    }
+
+    private List<ThreadResponse.Node> computeThreads(ThreadAlgorithm algorithm, ImapSession session, boolean useUids,
+                                                     MessageManager mailbox, MailboxSession mailboxSession, List<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return ImmutableList.of();
+        }
+        switch (algorithm) {
+        case ORDEREDSUBJECT:
+            Map<MessageUid, String> baseSubjects = readHeaders(mailbox, mailboxSession, uids,
+                Throwing.function((MessageResult message) -> header(message, SUBJECT).map(BaseSubject::of).orElse("")).sneakyThrow());
+            return groupBy(uids, baseSubjects::get)
+                .stream()
+                .map(thread -> asIds(session, useUids, thread))
+                .filter(ids -> !ids.isEmpty())
+                .map(ids -> ThreadResponse.Node.of(ids.get(0), ids.subList(1, ids.size())
+                    .stream()
+                    .map(ThreadResponse.Node::leaf)
+                    .collect(ImmutableList.toImmutableList())))
+                .collect(ImmutableList.toImmutableList());
+        case REFERENCES:
+            Map<MessageUid, Function<Long, ReferencesThreading.Message>> messageFactories = readHeaders(mailbox, mailboxSession, uids,
+                Throwing.function(this::threadingMessageFactory).sneakyThrow());
+            List<ReferencesThreading.Message> messages = uids.stream()
+                .filter(messageFactories::containsKey)
+                .flatMap(uid -> asIds(session, useUids, ImmutableList.of(uid))
+                    .stream()
+                    .map(messageFactories.get(uid)))
+                .collect(ImmutableList.toImmutableList());
+            return ReferencesThreading.thread(messages);
+        default:
+            throw new IllegalArgumentException("Unsupported threading algorithm " + algorithm);
+        }
+    }
+
+    private <T> Map<MessageUid, T> readHeaders(MessageManager mailbox, MailboxSession mailboxSession, List<MessageUid> uids,
+                                               Function<MessageResult, T> extractor) {
+        return Flux.fromIterable(MessageRange.toRanges(uids))
+            .concatMap(range -> mailbox.getMessagesReactive(range, THREADING_HEADERS, mailboxSession))
+            .collectMap(MessageResult::getUid, extractor)
+            .block();
+    }
+
+    private Function<Long, ReferencesThreading.Message> threadingMessageFactory(MessageResult message) throws MailboxException {
+        Optional<String> messageId = header(message, MESSAGE_ID);
+        Optional<String> references = header(message, REFERENCES);
+        Optional<String> inReplyTo = header(message, IN_REPLY_TO);
+        Optional<String> subject = header(message, SUBJECT);
+        return id -> ReferencesThreading.Message.of(id, messageId, references, inReplyTo, subject);
+    }
+
+    /**
+     * Groups the given uids by key, preserving their order. Uids without a key (eg expunged in the mean time) are
+     * threads on their own.
+     */
+    private <T> Collection<List<MessageUid>> groupBy(List<MessageUid> uids, Function<MessageUid, T> keyExtractor) {
+        Map<Object, List<MessageUid>> threads = new LinkedHashMap<>();
+        for (MessageUid uid : uids) {
+            Object key = Optional.<Object>ofNullable(keyExtractor.apply(uid)).orElse(uid);
+            threads.computeIfAbsent(key, any -> new ArrayList<>()).add(uid);
+        }
+        return threads.values();
+    }
+
+    private static Optional<String> header(MessageResult message, String name) throws MailboxException {
+        Iterator<Header> headers = message.getMimeDescriptor().headers();
+        while (headers.hasNext()) {
+            Header header = headers.next();
+            if (name.equalsIgnoreCase(header.getName())) {
+                return Optional.of(header.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<Long> asIds(ImapSession session, boolean useUids, List<MessageUid> thread) {
+        return ImmutableList.copyOf(SearchProcessor.asResults(session, useUids, thread));
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected Closeable addContextToMDC(ThreadRequest request) {
+        return MDCBuilder.create()
+            .addToContext(MDCBuilder.ACTION, "THREAD")
+            .addToContext("useUid", Boolean.toString(request.isUseUids()))
+            .addToContext("algorithm", request.getAlgorithm().name())
+            .build();
+    }
+}
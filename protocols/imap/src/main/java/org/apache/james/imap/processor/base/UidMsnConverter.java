@@ -19,38 +19,79 @@
 
 package org.apache.james.imap.processor.base;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.TreeSet;
 
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.NullableMessageSequenceNumber;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
 
+/**
+ * Maps UIDs of the selected mailbox to message sequence numbers.
+ *
+ * UIDs are kept sorted in a primitive array: appending a greater UID is amortized O(1), converting a UID to a MSN is
+ * a binary search and expunging shifts the array in place.
+ */
 public class UidMsnConverter {
 
     public static final int FIRST_MSN = 1;
+    private static final int INITIAL_CAPACITY = 32;
 
-    @VisibleForTesting final ArrayList<MessageUid> uids;
+    @VisibleForTesting long[] uids;
+    @VisibleForTesting int size;
 
     public UidMsnConverter() {
-        this.uids = Lists.newArrayList();
+        this.uids = new long[INITIAL_CAPACITY];
+        this.size = 0;
     }
 
     public synchronized void addAll(List<MessageUid> addedUids) {
-        TreeSet<MessageUid> tmp = new TreeSet<>();
-        tmp.addAll(uids);
-        tmp.addAll(addedUids);
-        uids.clear();
-        uids.addAll(tmp);
+        long[] added = addedUids.stream()
+            .mapToLong(MessageUid::asLong)
+            .sorted()
+            .distinct()
+            .toArray();
+        if (added.length == 0) {
+            return;
+        }
+        if (size == 0 || added[0] > uids[size - 1]) {
+            ensureCapacity(size + added.length);
+            System.arraycopy(added, 0, uids, size, added.length);
+            size += added.length;
+        } else {
+            merge(added);
+        }
+    }
+
+    private void merge(long[] added) {
+        long[] merged = new long[Math.max(INITIAL_CAPACITY, size + added.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size && j < added.length) {
+            if (uids[i] < added[j]) {
+                merged[k++] = uids[i++];
+            } else if (uids[i] > added[j]) {
+                merged[k++] = added[j++];
+            } else {
+                merged[k++] = uids[i++];
+                j++;
+            }
+        }
+        while (i < size) {
+            merged[k++] = uids[i++];
+        }
+        while (j < added.length) {
+            merged[k++] = added[j++];
+        }
+        uids = merged;
+        size = k;
     }
 
     public synchronized NullableMessageSequenceNumber getMsn(MessageUid uid) {
-        int position = Collections.binarySearch(uids, uid);
+        int position = Arrays.binarySearch(uids, 0, size, uid.asLong());
         if (position < 0) {
             return NullableMessageSequenceNumber.noMessage();
         }
@@ -58,14 +99,14 @@ public class UidMsnConverter {
     }
 
     public synchronized Optional<MessageUid> getUid(int msn) {
-        if (msn <= uids.size() && msn > 0) {
-            return Optional.of(uids.get(msn - 1));
+        if (msn <= size && msn > 0) {
+            return Optional.of(MessageUid.of(uids[msn - 1]));
         }
         return Optional.empty();
     }
 
     public synchronized Optional<MessageUid> getLastUid() {
-        if (uids.isEmpty()) {
+        if (size == 0) {
             return Optional.empty();
         }
         return getUid(getLastMsn());
@@ -76,37 +117,50 @@ public class UidMsnConverter {
     }
 
     public synchronized int getNumMessage() {
-        return uids.size();
+        return size;
     }
 
     public synchronized void remove(MessageUid uid) {
-        uids.remove(uid);
+        int position = Arrays.binarySearch(uids, 0, size, uid.asLong());
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(uids, position + 1, uids, position, size - position - 1);
+        size--;
     }
 
     public synchronized boolean isEmpty() {
-        return uids.isEmpty();
+        return size == 0;
     }
 
     public synchronized void clear() {
-        uids.clear();
+        uids = new long[INITIAL_CAPACITY];
+        size = 0;
     }
 
     public synchronized void addUid(MessageUid uid) {
-        if (uids.contains(uid)) {
+        long value = uid.asLong();
+        if (size == 0 || uids[size - 1] < value) {
+            ensureCapacity(size + 1);
+            uids[size++] = value;
             return;
         }
-        if (isLastUid(uid)) {
-            uids.add(uid);
-        } else {
-            uids.add(uid);
-            Collections.sort(uids);
+        int position = Arrays.binarySearch(uids, 0, size, value);
+        if (position >= 0) {
+            return;
         }
+        int insertionPoint = -(position + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(uids, insertionPoint, uids, insertionPoint + 1, size - insertionPoint);
+        uids[insertionPoint] = value;
+        size++;
     }
 
-    private boolean isLastUid(MessageUid uid) {
-        Optional<MessageUid> lastUid = getLastUid();
-        return !lastUid.isPresent() ||
-            lastUid.get().compareTo(uid) < 0;
+    private void ensureCapacity(int capacity) {
+        if (capacity > uids.length) {
+            int newCapacity = Math.max(capacity, uids.length + (uids.length >> 1));
+            uids = Arrays.copyOf(uids, newCapacity);
+        }
     }
 
     private int getLastMsn() {
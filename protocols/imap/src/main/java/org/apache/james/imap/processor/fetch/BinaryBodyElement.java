@@ -0,0 +1,142 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apache.james.imap.message.response.FetchResponse.BodyElement;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MimePath;
+import org.apache.james.mime4j.codec.Base64InputStream;
+import org.apache.james.mime4j.codec.QuotedPrintableInputStream;
+import org.apache.james.mime4j.util.MimeUtil;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+
+/**
+ * {@link BodyElement} which represent a part with its Content-Transfer-Encoding removed, as specified by
+ * for example (BINARY[1])
+ *
+ * Decoding is done on the fly while the content is written.
+ */
+class BinaryBodyElement implements BodyElement {
+    private static final ImmutableSet<String> IDENTITY_ENCODINGS = ImmutableSet.of("7bit", "8bit", "binary");
+
+    static boolean isSupported(String transferEncoding) {
+        return isIdentity(transferEncoding)
+            || MimeUtil.isBase64Encoding(transferEncoding)
+            || MimeUtil.isQuotedPrintableEncoded(transferEncoding);
+    }
+
+    private static boolean isIdentity(String transferEncoding) {
+        return IDENTITY_ENCODINGS.contains(transferEncoding.toLowerCase(Locale.US));
+    }
+
+    private final String name;
+    private final Optional<Content> headers;
+    private final Content body;
+    private final String transferEncoding;
+    private final MailboxId mailboxId;
+    private final MessageUid uid;
+    private final Optional<MimePath> path;
+    private final DecodedSizeCache sizeCache;
+    private Long size;
+
+    BinaryBodyElement(String name, Optional<Content> headers, Content body, String transferEncoding,
+                      MailboxId mailboxId, MessageUid uid, Optional<MimePath> path, DecodedSizeCache sizeCache) {
+        this.name = name;
+        this.headers = headers;
+        this.body = body;
+        this.transferEncoding = transferEncoding;
+        this.mailboxId = mailboxId;
+        this.uid = uid;
+        this.path = path;
+        this.sizeCache = sizeCache;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public long size() throws IOException {
+        if (size == null) {
+            size = computeSize();
+        }
+        return size;
+    }
+
+    private long computeSize() throws IOException {
+        try {
+            if (isIdentity(transferEncoding)) {
+                return headersSize() + body.size();
+            }
+            return sizeCache.size(mailboxId, uid, path, this::decodeToCount);
+        } catch (MailboxException e) {
+            throw new IOException("Unable to get size for binary element", e);
+        }
+    }
+
+    private long headersSize() throws MailboxException {
+        if (headers.isPresent()) {
+            return headers.get().size();
+        }
+        return 0;
+    }
+
+    private long decodeToCount() throws IOException {
+        try (InputStream inputStream = getInputStream()) {
+            return ByteStreams.exhaust(inputStream);
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        InputStream decodedBody = decode(body.getInputStream());
+        if (headers.isPresent()) {
+            return new SequenceInputStream(headers.get().getInputStream(), decodedBody);
+        }
+        return decodedBody;
+    }
+
+    private InputStream decode(InputStream inputStream) {
+        if (MimeUtil.isBase64Encoding(transferEncoding)) {
+            return new Base64InputStream(inputStream);
+        }
+        if (MimeUtil.isQuotedPrintableEncoded(transferEncoding)) {
+            return new QuotedPrintableInputStream(inputStream);
+        }
+        return inputStream;
+    }
+}
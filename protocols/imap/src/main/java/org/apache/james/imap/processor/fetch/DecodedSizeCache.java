@@ -0,0 +1,116 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MimePath;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Bounded cache of the sizes of message parts once their Content-Transfer-Encoding is removed.
+ *
+ * Knowing this size requires decoding the whole part. Caching it allows answering <code>BINARY.SIZE</code> and
+ * announcing <code>BINARY</code> literals without decoding the same part again and again. As messages are immutable,
+ * entries never need to be invalidated.
+ */
+public class DecodedSizeCache {
+    @FunctionalInterface
+    public interface SizeComputation {
+        long compute() throws IOException;
+    }
+
+    public static final DecodedSizeCache DISABLED = new DecodedSizeCache(Optional.empty());
+
+    public static DecodedSizeCache of(long maximumSize) {
+        Preconditions.checkArgument(maximumSize >= 0, "'maximumSize' should not be negative");
+
+        if (maximumSize == 0) {
+            return DISABLED;
+        }
+        return new DecodedSizeCache(Optional.of(CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .build()));
+    }
+
+    private static class Key {
+        private final MailboxId mailboxId;
+        private final MessageUid uid;
+        private final Optional<MimePath> path;
+
+        private Key(MailboxId mailboxId, MessageUid uid, Optional<MimePath> path) {
+            this.mailboxId = mailboxId;
+            this.uid = uid;
+            this.path = path;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Key) {
+                Key that = (Key) o;
+
+                return Objects.equals(this.mailboxId, that.mailboxId)
+                    && Objects.equals(this.uid, that.uid)
+                    && Objects.equals(this.path, that.path);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(mailboxId, uid, path);
+        }
+    }
+
+    private final Optional<Cache<Key, Long>> cache;
+
+    private DecodedSizeCache(Optional<Cache<Key, Long>> cache) {
+        this.cache = cache;
+    }
+
+    public long size(MailboxId mailboxId, MessageUid uid, Optional<MimePath> path, SizeComputation computation) throws IOException {
+        if (cache.isEmpty()) {
+            return computation.compute();
+        }
+        try {
+            return cache.get().get(new Key(mailboxId, uid, path), computation::compute);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to compute decoded size", e.getCause());
+        }
+    }
+
+    @VisibleForTesting
+    long cachedEntries() {
+        return cache.map(Cache::size).orElse(0L);
+    }
+}
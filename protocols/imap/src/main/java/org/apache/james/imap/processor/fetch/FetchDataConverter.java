@@ -33,10 +33,8 @@ class FetchDataConverter {
     static FetchGroup getFetchGroup(FetchData fetch) {
         FetchGroup result = FetchGroup.MINIMAL;
 
-        if (fetch.contains(Item.ENVELOPE)) {
-            result = result.with(FetchGroup.Profile.HEADERS);
-        }
-        if (fetch.contains(Item.BODY) || fetch.contains(Item.BODY_STRUCTURE)) {
+        // The envelope is served from the precomputed message structure
+        if (fetch.contains(Item.ENVELOPE) || fetch.contains(Item.BODY) || fetch.contains(Item.BODY_STRUCTURE)) {
             result = result.with(FetchGroup.Profile.MIME_DESCRIPTOR);
         }
 
@@ -48,7 +46,10 @@ class FetchDataConverter {
                 final boolean isBase = (path == null || path.length == 0);
                 switch (sectionType) {
                     case CONTENT:
-                        if (isBase) {
+                        if (isBase && element.getFirstOctet() != null) {
+                            // Only the requested range of the message will be read
+                            result = addContent(result, path, isBase, FetchGroup.Profile.FULL_CONTENT_RANGE);
+                        } else if (isBase) {
                             result = addContent(result, path, isBase, FetchGroup.Profile.FULL_CONTENT);
                         } else {
                             result = addContent(result, path, isBase, FetchGroup.Profile.MIME_CONTENT);
@@ -65,6 +66,15 @@ class FetchDataConverter {
                     case TEXT:
                         result = addContent(result, path, isBase, FetchGroup.Profile.BODY_CONTENT);
                         break;
+                    case BINARY:
+                    case BINARY_SIZE:
+                        // Headers are needed to know the Content-Transfer-Encoding
+                        if (isBase) {
+                            result = result.with(FetchGroup.Profile.HEADERS, FetchGroup.Profile.BODY_CONTENT);
+                        } else {
+                            result = result.addPartContent(new MimePath(path), FetchGroup.Profile.MIME_HEADERS, FetchGroup.Profile.MIME_CONTENT);
+                        }
+                        break;
                     default:
                         break;
                 }
@@ -24,11 +24,14 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.james.imap.api.ImapConfiguration;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
 import org.apache.james.imap.api.message.FetchData;
 import org.apache.james.imap.api.message.FetchData.Item;
 import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.response.StatusResponse;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapProcessor;
 import org.apache.james.imap.api.process.ImapSession;
@@ -36,18 +39,20 @@ import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.imap.message.request.FetchRequest;
 import org.apache.james.imap.message.response.FetchResponse;
 import org.apache.james.imap.processor.AbstractMailboxProcessor;
+import org.apache.james.imap.processor.CapabilityImplementingProcessor;
 import org.apache.james.imap.processor.EnableProcessor;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MessageManager.MailboxMetaData;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MessageRangeException;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
-import org.apache.james.mailbox.model.MessageResultIterator;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.MDCBuilder;
 import org.apache.james.util.MemoizedSupplier;
@@ -55,15 +60,40 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 
-public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
+public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(ImapConstants.SUPPORTS_BINARY);
+    private static final int METADATA_PREFETCH = 64;
+    private static final int MESSAGE_PREFETCH = 1;
+
+    @FunctionalInterface
+    private interface ResponseSupplier {
+        FetchResponse build() throws MailboxException;
+    }
+
+    private DecodedSizeCache decodedSizeCache;
 
     public FetchProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory factory,
             MetricFactory metricFactory) {
         super(FetchRequest.class, next, mailboxManager, factory, metricFactory);
+        this.decodedSizeCache = DecodedSizeCache.of(ImapConfiguration.DEFAULT_BINARY_SIZE_CACHE_SIZE);
+    }
+
+    @Override
+    public void configure(ImapConfiguration imapConfiguration) {
+        super.configure(imapConfiguration);
+
+        this.decodedSizeCache = DecodedSizeCache.of(imapConfiguration.getBinarySizeCacheSize());
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
     }
 
     @Override
@@ -112,7 +142,7 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
             if (vanished) {
                 // TODO: From the QRESYNC RFC it seems ok to send the VANISHED responses after the FETCH Responses. 
                 //       If we do so we could prolly save one mailbox access which should give use some more speed up
-                respondVanished(session.getSelected(), ranges, changedSince, metaData.get(), responder);
+                respondVanished(mailbox, mailboxSession, session.getSelected(), ranges, changedSince, metaData.get(), responder);
             }
             processMessageRanges(session, mailbox, ranges, fetch, useUids, mailboxSession, responder);
 
@@ -125,6 +155,10 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
         } catch (MessageRangeException e) {
             LOGGER.debug("Fetch failed for mailbox {} because of invalid sequence-set {}", session.getSelected().getMailboxId(), idSet, e);
             taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
+        } catch (UnknownContentTransferEncodingException e) {
+            // See RFC3516: the request fails with the UNKNOWN-CTE response code
+            LOGGER.info("Fetch failed for mailbox {} and sequence-set {}: {}", session.getSelected().getMailboxId(), idSet, e.getMessage());
+            no(request, responder, HumanReadableText.UNKNOWN_CTE, StatusResponse.ResponseCode.unknownCte());
         } catch (MailboxException e) {
             LOGGER.error("Fetch failed for mailbox {} and sequence-set {}", session.getSelected().getMailboxId(), idSet, e);
             no(request, responder, HumanReadableText.SEARCH_FAILED);
@@ -146,7 +180,7 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
      * {@link org.apache.james.imap.api.process.ImapProcessor.Responder}
      */
     private void processMessageRanges(ImapSession session, MessageManager mailbox, List<MessageRange> ranges, FetchData fetch, boolean useUids, MailboxSession mailboxSession, Responder responder) throws MailboxException {
-        final FetchResponseBuilder builder = new FetchResponseBuilder(new EnvelopeBuilder());
+        final FetchResponseBuilder builder = new FetchResponseBuilder(new EnvelopeBuilder(), decodedSizeCache);
         FetchGroup resultToFetch = FetchDataConverter.getFetchGroup(fetch);
 
         for (MessageRange range : ranges) {
@@ -159,66 +193,95 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
 
     }
 
-    private void processMessageRangeForFlags(ImapSession session, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, MessageRange range) {
+    private void processMessageRangeForFlags(ImapSession session, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, MessageRange range) throws MailboxException {
         SelectedMailbox selected = session.getSelected();
-        Iterator<ComposedMessageIdWithMetaData> results = Flux.from(mailbox.listMessagesMetadata(range, mailboxSession))
-            .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
-            .toStream()
-            .iterator();
+        Iterator<ComposedMessageIdWithMetaData> results = toIterator(listMessagesMetadata(mailbox, fetch, mailboxSession, range)
+            .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince()), METADATA_PREFETCH);
 
-        while (results.hasNext()) {
+        while (hasNext(results)) {
             ComposedMessageIdWithMetaData result = results.next();
 
-            try {
-                final FetchResponse response = builder.build(fetch, result, mailbox, selected, mailboxSession);
-                responder.respond(response);
-            } catch (MessageRangeException e) {
-                // we can't for whatever reason find the message so
-                // just skip it and log it to debug
-                LOGGER.debug("Unable to find message with uid {}", result.getComposedMessageId().getUid(), e);
-            } catch (MailboxException e) {
-                // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
-                // So we just skip it
-                //
-                // See IMAP-347
-                LOGGER.error("Unable to fetch message with uid {}, so skip it", result.getComposedMessageId().getUid(), e);
-            }
+            respond(result.getComposedMessageId().getUid(), () -> builder.build(fetch, result, mailbox, selected, mailboxSession), responder);
+            responder.awaitWritability();
         }
     }
 
     private void processMessageRange(ImapSession session, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, FetchGroup resultToFetch, MessageRange range) throws MailboxException {
-        MessageResultIterator messages = mailbox.getMessages(range, resultToFetch, mailboxSession);
         SelectedMailbox selected = session.getSelected();
-        while (messages.hasNext()) {
+        // Responses are built and written on this thread, in UID order. The next message is only requested once the
+        // client consumed enough of the previous responses.
+        Iterator<MessageResult> messages = toIterator(rangesToFetch(mailbox, fetch, mailboxSession, range)
+            .concatMap(rangeToFetch -> mailbox.getMessagesReactive(rangeToFetch, resultToFetch, mailboxSession)), MESSAGE_PREFETCH);
+
+        while (hasNext(messages)) {
             final MessageResult result = messages.next();
 
-            //skip unchanged messages - this should be filtered at the mailbox level to take advantage of indexes
+            // skip unchanged messages - ranges were already narrowed down to changed messages, this only guards against races
             if (fetch.contains(Item.MODSEQ) && result.getModSeq().asLong() <= fetch.getChangedSince()) {
                 continue;
             }
 
-            try {
-                final FetchResponse response = builder.build(fetch, result, mailbox, selected, mailboxSession);
-                responder.respond(response);
-            } catch (MessageRangeException e) {
-                // we can't for whatever reason find the message so
-                // just skip it and log it to debug
-                LOGGER.debug("Unable to find message with uid {}", result.getUid(), e);
-            } catch (MailboxException e) {
-                // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
-                // So we just skip it
-                //
-                // See IMAP-347
-                LOGGER.error("Unable to fetch message with uid {}, so skip it", result.getUid(), e);
-            }
+            respond(result.getUid(), () -> builder.build(fetch, result, mailbox, selected, mailboxSession), responder);
+            responder.awaitWritability();
         }
+    }
 
-        // Throw the exception if we received one
-        if (messages.getException() != null) {
-            throw messages.getException();
+    /**
+     * With CHANGEDSINCE, lets the mailbox rely on its change log, if any, instead of listing the whole range.
+     */
+    private Flux<ComposedMessageIdWithMetaData> listMessagesMetadata(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, MessageRange range) {
+        if (fetch.getChangedSince() != -1) {
+            return Flux.from(mailbox.listMessagesMetadataChangedSince(range, ModSeq.of(fetch.getChangedSince()), mailboxSession));
         }
+        return Flux.from(mailbox.listMessagesMetadata(range, mailboxSession));
     }
 
+    /**
+     * With CHANGEDSINCE, narrows the range down to the messages that changed so that unchanged ones are not loaded.
+     */
+    private Flux<MessageRange> rangesToFetch(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, MessageRange range) {
+        if (fetch.getChangedSince() != -1) {
+            return listMessagesMetadata(mailbox, fetch, mailboxSession, range)
+                .map(metaData -> metaData.getComposedMessageId().getUid())
+                .collectList()
+                .flatMapIterable(MessageRange::toRanges);
+        }
+        return Flux.just(range);
+    }
+
+    private <T> Iterator<T> toIterator(Flux<T> results, int prefetch) {
+        return results.toIterable(prefetch).iterator();
+    }
+
+    private boolean hasNext(Iterator<?> results) throws MailboxException {
+        try {
+            return results.hasNext();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof MailboxException) {
+                throw (MailboxException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void respond(MessageUid uid, ResponseSupplier responseSupplier, Responder responder) throws UnknownContentTransferEncodingException {
+        try {
+            responder.respond(responseSupplier.build());
+        } catch (UnknownContentTransferEncodingException e) {
+            throw e;
+        } catch (MessageRangeException e) {
+            // we can't for whatever reason find the message so
+            // just skip it and log it to debug
+            LOGGER.debug("Unable to find message with uid {}", uid, e);
+        } catch (MailboxException e) {
+            // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
+            // So we just skip it
+            //
+            // See IMAP-347
+            LOGGER.error("Unable to fetch message with uid {}, so skip it", uid, e);
+        }
+    }
 
     @Override
     protected Closeable addContextToMDC(FetchRequest request) {
@@ -27,7 +27,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.mail.Flags;
@@ -53,7 +55,11 @@ import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MimePath;
 
 public final class FetchResponseBuilder {
+    private static final String CONTENT_TRANSFER_ENCODING = "Content-Transfer-Encoding";
+    private static final String DEFAULT_TRANSFER_ENCODING = "7bit";
+
     private final EnvelopeBuilder envelopeBuilder;
+    private final DecodedSizeCache decodedSizeCache;
 
     private MessageSequenceNumber msn;
     private MessageUid uid;
@@ -65,9 +71,15 @@ public final class FetchResponseBuilder {
     private FetchResponse.Envelope envelope;
     private FetchResponse.Structure body;
     private FetchResponse.Structure bodystructure;
+    private Map<String, Long> binarySizes;
 
     public FetchResponseBuilder(EnvelopeBuilder envelopeBuilder) {
+        this(envelopeBuilder, DecodedSizeCache.DISABLED);
+    }
+
+    public FetchResponseBuilder(EnvelopeBuilder envelopeBuilder, DecodedSizeCache decodedSizeCache) {
         this.envelopeBuilder = envelopeBuilder;
+        this.decodedSizeCache = decodedSizeCache;
     }
 
     public void reset(MessageSequenceNumber msn) {
@@ -79,6 +91,7 @@ public final class FetchResponseBuilder {
         body = null;
         bodystructure = null;
         elements = null;
+        binarySizes = null;
         modSeq = null;
     }
 
@@ -96,7 +109,7 @@ public final class FetchResponseBuilder {
     }
 
     public FetchResponse build() {
-        return new FetchResponse(msn, flags, uid, modSeq, internalDate, size, envelope, body, bodystructure, elements);
+        return new FetchResponse(msn, flags, uid, modSeq, internalDate, size, envelope, body, bodystructure, elements, binarySizes);
     }
 
     public FetchResponse build(FetchData fetch, MessageResult result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession) throws MessageRangeException, MailboxException {
@@ -133,6 +146,10 @@ public final class FetchResponseBuilder {
             Collection<BodyFetchElement> elements = fetch.getBodyElements();
             this.elements = new ArrayList<>();
             for (BodyFetchElement fetchElement : elements) {
+                if (fetchElement.getSectionType() == SectionType.BINARY_SIZE) {
+                    addBinarySize(result, fetchElement);
+                    continue;
+                }
                 final FetchResponse.BodyElement element = bodyFetch(result, fetchElement);
                 if (element != null) {
                     this.elements.add(element);
@@ -227,7 +244,7 @@ public final class FetchResponseBuilder {
     }
 
     private FetchResponse.Envelope buildEnvelope(MessageResult result) throws MailboxException {
-        return envelopeBuilder.buildEnvelope(result.getHeaders());
+        return envelopeBuilder.buildEnvelope(result.getMimeDescriptor());
     }
 
     private void setSize(long size) {
@@ -238,14 +255,30 @@ public final class FetchResponseBuilder {
         this.internalDate = internalDate;
     }
 
+    private void addBinarySize(MessageResult messageResult, BodyFetchElement fetchElement) throws MailboxException {
+        if (binarySizes == null) {
+            binarySizes = new LinkedHashMap<>();
+        }
+        try {
+            long size = binary(messageResult, fetchElement.getResponseName(), mimePath(fetchElement)).size();
+            binarySizes.put(fetchElement.getResponseName(), size);
+        } catch (IOException e) {
+            throw new MailboxException("Unable to compute decoded size", e);
+        }
+    }
+
+    private Optional<MimePath> mimePath(BodyFetchElement fetchElement) {
+        return Optional.ofNullable(fetchElement.getPath())
+            .filter(paths -> paths.length > 0)
+            .map(MimePath::new);
+    }
+
     private FetchResponse.BodyElement bodyFetch(MessageResult messageResult, BodyFetchElement fetchElement) throws MailboxException {
         final Long firstOctet = fetchElement.getFirstOctet();
         final Long numberOfOctets = fetchElement.getNumberOfOctets();
         final String name = fetchElement.getResponseName();
         final SectionType specifier = fetchElement.getSectionType();
-        final Optional<MimePath> path = Optional.ofNullable(fetchElement.getPath())
-                .filter(paths -> paths.length > 0)
-                .map(MimePath::new);
+        final Optional<MimePath> path = mimePath(fetchElement);
         final Collection<String> names = fetchElement.getFieldNames();
         final FetchResponse.BodyElement fullResult = bodyContent(messageResult, name, specifier, path, names);
         return wrapIfPartialFetch(firstOctet, numberOfOctets, fullResult);
@@ -265,6 +298,8 @@ public final class FetchResponseBuilder {
                 return headers(messageResult, name, path);
             case TEXT:
                 return text(messageResult, name, path);
+            case BINARY:
+                return binary(messageResult, name, path);
             default:
                 return null;
         }
@@ -296,6 +331,47 @@ public final class FetchResponseBuilder {
         return messageResult.getBody(path.get());
     }
 
+    private BinaryBodyElement binary(MessageResult messageResult, String name, Optional<MimePath> path) throws MailboxException {
+        String transferEncoding = transferEncoding(messageResult, path);
+        if (!BinaryBodyElement.isSupported(transferEncoding)) {
+            throw new UnknownContentTransferEncodingException("Unknown Content-Transfer-Encoding " + transferEncoding + " for " + name);
+        }
+        return new BinaryBodyElement(name, binaryHeaders(messageResult, path), binaryBody(messageResult, path), transferEncoding,
+            messageResult.getMailboxId(), messageResult.getUid(), path, decodedSizeCache);
+    }
+
+    private String transferEncoding(MessageResult messageResult, Optional<MimePath> path) throws MailboxException {
+        Iterator<Header> headers;
+        if (path.isEmpty()) {
+            headers = messageResult.getHeaders().headers();
+        } else {
+            headers = messageResult.iterateMimeHeaders(path.get());
+        }
+        return Optional.ofNullable(MessageResultUtils.getMatching(CONTENT_TRANSFER_ENCODING, headers))
+            .map(Header::getValue)
+            .map(String::trim)
+            .orElse(DEFAULT_TRANSFER_ENCODING);
+    }
+
+    /**
+     * BINARY[] is the whole message, thus headers are kept as is and only the body is decoded.
+     */
+    private Optional<Content> binaryHeaders(MessageResult messageResult, Optional<MimePath> path) throws MailboxException {
+        if (path.isEmpty()) {
+            return Optional.of(messageResult.getHeaders());
+        }
+        return Optional.empty();
+    }
+
+    private Content binaryBody(MessageResult messageResult, Optional<MimePath> path) throws MailboxException {
+        if (path.isEmpty()) {
+            return Optional.ofNullable(getTextContent(messageResult, path))
+                .orElseGet(EmptyContent::new);
+        }
+        return Optional.ofNullable(getContent(messageResult, path))
+            .orElseGet(EmptyContent::new);
+    }
+
     private FetchResponse.BodyElement mimeHeaders(MessageResult messageResult, String name, Optional<MimePath> path) throws MailboxException {
         final Iterator<Header> headers = getMimeHeaders(messageResult, path);
         List<Header> lines = MessageResultUtils.getAll(headers);
@@ -31,11 +31,14 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.Base64;
 
+import javax.mail.Flags;
+
 import org.apache.james.imap.api.Tag;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.decode.DecodingException;
 import org.apache.james.imap.decode.ImapRequestStreamLineReader;
 import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.AppendRequest;
 import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -120,6 +123,49 @@ class AppendCommandParserTest {
             .isEqualTo("2008-04-09T15:17:51Z");
     }
 
+    @Test
+    void decodeShouldReadASingleMessage() throws Exception {
+        ImapRequestStreamLineReader request = toRequest("INBOX (\\Seen) {5+}\r\nhello\r\n");
+
+        AppendRequest appendRequest = (AppendRequest) testee.decode(request, new Tag("A1"), new FakeImapSession());
+
+        assertThat(appendRequest.getMessages()).hasSize(1);
+        assertThat(appendRequest.getFlags()).isEqualTo(new Flags(Flags.Flag.SEEN));
+        assertThat(appendRequest.getMessage().getInputStream()).hasContent("hello");
+    }
+
+    @Test
+    void decodeShouldReadAllMessagesOfAMultiAppend() throws Exception {
+        ImapRequestStreamLineReader request = toRequest("INBOX (\\Seen) {5+}\r\nhello {5+}\r\nworld\r\n");
+
+        AppendRequest appendRequest = (AppendRequest) testee.decode(request, new Tag("A1"), new FakeImapSession());
+
+        assertThat(appendRequest.getMessages())
+            .extracting(message -> new String(message.getLiteral().getInputStream().readAllBytes(), StandardCharsets.US_ASCII))
+            .containsExactly("hello", "world");
+    }
+
+    @Test
+    void decodeShouldReadFlagsAndDatePerMessage() throws Exception {
+        ImapRequestStreamLineReader request = toRequest("INBOX (\\Seen) {5+}\r\nhello (\\Flagged) \"09-Apr-2008 15:17:51 +0000\" {5+}\r\nworld\r\n");
+
+        AppendRequest appendRequest = (AppendRequest) testee.decode(request, new Tag("A1"), new FakeImapSession());
+
+        assertThat(appendRequest.getMessages())
+            .extracting(AppendRequest.Message::getFlags)
+            .containsExactly(new Flags(Flags.Flag.SEEN), new Flags(Flags.Flag.FLAGGED));
+        assertThat(appendRequest.getMessages().get(0).getDatetime().toInstant()).isEqualTo(DATE);
+        assertThat(appendRequest.getMessages().get(1).getDatetime().toInstant()).isEqualTo(Instant.parse("2008-04-09T15:17:51Z"));
+    }
+
+    @Test
+    void decodeShouldRejectGarbageAfterALiteral() {
+        ImapRequestStreamLineReader request = toRequest("INBOX {5+}\r\nhello garbage\r\n");
+
+        assertThatThrownBy(() -> testee.decode(request, new Tag("A1"), new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
     private ImapRequestStreamLineReader toRequest(String input) {
         return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream());
     }
@@ -0,0 +1,86 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.ListRequest;
+import org.junit.jupiter.api.Test;
+
+class ListCommandParserTest {
+    private static final StatusResponseFactory STATUS_RESPONSE_FACTORY = mock(StatusResponseFactory.class);
+
+    @Test
+    void decodeShouldNotRequireReturnOptions() throws Exception {
+        ListRequest request = (ListRequest) new ListCommandParser(STATUS_RESPONSE_FACTORY)
+            .decode(toRequest("\"\" \"*\"\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getReturnStatus()).isEmpty();
+    }
+
+    @Test
+    void decodeShouldParseReturnStatus() throws Exception {
+        ListRequest request = (ListRequest) new ListCommandParser(STATUS_RESPONSE_FACTORY)
+            .decode(toRequest("\"\" \"*\" RETURN (STATUS (MESSAGES UNSEEN))\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getReturnStatus())
+            .hasValueSatisfying(statusDataItems -> {
+                assertThat(statusDataItems.isMessages()).isTrue();
+                assertThat(statusDataItems.isUnseen()).isTrue();
+                assertThat(statusDataItems.isUidNext()).isFalse();
+            });
+    }
+
+    @Test
+    void decodeShouldRejectSizeReturnStatus() {
+        assertThatThrownBy(() -> new ListCommandParser(STATUS_RESPONSE_FACTORY)
+                .decode(toRequest("\"\" \"*\" RETURN (STATUS (MESSAGES SIZE))\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownReturnOption() {
+        assertThatThrownBy(() -> new ListCommandParser(STATUS_RESPONSE_FACTORY)
+                .decode(toRequest("\"\" \"*\" RETURN (MYRIGHTS)\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void lsubShouldRejectReturnOptions() {
+        assertThatThrownBy(() -> new LsubCommandParser(STATUS_RESPONSE_FACTORY)
+                .decode(toRequest("\"\" \"*\" RETURN (STATUS (MESSAGES))\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private ImapRequestStreamLineReader toRequest(String input) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream());
+    }
+}
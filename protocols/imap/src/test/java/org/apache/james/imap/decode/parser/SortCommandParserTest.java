@@ -0,0 +1,84 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SortCommandParserTest {
+    private SortCommandParser testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new SortCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    @Test
+    void decodeShouldParseSortCriteria() throws Exception {
+        SortRequest request = (SortRequest) testee.decode(toRequest("(REVERSE DATE subject) UTF-8 ALL\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getSorts()).containsExactly(
+            new Sort(SortClause.SentDate, Order.REVERSE),
+            new Sort(SortClause.BaseSubject, Order.NATURAL),
+            new Sort(SortClause.Uid, Order.NATURAL));
+    }
+
+    @Test
+    void decodeShouldParseSearchCriteria() throws Exception {
+        SortRequest request = (SortRequest) testee.decode(toRequest("(ARRIVAL) US-ASCII FROM bob\r\n"), TAG, true, new FakeImapSession());
+
+        assertThat(request.getSearchKey()).isEqualTo(SearchKey.buildFrom("bob"));
+        assertThat(request.isUseUids()).isTrue();
+    }
+
+    @Test
+    void decodeShouldRejectUnknownSortKey() {
+        assertThatThrownBy(() -> testee.decode(toRequest("(COLOR) UTF-8 ALL\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectTrailingReverse() {
+        assertThatThrownBy(() -> testee.decode(toRequest("(SIZE REVERSE) UTF-8 ALL\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private ImapRequestStreamLineReader toRequest(String input) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream());
+    }
+}
@@ -19,20 +19,33 @@
 
 package org.apache.james.imap.decode.parser;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 import org.apache.james.imap.api.Tag;
 import org.apache.james.imap.decode.DecodingException;
 import org.apache.james.imap.decode.ImapRequestStreamLineReader;
 import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.StatusRequest;
 import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
 import org.junit.jupiter.api.Test;
 
 class StatusCommandParserTest {
+    @Test
+    void decodeShouldParseSize() throws Exception {
+        StatusRequest request = (StatusRequest) new StatusCommandParser(new UnpooledStatusResponseFactory())
+            .decode(new ImapRequestStreamLineReader(new ByteArrayInputStream("INBOX (MESSAGES SIZE)\r\n".getBytes(StandardCharsets.US_ASCII)),
+                new ByteArrayOutputStream()), new Tag("AEA"), new FakeImapSession());
+
+        assertThat(request.getStatusDataItems().isSize()).isTrue();
+        assertThat(request.getStatusDataItems().isMessages()).isTrue();
+    }
+
     @Test
     void fuzzingInputShouldNotLeadToOutOfMemoryException() {
         String base64Input = "MiAgKH8MSU4kQiBOJEIgICMAf15Df39/f39/f39/f39/f39/f39/f39/f0NDRTogP19GbT8JCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCQkJCT0NAAAAAAAAAD0/TkNPAAAAAAhlAAAAAAA=";
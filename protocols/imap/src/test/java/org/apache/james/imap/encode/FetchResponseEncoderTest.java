@@ -21,6 +21,10 @@ package org.apache.james.imap.encode;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 import javax.mail.Flags;
 
 import org.apache.james.imap.encode.base.ByteImapResponseWriter;
@@ -31,6 +35,9 @@ import org.apache.james.mailbox.MessageUid;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 class FetchResponseEncoderTest  {
     private static final MessageSequenceNumber MSN = MessageSequenceNumber.of(100);
     private ByteImapResponseWriter writer = new ByteImapResponseWriter();
@@ -77,4 +84,40 @@ class FetchResponseEncoderTest  {
         assertThat(writer.getString()).isEqualTo("* 100 FETCH (FLAGS (\\Deleted) UID 72)\r\n");
         
     }
+
+    @Test
+    void encodeShouldWriteBinarySizes() throws Exception {
+        FetchResponse message = new FetchResponse(MSN, null, MessageUid.of(72), null,
+                null, null, null, null, null, null, ImmutableMap.of("BINARY.SIZE[1]", 42L));
+        encoder.encode(message, composer);
+        assertThat(writer.getString()).isEqualTo("* 100 FETCH (UID 72 BINARY.SIZE[1] 42)\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteBinaryElementsAsLiteral8() throws Exception {
+        FetchResponse message = new FetchResponse(MSN, null, MessageUid.of(72), null,
+                null, null, null, null, null, ImmutableList.of(new FetchResponse.BodyElement() {
+                    @Override
+                    public String getName() {
+                        return "BINARY[1]";
+                    }
+
+                    @Override
+                    public boolean isBinary() {
+                        return true;
+                    }
+
+                    @Override
+                    public long size() {
+                        return 3;
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        return new ByteArrayInputStream("a\0b".getBytes(StandardCharsets.US_ASCII));
+                    }
+                }));
+        encoder.encode(message, composer);
+        assertThat(writer.getString()).isEqualTo("* 100 FETCH (UID 72 BINARY[1] ~{3}\r\na\0b)\r\n");
+    }
 }
@@ -55,8 +55,15 @@ class MailboxStatusResponseEncoderTest  {
         final Long unseen = 11L;
         final String mailbox = "A mailbox named desire";
 
-        encoder.encode(new MailboxStatusResponse(messages, recent, uidNext,
+        encoder.encode(new MailboxStatusResponse(null, messages, recent, uidNext,
                 null, uidValidity, unseen, mailbox), composer);
         assertThat(writer.getString()).isEqualTo("* STATUS \"A mailbox named desire\" (MESSAGES 2 RECENT 3 UIDNEXT 5 UIDVALIDITY 7 UNSEEN 11)\r\n");
     }
+
+    @Test
+    void encodeShouldWriteSize() throws Exception {
+        encoder.encode(new MailboxStatusResponse(44827L, null, null, null,
+                null, null, null, "blurdybloop"), composer);
+        assertThat(writer.getString()).isEqualTo("* STATUS \"blurdybloop\" (SIZE 44827)\r\n");
+    }
 }
@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.imap.encode.base.ByteImapResponseWriter;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.imap.message.response.ThreadResponse.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class ThreadResponseEncoderTest {
+    private ThreadResponseEncoder encoder;
+    private ByteImapResponseWriter writer = new ByteImapResponseWriter();
+    private ImapResponseComposer composer = new ImapResponseComposerImpl(writer);
+
+    @BeforeEach
+    void setUp() {
+        encoder = new ThreadResponseEncoder();
+    }
+
+    @Test
+    void acceptableMessagesShouldReturnThreadResponseClass() {
+        assertThat(encoder.acceptableMessages()).isEqualTo(ThreadResponse.class);
+    }
+
+    @Test
+    void encodeShouldWriteEmptyResponse() throws Exception {
+        encoder.encode(new ThreadResponse(ImmutableList.of()), composer);
+
+        assertThat(writer.getString()).isEqualTo("* THREAD\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteRfcExample() throws Exception {
+        ThreadResponse response = new ThreadResponse(ImmutableList.of(
+            Node.leaf(2),
+            Node.of(3, ImmutableList.of(
+                Node.of(6, ImmutableList.of(
+                    Node.leaf(4),
+                    Node.of(44, ImmutableList.of(
+                        Node.of(7, ImmutableList.of(Node.leaf(96)))))))))));
+
+        encoder.encode(response, composer);
+
+        assertThat(writer.getString()).isEqualTo("* THREAD (2)(3 6 (4)(44 7 96))\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteSiblingsAsNestedLists() throws Exception {
+        ThreadResponse response = new ThreadResponse(ImmutableList.of(
+            Node.of(1, ImmutableList.of(Node.leaf(2), Node.leaf(3)))));
+
+        encoder.encode(response, composer);
+
+        assertThat(writer.getString()).isEqualTo("* THREAD (1 (2)(3))\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteDummyNodesWithoutId() throws Exception {
+        ThreadResponse response = new ThreadResponse(ImmutableList.of(
+            Node.dummy(ImmutableList.of(Node.leaf(3), Node.of(5, ImmutableList.of(Node.leaf(6))))),
+            Node.leaf(7)));
+
+        encoder.encode(response, composer);
+
+        assertThat(writer.getString()).isEqualTo("* THREAD ((3)(5 6))(7)\r\n");
+    }
+}
@@ -0,0 +1,91 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BaseSubjectTest {
+    @Test
+    void ofShouldUpperCaseSubject() {
+        assertThat(BaseSubject.of("Hello world")).isEqualTo("HELLO WORLD");
+    }
+
+    @Test
+    void ofShouldCollapseWhitespaces() {
+        assertThat(BaseSubject.of("  Hello \t  world ")).isEqualTo("HELLO WORLD");
+    }
+
+    @Test
+    void ofShouldRemoveReplyAndForwardLeaders() {
+        assertThat(BaseSubject.of("Re: Fwd: RE: fw: Hello")).isEqualTo("HELLO");
+    }
+
+    @Test
+    void ofShouldRemoveLeadersWithBlobs() {
+        assertThat(BaseSubject.of("[james-dev] Re[2]: Hello")).isEqualTo("HELLO");
+    }
+
+    @Test
+    void ofShouldKeepBlobWhenItIsTheWholeSubject() {
+        assertThat(BaseSubject.of("Re: [james-dev]")).isEqualTo("[JAMES-DEV]");
+    }
+
+    @Test
+    void ofShouldRemoveForwardTrailers() {
+        assertThat(BaseSubject.of("Hello (fwd) (FWD)")).isEqualTo("HELLO");
+    }
+
+    @Test
+    void ofShouldRemoveForwardWrapper() {
+        assertThat(BaseSubject.of("[Fwd: Re: Hello]")).isEqualTo("HELLO");
+    }
+
+    @Test
+    void ofShouldDecodeEncodedWords() {
+        assertThat(BaseSubject.of("Re: =?UTF-8?Q?caf=C3=A9?=")).isEqualTo("CAFÉ");
+    }
+
+    @Test
+    void isReplyOrForwardShouldBeFalseForOriginalSubjects() {
+        assertThat(BaseSubject.isReplyOrForward("  Hello  world ")).isFalse();
+    }
+
+    @Test
+    void isReplyOrForwardShouldBeFalseWhenOnlyABlobIsRemoved() {
+        assertThat(BaseSubject.isReplyOrForward("[james-dev] Hello")).isFalse();
+    }
+
+    @Test
+    void isReplyOrForwardShouldBeTrueForReplies() {
+        assertThat(BaseSubject.isReplyOrForward("[james-dev] Re: Hello")).isTrue();
+    }
+
+    @Test
+    void isReplyOrForwardShouldBeTrueForForwardTrailers() {
+        assertThat(BaseSubject.isReplyOrForward("Hello (fwd)")).isTrue();
+    }
+
+    @Test
+    void isReplyOrForwardShouldBeTrueForForwardWrappers() {
+        assertThat(BaseSubject.isReplyOrForward("[Fwd: Hello]")).isTrue();
+    }
+}
@@ -0,0 +1,181 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.ImapConfiguration;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
+import org.apache.james.imap.api.message.StatusDataItems.StatusItem;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.main.OutputStreamImapResponseWriter;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.encode.main.DefaultImapEncoderFactory;
+import org.apache.james.imap.encode.main.DefaultLocalizer;
+import org.apache.james.imap.main.ResponseEncoder;
+import org.apache.james.imap.message.request.ListRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ListProcessorTest {
+    private static final Username BOB = Username.of("bob");
+    private static final String MESSAGE = "header: value\r\n\r\nbody";
+
+    private ListProcessor testee;
+    private InMemoryMailboxManager mailboxManager;
+    private MailboxSession mailboxSession;
+    private FakeImapSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+
+        mailboxManager = spy(integrationResources.getMailboxManager());
+        testee = new ListProcessor(new ImapProcessor() {
+            @Override
+            public void process(ImapMessage message, Responder responder, ImapSession session) {
+
+            }
+
+            @Override
+            public void configure(ImapConfiguration imapConfiguration) {
+
+            }
+        }, mailboxManager,
+            new UnpooledStatusResponseFactory(),
+            new RecordingMetricFactory());
+
+        mailboxSession = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        mailboxManager.createMailbox(MailboxPath.forUser(BOB, "work"), mailboxSession);
+
+        MessageManager inbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        inbox.appendMessage(MessageManager.AppendCommand.builder()
+            .withFlags(new Flags(Flags.Flag.SEEN))
+            .build(new SharedByteArrayInputStream(MESSAGE.getBytes())), mailboxSession);
+        inbox.appendMessage(MessageManager.AppendCommand.builder()
+            .build(new SharedByteArrayInputStream(MESSAGE.getBytes())), mailboxSession);
+
+        session = new FakeImapSession();
+        session.authenticated();
+        session.setMailboxSession(mailboxSession);
+    }
+
+    @Test
+    void listShouldNotReturnStatusByDefault() {
+        String response = process(new ListRequest("", "*", new Tag("A1")));
+
+        assertThat(response)
+            .contains("* LIST (\\HasNoChildren) \".\" \"INBOX\"")
+            .doesNotContain("* STATUS");
+    }
+
+    @Test
+    void listStatusShouldReturnStatusFromCounters() {
+        String response = process(new ListRequest("", "*",
+            Optional.of(new StatusDataItems(EnumSet.of(StatusItem.MESSAGES, StatusItem.UNSEEN))), new Tag("A1")));
+
+        assertThat(response)
+            .contains("* STATUS \"INBOX\" (MESSAGES 2 UNSEEN 1)")
+            .contains("* STATUS \"work\" (MESSAGES 0 UNSEEN 0)");
+    }
+
+    @Test
+    void listStatusShouldReturnStatusAfterTheListResponse() {
+        String response = process(new ListRequest("", "*",
+            Optional.of(new StatusDataItems(EnumSet.of(StatusItem.MESSAGES))), new Tag("A1")));
+
+        assertThat(response.indexOf("* STATUS \"INBOX\""))
+            .isGreaterThan(response.indexOf("* LIST (\\HasNoChildren) \".\" \"INBOX\""));
+    }
+
+    @Test
+    void listStatusShouldSupportItemsNotBackedByCounters() {
+        String response = process(new ListRequest("", "INBOX",
+            Optional.of(new StatusDataItems(EnumSet.of(StatusItem.UID_NEXT, StatusItem.UID_VALIDITY))), new Tag("A1")));
+
+        assertThat(response)
+            .containsPattern("\\* STATUS \"INBOX\" \\(UIDNEXT 3 UIDVALIDITY \\d+\\)");
+    }
+
+    @Test
+    void listStatusShouldReturnHighestModSeq() {
+        String response = process(new ListRequest("", "*",
+            Optional.of(new StatusDataItems(EnumSet.of(StatusItem.HIGHEST_MODSEQ))), new Tag("A1")));
+
+        assertThat(response)
+            .contains("* STATUS \"INBOX\" (HIGHESTMODSEQ 2)")
+            .contains("* STATUS \"work\" (HIGHESTMODSEQ 0)");
+    }
+
+    @Test
+    void listStatusShouldNotLoadMailboxesForItemsReturnedByTheMailboxSearch() throws Exception {
+        process(new ListRequest("", "*",
+            Optional.of(new StatusDataItems(EnumSet.of(StatusItem.MESSAGES, StatusItem.UNSEEN, StatusItem.UID_NEXT,
+                StatusItem.UID_VALIDITY, StatusItem.HIGHEST_MODSEQ))), new Tag("A1")));
+
+        verify(mailboxManager, never()).getMailbox(any(MailboxId.class), any(MailboxSession.class));
+    }
+
+    @Test
+    void listStatusShouldSupportRecent() {
+        String response = process(new ListRequest("", "INBOX",
+            Optional.of(new StatusDataItems(EnumSet.of(StatusItem.MESSAGES, StatusItem.RECENT))), new Tag("A1")));
+
+        assertThat(response)
+            .contains("* STATUS \"INBOX\" (MESSAGES 2 RECENT 2)");
+    }
+
+    private String process(ListRequest request) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        testee.process(request,
+            new ResponseEncoder(
+                new DefaultImapEncoderFactory(new DefaultLocalizer(), true).buildImapEncoder(),
+                new ImapResponseComposerImpl(new OutputStreamImapResponseWriter(outputStream))),
+            session);
+
+        return new String(outputStream.toByteArray());
+    }
+}
@@ -0,0 +1,152 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.apache.james.imap.message.response.ThreadResponse.Node;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class ReferencesThreadingTest {
+    private static ReferencesThreading.Message message(long id, String messageId, String references, String subject) {
+        return ReferencesThreading.Message.of(id, Optional.of(messageId), Optional.ofNullable(references), Optional.empty(),
+            Optional.of(subject));
+    }
+
+    @Test
+    void threadShouldReturnEmptyWhenNoMessages() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of())).isEmpty();
+    }
+
+    @Test
+    void threadShouldReturnUnrelatedMessagesAsDistinctThreads() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "first"),
+                message(2, "<2@domain>", null, "second"))))
+            .containsExactly(Node.leaf(1), Node.leaf(2));
+    }
+
+    @Test
+    void threadShouldBuildTheReplyTree() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "subject"),
+                message(2, "<2@domain>", "<1@domain>", "Re: subject"),
+                message(3, "<3@domain>", "<1@domain>", "Re: subject"),
+                message(4, "<4@domain>", "<1@domain> <2@domain>", "Re: subject"))))
+            .containsExactly(Node.of(1, ImmutableList.of(
+                Node.of(2, ImmutableList.of(Node.leaf(4))),
+                Node.leaf(3))));
+    }
+
+    @Test
+    void threadShouldUseInReplyToWhenNoReferences() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "subject"),
+                ReferencesThreading.Message.of(2, Optional.of("<2@domain>"), Optional.empty(),
+                    Optional.of("<1@domain> (Bob's message)"), Optional.of("Re: subject")))))
+            .containsExactly(Node.of(1, ImmutableList.of(Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldPromoteTheChildOfAMissingRoot() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", "<missing@domain>", "Re: subject"))))
+            .containsExactly(Node.leaf(1));
+    }
+
+    @Test
+    void threadShouldPromoteTheChildrenOfAMissingMessage() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "subject"),
+                message(2, "<2@domain>", "<1@domain> <missing@domain>", "Re: subject"),
+                message(3, "<3@domain>", "<1@domain> <missing@domain>", "Re: subject"))))
+            .containsExactly(Node.of(1, ImmutableList.of(Node.leaf(2), Node.leaf(3))));
+    }
+
+    @Test
+    void threadShouldKeepADummyRootForSiblingsOfAMissingMessage() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", "<missing@domain>", "Re: first"),
+                message(2, "<2@domain>", "<missing@domain>", "Re: second"))))
+            .containsExactly(Node.dummy(ImmutableList.of(Node.leaf(1), Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldMakeRepliesWithoutReferencesChildrenOfTheOriginalSubject() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "subject"),
+                message(2, "<2@domain>", null, "Re: subject"))))
+            .containsExactly(Node.of(1, ImmutableList.of(Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldGroupMessagesWithTheSameSubjectUnderADummy() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "subject"),
+                message(2, "<2@domain>", null, "subject"))))
+            .containsExactly(Node.dummy(ImmutableList.of(Node.leaf(1), Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldNotGroupMessagesWithoutSubject() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, ""),
+                message(2, "<2@domain>", null, ""))))
+            .containsExactly(Node.leaf(1), Node.leaf(2));
+    }
+
+    @Test
+    void threadShouldOrderThreadsAndSiblingsBySentDate() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(5, "<5@domain>", null, "first"),
+                message(3, "<3@domain>", null, "second"),
+                message(4, "<4@domain>", "<5@domain>", "Re: first"),
+                message(1, "<1@domain>", "<5@domain>", "Re: first"))))
+            .containsExactly(
+                Node.of(5, ImmutableList.of(Node.leaf(4), Node.leaf(1))),
+                Node.leaf(3));
+    }
+
+    @Test
+    void threadShouldIgnoreReferencesIntroducingLoops() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", "<2@domain>", "first"),
+                message(2, "<2@domain>", "<1@domain>", "second"))))
+            .containsExactly(Node.of(2, ImmutableList.of(Node.leaf(1))));
+    }
+
+    @Test
+    void threadShouldIgnoreSelfReferences() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", "<1@domain>", "subject"))))
+            .containsExactly(Node.leaf(1));
+    }
+
+    @Test
+    void threadShouldKeepMessagesWithDuplicatedMessageIds() {
+        assertThat(ReferencesThreading.thread(ImmutableList.of(
+                message(1, "<1@domain>", null, "first"),
+                message(2, "<1@domain>", null, "second"))))
+            .containsExactly(Node.leaf(1), Node.leaf(2));
+    }
+}
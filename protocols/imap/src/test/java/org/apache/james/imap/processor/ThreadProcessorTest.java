@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.ImapConfiguration;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.ThreadAlgorithm;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.main.OutputStreamImapResponseWriter;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.encode.main.DefaultImapEncoderFactory;
+import org.apache.james.imap.encode.main.DefaultLocalizer;
+import org.apache.james.imap.main.ResponseEncoder;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.imap.processor.base.SelectedMailboxImpl;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadProcessorTest {
+    private static final Username BOB = Username.of("bob");
+
+    private ThreadProcessor testee;
+    private FakeImapSession session;
+    private MessageManager mailbox;
+    private MailboxSession mailboxSession;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+        InMemoryMailboxManager mailboxManager = integrationResources.getMailboxManager();
+        testee = new ThreadProcessor(new ImapProcessor() {
+            @Override
+            public void process(ImapMessage message, Responder responder, ImapSession session) {
+
+            }
+
+            @Override
+            public void configure(ImapConfiguration imapConfiguration) {
+
+            }
+        }, mailboxManager,
+            new UnpooledStatusResponseFactory(),
+            new RecordingMetricFactory());
+
+        mailboxSession = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        mailbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), mailboxSession);
+
+        session = new FakeImapSession();
+        session.authenticated();
+        session.setMailboxSession(mailboxSession);
+        session.selected(new SelectedMailboxImpl(mailboxManager, integrationResources.getEventBus(), session, mailbox));
+    }
+
+    @Test
+    void referencesShouldReturnTheReplyTree() throws Exception {
+        append("<1@domain>", "", "Mon, 1 Jun 2020 10:00:00 +0000", "Subject");
+        append("<2@domain>", "<1@domain>", "Mon, 1 Jun 2020 11:00:00 +0000", "Re: Subject");
+        append("<3@domain>", "", "Mon, 1 Jun 2020 12:00:00 +0000", "Other");
+        append("<4@domain>", "<1@domain>", "Mon, 1 Jun 2020 13:00:00 +0000", "Re: Subject");
+        append("<5@domain>", "<1@domain> <2@domain>", "Mon, 1 Jun 2020 14:00:00 +0000", "Re: Subject");
+
+        assertThat(thread(ThreadAlgorithm.REFERENCES))
+            .contains("* THREAD (1 (2 5)(4))(3)\r\n")
+            .contains("A1 OK THREAD completed.");
+    }
+
+    @Test
+    void orderedSubjectShouldGroupMessagesByBaseSubject() throws Exception {
+        append("<1@domain>", "", "Mon, 1 Jun 2020 10:00:00 +0000", "Subject");
+        append("<2@domain>", "<1@domain>", "Mon, 1 Jun 2020 11:00:00 +0000", "Re: Subject");
+        append("<3@domain>", "", "Mon, 1 Jun 2020 12:00:00 +0000", "Other");
+        append("<4@domain>", "<1@domain>", "Mon, 1 Jun 2020 13:00:00 +0000", "Re: Subject");
+
+        assertThat(thread(ThreadAlgorithm.ORDEREDSUBJECT))
+            .contains("* THREAD (1 (2)(4))(3)\r\n");
+    }
+
+    @Test
+    void threadShouldReturnEmptyResponseWhenNoMessages() {
+        assertThat(thread(ThreadAlgorithm.REFERENCES))
+            .contains("* THREAD\r\n");
+    }
+
+    @Test
+    void threadShouldOrderMessagesBySentDate() throws Exception {
+        append("<1@domain>", "", "Mon, 1 Jun 2020 12:00:00 +0000", "Subject");
+        append("<2@domain>", "<1@domain>", "Mon, 1 Jun 2020 13:00:00 +0000", "Re: Subject");
+        append("<3@domain>", "", "Mon, 1 Jun 2020 10:00:00 +0000", "Other");
+
+        assertThat(thread(ThreadAlgorithm.REFERENCES))
+            .contains("* THREAD (3)(1 2)\r\n");
+    }
+
+    private void append(String messageId, String references, String date, String subject) throws Exception {
+        String message = "Message-ID: " + messageId + "\r\n"
+            + (references.isEmpty() ? "" : "References: " + references + "\r\n")
+            + "Date: " + date + "\r\n"
+            + "Subject: " + subject + "\r\n"
+            + "\r\n"
+            + "body";
+        mailbox.appendMessage(MessageManager.AppendCommand.builder().build(message), mailboxSession);
+    }
+
+    private String thread(ThreadAlgorithm algorithm) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        testee.process(new ThreadRequest(algorithm, SearchKey.buildAll(), false, TAG),
+            new ResponseEncoder(
+                new DefaultImapEncoderFactory(new DefaultLocalizer(), true).buildImapEncoder(),
+                new ImapResponseComposerImpl(new OutputStreamImapResponseWriter(outputStream))),
+            session);
+
+        return new String(outputStream.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -335,6 +335,36 @@ class UidMsnConverterTest {
                 4, messageUid4).entrySet());
     }
 
+    @Test
+    void addAllShouldInterleaveWithPreviousData() {
+        testee.addUid(messageUid2);
+        testee.addUid(messageUid4);
+
+        testee.addAll(ImmutableList.of(messageUid3,
+            messageUid1));
+
+        assertThat(mapTesteeInternalDataToMsnByUid().entrySet())
+            .containsExactlyElementsOf(ImmutableMap.of(
+                1, messageUid1,
+                2, messageUid2,
+                3, messageUid3,
+                4, messageUid4).entrySet());
+    }
+
+    @Test
+    void addUidShouldSupportOutOfOrderUpdatesBeyondInitialCapacity() {
+        int count = 1000;
+        IntStream.rangeClosed(1, count)
+            .map(i -> count + 1 - i)
+            .forEach(i -> testee.addUid(MessageUid.of(i)));
+
+        assertThat(mapTesteeInternalDataToMsnByUid().entrySet())
+            .containsExactlyElementsOf(IntStream.rangeClosed(1, count)
+                .boxed()
+                .collect(ImmutableMap.toImmutableMap(i -> i, i -> MessageUid.of(i)))
+                .entrySet());
+    }
+
     @Test
     void addAllShouldMergeAndDeduplicatePreviousData() {
         testee.addUid(messageUid1);
@@ -461,8 +491,8 @@ class UidMsnConverterTest {
 
     private Map<Integer, MessageUid> mapTesteeInternalDataToMsnByUid() {
         ImmutableMap.Builder<Integer, MessageUid> result = ImmutableMap.builder();
-        for (int i = 0; i < testee.uids.size(); i++) {
-            result.put(i + 1, testee.uids.get(i));
+        for (int i = 0; i < testee.size; i++) {
+            result.put(i + 1, MessageUid.of(testee.uids[i]));
         }
         return result.build();
     }
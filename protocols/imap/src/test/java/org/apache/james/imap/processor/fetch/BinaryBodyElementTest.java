@@ -0,0 +1,116 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mailbox.model.MimePath;
+import org.apache.james.mailbox.model.TestId;
+import org.junit.jupiter.api.Test;
+
+class BinaryBodyElementTest {
+    private static final MessageUid UID = MessageUid.of(42);
+    private static final Optional<MimePath> PATH = Optional.of(new MimePath(new int[]{1}));
+
+    private static class CountingContent implements Content {
+        private final byte[] bytes;
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingContent(String content) {
+            this.bytes = content.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            reads.incrementAndGet();
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public long size() {
+            return bytes.length;
+        }
+    }
+
+    @Test
+    void base64ContentShouldBeDecoded() throws Exception {
+        BinaryBodyElement element = element(new CountingContent("AAECAw==\r\n"), "base64", DecodedSizeCache.DISABLED);
+
+        assertThat(element.getInputStream().readAllBytes()).containsExactly(0, 1, 2, 3);
+        assertThat(element.size()).isEqualTo(4);
+    }
+
+    @Test
+    void quotedPrintableContentShouldBeDecoded() throws Exception {
+        BinaryBodyElement element = element(new CountingContent("caf=C3=A9"), "Quoted-Printable", DecodedSizeCache.DISABLED);
+
+        assertThat(new String(element.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("café");
+        assertThat(element.size()).isEqualTo(5);
+    }
+
+    @Test
+    void identityContentShouldNotBeDecodedToComputeSize() throws IOException {
+        CountingContent content = new CountingContent("abc");
+        BinaryBodyElement element = element(content, "8bit", DecodedSizeCache.DISABLED);
+
+        assertThat(element.size()).isEqualTo(3);
+        assertThat(content.reads.get()).isZero();
+    }
+
+    @Test
+    void headersShouldBePrependedToTheDecodedBody() throws Exception {
+        BinaryBodyElement element = new BinaryBodyElement("BINARY[]", Optional.of(new CountingContent("A: b\r\n\r\n")),
+            new CountingContent("YWJj"), "base64", TestId.of(1), UID, Optional.empty(), DecodedSizeCache.DISABLED);
+
+        assertThat(new String(element.getInputStream().readAllBytes(), StandardCharsets.US_ASCII)).isEqualTo("A: b\r\n\r\nabc");
+        assertThat(element.size()).isEqualTo(11);
+    }
+
+    @Test
+    void decodedSizeShouldBeCached() throws Exception {
+        DecodedSizeCache cache = DecodedSizeCache.of(10);
+        CountingContent content = new CountingContent("AAECAw==");
+
+        element(content, "base64", cache).size();
+        long size = element(content, "base64", cache).size();
+
+        assertThat(size).isEqualTo(4);
+        assertThat(content.reads.get()).isEqualTo(1);
+        assertThat(cache.cachedEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownEncodingsShouldNotBeSupported() {
+        assertThat(BinaryBodyElement.isSupported("x-uuencode")).isFalse();
+    }
+
+    private BinaryBodyElement element(Content body, String transferEncoding, DecodedSizeCache cache) {
+        return new BinaryBodyElement("BINARY[1]", Optional.empty(), body, transferEncoding, TestId.of(1), UID, PATH, cache);
+    }
+}
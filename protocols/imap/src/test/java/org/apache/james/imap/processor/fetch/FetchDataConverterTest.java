@@ -19,6 +19,8 @@
 
 package org.apache.james.imap.processor.fetch;
 
+import static org.apache.james.imap.api.message.SectionType.BINARY;
+import static org.apache.james.imap.api.message.SectionType.BINARY_SIZE;
 import static org.apache.james.imap.api.message.SectionType.CONTENT;
 import static org.apache.james.imap.api.message.SectionType.HEADER;
 import static org.apache.james.imap.api.message.SectionType.MIME;
@@ -48,13 +50,15 @@ class FetchDataConverterTest {
             Arguments.arguments(FetchData.builder().fetch(Item.BODY), FetchGroup.MINIMAL.with(Profile.MIME_DESCRIPTOR)),
             Arguments.arguments(FetchData.builder().fetch(Item.BODY_STRUCTURE), FetchGroup.MINIMAL.with(Profile.MIME_DESCRIPTOR)),
             Arguments.arguments(FetchData.builder().changedSince(0L), FetchGroup.MINIMAL),
-            Arguments.arguments(FetchData.builder().fetch(Item.ENVELOPE), FetchGroup.HEADERS),
+            Arguments.arguments(FetchData.builder().fetch(Item.ENVELOPE), FetchGroup.MINIMAL.with(Profile.MIME_DESCRIPTOR)),
             Arguments.arguments(FetchData.builder().fetch(Item.FLAGS), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().fetch(Item.INTERNAL_DATE), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().fetch(Item.MODSEQ), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().fetch(Item.UID), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().vanished(true), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().add(BodyFetchElement.createRFC822(), PEEK), FetchGroup.FULL_CONTENT),
+            Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822, CONTENT, null, null, 10L, 20L), PEEK),
+                FetchGroup.MINIMAL.with(Profile.FULL_CONTENT_RANGE)),
             Arguments.arguments(FetchData.builder().add(BodyFetchElement.createRFC822Header(), PEEK), FetchGroup.HEADERS),
             Arguments.arguments(FetchData.builder().add(BodyFetchElement.createRFC822Text(), PEEK), FetchGroup.BODY_CONTENT),
             Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822_HEADER, HEADER, PATH, null, null, null), PEEK),
@@ -68,7 +72,11 @@ class FetchDataConverterTest {
             Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822_TEXT, MIME, PATH, null, null, null), PEEK),
                 FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.MIME_HEADERS)),
             Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822_TEXT, TEXT, PATH, null, null, null), PEEK),
-                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.BODY_CONTENT)));
+                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.BODY_CONTENT)),
+            Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_BINARY, BINARY, null, null, null, null), PEEK),
+                FetchGroup.MINIMAL.with(Profile.HEADERS, Profile.BODY_CONTENT)),
+            Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_BINARY_SIZE, BINARY_SIZE, PATH, null, null, null), PEEK),
+                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.MIME_HEADERS, Profile.MIME_CONTENT)));
     }
 
     @ParameterizedTest
@@ -23,9 +23,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import org.apache.james.imap.message.response.FetchResponse.BodyElement;
+import org.apache.james.mailbox.model.ByteContent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -112,4 +115,29 @@ class PartialFetchBodyElementTest {
 
         assertThat(element.size()).describedAs("Size is less than number of octets so should be size").isEqualTo(50);
     }
+
+    @Test
+    void getInputStreamShouldOnlyReadRequestedRangeFromDelegate() throws Exception {
+        PartialFetchBodyElement element = new PartialFetchBodyElement(mockBodyElement, 10, Optional.of(NUMBER_OF_OCTETS));
+        when(mockBodyElement.size()).thenReturn(60L);
+        when(mockBodyElement.getInputStream(10, 50)).thenReturn(new ByteArrayInputStream("range".getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(element.getInputStream()).hasContent("range");
+    }
+
+    @Test
+    void getInputStreamShouldReturnRequestedRangeOfContent() throws Exception {
+        ContentBodyElement delegate = new ContentBodyElement("Name", new ByteContent("0123456789".getBytes(StandardCharsets.US_ASCII)));
+        PartialFetchBodyElement element = new PartialFetchBodyElement(delegate, 2, Optional.of(5L));
+
+        assertThat(element.getInputStream()).hasContent("23456");
+    }
+
+    @Test
+    void getInputStreamShouldBeEmptyWhenStartIsMoreThanSize() throws Exception {
+        ContentBodyElement delegate = new ContentBodyElement("Name", new ByteContent("0123456789".getBytes(StandardCharsets.US_ASCII)));
+        PartialFetchBodyElement element = new PartialFetchBodyElement(delegate, 20, Optional.of(5L));
+
+        assertThat(element.getInputStream()).hasContent("");
+    }
 }
@@ -50,4 +50,12 @@ public abstract class LMTPConfiguration extends ProtocolConfigurationImpl implem
     public boolean useAddressBracketsEnforcement() {
         return false;
     }
+
+    /**
+     * Return the maximum count of recipients the message is delivered to concurrently. Per-recipient replies are sent
+     * in the order of the recipients whatever this value (RFC 2033).
+     */
+    public int getDeliveryConcurrency() {
+        return 1;
+    }
 }
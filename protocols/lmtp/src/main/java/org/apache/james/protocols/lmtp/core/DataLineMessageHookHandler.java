@@ -33,6 +33,9 @@ import org.apache.james.protocols.smtp.SMTPRetCode;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.core.AbstractHookableCmdHandler;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * {@link DataLineMessageHookHandler} which will use the wired {@link DeliverToRecipientHook}'s to deliver the message to all the valid recipients.
@@ -43,7 +46,11 @@ public class DataLineMessageHookHandler extends org.apache.james.protocols.smtp.
 
     
     @Override
-    protected Response processExtensions(SMTPSession session, MailEnvelope mail) {
+    protected Publisher<Response> processExtensionsReactive(SMTPSession session, MailEnvelope mail) {
+        return Mono.fromCallable(() -> deliver(session, mail));
+    }
+
+    private Response deliver(SMTPSession session, MailEnvelope mail) {
         LMTPMultiResponse mResponse = null;
 
         for (MailAddress recipient : mail.getRecipients()) {
@@ -88,6 +88,16 @@ public abstract class AbstractLMTPServerTest extends AbstractSMTPServerTest {
     public void testHeloEnforcementDisabled() throws Exception {
     }
 
+    @Ignore("LMTP does not support HELO")
+    @Override
+    protected void pipelinedCommandsShouldBeAnsweredInOrderWhenHooksAreAsynchronous() {
+    }
+
+    @Ignore("LMTP relies on DeliverToRecipientHook")
+    @Override
+    protected void asynchronousMessageHookShouldBeApplied() {
+    }
+
 
     @Override
     protected void testMailWithoutBrackets() throws Exception {
@@ -28,6 +28,7 @@ import java.util.concurrent.ThreadFactory;
 import org.apache.james.protocols.api.ProtocolServer;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.DirectChannelBufferFactory;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.group.ChannelGroup;
@@ -55,6 +56,10 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
     private final ChannelGroup channels = new DefaultChannelGroup();
 
     private volatile int ioWorker = DEFAULT_IO_WORKER_COUNT;
+
+    private volatile boolean useSharedIoPools = false;
+
+    private volatile boolean useDirectBuffers = false;
     
     private List<InetSocketAddress> addresses = new ArrayList<>();
     
@@ -75,6 +80,30 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
         this.ioWorker = ioWorker;
     }
 
+    /**
+     * Use the JVM wide {@link SharedIoPools} rather than dedicated boss and worker threads. Default is false
+     */
+    public void setUseSharedIoPools(boolean useSharedIoPools) {
+        if (started) {
+            throw new IllegalStateException("Can only be set when the server is not running");
+        }
+        this.useSharedIoPools = useSharedIoPools;
+    }
+
+    /**
+     * Allocate the buffers of the accepted channels from the JVM wide {@link DirectChannelBufferFactory}, which slices
+     * them out of preallocated off-heap chunks, rather than allocating a new heap buffer for each read. Default is false
+     *
+     * Netty 3 buffers are not reference counted, so unlike the Netty 4 PooledByteBufAllocator, chunks are not recycled
+     * but reclaimed by the garbage collector once none of their slices is referenced anymore.
+     */
+    public void setUseDirectBuffers(boolean useDirectBuffers) {
+        if (started) {
+            throw new IllegalStateException("Can only be set when the server is not running");
+        }
+        this.useDirectBuffers = useDirectBuffers;
+    }
+
     @Override
     public synchronized void bind() throws Exception {
         if (started) {
@@ -107,9 +136,15 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
         bootstrap.setOption("backlog", backlog);
         bootstrap.setOption("reuseAddress", true);
         bootstrap.setOption("child.tcpNoDelay", true);
+        if (useDirectBuffers) {
+            bootstrap.setOption("child.bufferFactory", DirectChannelBufferFactory.getInstance());
+        }
     }
     
     protected ServerSocketChannelFactory createSocketChannelFactory() {
+        if (useSharedIoPools) {
+            return SharedIoPools.acquire(ioWorker);
+        }
         return new NioServerSocketChannelFactory(createBossExecutor(), createWorkerExecutor(), ioWorker);
     }
     
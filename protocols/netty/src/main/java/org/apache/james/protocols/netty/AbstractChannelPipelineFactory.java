@@ -76,7 +76,9 @@ public abstract class AbstractChannelPipelineFactory implements ChannelPipelineF
         if (eHandler != null) {
             pipeline.addLast(HandlerConstants.EXECUTION_HANDLER, eHandler);
         }
-        
+
+        // Keep pipelined lines in order while a response is computed asynchronously
+        pipeline.addLast(HandlerConstants.LINE_SERIALIZING_HANDLER, new LineSerializingUpstreamHandler());
         pipeline.addLast(HandlerConstants.CORE_HANDLER, createHandler());
 
 
@@ -46,13 +46,17 @@ import org.jboss.netty.channel.ChannelHandler.Sharable;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.channel.DefaultExceptionEvent;
 import org.jboss.netty.channel.ExceptionEvent;
 import org.jboss.netty.channel.MessageEvent;
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
 import org.jboss.netty.handler.codec.frame.TooLongFrameException;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Mono;
+
 /**
  * {@link ChannelUpstreamHandler} which is used by the SMTPServer and other line based protocols
  */
@@ -154,10 +158,10 @@ public class BasicChannelUpstreamHandler extends SimpleChannelUpstreamHandler {
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
-        try (Closeable closeable = mdc(ctx).build()) {
+        MDCBuilder mdc = mdc(ctx);
+        try (Closeable closeable = mdc.build()) {
             ProtocolSession pSession = (ProtocolSession) ctx.getAttachment();
             LinkedList<LineHandler> lineHandlers = chain.getHandlers(LineHandler.class);
-            LinkedList<ProtocolHandlerResultHandler> resultHandlers = chain.getHandlers(ProtocolHandlerResultHandler.class);
 
 
             if (lineHandlers.size() > 0) {
@@ -165,23 +169,44 @@ public class BasicChannelUpstreamHandler extends SimpleChannelUpstreamHandler {
                 ChannelBuffer buf = (ChannelBuffer) e.getMessage();
                 LineHandler lHandler = (LineHandler) lineHandlers.getLast();
                 long start = System.currentTimeMillis();
-                Response response = lHandler.onLine(pSession, buf.toByteBuffer());
-                long executionTime = System.currentTimeMillis() - start;
-
-                for (ProtocolHandlerResultHandler resultHandler : resultHandlers) {
-                    response = resultHandler.onResponse(pSession, response, executionTime, lHandler);
-                }
-                if (response != null) {
-                    // TODO: This kind of sucks but I was able to come up with something more elegant here
-                    ((ProtocolSessionImpl) pSession).getProtocolTransport().writeResponse(response, pSession);
-                }
-
+                Mono<Void> processing = Mono.from((Publisher<Response>) lHandler.onLineReactive(pSession, buf.toByteBuffer()))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(response -> MDCBuilder.withMdc(mdc,
+                        () -> onResponse(pSession, lHandler, response.orElse(null), System.currentTimeMillis() - start)))
+                    .then()
+                    .onErrorResume(error -> {
+                        MDCBuilder.withMdc(mdc, () -> onProcessingError(ctx, error));
+                        return Mono.empty();
+                    });
+                // The response might be computed asynchronously: following lines are held back until it is written
+                LineSerializingUpstreamHandler.process(ctx, processing);
             }
 
             super.messageReceived(ctx, e);
         }
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void onResponse(ProtocolSession pSession, LineHandler lHandler, Response response, long executionTime) {
+        LinkedList<ProtocolHandlerResultHandler> resultHandlers = chain.getHandlers(ProtocolHandlerResultHandler.class);
+        for (ProtocolHandlerResultHandler resultHandler : resultHandlers) {
+            response = resultHandler.onResponse(pSession, response, executionTime, lHandler);
+        }
+        if (response != null) {
+            // TODO: This kind of sucks but I was able to come up with something more elegant here
+            ((ProtocolSessionImpl) pSession).getProtocolTransport().writeResponse(response, pSession);
+        }
+    }
+
+    private void onProcessingError(ChannelHandlerContext ctx, Throwable error) {
+        try {
+            exceptionCaught(ctx, new DefaultExceptionEvent(ctx.getChannel(), error));
+        } catch (Exception e) {
+            LOGGER.error("Unable to handle processing error", e);
+        }
+    }
+
 
     @Override
     public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
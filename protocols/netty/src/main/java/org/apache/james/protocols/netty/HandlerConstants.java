@@ -41,6 +41,8 @@ public interface HandlerConstants {
 
     String TIMEOUT_HANDLER = "timeoutHandler";
 
+    String LINE_SERIALIZING_HANDLER = "lineSerializingHandler";
+
     String CORE_HANDLER = "coreHandler";
 
     String CHUNK_HANDLER = "chunkHandler";
@@ -20,14 +20,16 @@ package org.apache.james.protocols.netty;
 
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.ProtocolSessionImpl;
-import org.apache.james.protocols.api.Response;
 import org.apache.james.protocols.api.handler.LineHandler;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.channel.Channels;
 import org.jboss.netty.channel.MessageEvent;
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
 
+import reactor.core.publisher.Mono;
+
 /**
  * {@link ChannelUpstreamHandler} implementation which will call a given {@link LineHandler} implementation
  *
@@ -47,11 +49,15 @@ public class LineHandlerUpstreamHandler<S extends ProtocolSession> extends Simpl
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {        
         ChannelBuffer buf = (ChannelBuffer) e.getMessage();      
 
-        Response response = handler.onLine(session, buf.toByteBuffer()); 
-        if (response != null) {
+        Mono<Void> processing = Mono.from(handler.onLineReactive(session, buf.toByteBuffer()))
             // TODO: This kind of sucks but I was not able to come up with something more elegant here
-            ((ProtocolSessionImpl)session).getProtocolTransport().writeResponse(response, session);
-        }
+            .doOnNext(response -> ((ProtocolSessionImpl)session).getProtocolTransport().writeResponse(response, session))
+            .then()
+            .onErrorResume(error -> {
+                Channels.fireExceptionCaught(ctx.getChannel(), error);
+                return Mono.empty();
+            });
+        LineSerializingUpstreamHandler.process(ctx, processing);
     }
 
 }
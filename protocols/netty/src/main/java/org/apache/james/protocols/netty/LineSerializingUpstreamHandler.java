@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.netty;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.james.protocols.api.handler.LineHandler;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ChannelUpstreamHandler} holding back received lines while the response to a previous line is computed
+ * asynchronously by a {@link LineHandler}. Pipelined lines thus keep being processed, and answered, in order without
+ * a thread being blocked while waiting for the response.
+ *
+ * The channel stops being read while a response is computed, so that only the lines already decoded from the last
+ * read are held back.
+ *
+ * It needs to be placed in front of the handlers calling the {@link LineHandler}s, which report their asynchronous
+ * processing through {@link #process(ChannelHandlerContext, Mono)}.
+ */
+public class LineSerializingUpstreamHandler extends SimpleChannelUpstreamHandler {
+
+    /**
+     * Subscribes to the processing of a line. If it does not complete right away, the following lines of the channel
+     * will only be handled once it completes.
+     *
+     * Channels lacking a {@link LineSerializingUpstreamHandler} do not wait for the completion of the processing, and
+     * thus do not guarantee pipelined lines to be answered in order.
+     */
+    static void process(ChannelHandlerContext ctx, Mono<Void> processing) {
+        CompletableFuture<Void> completion = processing.toFuture();
+        if (completion.isDone()) {
+            return;
+        }
+        Optional.ofNullable(ctx.getPipeline().get(LineSerializingUpstreamHandler.class))
+            .ifPresent(serializer -> serializer.inFlight = completion);
+    }
+
+    private final Queue<MessageEvent> pendingLines = new ArrayDeque<>();
+    private boolean processing = false;
+    // Set by the handler processing the line being forwarded
+    private volatile CompletableFuture<Void> inFlight;
+
+    @Override
+    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+        synchronized (this) {
+            if (processing) {
+                pendingLines.add(e);
+                return;
+            }
+            processing = true;
+        }
+        forward(ctx, e);
+    }
+
+    private void forward(ChannelHandlerContext ctx, MessageEvent event) {
+        MessageEvent next = event;
+        while (next != null) {
+            ctx.sendUpstream(next);
+            if (inFlight != null) {
+                CompletableFuture<Void> completion = inFlight;
+                inFlight = null;
+                ctx.getChannel().setReadable(false);
+                completion.whenComplete((result, error) -> {
+                    ctx.getChannel().setReadable(true);
+                    forward(ctx, pollPendingLine());
+                });
+                return;
+            }
+            next = pollPendingLine();
+        }
+    }
+
+    private synchronized MessageEvent pollPendingLine() {
+        MessageEvent next = pendingLines.poll();
+        if (next == null) {
+            processing = false;
+        }
+        return next;
+    }
+
+    @Override
+    public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        synchronized (this) {
+            pendingLines.clear();
+        }
+        super.channelClosed(ctx, e);
+    }
+}
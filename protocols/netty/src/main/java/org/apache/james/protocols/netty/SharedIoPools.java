@@ -0,0 +1,109 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.netty;
+
+import java.util.concurrent.Executors;
+
+import org.apache.james.util.concurrent.NamedThreadFactory;
+import org.jboss.netty.channel.socket.ServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerBossPool;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioWorkerPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * JVM wide boss and IO worker pools, shared by every {@link AbstractAsyncServer} configured to use them.
+ *
+ * Each server gets its own {@link ServerSocketChannelFactory}, but all of them are backed by the same selector
+ * threads. This keeps the number of IO threads bounded by the worker count instead of growing with the number of
+ * servers (IMAP, IMAPS, SMTP, LMTP, POP3...) running in the JVM.
+ *
+ * Pools are reference counted: they are created by the first {@link #acquire(int)} and released when the last
+ * factory handed out gets released. All servers sharing the pools need to be configured with the same worker count:
+ * acquiring them with another count fails, as it would otherwise be silently ignored.
+ */
+public class SharedIoPools {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedIoPools.class);
+    private static final int BOSS_COUNT = 1;
+
+    private static int references = 0;
+    private static NioServerBossPool bossPool;
+    private static NioWorkerPool workerPool;
+    private static int workerCount;
+
+    public static synchronized ServerSocketChannelFactory acquire(int ioWorkerCount) {
+        Preconditions.checkArgument(ioWorkerCount > 0, "'ioWorkerCount' needs to be strictly positive");
+
+        Preconditions.checkArgument(references == 0 || workerCount == ioWorkerCount,
+            "Shared IO pools are already started with %s workers, servers sharing them need the same 'ioWorkerCount' but got %s",
+            workerCount, ioWorkerCount);
+
+        if (references == 0) {
+            bossPool = new NioServerBossPool(Executors.newCachedThreadPool(NamedThreadFactory.withName("shared-io-boss")), BOSS_COUNT);
+            workerPool = new NioWorkerPool(Executors.newCachedThreadPool(NamedThreadFactory.withName("shared-io-worker")), ioWorkerCount);
+            workerCount = ioWorkerCount;
+            LOGGER.info("Shared IO pools started with {} workers", ioWorkerCount);
+        }
+        references++;
+        return new SharedFactory(bossPool, workerPool);
+    }
+
+    private static synchronized void release() {
+        Preconditions.checkState(references > 0, "Shared IO pools released more times than acquired");
+
+        references--;
+        if (references == 0) {
+            bossPool.releaseExternalResources();
+            workerPool.releaseExternalResources();
+            bossPool = null;
+            workerPool = null;
+        }
+    }
+
+    @VisibleForTesting
+    static synchronized int references() {
+        return references;
+    }
+
+    private static class SharedFactory extends NioServerSocketChannelFactory {
+        private boolean released = false;
+
+        SharedFactory(NioServerBossPool bossPool, NioWorkerPool workerPool) {
+            super(bossPool, workerPool);
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            releaseExternalResources();
+        }
+
+        @Override
+        public synchronized void releaseExternalResources() {
+            // Pools are owned by SharedIoPools: only drop our reference
+            if (!released) {
+                released = true;
+                release();
+            }
+        }
+    }
+}
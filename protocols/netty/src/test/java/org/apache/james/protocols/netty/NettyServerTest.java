@@ -19,6 +19,7 @@
 
 package org.apache.james.protocols.netty;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 
@@ -26,6 +27,8 @@ import javax.net.ssl.SSLContext;
 
 import org.apache.james.protocols.api.Encryption;
 import org.apache.james.protocols.api.Protocol;
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.DirectChannelBufferFactory;
 import org.jboss.netty.util.HashedWheelTimer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -76,4 +79,29 @@ class NettyServerTest {
             .frameHandlerFactory(channelHandlerFactory)
             .build();
     }
+
+    @Test
+    void configureBootstrapShouldUseDefaultBufferFactoryByDefault() {
+        NettyServer server = new NettyServer.Factory(hashedWheelTimer)
+            .protocol(mock(Protocol.class))
+            .build();
+        ServerBootstrap bootstrap = new ServerBootstrap();
+
+        server.configureBootstrap(bootstrap);
+
+        assertThat(bootstrap.getOption("child.bufferFactory")).isNull();
+    }
+
+    @Test
+    void configureBootstrapShouldUseDirectBufferFactoryWhenEnabled() {
+        NettyServer server = new NettyServer.Factory(hashedWheelTimer)
+            .protocol(mock(Protocol.class))
+            .build();
+        server.setUseDirectBuffers(true);
+        ServerBootstrap bootstrap = new ServerBootstrap();
+
+        server.configureBootstrap(bootstrap);
+
+        assertThat(bootstrap.getOption("child.bufferFactory")).isSameAs(DirectChannelBufferFactory.getInstance());
+    }
 }
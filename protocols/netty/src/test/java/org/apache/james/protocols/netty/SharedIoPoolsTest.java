@@ -0,0 +1,94 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.jboss.netty.channel.socket.ServerSocketChannelFactory;
+import org.junit.jupiter.api.Test;
+
+class SharedIoPoolsTest {
+    @Test
+    void acquireShouldRejectNonPositiveWorkerCount() {
+        assertThatThrownBy(() -> SharedIoPools.acquire(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void acquireShouldCountReferences() {
+        ServerSocketChannelFactory first = SharedIoPools.acquire(2);
+        ServerSocketChannelFactory second = SharedIoPools.acquire(2);
+
+        try {
+            assertThat(SharedIoPools.references()).isEqualTo(2);
+        } finally {
+            first.releaseExternalResources();
+            second.releaseExternalResources();
+        }
+    }
+
+    @Test
+    void releaseShouldBeIdempotentPerFactory() {
+        ServerSocketChannelFactory first = SharedIoPools.acquire(2);
+        ServerSocketChannelFactory second = SharedIoPools.acquire(2);
+
+        first.releaseExternalResources();
+        first.releaseExternalResources();
+
+        try {
+            assertThat(SharedIoPools.references()).isEqualTo(1);
+        } finally {
+            second.releaseExternalResources();
+        }
+    }
+
+    @Test
+    void acquireShouldRejectAnotherWorkerCount() {
+        ServerSocketChannelFactory first = SharedIoPools.acquire(2);
+
+        try {
+            assertThatThrownBy(() -> SharedIoPools.acquire(3))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThat(SharedIoPools.references()).isEqualTo(1);
+        } finally {
+            first.releaseExternalResources();
+        }
+    }
+
+    @Test
+    void acquireShouldAcceptAnotherWorkerCountOnceReleased() {
+        SharedIoPools.acquire(2).releaseExternalResources();
+        ServerSocketChannelFactory factory = SharedIoPools.acquire(3);
+
+        try {
+            assertThat(SharedIoPools.references()).isEqualTo(1);
+        } finally {
+            factory.releaseExternalResources();
+        }
+    }
+
+    @Test
+    void releasingAllFactoriesShouldReleasePools() {
+        SharedIoPools.acquire(2).releaseExternalResources();
+
+        assertThat(SharedIoPools.references()).isZero();
+    }
+}
@@ -75,6 +75,16 @@ public interface SMTPConfiguration extends ProtocolConfiguration {
 
     boolean isPlainAuthEnabled();
 
+    /**
+     * Return whether the CHUNKING extension (RFC 3030 BDAT command) is offered. This requires the transport to frame
+     * BDAT chunks by their announced size rather than by lines.
+     *
+     * @return true or false
+     */
+    default boolean isChunkingEnabled() {
+        return false;
+    }
+
     Optional<OidcSASLConfiguration> saslConfiguration();
 
 }
@@ -33,6 +33,7 @@ public class SMTPConfigurationImpl extends ProtocolConfigurationImpl implements
     private final long maxMessageSize = 0;
     private boolean bracketsEnforcement = true;
     private boolean enforceHeloEhlo = true;
+    private boolean chunkingEnabled = false;
 
     public SMTPConfigurationImpl() {
         super("JAMES SMTP Protocols Server");
@@ -80,6 +81,15 @@ public class SMTPConfigurationImpl extends ProtocolConfigurationImpl implements
         this.bracketsEnforcement = bracketsEnforcement;
     }
 
+    public void setChunkingEnabled(boolean chunkingEnabled) {
+        this.chunkingEnabled = chunkingEnabled;
+    }
+
+    @Override
+    public boolean isChunkingEnabled() {
+        return chunkingEnabled;
+    }
+
     @Override
     public boolean isPlainAuthEnabled() {
         return true;
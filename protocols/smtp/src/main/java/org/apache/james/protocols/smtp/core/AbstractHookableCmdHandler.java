@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 
@@ -41,11 +42,18 @@ import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookResultHook;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.util.MDCBuilder;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
  * Abstract class which Handle hook-aware CommanHandler.
+ *
+ * Hooks are evaluated reactively: hooks answering asynchronously, see {@link #callHookReactive},
+ * do not block the SMTP thread while the answer is computed.
  */
 public abstract class AbstractHookableCmdHandler<HookT extends org.apache.james.protocols.smtp.hook.Hook> implements CommandHandler<SMTPSession>, ExtensibleHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractHookableCmdHandler.class);
@@ -59,32 +67,39 @@ public abstract class AbstractHookableCmdHandler<HookT extends org.apache.james.
         this.metricFactory = metricFactory;
     }
 
+    /**
+     * Blocking counterpart of {@link #onCommandReactive(SMTPSession, Request)}, waiting for the hooks to answer.
+     *
+     * The {@link org.apache.james.protocols.api.handler.CommandDispatcher} relies on the reactive version: this
+     * method is only kept for callers expecting a synchronous answer, and must not be called from a netty IO thread.
+     */
     @Override
     public Response onCommand(SMTPSession session, Request request) {
-        TimeMetric timeMetric = timer(request);
+        return Mono.from(onCommandReactive(session, request)).block();
+    }
+
+    @Override
+    public Publisher<Response> onCommandReactive(SMTPSession session, Request request) {
         String command = request.getCommand();
         String parameters = request.getArgument();
 
+        return Mono.defer(() -> {
+            TimeMetric timeMetric = timer(request);
+            return Mono.justOrEmpty(withActionContext(command, () -> doFilterChecks(session, command, parameters)))
+                .switchIfEmpty(processHooks(session, command, parameters))
+                .switchIfEmpty(Mono.fromSupplier(() -> withActionContext(command, () -> doCoreCmd(session, command, parameters))))
+                .doFinally(any -> timeMetric.stopAndPublish());
+        });
+    }
+
+    private <T> T withActionContext(String command, Supplier<T> supplier) {
         try (Closeable closeable =
                  MDCBuilder.create()
                      .addToContext(MDCBuilder.ACTION, command)
                      .build()) {
-            Response response = doFilterChecks(session, command, parameters);
-            if (response == null) {
-
-                response = processHooks(session, command, parameters);
-                if (response == null) {
-                    return doCoreCmd(session, command, parameters);
-                } else {
-                    return response;
-                }
-            } else {
-                return response;
-            }
+            return supplier.get();
         } catch (IOException e) {
             throw new RuntimeException(e);
-        } finally {
-            timeMetric.stopAndPublish();
         }
     }
 
@@ -101,62 +116,62 @@ public abstract class AbstractHookableCmdHandler<HookT extends org.apache.james.
      *            the command
      * @param parameters
      *            the parameters
-     * @return SMTPResponse
+     * @return SMTPResponse of the first hook deciding on the command, empty if none did
      */
-    private Response processHooks(SMTPSession session, String command,
+    private Mono<Response> processHooks(SMTPSession session, String command,
             String parameters) {
-        List<HookT> hooks = getHooks();
-        if (hooks != null) {
-            int count = hooks.size();
-            int i = 0;
-            while (i < count) {
-                HookT rawHook = hooks.get(i);
-                LOGGER.debug("executing hook {}", rawHook.getClass().getName());
-                long start = System.currentTimeMillis();
-
-                HookResult hRes = callHook(rawHook, session, parameters);
-                long executionTime = System.currentTimeMillis() - start;
-
-                if (rHooks != null) {
-                    for (HookResultHook rHook : rHooks) {
-                        LOGGER.debug("executing hook {}", rHook);
-                        hRes = rHook.onHookResult(session, hRes, executionTime, rawHook);
+        return Mono.defer(() -> Optional.ofNullable(getHooks())
+            .map(hooks -> Flux.fromIterable(hooks)
+                .concatMap(rawHook -> processHook(session, command, parameters, rawHook))
+                .next())
+            .orElse(Mono.empty()));
+    }
+
+    private Mono<Response> processHook(SMTPSession session, String command, String parameters, HookT rawHook) {
+        return Mono.defer(() -> {
+            LOGGER.debug("executing hook {}", rawHook.getClass().getName());
+            long start = System.currentTimeMillis();
+
+            return Mono.from(callHookReactive(rawHook, session, parameters))
+                .flatMap(hRes -> Mono.justOrEmpty(withActionContext(command,
+                    () -> onHookResult(session, command, parameters, rawHook, hRes, System.currentTimeMillis() - start))));
+        });
+    }
+
+    private Response onHookResult(SMTPSession session, String command, String parameters, HookT rawHook, HookResult hRes, long executionTime) {
+        if (rHooks != null) {
+            for (HookResultHook rHook : rHooks) {
+                LOGGER.debug("executing hook {}", rHook);
+                hRes = rHook.onHookResult(session, hRes, executionTime, rawHook);
+            }
+        }
+
+        // call the core cmd if we receive a ok return code of the hook so no other hooks are executed
+        if (hRes.getResult().getAction() == HookReturnCode.Action.OK) {
+            final Response response = doCoreCmd(session, command, parameters);
+            if (hRes.getResult().isDisconnected()) {
+                return new Response() {
+
+                    @Override
+                    public boolean isEndSession() {
+                        return true;
                     }
-                }
 
-                // call the core cmd if we receive a ok return code of the hook so no other hooks are executed
-                if (hRes.getResult().getAction() == HookReturnCode.Action.OK) {
-                    final Response response = doCoreCmd(session, command, parameters);
-                    if (hRes.getResult().isDisconnected()) {
-                        return new Response() {
-
-                            @Override
-                            public boolean isEndSession() {
-                                return true;
-                            }
-
-                            @Override
-                            public String getRetCode() {
-                                return response.getRetCode();
-                            }
-
-                            @Override
-                            public List<CharSequence> getLines() {
-                                return response.getLines();
-                            }
-                        };
+                    @Override
+                    public String getRetCode() {
+                        return response.getRetCode();
                     }
-                    return response;
-                } else {
-                    SMTPResponse res = calcDefaultSMTPResponse(hRes);
-                    if (res != null) {
-                        return res;
+
+                    @Override
+                    public List<CharSequence> getLines() {
+                        return response.getLines();
                     }
-                }
-                i++;
+                };
             }
+            return response;
+        } else {
+            return calcDefaultSMTPResponse(hRes);
         }
-        return null;
     }
 
     /**
@@ -169,6 +184,20 @@ public abstract class AbstractHookableCmdHandler<HookT extends org.apache.james.
      */
     protected abstract HookResult callHook(HookT rawHook, SMTPSession session, String parameters);
 
+    /**
+     * Reactive counterpart of {@link #callHook}.
+     *
+     * Should be overridden by hookable cmd handlers whose hooks expose a reactive API.
+     *
+     * @param rawHook the hook
+     * @param session the session
+     * @param parameters the parameters
+     * @return the HookResult, will be calculated using HookResultToSMTPResponse.
+     */
+    protected Publisher<HookResult> callHookReactive(HookT rawHook, SMTPSession session, String parameters) {
+        return Mono.fromCallable(() -> callHook(rawHook, session, parameters));
+    }
+
     /**
      * Convert the HookResult to SMTPResponse using default values. Should be override for using own values
      * 
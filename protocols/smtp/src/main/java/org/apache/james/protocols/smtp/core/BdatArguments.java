@@ -0,0 +1,104 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Arguments of the BDAT command, see RFC 3030: <code>BDAT chunk-size [LAST]</code>
+ *
+ * Shared by the command handler and the transport, which needs to know how many octets follow the command line.
+ */
+public class BdatArguments {
+    public static final String COMMAND_NAME = "BDAT";
+
+    private static final String COMMAND_PREFIX = COMMAND_NAME + " ";
+    private static final Pattern ARGUMENTS = Pattern.compile("(\\d{1,18})(?:\\s+(LAST))?", Pattern.CASE_INSENSITIVE);
+
+    public static Optional<BdatArguments> parse(String argument) {
+        if (argument == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = ARGUMENTS.matcher(argument.trim());
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(new BdatArguments(Long.parseLong(matcher.group(1)), matcher.group(2) != null));
+    }
+
+    /**
+     * Parse a full command line, eg <code>BDAT 1000 LAST</code>.
+     *
+     * @return the arguments if the line is a valid BDAT command, empty otherwise
+     */
+    public static Optional<BdatArguments> parseCommandLine(String line) {
+        String trimmedLine = line.trim();
+        if (trimmedLine.length() <= COMMAND_PREFIX.length()
+            || !trimmedLine.substring(0, COMMAND_PREFIX.length()).toUpperCase(Locale.US).equals(COMMAND_PREFIX)) {
+            return Optional.empty();
+        }
+        return parse(trimmedLine.substring(COMMAND_PREFIX.length()));
+    }
+
+    private final long chunkSize;
+    private final boolean last;
+
+    public BdatArguments(long chunkSize, boolean last) {
+        this.chunkSize = chunkSize;
+        this.last = last;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof BdatArguments) {
+            BdatArguments that = (BdatArguments) o;
+
+            return Objects.equals(this.chunkSize, that.chunkSize)
+                && Objects.equals(this.last, that.last);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(chunkSize, last);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("chunkSize", chunkSize)
+            .add("last", last)
+            .toString();
+    }
+}
@@ -18,12 +18,16 @@
  ****************************************************************/
 package org.apache.james.protocols.smtp.core;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -43,23 +47,47 @@ import org.apache.james.protocols.smtp.MailEnvelopeImpl;
 import org.apache.james.protocols.smtp.SMTPResponse;
 import org.apache.james.protocols.smtp.SMTPRetCode;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.esmtp.ChunkingEsmtpExtension;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.util.MDCBuilder;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 
 /**
- * handles DATA command
+ * handles DATA and BDAT commands
+ *
+ * BDAT (RFC 3030) chunks are framed by the transport according to their announced size. The header section of the
+ * message still goes through the {@link DataLineFilter}s, line by line, while the body is written as is to the
+ * message storage, see {@link #getMessageOutputStream(SMTPSession)}.
  */
 public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataCmdHandler.class);
 
     private static final Response NO_RECIPIENT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT,DSNStatus.DELIVERY_OTHER) + " No recipients specified").immutable();
     private static final Response NO_SENDER = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT,DSNStatus.DELIVERY_OTHER) + " No sender specified").immutable();
     private static final Response UNEXPECTED_ARG = new SMTPResponse(SMTPRetCode.SYNTAX_ERROR_COMMAND_UNRECOGNIZED, DSNStatus.getStatus(DSNStatus.PERMANENT,DSNStatus.DELIVERY_INVALID_ARG) + " Unexpected argument provided with DATA command").immutable();
     private static final Response DATA_READY = new SMTPResponse(SMTPRetCode.DATA_READY, "Ok Send data ending with <CRLF>.<CRLF>").immutable();
-    private static final Collection<String> COMMANDS = ImmutableSet.of("DATA");
+    private static final Response CHUNKING_NOT_ENABLED = new SMTPResponse(SMTPRetCode.UNIMPLEMENTED_COMMAND, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_CMD) + " BDAT is not supported").immutable();
+    private static final Response INVALID_BDAT_ARGUMENTS = new SMTPResponse(SMTPRetCode.SYNTAX_ERROR_ARGUMENTS, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_ARG) + " Expecting BDAT chunk-size [LAST]").immutable();
+    private static final Response BINARYMIME_REQUIRES_BDAT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_CMD) + " BODY=BINARYMIME requires BDAT").immutable();
+    private static final Response BDAT_IN_PROGRESS = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_CMD) + " DATA can not be mixed with BDAT").immutable();
+    private static final Response MESSAGE_TOO_BIG = new SMTPResponse(SMTPRetCode.QUOTA_EXCEEDED, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SYSTEM_MSG_TOO_BIG) + " Message size exceeds fixed maximum message size").immutable();
+    private static final Response HEADER_LINE_TOO_LONG = new SMTPResponse(SMTPRetCode.TRANSACTION_FAILED, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.CONTENT_OTHER) + " Header line too long").immutable();
+    private static final Response CHUNK_STORAGE_ERROR = new SMTPResponse(SMTPRetCode.LOCAL_ERROR, DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.UNDEFINED_STATUS) + " Error processing message").immutable();
+    private static final Collection<String> COMMANDS = ImmutableSet.of("DATA", BdatArguments.COMMAND_NAME);
+    private static final ProtocolSession.AttachmentKey<ChunkedMessage> CHUNKED_MESSAGE = ProtocolSession.AttachmentKey.of("CHUNKED_MESSAGE", ChunkedMessage.class);
+    private static final byte[] DATA_TERMINATOR = ".\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    // Same limit than the line framing applied to DATA
+    private static final int MAX_HEADER_LINE_LENGTH = 8192;
 
     public static final class DataConsumerLineHandler implements LineHandler<SMTPSession> {
 
@@ -86,10 +114,95 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
         @Override
         public Response onLine(SMTPSession session, ByteBuffer line) {
             line.rewind();
-            return filter.onLine(session, line, next);
+            if (filter.acceptsBodyBlocks() || !isBlock(line)) {
+                return filter.onLine(session, line, next);
+            }
+            // Lines of the block are handed over one by one, the first response, if any, is kept
+            Response response = null;
+            for (ByteBuffer singleLine : splitLines(line)) {
+                Response lineResponse = filter.onLine(session, singleLine, next);
+                if (response == null) {
+                    response = lineResponse;
+                }
+            }
+            return response;
+        }
+
+        @Override
+        public Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer line) {
+            line.rewind();
+            if (filter.acceptsBodyBlocks() || !isBlock(line)) {
+                return filter.onLineReactive(session, line, next);
+            }
+            // Lines of the block are handed over one by one, the first response, if any, is kept
+            return Flux.fromIterable(splitLines(line))
+                .concatMap(singleLine -> filter.onLineReactive(session, singleLine, next))
+                .reduce((first, other) -> first);
         }
     }
    
+    /**
+     * State of a message being transferred with BDAT, across chunks
+     */
+    private static final class ChunkedMessage {
+        private final ByteArrayOutputStream pendingHeaderLine = new ByteArrayOutputStream();
+        private long receivedOctets = 0;
+        private boolean headersComplete = false;
+        private Optional<Response> failure = Optional.empty();
+    }
+
+    /**
+     * Consumes the octets of a BDAT chunk, as framed by the transport, then answers the BDAT command
+     */
+    private final class ChunkLineHandler implements LineHandler<SMTPSession> {
+        private final BdatArguments arguments;
+        private final Optional<Response> rejection;
+        private long remainingOctets;
+
+        private ChunkLineHandler(BdatArguments arguments, Optional<Response> rejection) {
+            this.arguments = arguments;
+            this.rejection = rejection;
+            this.remainingOctets = arguments.getChunkSize();
+        }
+
+        @Override
+        public Response onLine(SMTPSession session, ByteBuffer chunk) {
+            return Mono.from(onLineReactive(session, chunk)).block();
+        }
+
+        @Override
+        public Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer chunk) {
+            remainingOctets -= chunk.remaining();
+            if (!rejection.isPresent()) {
+                session.getAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction)
+                    .ifPresent(message -> append(session, message, chunk));
+            }
+            if (remainingOctets > 0) {
+                return Mono.empty();
+            }
+            session.popLineHandler();
+            return onChunkReceived(session);
+        }
+
+        private Publisher<Response> onChunkReceived(SMTPSession session) {
+            if (rejection.isPresent()) {
+                return Mono.just(rejection.get());
+            }
+            ChunkedMessage message = session.getAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction)
+                .orElseThrow(() -> new IllegalStateException("No message is being transferred with BDAT"));
+            if (message.failure.isPresent()) {
+                if (arguments.isLast()) {
+                    abortMessage(session);
+                }
+                return Mono.just(message.failure.get());
+            }
+            if (!arguments.isLast()) {
+                return Mono.just(new SMTPResponse(SMTPRetCode.MAIL_OK, DSNStatus.getStatus(DSNStatus.SUCCESS, DSNStatus.UNDEFINED_STATUS) + " " + arguments.getChunkSize() + " octets received"));
+            }
+            return completeMessage(session, message);
+        }
+    }
+
     public static final ProtocolSession.AttachmentKey<MailEnvelope> MAILENV = ProtocolSession.AttachmentKey.of("MAILENV", MailEnvelope.class);
 
     private final MetricFactory metricFactory;
@@ -106,6 +219,9 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
      */
     @Override
     public Response onCommand(SMTPSession session, Request request) {
+        if (BdatArguments.COMMAND_NAME.equals(request.getCommand())) {
+            return Mono.from(onCommandReactive(session, request)).block();
+        }
         TimeMetric timeMetric = metricFactory.timer("SMTP-" + request.getCommand());
         session.stopDetectingCommandInjection();
         try (Closeable closeable =
@@ -129,6 +245,15 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
     }
 
 
+    @Override
+    public Publisher<Response> onCommandReactive(SMTPSession session, Request request) {
+        if (BdatArguments.COMMAND_NAME.equals(request.getCommand())) {
+            return Mono.from(metricFactory.decoratePublisherWithTimerMetric("SMTP-" + request.getCommand(),
+                Mono.defer(() -> Mono.from(doBDAT(session, request.getArgument())))));
+        }
+        return Mono.fromCallable(() -> onCommand(session, request));
+    }
+
     /**
      * Handler method called upon receipt of a DATA command.
      * Reads in message data, creates header, and delivers to
@@ -137,14 +262,200 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
      * @param session SMTP session object
      * @param argument the argument passed in with the command by the SMTP client
      */
-    @SuppressWarnings("unchecked")
     protected Response doDATA(SMTPSession session, String argument) {
+        Response response = prepareMessageStorage(session);
+        if (response != null) {
+            return response;
+        }
+        session.pushLineHandler(lineHandler);
+        
+        return DATA_READY;
+    }
+
+    /**
+     * Handler method called upon receipt of a BDAT command.
+     *
+     * The response is only sent once the octets of the chunk have been consumed, even if the command is rejected.
+     *
+     * @param session SMTP session object
+     * @param argument the argument passed in with the command by the SMTP client
+     */
+    protected Publisher<Response> doBDAT(SMTPSession session, String argument) {
+        if (!session.getConfiguration().isChunkingEnabled()) {
+            return Mono.just(CHUNKING_NOT_ENABLED);
+        }
+        Optional<BdatArguments> arguments = BdatArguments.parse(argument);
+        if (!arguments.isPresent()) {
+            return Mono.just(INVALID_BDAT_ARGUMENTS);
+        }
+
+        Optional<Response> rejection = Optional.ofNullable(doBDATFilter(session));
+        if (!rejection.isPresent() && !session.getAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction).isPresent()) {
+            rejection = Optional.ofNullable(prepareMessageStorage(session));
+            if (!rejection.isPresent()) {
+                session.setAttachment(CHUNKED_MESSAGE, new ChunkedMessage(), ProtocolSession.State.Transaction);
+            }
+        }
+
+        ChunkLineHandler chunkLineHandler = new ChunkLineHandler(arguments.get(), rejection);
+        if (arguments.get().getChunkSize() == 0) {
+            return chunkLineHandler.onChunkReceived(session);
+        }
+        session.pushLineHandler(chunkLineHandler);
+        return Mono.empty();
+    }
+
+    /**
+     * Prepare the storage of the message content. Called once per message, before its first line or chunk is received.
+     *
+     * @param session SMTP session object
+     * @return a response if the message can not be received, null otherwise
+     */
+    protected Response prepareMessageStorage(SMTPSession session) {
         MaybeSender sender = session.getAttachment(SMTPSession.SENDER, ProtocolSession.State.Transaction).orElse(MaybeSender.nullSender());
         MailEnvelope env = createEnvelope(sender, session.getAttachment(SMTPSession.RCPT_LIST, ProtocolSession.State.Transaction).orElse(ImmutableList.of()));
         session.setAttachment(MAILENV, env, ProtocolSession.State.Transaction);
+        return null;
+    }
+
+    /**
+     * Return the stream BDAT message bodies are written to. It needs to be the one the {@link DataLineFilter}s write
+     * the message lines to.
+     */
+    protected OutputStream getMessageOutputStream(SMTPSession session) throws IOException {
+        MailEnvelope env = session.getAttachment(MAILENV, ProtocolSession.State.Transaction)
+            .orElseThrow(() -> new IOException("'" + MAILENV.asString() + "' has not been filled."));
+        return env.getMessageOutputStream();
+    }
+
+    /**
+     * Abort the message being transferred with BDAT, after a failure.
+     */
+    protected void abortMessage(SMTPSession session) {
+        session.resetState();
+    }
+
+    private void append(SMTPSession session, ChunkedMessage message, ByteBuffer chunk) {
+        if (message.failure.isPresent()) {
+            return;
+        }
+        message.receivedOctets += chunk.remaining();
+        long maxMessageSize = session.getConfiguration().getMaxMessageSize();
+        if (maxMessageSize > 0 && message.receivedOctets > maxMessageSize) {
+            message.failure = Optional.of(MESSAGE_TOO_BIG);
+            return;
+        }
+
+        try {
+            while (!message.headersComplete && chunk.hasRemaining()) {
+                Optional<byte[]> headerLine = readHeaderLine(message, chunk);
+                if (!headerLine.isPresent()) {
+                    if (message.pendingHeaderLine.size() > MAX_HEADER_LINE_LENGTH) {
+                        message.failure = Optional.of(HEADER_LINE_TOO_LONG);
+                    }
+                    return;
+                }
+                message.headersComplete = isEmptyLine(headerLine.get());
+                Response response = onHeaderLine(session, headerLine.get());
+                if (response != null) {
+                    message.failure = Optional.of(response);
+                    return;
+                }
+            }
+            if (chunk.hasRemaining()) {
+                writeBody(getMessageOutputStream(session), chunk);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to store BDAT chunk", e);
+            message.failure = Optional.of(CHUNK_STORAGE_ERROR);
+        }
+    }
+
+    private Optional<byte[]> readHeaderLine(ChunkedMessage message, ByteBuffer chunk) {
+        int end = chunk.position();
+        while (end < chunk.limit() && chunk.get(end) != '\n') {
+            end++;
+        }
+        boolean lineComplete = end < chunk.limit();
+        byte[] part = new byte[(lineComplete ? end + 1 : end) - chunk.position()];
+        chunk.get(part);
+        message.pendingHeaderLine.write(part, 0, part.length);
+        if (!lineComplete) {
+            return Optional.empty();
+        }
+        byte[] line = message.pendingHeaderLine.toByteArray();
+        message.pendingHeaderLine.reset();
+        return Optional.of(line);
+    }
+
+    private boolean isEmptyLine(byte[] line) {
+        return (line.length == 2 && line[0] == '\r') || line.length == 1;
+    }
+
+    private Response onHeaderLine(SMTPSession session, byte[] line) {
+        // DataLineFilters expect dot-stuffed lines
+        if (line.length > 0 && line[0] == '.') {
+            ByteBuffer stuffedLine = ByteBuffer.allocate(line.length + 1);
+            stuffedLine.put((byte) '.').put(line).flip();
+            return lineHandler.onLine(session, stuffedLine);
+        }
+        return lineHandler.onLine(session, ByteBuffer.wrap(line));
+    }
+
+    private void writeBody(OutputStream out, ByteBuffer chunk) throws IOException {
+        if (chunk.hasArray()) {
+            out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+        } else {
+            byte[] body = new byte[chunk.remaining()];
+            chunk.get(body);
+            out.write(body);
+        }
+    }
+
+    private static boolean isBlock(ByteBuffer lines) {
+        for (int i = lines.position(); i < lines.limit() - 1; i++) {
+            if (lines.get(i) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<ByteBuffer> splitLines(ByteBuffer lines) {
+        ImmutableList.Builder<ByteBuffer> result = ImmutableList.builder();
+        int lineStart = lines.position();
+        for (int i = lines.position(); i < lines.limit(); i++) {
+            if (lines.get(i) == '\n' || i == lines.limit() - 1) {
+                ByteBuffer line = lines.duplicate();
+                line.position(lineStart).limit(i + 1);
+                result.add(line.slice());
+                lineStart = i + 1;
+            }
+        }
+        return result.build();
+    }
+
+    private Publisher<Response> completeMessage(SMTPSession session, ChunkedMessage message) {
+        if (!message.headersComplete && message.pendingHeaderLine.size() > 0) {
+            message.pendingHeaderLine.write(CRLF, 0, CRLF.length);
+            Response response = onHeaderLine(session, message.pendingHeaderLine.toByteArray());
+            if (response != null) {
+                abortMessage(session);
+                return Mono.just(response);
+            }
+        }
+
+        // The DataLineFilters end the message upon the DATA terminator, and pop their line handler when done
+        int pushedLineHandlers = session.getPushedLineHandlerCount();
         session.pushLineHandler(lineHandler);
-        
-        return DATA_READY;
+        Runnable popLineHandler = () -> {
+            if (session.getPushedLineHandlerCount() > pushedLineHandlers) {
+                session.popLineHandler();
+            }
+        };
+        return Mono.from(lineHandler.onLineReactive(session, ByteBuffer.wrap(DATA_TERMINATOR)))
+            .doOnSuccess(any -> popLineHandler.run())
+            .doOnError(e -> popLineHandler.run());
     }
     
     protected MailEnvelope createEnvelope(MaybeSender sender, List<MailAddress> recipients) {
@@ -186,6 +497,19 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
         if ((argument != null) && (argument.length() > 0)) {
             return UNEXPECTED_ARG;
         }
+        if (!session.getAttachment(SMTPSession.SENDER, ProtocolSession.State.Transaction).isPresent()) {
+            return NO_SENDER;
+        } else if (!session.getAttachment(SMTPSession.RCPT_LIST, ProtocolSession.State.Transaction).isPresent()) {
+            return NO_RECIPIENT;
+        } else if (session.getAttachment(ChunkingEsmtpExtension.BINARYMIME, ProtocolSession.State.Transaction).isPresent()) {
+            return BINARYMIME_REQUIRES_BDAT;
+        } else if (session.getAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction).isPresent()) {
+            return BDAT_IN_PROGRESS;
+        }
+        return null;
+    }
+
+    protected Response doBDATFilter(SMTPSession session) {
         if (!session.getAttachment(SMTPSession.SENDER, ProtocolSession.State.Transaction).isPresent()) {
             return NO_SENDER;
         } else if (!session.getAttachment(SMTPSession.RCPT_LIST, ProtocolSession.State.Transaction).isPresent()) {
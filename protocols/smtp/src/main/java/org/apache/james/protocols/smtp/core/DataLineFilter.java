@@ -27,6 +27,9 @@ import org.apache.james.protocols.api.Response;
 import org.apache.james.protocols.api.handler.LineHandler;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * DataLineFilter are used to check the Data stream while the message is
@@ -38,4 +41,24 @@ public interface DataLineFilter extends ProtocolHandler {
      * Handle line processing
      */
     Response onLine(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next);
+
+    /**
+     * Reactive counterpart of {@link #onLine(SMTPSession, ByteBuffer, LineHandler)}.
+     *
+     * Filters forwarding lines to the next {@link LineHandler} should rely on {@link LineHandler#onLineReactive} so
+     * that the end of the message can be processed asynchronously.
+     */
+    default Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+        return Mono.fromCallable(() -> onLine(session, line, next));
+    }
+
+    /**
+     * Once the message headers are received, the transport can hand over message body lines by blocks of several
+     * complete lines, to save per line processing.
+     *
+     * Filters returning false, the default, are handed over body lines one by one.
+     */
+    default boolean acceptsBodyBlocks() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -40,9 +40,13 @@ import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookResultHook;
 import org.apache.james.protocols.smtp.hook.MessageHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
  * This class handles the actual calling of the {@link MessageHook} implementations to queue the message. If no {@link MessageHook} return OK or DECLINED it will write back an
  * error to the client to report the problem while trying to queue the message
@@ -59,6 +63,16 @@ public class DataLineMessageHookHandler implements DataLineFilter, ExtensibleHan
 
     @Override
     public Response onLine(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+        return Mono.from(onLineReactive(session, line, next)).block();
+    }
+
+    @Override
+    public boolean acceptsBodyBlocks() {
+        return true;
+    }
+
+    @Override
+    public Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
         MailEnvelope env = session.getAttachment(DataCmdHandler.MAILENV, ProtocolSession.State.Transaction)
             .orElseThrow(() -> new RuntimeException("'" + DataCmdHandler.MAILENV.asString() + "' has not been filled."));
 
@@ -71,30 +85,25 @@ public class DataLineMessageHookHandler implements DataLineFilter, ExtensibleHan
                 out.flush();
                 out.close();
                 
-                Response response = processExtensions(session, env);
-                session.popLineHandler();
-                session.resetState();
-                return response;
+                return Mono.from(processExtensionsReactive(session, env))
+                    .doOnSuccess(any -> {
+                        session.popLineHandler();
+                        session.resetState();
+                    });
                 
-            // DotStuffing.
-            } else if (c == 46 && line.get() == 46) {
-                byte[] bline = readBytes(line);
-                out.write(bline,1,bline.length - 1);
-            // Standard write
+            // Lines, possibly a block of body lines
             } else {
-                // TODO: maybe we should handle the Header/Body recognition here
-                // and if needed let a filter to cache the headers to apply some
-                // transformation before writing them to output.
-                out.write(readBytes(line));
+                line.rewind();
+                DotStuffing.writeUnstuffed(line, out);
             }
             out.flush();
         } catch (IOException e) {
             LOGGER.error("Unknown error occurred while processing DATA.", e);
             
             session.resetState();
-            return ERROR_PROCESSING_MESSAGE;
+            return Mono.just(ERROR_PROCESSING_MESSAGE);
         }
-        return null;
+        return Mono.empty();
     }
 
     private OutputStream getMessageOutputStream(MailEnvelope env) {
@@ -105,51 +114,48 @@ public class DataLineMessageHookHandler implements DataLineFilter, ExtensibleHan
         }
     }
 
-    private byte[] readBytes(ByteBuffer line) {
-        line.rewind();
-        byte[] bline;
-        if (line.hasArray()) {
-            bline = line.array();
-        } else {
-            bline = new byte[line.remaining()];
-            line.get(bline);
-        }
-        return bline;
-    }
-
     protected Response processExtensions(SMTPSession session, MailEnvelope mail) {
-       
+        return Mono.from(processExtensionsReactive(session, mail)).block();
+    }
 
+    /**
+     * Reactive counterpart of {@link #processExtensions(SMTPSession, MailEnvelope)}: {@link MessageHook}s are given a
+     * chance to answer asynchronously, see {@link MessageHook#onMessageReactive(SMTPSession, MailEnvelope)}.
+     */
+    protected Publisher<Response> processExtensionsReactive(SMTPSession session, MailEnvelope mail) {
         if (messageHandlers != null) {
-            for (Object messageHandler : messageHandlers) {
-                MessageHook rawHandler = (MessageHook) messageHandler;
-                LOGGER.debug("executing message handler {}", rawHandler);
-
-                long start = System.currentTimeMillis();
-                HookResult hRes = rawHandler.onMessage(session, mail);
-                long executionTime = System.currentTimeMillis() - start;
-
-                if (rHooks != null) {
-                    for (Object rHook : rHooks) {
-                        LOGGER.debug("executing hook {}", rHook);
-                        hRes = ((HookResultHook) rHook).onHookResult(session, hRes, executionTime, rawHandler);
-                    }
-                }
-
-                SMTPResponse response = AbstractHookableCmdHandler.calcDefaultSMTPResponse(hRes);
-
+            return Flux.fromIterable(messageHandlers)
+                .concatMap(messageHandler -> executeMessageHook(session, mail, (MessageHook) messageHandler))
                 // if the response is received, stop processing of command
                 // handlers
-                if (response != null) {
-                    return response;
-                }
-            }
-
-            // Not queue the message!
-            return AbstractHookableCmdHandler.calcDefaultSMTPResponse(HookResult.DECLINED);
+                .next()
+                // Not queue the message!
+                .switchIfEmpty(Mono.fromSupplier(() -> AbstractHookableCmdHandler.calcDefaultSMTPResponse(HookResult.DECLINED)));
         }
         
-        return null;
+        return Mono.empty();
+    }
+
+    private Mono<Response> executeMessageHook(SMTPSession session, MailEnvelope mail, MessageHook rawHandler) {
+        return Mono.defer(() -> {
+            LOGGER.debug("executing message handler {}", rawHandler);
+
+            long start = System.currentTimeMillis();
+            return Mono.from(rawHandler.onMessageReactive(session, mail))
+                .flatMap(result -> {
+                    long executionTime = System.currentTimeMillis() - start;
+
+                    HookResult hRes = result;
+                    if (rHooks != null) {
+                        for (Object rHook : rHooks) {
+                            LOGGER.debug("executing hook {}", rHook);
+                            hRes = ((HookResultHook) rHook).onHookResult(session, hRes, executionTime, rawHandler);
+                        }
+                    }
+
+                    return Mono.justOrEmpty(AbstractHookableCmdHandler.calcDefaultSMTPResponse(hRes));
+                });
+        });
     }
 
     @Override
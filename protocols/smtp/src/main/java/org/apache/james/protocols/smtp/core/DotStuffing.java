@@ -0,0 +1,80 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Removes the dot stuffing (RFC 5321 section 4.5.2) of message lines received with DATA.
+ */
+public final class DotStuffing {
+    private static final byte DOT = '.';
+    private static final byte LF = '\n';
+
+    private DotStuffing() {
+    }
+
+    /**
+     * Write the given lines to the output stream, without their dot stuffing.
+     *
+     * The buffer can hold a single line or a block of several complete lines. Data is written directly from the buffer
+     * whenever it is backed by an array, without intermediate copies.
+     */
+    public static void writeUnstuffed(ByteBuffer lines, OutputStream out) throws IOException {
+        int segmentStart = lines.position();
+        int lineStart = segmentStart;
+        int limit = lines.limit();
+        while (lineStart < limit) {
+            if (lineStart + 1 < limit && lines.get(lineStart) == DOT && lines.get(lineStart + 1) == DOT) {
+                write(lines, segmentStart, lineStart, out);
+                segmentStart = lineStart + 1;
+            }
+            lineStart = nextLineStart(lines, lineStart, limit);
+        }
+        write(lines, segmentStart, limit, out);
+        lines.position(limit);
+    }
+
+    private static int nextLineStart(ByteBuffer lines, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (lines.get(i) == LF) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static void write(ByteBuffer lines, int from, int to, OutputStream out) throws IOException {
+        int length = to - from;
+        if (length <= 0) {
+            return;
+        }
+        if (lines.hasArray()) {
+            out.write(lines.array(), lines.arrayOffset() + from, length);
+        } else {
+            byte[] bytes = new byte[length];
+            ByteBuffer duplicate = lines.duplicate();
+            duplicate.position(from);
+            duplicate.get(bytes);
+            out.write(bytes);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HeloHook;
 import org.apache.james.protocols.smtp.hook.HookResult;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -98,5 +99,10 @@ public class HeloCmdHandler extends AbstractHookableCmdHandler<HeloHook> {
         return rawHook.doHelo(session, parameters);
     }
 
+    @Override
+    protected Publisher<HookResult> callHookReactive(HeloHook rawHook, SMTPSession session, String parameters) {
+        return rawHook.doHeloReactive(session, parameters);
+    }
+
 
 }
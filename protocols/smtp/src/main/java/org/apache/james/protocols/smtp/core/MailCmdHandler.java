@@ -42,11 +42,14 @@ import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.MailHook;
 import org.apache.james.protocols.smtp.hook.MailParametersHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Mono;
+
 /**
  * Handles MAIL command
  */
@@ -82,15 +85,15 @@ public class MailCmdHandler extends AbstractHookableCmdHandler<MailHook> {
     }
 
     @Override
-    public Response onCommand(SMTPSession session, Request request) {
-        Response response = super.onCommand(session, request);
-        // Check if the response was not ok
-        if (response.getRetCode().equals(SMTPRetCode.MAIL_OK) == false) {
-            // cleanup the session
-            session.removeAttachment(SMTPSession.SENDER, State.Transaction);
-        }
-
-        return response;
+    public Publisher<Response> onCommandReactive(SMTPSession session, Request request) {
+        return Mono.from(super.onCommandReactive(session, request))
+            .doOnNext(response -> {
+                // Check if the response was not ok
+                if (response.getRetCode().equals(SMTPRetCode.MAIL_OK) == false) {
+                    // cleanup the session
+                    session.removeAttachment(SMTPSession.SENDER, State.Transaction);
+                }
+            });
     }
 
     /**
@@ -249,6 +252,12 @@ public class MailCmdHandler extends AbstractHookableCmdHandler<MailHook> {
         MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
         return rawHook.doMail(session, sender);
     }
+
+    @Override
+    protected Publisher<HookResult> callHookReactive(MailHook rawHook, SMTPSession session, String parameters) {
+        MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
+        return rawHook.doMailReactive(session, sender);
+    }
     
     @Override
     public List<Class<?>> getMarkerInterfaces() {
@@ -42,6 +42,7 @@ import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.RcptHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -222,6 +223,15 @@ public class RcptCmdHandler extends AbstractHookableCmdHandler<RcptHook> impleme
         return rawHook.doRcpt(session, sender, rcpt, parameters);
     }
 
+    @Override
+    protected Publisher<HookResult> callHookReactive(RcptHook rawHook, SMTPSession session, String parametersString) {
+        MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
+        Map<String, String> parameters = parseParameters(parametersString);
+        MailAddress rcpt = session.getAttachment(CURRENT_RECIPIENT, State.Transaction).orElse(MailAddress.nullSender());
+
+        return rawHook.doRcptReactive(session, sender, rcpt, parameters);
+    }
+
     private Map<String, String> parseParameters(String rcptOptions) {
         return Splitter.on(' ').splitToList(rcptOptions)
             .stream()
@@ -151,6 +151,12 @@ public class ReceivedDataLineFilter extends SeparatingDataLineFilter {
         return super.onHeadersLine(session, line, next);
     }
 
+    @Override
+    public boolean acceptsBodyBlocks() {
+        // Body lines are forwarded untouched
+        return true;
+    }
+
     /**
      * Add headers to the message
      *
@@ -25,6 +25,9 @@ import org.apache.james.protocols.api.ProtocolSession.State;
 import org.apache.james.protocols.api.Response;
 import org.apache.james.protocols.api.handler.LineHandler;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Abstract base class which makes it easier to handles lines be providing one method per message part.
@@ -43,6 +46,10 @@ import org.apache.james.protocols.smtp.SMTPSession;
  * {@link #onSeparatorLine(SMTPSession, ByteBuffer, LineHandler)}</br>
  * {@link #onBodyLine(SMTPSession, ByteBuffer, LineHandler)}</br>
  * 
+ * Body lines, including the end of the message, are processed through
+ * {@link #onBodyLineReactive(SMTPSession, ByteBuffer, LineHandler)} when lines are handled reactively: subclasses
+ * overriding {@link #onBodyLine(SMTPSession, ByteBuffer, LineHandler)} need to override it as well.
+ * 
  *
  */
 public abstract class SeparatingDataLineFilter implements DataLineFilter {
@@ -66,6 +73,14 @@ public abstract class SeparatingDataLineFilter implements DataLineFilter {
         
         return onBodyLine(session, line, next);
     }
+
+    @Override
+    public final Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+        if (session.getAttachment(HEADERS_COMPLETE, State.Transaction).isPresent()) {
+            return onBodyLineReactive(session, line, next);
+        }
+        return Mono.fromCallable(() -> onLine(session, line, next));
+    }
     
     /**
      * Gets called when the separating line is received. This is the CLRF sequence. 
@@ -108,4 +123,18 @@ public abstract class SeparatingDataLineFilter implements DataLineFilter {
     protected Response onBodyLine(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
         return next.onLine(session, line);
     }
+
+    /**
+     * Reactive counterpart of {@link #onBodyLine(SMTPSession, ByteBuffer, LineHandler)}.
+     * 
+     * This implementation just calls {@link LineHandler#onLineReactive(org.apache.james.protocols.api.ProtocolSession, ByteBuffer)} but subclasses should override it if needed.
+     * 
+     * @param session
+     * @param line
+     * @param next
+     * @return response
+     */
+    protected Publisher<Response> onBodyLineReactive(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+        return next.onLineReactive(session, line);
+    }
 }
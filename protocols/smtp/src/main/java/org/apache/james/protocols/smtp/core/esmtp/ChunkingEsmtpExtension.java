@@ -0,0 +1,83 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core.esmtp;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.james.protocols.api.ProtocolSession;
+import org.apache.james.protocols.api.ProtocolSession.State;
+import org.apache.james.protocols.smtp.SMTPRetCode;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.apache.james.protocols.smtp.hook.HookResult;
+import org.apache.james.protocols.smtp.hook.HookReturnCode;
+import org.apache.james.protocols.smtp.hook.MailParametersHook;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Handle the ESMTP CHUNKING and BINARYMIME extensions (RFC 3030).
+ *
+ * The BDAT command itself is handled by {@link org.apache.james.protocols.smtp.core.DataCmdHandler}. This extension
+ * advertises it and validates the BODY parameter of the MAIL command.
+ */
+public class ChunkingEsmtpExtension implements MailParametersHook, EhloExtension {
+
+    public static final ProtocolSession.AttachmentKey<Boolean> BINARYMIME = ProtocolSession.AttachmentKey.of("BINARYMIME", Boolean.class);
+
+    private static final String[] MAIL_PARAMS = { "BODY" };
+    private static final String SEVEN_BIT = "7BIT";
+    private static final String EIGHT_BIT_MIME = "8BITMIME";
+    private static final String BINARY_MIME = "BINARYMIME";
+    private static final List<String> FEATURES = ImmutableList.of("CHUNKING", BINARY_MIME);
+
+    private static final HookResult SYNTAX_ERROR = HookResult.builder()
+        .hookReturnCode(HookReturnCode.deny())
+        .smtpReturnCode(SMTPRetCode.SYNTAX_ERROR_ARGUMENTS)
+        .smtpDescription(DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_ARG) + " Unsupported value for BODY parameter")
+        .build();
+
+    @Override
+    public HookResult doMailParameter(SMTPSession session, String paramName, String paramValue) {
+        String body = paramValue.toUpperCase(Locale.US);
+        if (body.equals(SEVEN_BIT) || body.equals(EIGHT_BIT_MIME)) {
+            return null;
+        }
+        if (body.equals(BINARY_MIME) && session.getConfiguration().isChunkingEnabled()) {
+            // Only BDAT can transfer binary content, see DataCmdHandler
+            session.setAttachment(BINARYMIME, true, State.Transaction);
+            return null;
+        }
+        return SYNTAX_ERROR;
+    }
+
+    @Override
+    public String[] getMailParamNames() {
+        return MAIL_PARAMS;
+    }
+
+    @Override
+    public List<String> getImplementedEsmtpFeatures(SMTPSession session) {
+        if (session.getConfiguration().isChunkingEnabled()) {
+            return FEATURES;
+        }
+        return ImmutableList.of();
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.james.protocols.smtp.core.AbstractHookableCmdHandler;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HeloHook;
 import org.apache.james.protocols.smtp.hook.HookResult;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -155,6 +156,11 @@ public class EhloCmdHandler extends AbstractHookableCmdHandler<HeloHook> impleme
         return rawHook.doHelo(session, parameters);
     }
 
+    @Override
+    protected Publisher<HookResult> callHookReactive(HeloHook rawHook, SMTPSession session, String parameters) {
+        return rawHook.doHeloReactive(session, parameters);
+    }
+
 
 
     @Override
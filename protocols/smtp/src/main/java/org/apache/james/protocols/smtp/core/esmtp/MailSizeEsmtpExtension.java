@@ -40,9 +40,12 @@ import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.hook.MailParametersHook;
 import org.apache.james.protocols.smtp.hook.MessageHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Mono;
+
 /**
  * Handle the ESMTP SIZE extension.
  */
@@ -176,6 +179,25 @@ public class MailSizeEsmtpExtension implements MailParametersHook, EhloExtension
         }
     }
 
+    @Override
+    public Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+        boolean terminated = isDataTerminated(line);
+        line.rewind();
+        if (!terminated) {
+            return Mono.fromCallable(() -> onLine(session, line, next));
+        }
+        if (session.getAttachment(MESG_FAILED, State.Transaction).orElse(false)) {
+            return Mono.from(next.onLineReactive(session, line))
+                .then(Mono.just(new SMTPResponse(SMTPRetCode.QUOTA_EXCEEDED, "Quota exceeded")));
+        }
+        return next.onLineReactive(session, line);
+    }
+
+    @Override
+    public boolean acceptsBodyBlocks() {
+        return true;
+    }
+
     private boolean isDataTerminated(ByteBuffer line) {
         return line.remaining() == SINGLE_CHARACTER_LINE && line.get() == DOT_BYTE;
     }
@@ -22,6 +22,7 @@ package org.apache.james.protocols.smtp.core.fastfail;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Iterator;
+import java.util.Map;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.MaybeSender;
@@ -31,9 +32,11 @@ import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.hook.RcptHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+
 /**
  * Abstract base class which implement GreyListing.
  */
@@ -214,4 +217,9 @@ public abstract class AbstractGreylistHandler implements RcptHook {
         }
         return HookResult.DECLINED;
     }
+
+    @Override
+    public Publisher<HookResult> doRcptReactive(SMTPSession session, MaybeSender sender, MailAddress rcpt, Map<String, String> parameters) {
+        return BlockingLookups.lookup(() -> doRcpt(session, sender, rcpt, parameters));
+    }
 }
@@ -19,6 +19,8 @@
 
 package org.apache.james.protocols.smtp.core.fastfail;
 
+import java.util.Map;
+
 import org.apache.james.core.Domain;
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.MaybeSender;
@@ -28,9 +30,11 @@ import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.hook.RcptHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+
 /**
  * Handler which want to do a recipient check should extend this
  */
@@ -57,6 +61,11 @@ public abstract class AbstractValidRcptHandler implements RcptHook {
         }
     }
 
+    @Override
+    public Publisher<HookResult> doRcptReactive(SMTPSession session, MaybeSender sender, MailAddress rcpt, Map<String, String> parameters) {
+        return BlockingLookups.lookup(() -> doRcpt(session, sender, rcpt, parameters));
+    }
+
     public HookResult reject(MailAddress rcpt) {
         LOGGER.info("Rejected message. Unknown user: {}", rcpt);
         return HookResult.builder()
@@ -0,0 +1,48 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core.fastfail;
+
+import java.util.concurrent.Callable;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the blocking lookups of fast fail handlers (DNS, greylist storage, recipient repositories...) so that they do
+ * not hold the SMTP threads while waiting for an answer.
+ *
+ * The lookups of every SMTP server share a bounded pool, whose size can be tuned through the
+ * <code>james.smtp.blocking.lookups.threads</code> and <code>james.smtp.blocking.lookups.queue.size</code> system
+ * properties.
+ */
+public class BlockingLookups {
+    private static final int TTL_SECONDS = 60;
+    private static final Scheduler SCHEDULER = Schedulers.newBoundedElastic(
+        Integer.getInteger("james.smtp.blocking.lookups.threads", Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE),
+        Integer.getInteger("james.smtp.blocking.lookups.queue.size", Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE),
+        "smtp-blocking-lookups",
+        TTL_SECONDS,
+        true);
+
+    public static <T> Mono<T> lookup(Callable<T> blockingLookup) {
+        return Mono.fromCallable(blockingLookup)
+            .subscribeOn(SCHEDULER);
+    }
+}
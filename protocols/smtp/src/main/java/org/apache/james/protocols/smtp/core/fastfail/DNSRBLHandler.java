@@ -20,8 +20,10 @@ package org.apache.james.protocols.smtp.core.fastfail;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.StringTokenizer;
 
@@ -34,15 +36,21 @@ import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.hook.RcptHook;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
   * Connect handler for DNSRBL processing
   */
 public class DNSRBLHandler implements RcptHook {
     private static final Logger LOGGER = LoggerFactory.getLogger(DNSRBLHandler.class);
 
+    public static final Duration DEFAULT_LOOKUP_TIMEOUT = Duration.ofSeconds(10);
+
     /**
      * The lists of rbl servers to be checked to limit spam
      */
@@ -50,6 +58,8 @@ public class DNSRBLHandler implements RcptHook {
     private String[] blacklist;
         
     private boolean getDetail = false;
+
+    private Duration lookupTimeout = DEFAULT_LOOKUP_TIMEOUT;
     
     public static final ProtocolSession.AttachmentKey<Boolean> RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME = ProtocolSession.AttachmentKey.of("org.apache.james.smtpserver.rbl.blocklisted", Boolean.class);
     
@@ -97,6 +107,15 @@ public class DNSRBLHandler implements RcptHook {
         this.getDetail = getDetail;
     }
 
+    /**
+     * Set the maximum time to wait for the RBL lookups of a connection.
+     *
+     * @param lookupTimeout Lists not answering within this delay are considered as not listing the connection
+     */
+    public void setLookupTimeout(Duration lookupTimeout) {
+        this.lookupTimeout = lookupTimeout;
+    }
+
     /**
      *
      * This checks DNSRBL whitelists and blacklists.  If the remote IP is whitelisted
@@ -105,71 +124,100 @@ public class DNSRBLHandler implements RcptHook {
      * abuse (RFC 2142), unless authenticated.
      */
     public void checkDNSRBL(SMTPSession session, String ipAddress) {
-        
+        checkDNSRBLReactive(session, ipAddress).block();
+    }
+
+    private Mono<Void> checkDNSRBLReactive(SMTPSession session, String ipAddress) {
         /*
          * don't check against rbllists if the client is allowed to relay..
          * This whould make no sense.
          */
         if (session.isRelayingAllowed()) {
             LOGGER.info("Ipaddress {} is allowed to relay. Don't check it", session.getRemoteAddress().getAddress());
-            return;
+            return Mono.empty();
         }
         
-        if (whitelist != null || blacklist != null) {
-            StringBuilder sb = new StringBuilder();
-            StringTokenizer st = new StringTokenizer(ipAddress, " .", false);
-            while (st.hasMoreTokens()) {
-                sb.insert(0, st.nextToken() + ".");
-            }
-            String reversedOctets = sb.toString();
-
-            if (whitelist != null) {
-                String[] rblList = whitelist;
-                for (String rbl : rblList) {
-                    if (resolve(reversedOctets + rbl)) {
-                        LOGGER.info("Connection from {} whitelisted by {}", ipAddress, rbl);
-                        return;
-                    } else {
-                        LOGGER.debug("IpAddress {} not listed on {}", session.getRemoteAddress().getAddress(), rbl);
-                    }
-                }
-            }
+        if (whitelist == null && blacklist == null) {
+            return Mono.empty();
+        }
 
-            if (blacklist != null) {
-                String[] rblList = blacklist;
-                for (String rbl : rblList) {
-                    if (resolve(reversedOctets + rbl)) {
-                        LOGGER.info("Connection from {} restricted by {} to SMTP AUTH/postmaster/abuse.", ipAddress, rbl);
+        StringBuilder sb = new StringBuilder();
+        StringTokenizer st = new StringTokenizer(ipAddress, " .", false);
+        while (st.hasMoreTokens()) {
+            sb.insert(0, st.nextToken() + ".");
+        }
+        String reversedOctets = sb.toString();
 
-                        // we should try to retrieve details
-                        if (getDetail) {
-                            Collection<String> txt = resolveTXTRecords(reversedOctets + rbl);
+        // Query all lists concurrently: latency is bounded by the slowest list rather than by their sum
+        return Mono.zip(
+                firstListing(whitelist, reversedOctets, session),
+                firstListing(blacklist, reversedOctets, session))
+            .flatMap(listings -> {
+                Optional<String> whitelistedBy = listings.getT1();
+                if (whitelistedBy.isPresent()) {
+                    LOGGER.info("Connection from {} whitelisted by {}", ipAddress, whitelistedBy.get());
+                    return Mono.empty();
+                }
 
-                            // Check if we found a txt record
-                            if (!txt.isEmpty()) {
-                                // Set the detail
-                                String blocklistedDetail = txt.iterator().next().toString();
+                return Mono.justOrEmpty(listings.getT2())
+                    .flatMap(rbl -> {
+                        LOGGER.info("Connection from {} restricted by {} to SMTP AUTH/postmaster/abuse.", ipAddress, rbl);
 
-                                session.setAttachment(RBL_DETAIL_MAIL_ATTRIBUTE_NAME, blocklistedDetail, State.Connection);
-                            }
-                        }
+                        return retrieveDetail(reversedOctets + rbl)
+                            .doOnNext(blocklistedDetail -> session.setAttachment(RBL_DETAIL_MAIL_ATTRIBUTE_NAME, blocklistedDetail, State.Connection))
+                            .then(Mono.fromRunnable(() -> session.setAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, true, State.Connection)));
+                    });
+            })
+            .then();
+    }
 
-                        session.setAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, true, State.Connection);
-                        return;
-                    } else {
-                        // if it is unknown, it isn't blocked
-                        LOGGER.debug("unknown host exception thrown: {}", rbl);
-                    }
+    /**
+     * Retrieves the first TXT record of the listing, when details are requested.
+     */
+    private Mono<String> retrieveDetail(String listing) {
+        if (!getDetail) {
+            return Mono.empty();
+        }
+        return BlockingLookups.lookup(() -> resolveTXTRecords(listing))
+            .flatMap(txt -> Mono.justOrEmpty(txt.stream().findFirst()));
+    }
 
-                }
-            }
+    /**
+     * Resolve the given address against all the lists in parallel, on the blocking lookups scheduler.
+     *
+     * @return the first list, in configuration order, the address is listed on. Lists not answering before the
+     * lookup timeout are considered as not listing the address.
+     */
+    private Mono<Optional<String>> firstListing(String[] rblList, String reversedOctets, SMTPSession session) {
+        if (rblList == null) {
+            return Mono.just(Optional.empty());
         }
+        return Flux.fromArray(rblList)
+            .flatMapSequential(rbl -> BlockingLookups.lookup(() -> resolve(reversedOctets + rbl))
+                .filter(listed -> {
+                    if (!listed) {
+                        LOGGER.debug("IpAddress {} not listed on {}", session.getRemoteAddress().getAddress(), rbl);
+                    }
+                    return listed;
+                })
+                .map(listed -> rbl))
+            .next()
+            .map(Optional::of)
+            .timeout(lookupTimeout, Mono.fromCallable(() -> {
+                LOGGER.warn("DNSRBL lookups for {} did not complete within {}, considering it as not listed", reversedOctets, lookupTimeout);
+                return Optional.empty();
+            }))
+            .defaultIfEmpty(Optional.empty());
     }
     
     @Override
     public HookResult doRcpt(SMTPSession session, MaybeSender sender, MailAddress rcpt) {
         checkDNSRBL(session, session.getRemoteAddress().getAddress().getHostAddress());
-    
+
+        return computeHookResult(session);
+    }
+
+    private HookResult computeHookResult(SMTPSession session) {
         if (!session.isRelayingAllowed()) {
             Optional<Boolean> blocklisted = session.getAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, State.Connection);
             Optional<String> blocklistedDetail = session.getAttachment(RBL_DETAIL_MAIL_ATTRIBUTE_NAME, State.Connection);
@@ -195,6 +243,12 @@ public class DNSRBLHandler implements RcptHook {
         return HookResult.DECLINED;
     }
 
+    @Override
+    public Publisher<HookResult> doRcptReactive(SMTPSession session, MaybeSender sender, MailAddress rcpt, Map<String, String> parameters) {
+        return checkDNSRBLReactive(session, session.getRemoteAddress().getAddress().getHostAddress())
+            .then(Mono.fromCallable(() -> computeHookResult(session)));
+    }
+
     /**
      * Check if the given ipaddress is resolvable. 
      * 
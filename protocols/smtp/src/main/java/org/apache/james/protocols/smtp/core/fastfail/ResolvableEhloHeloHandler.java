@@ -33,6 +33,8 @@ import org.apache.james.protocols.smtp.hook.HeloHook;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.hook.RcptHook;
+import org.reactivestreams.Publisher;
+
 
 
 /**
@@ -97,4 +99,9 @@ public class ResolvableEhloHeloHandler implements RcptHook, HeloHook {
         return HookResult.DECLINED;
     }
 
+    @Override
+    public Publisher<HookResult> doHeloReactive(SMTPSession session, String helo) {
+        return BlockingLookups.lookup(() -> doHelo(session, helo));
+    }
+
 }
@@ -25,6 +25,8 @@ import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.hook.MailHook;
+import org.reactivestreams.Publisher;
+
 
 /**
  * Add MFDNSCheck feature to SMTPServer. This handler reject mail from domains which have not an an valid MX record.
@@ -45,5 +47,10 @@ public abstract class ValidSenderDomainHandler implements MailHook {
         }
     }
     
+    @Override
+    public Publisher<HookResult> doMailReactive(SMTPSession session, MaybeSender sender) {
+        return BlockingLookups.lookup(() -> doMail(session, sender));
+    }
+
     protected abstract boolean hasMXRecord(SMTPSession session, String domain);
 }
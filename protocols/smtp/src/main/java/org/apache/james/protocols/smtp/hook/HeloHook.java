@@ -22,9 +22,12 @@ package org.apache.james.protocols.smtp.hook;
 import java.util.Set;
 
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Mono;
+
 /**
  * Implement this interfaces to hook in the HELO Command
  */
@@ -44,4 +47,18 @@ public interface HeloHook extends Hook {
      * @return HockResult
      */
     HookResult doHelo(SMTPSession session, String helo);
+
+    /**
+     * Reactive counterpart of {@link #doHelo(SMTPSession, String)}.
+     *
+     * Hooks relying on remote lookups should override it in order not to block the SMTP thread while waiting for
+     * the answer.
+     *
+     * @param session the SMTPSession
+     * @param helo the helo name
+     * @return HookResult
+     */
+    default Publisher<HookResult> doHeloReactive(SMTPSession session, String helo) {
+        return Mono.fromCallable(() -> doHelo(session, helo));
+    }
 }
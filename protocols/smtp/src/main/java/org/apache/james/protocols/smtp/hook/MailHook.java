@@ -22,6 +22,9 @@ package org.apache.james.protocols.smtp.hook;
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.MaybeSender;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Implement this interfaces to hook in the MAIL Command
@@ -53,4 +56,14 @@ public interface MailHook extends Hook {
     default HookResult doMail(SMTPSession session, MaybeSender sender) {
         return doMail(session, sender.asOptional().orElse(MailAddress.nullSender()));
     }
+
+    /**
+     * Reactive counterpart of {@link #doMail(SMTPSession, MaybeSender)}.
+     *
+     * Hooks relying on remote lookups should override it in order not to block the SMTP thread while waiting for
+     * the answer.
+     */
+    default Publisher<HookResult> doMailReactive(SMTPSession session, MaybeSender sender) {
+        return Mono.fromCallable(() -> doMail(session, sender));
+    }
 }
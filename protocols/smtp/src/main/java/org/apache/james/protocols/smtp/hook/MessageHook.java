@@ -20,6 +20,9 @@ package org.apache.james.protocols.smtp.hook;
 
 import org.apache.james.protocols.smtp.MailEnvelope;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Custom message handlers must implement this interface The message hooks will
@@ -32,4 +35,13 @@ public interface MessageHook extends Hook {
      */
     HookResult onMessage(SMTPSession session, MailEnvelope mail);
 
+    /**
+     * Reactive counterpart of {@link #onMessage(SMTPSession, MailEnvelope)}.
+     *
+     * Hooks performing slow IO, like storing the message, should override it in order not to block the SMTP thread.
+     */
+    default Publisher<HookResult> onMessageReactive(SMTPSession session, MailEnvelope mail) {
+        return Mono.fromCallable(() -> onMessage(session, mail));
+    }
+
 }
@@ -24,9 +24,12 @@ import java.util.Set;
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.MaybeSender;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Mono;
+
 /**
  * Implement this interfaces to hook in the RCPT Command
  */
@@ -77,4 +80,16 @@ public interface RcptHook extends Hook {
         return doRcpt(session, sender, rcpt);
     }
 
+    /**
+     * Reactive counterpart of {@link #doRcpt(SMTPSession, MaybeSender, MailAddress, Map)}.
+     *
+     * Hooks relying on remote lookups should override it in order not to block the SMTP thread while waiting for
+     * the answer.
+     *
+     * @return HookResult
+     */
+    default Publisher<HookResult> doRcptReactive(SMTPSession session, MaybeSender sender, MailAddress rcpt, Map<String, String> parameters) {
+        return Mono.fromCallable(() -> doRcpt(session, sender, rcpt, parameters));
+    }
+
 }
@@ -0,0 +1,181 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.netty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.apache.james.protocols.api.CommandDetectionSession;
+import org.apache.james.protocols.netty.AllButStartTlsLineBasedChannelHandler;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.BdatArguments;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+
+/**
+ * Line based framing that frames the octets following a BDAT command (RFC 3030) according to the announced chunk
+ * size: chunks are binary content that must not be split into lines.
+ *
+ * Once the headers of a message sent with DATA are received, body lines are framed by blocks of all the complete lines
+ * available, up to the end of the message, so that they are processed at once rather than line by line, see
+ * {@link org.apache.james.protocols.smtp.core.DataLineFilter#acceptsBodyBlocks()}.
+ *
+ * Framing happens ahead of command processing, hence this decoder tracks on its own whether it is reading commands,
+ * DATA content (where a line looking like a BDAT command is regular content) or a chunk.
+ */
+public class ChunkingLineBasedFrameDecoder extends AllButStartTlsLineBasedChannelHandler {
+    private static final String DATA_COMMAND = "DATA";
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DOT = '.';
+
+    private enum Mode {
+        COMMAND,
+        DATA_STARTING,
+        DATA_HEADERS,
+        DATA_BODY,
+        CHUNK
+    }
+
+    private final int maxFrameLength;
+    private Mode mode = Mode.COMMAND;
+    private long remainingChunkOctets = 0;
+
+    public ChunkingLineBasedFrameDecoder(ChannelPipeline pipeline, int maxFrameLength, String pattern) {
+        super(pipeline, maxFrameLength, false, pattern);
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, Channel channel, ChannelBuffer buffer) throws Exception {
+        if (mode == Mode.CHUNK) {
+            return readChunk(buffer);
+        }
+        if (mode == Mode.DATA_BODY) {
+            int blockLength = bodyBlockLength(buffer);
+            if (blockLength > 0) {
+                return buffer.readBytes(blockLength);
+            }
+        }
+        Object frame = super.decode(ctx, channel, buffer);
+        if (frame instanceof ChannelBuffer) {
+            onLine(retrieveSession(ctx, channel), (ChannelBuffer) frame);
+        }
+        return frame;
+    }
+
+    /**
+     * @return the length of the complete body lines readable from the buffer, excluding the end of the message
+     */
+    private int bodyBlockLength(ChannelBuffer buffer) {
+        int lineStart = buffer.readerIndex();
+        int end = buffer.writerIndex();
+        while (lineStart < end) {
+            int lineEnd = buffer.indexOf(lineStart, end, LF);
+            if (lineEnd < 0 || lineEnd - lineStart >= maxFrameLength || isDataTerminator(buffer, lineStart, lineEnd)) {
+                break;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lineStart - buffer.readerIndex();
+    }
+
+    private boolean isDataTerminator(ChannelBuffer buffer, int lineStart, int lineEnd) {
+        int length = lineEnd - lineStart;
+        return buffer.getByte(lineStart) == DOT
+            && (length == 1 || (length == 2 && buffer.getByte(lineStart + 1) == CR));
+    }
+
+    private ChannelBuffer readChunk(ChannelBuffer buffer) {
+        if (!buffer.readable()) {
+            return null;
+        }
+        int length = (int) Math.min(remainingChunkOctets, buffer.readableBytes());
+        remainingChunkOctets -= length;
+        if (remainingChunkOctets == 0) {
+            mode = Mode.COMMAND;
+        }
+        return buffer.readBytes(length);
+    }
+
+    private void onLine(CommandDetectionSession session, ChannelBuffer frame) {
+        switch (mode) {
+            case DATA_STARTING:
+                // DATA responses are awaited by the client, no line handler means DATA was rejected
+                if (!(session instanceof SMTPSession) || ((SMTPSession) session).getPushedLineHandlerCount() == 0) {
+                    mode = Mode.COMMAND;
+                    onCommandLine(session, lineAsString(frame));
+                    return;
+                }
+                mode = Mode.DATA_HEADERS;
+                onDataLine(frame);
+                return;
+            case DATA_HEADERS:
+            case DATA_BODY:
+                onDataLine(frame);
+                return;
+            default:
+                onCommandLine(session, lineAsString(frame));
+        }
+    }
+
+    private void onDataLine(ChannelBuffer frame) {
+        int lineEnd = frame.writerIndex() - 1;
+        if (frame.readable() && frame.getByte(lineEnd) == LF && isDataTerminator(frame, frame.readerIndex(), lineEnd)) {
+            mode = Mode.COMMAND;
+        } else if (mode == Mode.DATA_HEADERS && isHeadersSeparator(frame)) {
+            mode = Mode.DATA_BODY;
+        }
+    }
+
+    private boolean isHeadersSeparator(ChannelBuffer frame) {
+        return frame.readableBytes() == 2
+            && frame.getByte(frame.readerIndex()) == CR
+            && frame.getByte(frame.readerIndex() + 1) == LF;
+    }
+
+    private void onCommandLine(CommandDetectionSession session, String line) {
+        if (line.equalsIgnoreCase(DATA_COMMAND)) {
+            mode = Mode.DATA_STARTING;
+            return;
+        }
+        if (chunkingEnabled(session)) {
+            BdatArguments.parseCommandLine(line)
+                .filter(arguments -> arguments.getChunkSize() > 0)
+                .ifPresent(arguments -> {
+                    mode = Mode.CHUNK;
+                    remainingChunkOctets = arguments.getChunkSize();
+                });
+        }
+    }
+
+    private boolean chunkingEnabled(CommandDetectionSession session) {
+        return Optional.ofNullable(session)
+            .filter(SMTPSession.class::isInstance)
+            .map(SMTPSession.class::cast)
+            .map(smtpSession -> smtpSession.getConfiguration().isChunkingEnabled())
+            .orElse(false);
+    }
+
+    private String lineAsString(ChannelBuffer frame) {
+        return frame.toString(frame.readerIndex(), frame.readableBytes(), StandardCharsets.US_ASCII).trim();
+    }
+}
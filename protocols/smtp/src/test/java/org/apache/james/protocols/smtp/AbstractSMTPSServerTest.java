@@ -18,6 +18,10 @@
  ****************************************************************/
 package org.apache.james.protocols.smtp;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
 import org.apache.commons.net.smtp.SMTPClient;
 import org.apache.commons.net.smtp.SMTPSClient;
 import org.apache.james.protocols.api.Encryption;
@@ -37,6 +41,12 @@ public abstract class AbstractSMTPSServerTest extends AbstractSMTPServerTest {
         return client;
     }
 
+    @Override
+    protected Socket createSocket(InetSocketAddress address) throws IOException {
+        return BogusSslContextFactory.getClientContext().getSocketFactory()
+            .createSocket(address.getAddress().getHostAddress(), address.getPort());
+    }
+
     
     @Override
     protected ProtocolServer createServer(Protocol protocol) {
@@ -23,13 +23,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.net.smtp.SMTPClient;
@@ -52,9 +55,13 @@ import org.apache.james.protocols.smtp.hook.RcptHook;
 import org.apache.james.protocols.smtp.utils.TestMessageHook;
 import org.apache.james.util.concurrency.ConcurrentTestRunner;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
 
 import com.google.common.io.CharStreams;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 public abstract class AbstractSMTPServerTest {
 
     protected static final String MSG1 = "Subject: Testmessage\r\n\r\nThis is a message\r\n";
@@ -727,6 +734,144 @@ public abstract class AbstractSMTPServerTest {
         
     }
     
+    @Test
+    void asynchronousRcptHookShouldBeApplied() throws Exception {
+        RcptHook hook = new RcptHook() {
+            @Override
+            public Publisher<HookResult> doRcptReactive(SMTPSession session, MaybeSender sender, MailAddress rcpt, Map<String, String> parameters) {
+                return Mono.fromCallable(() -> RCPT1.equals(rcpt.toString()) ? HookResult.DENY : HookResult.DECLINED)
+                    .delayElement(Duration.ofMillis(50), Schedulers.elastic());
+            }
+        };
+
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook));
+            server.bind();
+
+            SMTPClient client = createClient();
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+            client.connect(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.helo("localhost");
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.setSender(SENDER);
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.addRecipient(RCPT1);
+            assertThat(SMTPReply.isNegativePermanent(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.addRecipient(RCPT2);
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.quit();
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+            client.disconnect();
+
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
+    @Test
+    protected void pipelinedCommandsShouldBeAnsweredInOrderWhenHooksAreAsynchronous() throws Exception {
+        RcptHook hook = new RcptHook() {
+            @Override
+            public Publisher<HookResult> doRcptReactive(SMTPSession session, MaybeSender sender, MailAddress rcpt, Map<String, String> parameters) {
+                if (RCPT1.equals(rcpt.toString())) {
+                    return Mono.just(HookResult.DENY)
+                        .delayElement(Duration.ofMillis(200), Schedulers.elastic());
+                }
+                return Mono.just(HookResult.DECLINED);
+            }
+        };
+
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook));
+            server.bind();
+
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+            try (Socket socket = createSocket(bindedAddress);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream outputStream = socket.getOutputStream();
+                assertThat(reader.readLine()).startsWith("220");
+
+                outputStream.write("HELO localhost\r\n".getBytes(StandardCharsets.US_ASCII));
+                assertThat(reader.readLine()).startsWith("250");
+
+                outputStream.write(("MAIL FROM:<" + SENDER + ">\r\n"
+                    + "RCPT TO:<" + RCPT1 + ">\r\n"
+                    + "RCPT TO:<" + RCPT2 + ">\r\n"
+                    + "QUIT\r\n").getBytes(StandardCharsets.US_ASCII));
+
+                assertThat(reader.readLine()).startsWith("250");
+                assertThat(reader.readLine()).startsWith("554");
+                assertThat(reader.readLine()).startsWith("250").contains(RCPT2);
+                assertThat(reader.readLine()).startsWith("221");
+            }
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
+    @Test
+    protected void asynchronousMessageHookShouldBeApplied() throws Exception {
+        TestMessageHook testHook = new TestMessageHook();
+
+        MessageHook hook = new MessageHook() {
+            @Override
+            public HookResult onMessage(SMTPSession session, MailEnvelope mail) {
+                throw new IllegalStateException("Reactive variant is expected to be called");
+            }
+
+            @Override
+            public Publisher<HookResult> onMessageReactive(SMTPSession session, MailEnvelope mail) {
+                return Mono.just(HookResult.DENY)
+                    .delayElement(Duration.ofMillis(50), Schedulers.elastic());
+            }
+        };
+
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook, testHook));
+            server.bind();
+
+            SMTPClient client = createClient();
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+            client.connect(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.helo("localhost");
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.setSender(SENDER);
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.addRecipient(RCPT1);
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            assertThat(client.sendShortMessageData(MSG1)).isFalse();
+            assertThat(SMTPReply.isNegativePermanent(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+
+            client.quit();
+            assertThat(SMTPReply.isPositiveCompletion(client.getReplyCode())).as("Reply=" + client.getReplyString()).isTrue();
+            client.disconnect();
+
+            assertThat(testHook.getQueued()).isEmpty();
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
     @Test
     void testNullSender() throws Exception {
         ProtocolServer server = null;
@@ -941,6 +1086,10 @@ public abstract class AbstractSMTPServerTest {
         return new SMTPClient();
     }
 
+    protected Socket createSocket(InetSocketAddress address) throws IOException {
+        return new Socket(address.getAddress().getHostAddress(), address.getPort());
+    }
+
     protected abstract ProtocolServer createServer(Protocol protocol);
 
     
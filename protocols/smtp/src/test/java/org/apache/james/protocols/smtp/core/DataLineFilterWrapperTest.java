@@ -0,0 +1,93 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.api.handler.LineHandler;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.DataCmdHandler.DataLineFilterWrapper;
+import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class DataLineFilterWrapperTest {
+    private static final String BLOCK = "first\r\nsecond\r\nthird\r\n";
+
+    private static class RecordingDataLineFilter implements DataLineFilter {
+        private final boolean acceptsBodyBlocks;
+        private final List<String> lines = new ArrayList<>();
+
+        RecordingDataLineFilter(boolean acceptsBodyBlocks) {
+            this.acceptsBodyBlocks = acceptsBodyBlocks;
+        }
+
+        @Override
+        public Response onLine(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+            lines.add(StandardCharsets.US_ASCII.decode(line).toString());
+            return null;
+        }
+
+        @Override
+        public boolean acceptsBodyBlocks() {
+            return acceptsBodyBlocks;
+        }
+    }
+
+    private final LineHandler<SMTPSession> next = (session, line) -> null;
+    private final SMTPSession session = new BaseFakeSMTPSession();
+
+    @Test
+    void blocksShouldBeSplitForFiltersNotAcceptingThem() {
+        RecordingDataLineFilter filter = new RecordingDataLineFilter(false);
+
+        new DataLineFilterWrapper(filter, next).onLine(session, block());
+
+        assertThat(filter.lines).containsExactly("first\r\n", "second\r\n", "third\r\n");
+    }
+
+    @Test
+    void blocksShouldBeSplitForFiltersNotAcceptingThemWhenReactive() {
+        RecordingDataLineFilter filter = new RecordingDataLineFilter(false);
+
+        Mono.from(new DataLineFilterWrapper(filter, next).onLineReactive(session, block())).block();
+
+        assertThat(filter.lines).containsExactly("first\r\n", "second\r\n", "third\r\n");
+    }
+
+    @Test
+    void blocksShouldBeHandedOverAsIsToFiltersAcceptingThem() {
+        RecordingDataLineFilter filter = new RecordingDataLineFilter(true);
+
+        new DataLineFilterWrapper(filter, next).onLine(session, block());
+
+        assertThat(filter.lines).containsExactly(BLOCK);
+    }
+
+    private ByteBuffer block() {
+        return ByteBuffer.wrap(BLOCK.getBytes(StandardCharsets.US_ASCII));
+    }
+}
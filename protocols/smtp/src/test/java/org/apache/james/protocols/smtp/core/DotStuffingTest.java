@@ -0,0 +1,81 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class DotStuffingTest {
+
+    @Test
+    void writeUnstuffedShouldWriteRegularLinesAsIs() throws Exception {
+        assertThat(unstuff("line 1\r\nline 2\r\n")).isEqualTo("line 1\r\nline 2\r\n");
+    }
+
+    @Test
+    void writeUnstuffedShouldRemoveDotStuffingOfSingleLine() throws Exception {
+        assertThat(unstuff("..line\r\n")).isEqualTo(".line\r\n");
+    }
+
+    @Test
+    void writeUnstuffedShouldRemoveDotStuffingOfEveryLineOfABlock() throws Exception {
+        assertThat(unstuff("..first\r\nmiddle.\r\n..\r\nlast..\r\n...\r\n"))
+            .isEqualTo(".first\r\nmiddle.\r\n.\r\nlast..\r\n..\r\n");
+    }
+
+    @Test
+    void writeUnstuffedShouldKeepSingleLeadingDot() throws Exception {
+        assertThat(unstuff(".line\r\n")).isEqualTo(".line\r\n");
+    }
+
+    @Test
+    void writeUnstuffedShouldSupportDirectBuffers() throws Exception {
+        byte[] bytes = "..first\r\nsecond\r\n".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        DotStuffing.writeUnstuffed(buffer, out);
+
+        assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo(".first\r\nsecond\r\n");
+    }
+
+    @Test
+    void writeUnstuffedShouldHonorBufferPosition() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap("skipped\r\n..line\r\n".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(9);
+        ByteBuffer slice = buffer.slice();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        DotStuffing.writeUnstuffed(slice, out);
+
+        assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo(".line\r\n");
+    }
+
+    private String unstuff(String lines) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DotStuffing.writeUnstuffed(ByteBuffer.wrap(lines.getBytes(StandardCharsets.US_ASCII)), out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
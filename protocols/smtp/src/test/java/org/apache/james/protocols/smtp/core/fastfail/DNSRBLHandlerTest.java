@@ -26,22 +26,29 @@ import static org.apache.james.protocols.smtp.core.fastfail.DNSRBLHandler.RBL_DE
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.MaybeSender;
 import org.apache.james.protocols.api.ProtocolSession.State;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import reactor.test.StepVerifier;
 
 public class DNSRBLHandlerTest {
 
@@ -267,6 +274,62 @@ public class DNSRBLHandlerTest {
         assertThat(mockedSMTPSession.getAttachment(RBL_DETAIL_MAIL_ATTRIBUTE_NAME, Connection)).isEmpty();
         assertThat(mockedSMTPSession.getAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, Connection)).withFailMessage("Not blocked").isEmpty();
     }
+
+    // list not answering within the lookup timeout
+    @Test
+    void slowListShouldBeConsideredAsNotListing() throws Exception {
+        CountDownLatch lookupAnswered = new CountDownLatch(1);
+        DNSRBLHandler rbl = new DNSRBLHandler() {
+            @Override
+            protected boolean resolve(String host) {
+                try {
+                    lookupAnswered.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        setupMockedSMTPSession(new MailAddress("any@domain"));
+        MailAddress recipient = new MailAddress("test@localhost");
+
+        rbl.setBlacklist(new String[] { "bl.spamcop.net." });
+        rbl.setLookupTimeout(Duration.ofSeconds(10));
+        // Lookups need to run on a real scheduler, only the lookup timeout elapses on the virtual clock
+        BlockingLookups.lookup(() -> true).block();
+        try {
+            StepVerifier.withVirtualTime(() -> rbl.doRcptReactive(mockedSMTPSession, MaybeSender.nullSender(), recipient, ImmutableMap.of()))
+                .thenAwait(Duration.ofSeconds(10))
+                .expectNext(HookResult.DECLINED)
+                .verifyComplete();
+        } finally {
+            lookupAnswered.countDown();
+        }
+        assertThat(mockedSMTPSession.getAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, Connection)).withFailMessage("Not blocked").isEmpty();
+    }
+
+    // lists are queried concurrently
+    @Test
+    void listsShouldBeQueriedConcurrently() throws Exception {
+        CountDownLatch allListsQueried = new CountDownLatch(2);
+        DNSRBLHandler rbl = new DNSRBLHandler() {
+            @Override
+            protected boolean resolve(String host) {
+                allListsQueried.countDown();
+                try {
+                    return allListsQueried.await(5, TimeUnit.SECONDS) && host.endsWith("bl.spamcop.net.");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+        setupMockedSMTPSession(new MailAddress("any@domain"));
+
+        rbl.setBlacklist(new String[] { "dnsbl.example.", "bl.spamcop.net." });
+        rbl.doRcpt(mockedSMTPSession, MaybeSender.nullSender(), new MailAddress("test@localhost"));
+        assertThat(mockedSMTPSession.getAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, Connection)).withFailMessage("Blocked").isPresent();
+    }
    
 
 }
@@ -0,0 +1,228 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.protocols.api.ProtocolServer;
+import org.apache.james.protocols.api.utils.ProtocolServerUtils;
+import org.apache.james.protocols.netty.AbstractChannelPipelineFactory;
+import org.apache.james.protocols.netty.NettyServer;
+import org.apache.james.protocols.smtp.MailEnvelope;
+import org.apache.james.protocols.smtp.SMTPConfigurationImpl;
+import org.apache.james.protocols.smtp.SMTPProtocol;
+import org.apache.james.protocols.smtp.SMTPProtocolHandlerChain;
+import org.apache.james.protocols.smtp.utils.TestMessageHook;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+class NettyChunkingSMTPServerTest {
+    private static final String LOCALHOST_IP = "127.0.0.1";
+    private static final int RANDOM_PORT = 0;
+    private static final String HEADERS = "Subject: Testmessage\r\n\r\n";
+    private static final String BODY = "This is a message\r\n.\r\n..with dots\r\nBDAT 10\r\n";
+
+    private final HashedWheelTimer hashedWheelTimer = new HashedWheelTimer();
+    private final TestMessageHook hook = new TestMessageHook();
+    private ProtocolServer server;
+    private Socket socket;
+    private BufferedReader reader;
+    private OutputStream writer;
+
+    @AfterEach
+    void teardown() throws IOException {
+        if (socket != null) {
+            socket.close();
+        }
+        if (server != null) {
+            server.unbind();
+        }
+        hashedWheelTimer.stop();
+    }
+
+    @Test
+    void ehloShouldAdvertiseChunkingWhenEnabled() throws Exception {
+        connect(true);
+
+        assertThat(send("EHLO localhost\r\n")).anyMatch(line -> line.endsWith("CHUNKING")).anyMatch(line -> line.endsWith("BINARYMIME"));
+    }
+
+    @Test
+    void ehloShouldNotAdvertiseChunkingWhenDisabled() throws Exception {
+        connect(false);
+
+        assertThat(send("EHLO localhost\r\n")).noneMatch(line -> line.contains("CHUNKING"));
+    }
+
+    @Test
+    void bdatShouldBeRejectedWhenChunkingIsDisabled() throws Exception {
+        connect(false);
+        startTransaction();
+
+        assertThat(send("BDAT 0 LAST\r\n")).containsExactly("502 5.5.1 BDAT is not supported");
+    }
+
+    @Test
+    void bdatShouldDeliverMessageSentInSeveralChunks() throws Exception {
+        connect(true);
+        startTransaction();
+
+        String message = HEADERS + BODY;
+        String firstChunk = message.substring(0, 10);
+        String secondChunk = message.substring(10);
+
+        assertThat(send("BDAT " + firstChunk.length() + "\r\n" + firstChunk)).containsExactly("250 2.0.0 10 octets received");
+        assertThat(send("BDAT " + secondChunk.length() + " LAST\r\n" + secondChunk)).containsExactly("250 Command accepted");
+
+        assertThat(hook.getQueued()).hasSize(1);
+        assertThat(content(hook.getQueued().get(0))).endsWith(message);
+    }
+
+    @Test
+    void bdatShouldAcceptEmptyLastChunk() throws Exception {
+        connect(true);
+        startTransaction();
+
+        String message = HEADERS + BODY;
+
+        assertThat(send("BDAT " + message.length() + "\r\n" + message)).hasSize(1);
+        assertThat(send("BDAT 0 LAST\r\n")).containsExactly("250 Command accepted");
+
+        assertThat(hook.getQueued()).hasSize(1);
+        assertThat(content(hook.getQueued().get(0))).endsWith(message);
+    }
+
+    @Test
+    void bdatShouldConsumeChunkWhenRejected() throws Exception {
+        connect(true);
+        send("EHLO localhost\r\n");
+
+        assertThat(send("BDAT 10 LAST\r\nNOOP\r\nNOOP")).containsExactly("503 5.5.0 No sender specified");
+        assertThat(send("NOOP\r\n")).hasSize(1).allMatch(line -> line.startsWith("250"));
+    }
+
+    @Test
+    void bdatShouldRejectInvalidArguments() throws Exception {
+        connect(true);
+        startTransaction();
+
+        assertThat(send("BDAT ten\r\n")).containsExactly("501 5.5.4 Expecting BDAT chunk-size [LAST]");
+    }
+
+    @Test
+    void dataShouldBeRejectedAfterBinaryMimeBody() throws Exception {
+        connect(true);
+        send("EHLO localhost\r\n");
+        send("MAIL FROM:<me@sender> BODY=BINARYMIME\r\n");
+        send("RCPT TO:<rcpt@domain>\r\n");
+
+        assertThat(send("DATA\r\n")).containsExactly("503 5.5.1 BODY=BINARYMIME requires BDAT");
+    }
+
+    @Test
+    void dataContentLookingLikeBdatShouldNotBeFramedAsChunk() throws Exception {
+        connect(true);
+        startTransaction();
+
+        send("DATA\r\n");
+        assertThat(send(HEADERS + "BDAT 10\r\n.\r\n")).containsExactly("250 Command accepted");
+
+        assertThat(hook.getQueued()).hasSize(1);
+        assertThat(content(hook.getQueued().get(0))).endsWith(HEADERS + "BDAT 10\r\n");
+    }
+
+    @Test
+    void dataBodyShouldBeDeliveredWhenReceivedByBlocks() throws Exception {
+        connect(true);
+        startTransaction();
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            body.append("line ").append(i).append("\r\n..dotted ").append(i).append("\r\n");
+        }
+        send("DATA\r\n");
+        assertThat(send(HEADERS + body + ".\r\n")).containsExactly("250 Command accepted");
+
+        assertThat(hook.getQueued()).hasSize(1);
+        assertThat(content(hook.getQueued().get(0))).endsWith(HEADERS + body.toString().replace("..dotted", ".dotted"));
+    }
+
+    private void connect(boolean chunkingEnabled) throws Exception {
+        SMTPProtocolHandlerChain chain = new SMTPProtocolHandlerChain(new RecordingMetricFactory());
+        chain.add(0, hook);
+        chain.wireExtensibleHandlers();
+        SMTPConfigurationImpl configuration = new SMTPConfigurationImpl();
+        configuration.setChunkingEnabled(chunkingEnabled);
+
+        NettyServer nettyServer = new NettyServer.Factory(hashedWheelTimer)
+            .protocol(new SMTPProtocol(chain, configuration))
+            .frameHandlerFactory(new ChunkingLineChannelHandlerFactory("starttls", AbstractChannelPipelineFactory.MAX_LINE_LENGTH))
+            .build();
+        nettyServer.setListenAddresses(new InetSocketAddress(LOCALHOST_IP, RANDOM_PORT));
+        nettyServer.bind();
+        server = nettyServer;
+
+        InetSocketAddress address = new ProtocolServerUtils(server).retrieveBindedAddress();
+        socket = new Socket(address.getAddress().getHostAddress(), address.getPort());
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        writer = socket.getOutputStream();
+        readReply();
+    }
+
+    private void startTransaction() throws IOException {
+        send("EHLO localhost\r\n");
+        send("MAIL FROM:<me@sender>\r\n");
+        send("RCPT TO:<rcpt@domain>\r\n");
+    }
+
+    private List<String> send(String data) throws IOException {
+        writer.write(data.getBytes(StandardCharsets.US_ASCII));
+        writer.flush();
+        return readReply();
+    }
+
+    private List<String> readReply() throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        do {
+            line = reader.readLine();
+            lines.add(line);
+        } while (line != null && line.length() > 3 && line.charAt(3) == '-');
+        return ImmutableList.copyOf(lines);
+    }
+
+    private String content(MailEnvelope envelope) throws IOException {
+        return new String(ByteStreams.toByteArray(envelope.getMessageInputStream()), StandardCharsets.US_ASCII);
+    }
+}
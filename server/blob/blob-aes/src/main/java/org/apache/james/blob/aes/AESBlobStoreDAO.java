@@ -20,9 +20,11 @@
 package org.apache.james.blob.aes;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.util.Collection;
 
@@ -30,6 +32,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ByteRanges;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.reactivestreams.Publisher;
@@ -39,6 +42,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.io.ByteSource;
 import com.google.common.io.FileBackedOutputStream;
 import com.google.crypto.tink.subtle.AesGcmHkdfStreaming;
+import com.google.crypto.tink.subtle.StreamSegmentDecrypter;
 
 import reactor.core.publisher.Mono;
 
@@ -90,6 +94,78 @@ public class AESBlobStoreDAO implements BlobStoreDAO {
             .map(Throwing.function(IOUtils::toByteArray));
     }
 
+    /**
+     * Only the header and the ciphertext segments overlapping the range are read from the underlying blob store and
+     * decrypted.
+     *
+     * The segment following the range is read too: its presence tells the last segment of the range is not the last
+     * segment of the blob, which is needed to authenticate it.
+     */
+    @Override
+    public Publisher<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRanges.check(offset, length);
+
+        long firstSegment = segmentOf(offset);
+        long ciphertextStart = ciphertextStart(firstSegment);
+        long ciphertextLength = ByteRanges.isUnbounded(offset, length)
+            ? Long.MAX_VALUE
+            : ciphertextStart(segmentOf(ByteRanges.lastOffset(offset, length)) + 2) - ciphertextStart;
+
+        return Mono.zip(
+                Mono.from(underlying.readRange(bucketName, blobId, streamingAead.getFirstSegmentOffset(), streamingAead.getHeaderLength())),
+                Mono.from(underlying.readRange(bucketName, blobId, ciphertextStart, ciphertextLength)))
+            .map(Throwing.function(headerAndSegments -> decryptRange(headerAndSegments.getT1(), headerAndSegments.getT2(),
+                firstSegment, offset, length)));
+    }
+
+    private byte[] decryptRange(byte[] header, byte[] segments, long firstSegment, long offset, long length) throws IOException {
+        try {
+            StreamSegmentDecrypter decrypter = streamingAead.newStreamSegmentDecrypter();
+            decrypter.init(ByteBuffer.wrap(header), PBKDF2StreamingAeadFactory.EMPTY_ASSOCIATED_DATA);
+
+            long end = ByteRanges.isUnbounded(offset, length) ? Long.MAX_VALUE : offset + length;
+            ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+            ByteBuffer segmentPlaintext = ByteBuffer.allocate(streamingAead.getPlaintextSegmentSize());
+            int position = 0;
+            for (long segment = firstSegment; position < segments.length && plaintextStart(segment) < end; segment++) {
+                int segmentLength = Math.min(ciphertextSegmentLength(segment), segments.length - position);
+                boolean isLastSegment = position + segmentLength == segments.length;
+                segmentPlaintext.clear();
+                decrypter.decryptSegment(ByteBuffer.wrap(segments, position, segmentLength), Math.toIntExact(segment), isLastSegment, segmentPlaintext);
+                plaintext.write(segmentPlaintext.array(), 0, segmentPlaintext.position());
+                position += segmentLength;
+            }
+            return ByteRanges.slice(plaintext.toByteArray(), offset - plaintextStart(firstSegment), length);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to decrypt the requested range", e);
+        }
+    }
+
+    private long segmentOf(long plaintextPosition) {
+        return (plaintextPosition + streamingAead.getCiphertextOffset()) / streamingAead.getPlaintextSegmentSize();
+    }
+
+    private long plaintextStart(long segment) {
+        if (segment == 0) {
+            return 0;
+        }
+        return segment * streamingAead.getPlaintextSegmentSize() - streamingAead.getCiphertextOffset();
+    }
+
+    private long ciphertextStart(long segment) {
+        if (segment == 0) {
+            return streamingAead.getCiphertextOffset();
+        }
+        return segment * streamingAead.getCiphertextSegmentSize();
+    }
+
+    private int ciphertextSegmentLength(long segment) {
+        if (segment == 0) {
+            return streamingAead.getCiphertextSegmentSize() - streamingAead.getCiphertextOffset();
+        }
+        return streamingAead.getCiphertextSegmentSize();
+    }
+
     @Override
     public Publisher<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         Preconditions.checkNotNull(bucketName);
@@ -22,17 +22,25 @@ package org.apache.james.blob.aes;
 import static org.apache.james.blob.api.BlobStoreDAOFixture.SHORT_BYTEARRAY;
 import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BLOB_ID;
 import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BUCKET_NAME;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TWELVE_MEGABYTES;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BlobStoreDAOContract;
+import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.memory.MemoryBlobStoreDAO;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
 
 import reactor.core.publisher.Mono;
@@ -85,6 +93,44 @@ class AESBlobStoreDAOTest implements BlobStoreDAOContract {
         assertThat(bytes).isNotEqualTo(SHORT_BYTEARRAY);
     }
 
+    @Test
+    void readRangeShouldDecryptRangesSpanningSeveralSegments() {
+        byte[] data = new byte[3 * 4096 + 100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 251);
+        }
+        Mono.from(testee.save(TEST_BUCKET_NAME, TEST_BLOB_ID, data)).block();
+
+        SoftAssertions.assertSoftly(softly -> {
+            for (int offset : ImmutableList.of(0, 1, 4000, 4096, 8191, 12000, 12387)) {
+                for (int length : ImmutableList.of(1, 100, 4096, 9000)) {
+                    softly.assertThat(Mono.from(testee.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, offset, length)).block())
+                        .describedAs("offset %d length %d", offset, length)
+                        .isEqualTo(Arrays.copyOfRange(data, offset, Math.min(data.length, offset + length)));
+                }
+            }
+        });
+    }
+
+    @Test
+    void readRangeShouldOnlyReadTheSegmentsOfTheRange() {
+        AtomicLong readOctets = new AtomicLong();
+        MemoryBlobStoreDAO recordingUnderlying = new MemoryBlobStoreDAO() {
+            @Override
+            public Publisher<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+                return Mono.from(super.readRange(bucketName, blobId, offset, length))
+                    .doOnNext(bytes -> readOctets.addAndGet(bytes.length));
+            }
+        };
+        AESBlobStoreDAO aesBlobStoreDAO = new AESBlobStoreDAO(recordingUnderlying, CRYPTO_CONFIG);
+        Mono.from(aesBlobStoreDAO.save(TEST_BUCKET_NAME, TEST_BLOB_ID, TWELVE_MEGABYTES)).block();
+
+        byte[] bytes = Mono.from(aesBlobStoreDAO.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 5_000_000, 10)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(TWELVE_MEGABYTES, 5_000_000, 5_000_010));
+        assertThat(readOctets.get()).isLessThan(3 * 4096);
+    }
+
     @Override
     @Disabled("Not supported by the Memory blob store")
     public void listBucketsShouldReturnBucketsWithNoBlob() {
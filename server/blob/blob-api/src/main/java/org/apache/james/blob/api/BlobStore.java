@@ -25,6 +25,8 @@ import org.reactivestreams.Publisher;
 
 import com.google.common.io.ByteSource;
 
+import reactor.core.publisher.Mono;
+
 public interface BlobStore {
     String DEFAULT_BUCKET_NAME_QUALIFIER = "defaultBucket";
 
@@ -56,6 +58,16 @@ public interface BlobStore {
         return read(bucketName, blobId);
     }
 
+    /**
+     * @see BlobStoreDAO#readRange(BucketName, BlobId, long, long)
+     */
+    default Publisher<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRanges.check(offset, length);
+
+        return Mono.from(readBytes(bucketName, blobId))
+            .map(bytes -> ByteRanges.slice(bytes, offset, length));
+    }
+
     BucketName getDefaultBucketName();
 
     Publisher<BucketName> listBuckets();
@@ -27,6 +27,8 @@ import org.reactivestreams.Publisher;
 
 import com.google.common.io.ByteSource;
 
+import reactor.core.publisher.Mono;
+
 public interface BlobStoreDAO {
 
     /**
@@ -47,6 +49,25 @@ public interface BlobStoreDAO {
      */
     Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Reads at most length bytes of a Blob, starting at offset.
+     *
+     * Ranges ending after the end of the blob are truncated, ranges starting after its end are empty.
+     *
+     * The default implementation reads the full blob: implementations able to only retrieve the requested
+     * part of the content should override it.
+     *
+     * @return a Mono containing the requested part of the blob or
+     *  an ObjectNotFoundException in its error channel when the blobId or the bucket is not found
+     *  or an IOObjectStoreException when an unexpected IO error occurs
+     * @throws IllegalArgumentException when offset is negative or length is not strictly positive
+     */
+    default Publisher<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRanges.check(offset, length);
+
+        return Mono.from(readBytes(bucketName, blobId))
+            .map(bytes -> ByteRanges.slice(bytes, offset, length));
+    }
 
     /**
      * Save the blob with the provided blob id, and overwrite the previous blob with the same id if it already exists
@@ -0,0 +1,60 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Helpers shared by {@link BlobStoreDAO} and {@link BlobStore} implementations serving ranged reads.
+ */
+public class ByteRanges {
+    private static final byte[] EMPTY = new byte[0];
+
+    public static void check(long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "'offset' should not be negative");
+        Preconditions.checkArgument(length > 0, "'length' should be strictly positive");
+    }
+
+    /**
+     * @return true when the range extends up to the end of any blob, in which case no last offset can be computed
+     */
+    public static boolean isUnbounded(long offset, long length) {
+        return length > Long.MAX_VALUE - offset;
+    }
+
+    /**
+     * @return the offset of the last byte of the range, inclusive
+     */
+    public static long lastOffset(long offset, long length) {
+        Preconditions.checkArgument(!isUnbounded(offset, length), "Range starting at %s of length %s is unbounded", offset, length);
+        return offset + length - 1;
+    }
+
+    public static byte[] slice(byte[] content, long offset, long length) {
+        if (offset >= content.length) {
+            return EMPTY;
+        }
+        int start = (int) offset;
+        int end = (int) Math.min(content.length, start + Math.min(length, content.length));
+        return Arrays.copyOfRange(content, start, end);
+    }
+}
@@ -37,6 +37,7 @@ public class MetricableBlobStore implements BlobStore {
     static final String SAVE_INPUT_STREAM_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "saveInputStream";
     static final String READ_BYTES_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "readBytes";
     static final String READ_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "read";
+    static final String READ_RANGE_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "readRange";
     static final String DELETE_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "delete";
     static final String DELETE_BUCKET_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "deleteBucket";
 
@@ -87,6 +88,11 @@ public class MetricableBlobStore implements BlobStore {
             .decorateSupplierWithTimerMetric(READ_TIMER_NAME, () -> blobStoreImpl.read(bucketName, blobId, storagePolicy));
     }
 
+    @Override
+    public Publisher<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return metricFactory.decoratePublisherWithTimerMetric(READ_RANGE_TIMER_NAME, blobStoreImpl.readRange(bucketName, blobId, offset, length));
+    }
+
     @Override
     public Publisher<Void> deleteBucket(BucketName bucketName) {
         return metricFactory.decoratePublisherWithTimerMetric(DELETE_BUCKET_TIMER_NAME, blobStoreImpl.deleteBucket(bucketName));
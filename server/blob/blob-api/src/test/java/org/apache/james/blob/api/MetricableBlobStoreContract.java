@@ -23,6 +23,7 @@ import static org.apache.james.blob.api.BlobStore.StoragePolicy.LOW_COST;
 import static org.apache.james.blob.api.MetricableBlobStore.DELETE_BUCKET_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.DELETE_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_BYTES_TIMER_NAME;
+import static org.apache.james.blob.api.MetricableBlobStore.READ_RANGE_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_BYTES_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_INPUT_STREAM_TIMER_NAME;
@@ -111,6 +112,19 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
                 .hasSize(2));
     }
 
+    @Test
+    default void readRangeShouldPublishReadRangeTimerMetrics() {
+        BlobStore store = testee();
+
+        BlobId blobId = Mono.from(store.save(store.getDefaultBucketName(), BYTES_CONTENT, LOW_COST)).block();
+        Mono.from(store.readRange(store.getDefaultBucketName(), blobId, 2, 4)).block();
+        Mono.from(store.readRange(store.getDefaultBucketName(), blobId, 2, 4)).block();
+
+        await().atMost(FIVE_SECONDS)
+            .untilAsserted(() ->  assertThat(metricsTestExtension.getMetricFactory().executionTimesFor(READ_RANGE_TIMER_NAME))
+                .hasSize(2));
+    }
+
     @Test
     default void readShouldPublishReadTimerMetrics() {
         BlobStore store = testee();
@@ -171,6 +171,109 @@ public interface ReadSaveBlobStoreDAOContract {
         assertThat(bytes).isEqualTo(TWELVE_MEGABYTES);
     }
 
+    @Test
+    default void readRangeShouldThrowWhenNotExisting() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> Mono.from(store.readRange(TEST_BUCKET_NAME, new TestBlobId("unknown"), 0, 10)).block())
+            .isExactlyInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    default void readRangeShouldThrowWhenNegativeOffset() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, -1, 10)).block())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    default void readRangeShouldThrowWhenZeroLength() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 0, 0)).block())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    default void readRangeShouldReturnRequestedPart() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 1000, 5000)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(ELEVEN_KILOBYTES, 1000, 6000));
+    }
+
+    @Test
+    default void readRangeShouldReturnFullContentWhenRangeCoversIt() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 0, SHORT_BYTEARRAY.length)).block();
+
+        assertThat(bytes).isEqualTo(SHORT_BYTEARRAY);
+    }
+
+    @Test
+    default void readRangeShouldTruncateRangesEndingAfterTheBlob() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 1, 100)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(SHORT_BYTEARRAY, 1, SHORT_BYTEARRAY.length));
+    }
+
+    @Test
+    default void readRangeShouldAcceptUnboundedLength() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 2, Long.MAX_VALUE)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(SHORT_BYTEARRAY, 2, SHORT_BYTEARRAY.length));
+    }
+
+    @Test
+    default void readRangeShouldReturnEmptyWhenStartingAfterTheBlob() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 100, 10)).block();
+
+        assertThat(bytes).isEmpty();
+    }
+
+    @Test
+    default void readRangeShouldReturnEmptyWhenEmptyBlob() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, EMPTY_BYTEARRAY)).block();
+
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 0, 10)).block();
+
+        assertThat(bytes).isEmpty();
+    }
+
+    @Test
+    default void readRangeShouldReturnPartOfBigSavedData() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, TWELVE_MEGABYTES)).block();
+
+        int offset = 5 * 1024 * 1024 + 17;
+        int length = 3 * 1024 * 1024;
+        byte[] bytes = Mono.from(store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, offset, length)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(TWELVE_MEGABYTES, offset, offset + length));
+    }
+
     @Test
     default void readStreamShouldThrowWhenNotExisting() {
         BlobStoreDAO store = testee();
@@ -0,0 +1,72 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.blob.cassandra;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Number of parts composing a blob, and the size of these parts when known.
+ *
+ * All parts but the last one have the recorded part size, which allows to locate the parts covering a range of the
+ * blob. It is absent for blobs stored before it was recorded.
+ */
+class BlobParts {
+    private final int numberOfParts;
+    private final Optional<Integer> partSize;
+
+    BlobParts(int numberOfParts, Optional<Integer> partSize) {
+        this.numberOfParts = numberOfParts;
+        this.partSize = partSize;
+    }
+
+    int getNumberOfParts() {
+        return numberOfParts;
+    }
+
+    Optional<Integer> getPartSize() {
+        return partSize;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof BlobParts) {
+            BlobParts that = (BlobParts) o;
+
+            return Objects.equals(this.numberOfParts, that.numberOfParts)
+                && Objects.equals(this.partSize, that.partSize);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(numberOfParts, partSize);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("numberOfParts", numberOfParts)
+            .add("partSize", partSize)
+            .toString();
+    }
+}
@@ -25,6 +25,7 @@ public interface BlobTables {
         String TABLE_NAME = "blobs";
         String ID = "id";
         String NUMBER_OF_CHUNK = "position";
+        String PART_SIZE = "partSize";
     }
 
     interface DefaultBucketBlobParts {
@@ -39,6 +40,7 @@ public interface BlobTables {
         String BUCKET = "bucket";
         String ID = "id";
         String NUMBER_OF_CHUNK = "position";
+        String PART_SIZE = "partSize";
     }
 
     interface BucketBlobParts {
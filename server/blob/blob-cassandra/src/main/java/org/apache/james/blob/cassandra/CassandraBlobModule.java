@@ -46,7 +46,8 @@ public interface CassandraBlobModule {
             "Messages` headers and bodies are stored as blobparts.")
         .statement(statement -> statement
             .addPartitionKey(DefaultBucketBlobTable.ID, DataType.text())
-            .addClusteringColumn(DefaultBucketBlobTable.NUMBER_OF_CHUNK, DataType.cint()))
+            .addClusteringColumn(DefaultBucketBlobTable.NUMBER_OF_CHUNK, DataType.cint())
+            .addColumn(DefaultBucketBlobTable.PART_SIZE, DataType.cint()))
 
         .table(BucketBlobParts.TABLE_NAME)
         .comment("Holds blob parts composing blobs in a non-default bucket." +
@@ -63,7 +64,8 @@ public interface CassandraBlobModule {
         .statement(statement -> statement
             .addPartitionKey(BucketBlobParts.BUCKET, DataType.text())
             .addPartitionKey(BucketBlobParts.ID, DataType.text())
-            .addClusteringColumn(BucketBlobTable.NUMBER_OF_CHUNK, DataType.cint()))
+            .addClusteringColumn(BucketBlobTable.NUMBER_OF_CHUNK, DataType.cint())
+            .addColumn(BucketBlobTable.PART_SIZE, DataType.cint()))
 
         .build();
 }
@@ -21,6 +21,7 @@ package org.apache.james.blob.cassandra;
 
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Collection;
@@ -37,6 +38,7 @@ import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ByteRanges;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.metrics.api.Metric;
@@ -60,6 +62,43 @@ import reactor.core.publisher.Mono;
  * alternatives (namely S3 compatible BlobStores backed by for instance S3, MinIO or Ozone)
  */
 public class CassandraBlobStoreDAO implements BlobStoreDAO {
+    private static class RangeCollector {
+        private final long offset;
+        private final long end;
+        private final ByteArrayOutputStream content;
+        private long position;
+
+        private RangeCollector(long offset, long length) {
+            this.offset = offset;
+            this.end = ByteRanges.isUnbounded(offset, length) ? Long.MAX_VALUE : offset + length;
+            this.content = new ByteArrayOutputStream();
+            this.position = 0;
+        }
+
+        void append(ByteBuffer part) {
+            long partStart = position;
+            long partEnd = position + part.remaining();
+            long from = Math.max(offset, partStart);
+            long to = Math.min(end, partEnd);
+            if (from < to) {
+                byte[] bytes = new byte[Math.toIntExact(to - from)];
+                ByteBuffer slice = part.duplicate();
+                slice.position(part.position() + Math.toIntExact(from - partStart));
+                slice.get(bytes);
+                content.write(bytes, 0, bytes.length);
+            }
+            position = partEnd;
+        }
+
+        boolean isComplete() {
+            return position >= end;
+        }
+
+        byte[] content() {
+            return content.toByteArray();
+        }
+    }
+
     public static final boolean LAZY = false;
 
     public static final String CASSANDRA_BLOBSTORE_CL_ONE_MISS_COUNT_METRIC_NAME = "cassandraBlobStoreClOneMisses";
@@ -107,6 +146,49 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
             .map(this::byteBuffersToBytesArray);
     }
 
+    /**
+     * Only the parts overlapping the range are read.
+     *
+     * Blobs stored before their part size was recorded can not locate these parts: their parts are read in order,
+     * and reading stops as soon as the end of the range is reached.
+     */
+    @Override
+    public Mono<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRanges.check(offset, length);
+
+        return selectBlobParts(bucketName, blobId)
+            .flatMap(blobParts -> blobParts.getPartSize()
+                .map(partSize -> readRange(bucketName, blobId, blobParts.getNumberOfParts(), partSize, offset, length))
+                .orElseGet(() -> readRangeSequentially(bucketName, blobId, blobParts.getNumberOfParts(), offset, length)));
+    }
+
+    private Mono<byte[]> readRange(BucketName bucketName, BlobId blobId, int numberOfParts, int partSize, long offset, long length) {
+        long firstPart = offset / partSize;
+        if (firstPart >= numberOfParts) {
+            return Mono.just(new byte[0]);
+        }
+        long lastPart = ByteRanges.isUnbounded(offset, length)
+            ? numberOfParts - 1
+            : Math.min(numberOfParts - 1, ByteRanges.lastOffset(offset, length) / partSize);
+
+        return Flux.range(Math.toIntExact(firstPart), Math.toIntExact(lastPart - firstPart + 1))
+            .concatMap(partIndex -> readPart(bucketName, blobId, partIndex))
+            .collectList()
+            .map(this::byteBuffersToBytesArray)
+            .map(bytes -> ByteRanges.slice(bytes, offset - firstPart * partSize, length));
+    }
+
+    private Mono<byte[]> readRangeSequentially(BucketName bucketName, BlobId blobId, int numberOfParts, long offset, long length) {
+        return Mono.defer(() -> {
+            RangeCollector collector = new RangeCollector(offset, length);
+
+            return readBlobParts(bucketName, blobId, numberOfParts)
+                .doOnNext(collector::append)
+                .takeUntil(any -> collector.isComplete())
+                .then(Mono.fromCallable(collector::content));
+        });
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         Preconditions.checkNotNull(data);
@@ -135,7 +217,7 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
 
     private Mono<Void> save(BucketName bucketName, BlobId blobId, Flux<ByteBuffer> chunksAsFlux) {
         return saveBlobParts(bucketName, blobId, chunksAsFlux)
-            .flatMap(numberOfChunk -> saveBlobPartReference(bucketName, blobId, numberOfChunk));
+            .flatMap(numberOfChunk -> saveBlobPartReference(bucketName, blobId, numberOfChunk, configuration.getBlobPartSize()));
     }
 
     private Mono<Integer> saveBlobParts(BucketName bucketName, BlobId blobId, Flux<ByteBuffer> chunksAsFlux) {
@@ -157,11 +239,11 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
         return write.thenReturn(anyNonEmptyValue);
     }
 
-    private Mono<Void> saveBlobPartReference(BucketName bucketName, BlobId blobId, Integer numberOfChunk) {
+    private Mono<Void> saveBlobPartReference(BucketName bucketName, BlobId blobId, Integer numberOfChunk, int partSize) {
         if (isDefaultBucket(bucketName)) {
-            return defaultBucketDAO.saveBlobPartsReferences(blobId, numberOfChunk);
+            return defaultBucketDAO.saveBlobPartsReferences(blobId, numberOfChunk, partSize);
         } else {
-            return bucketDAO.saveBlobPartsReferences(bucketName, blobId, numberOfChunk);
+            return bucketDAO.saveBlobPartsReferences(bucketName, blobId, numberOfChunk, partSize);
         }
     }
 
@@ -200,6 +282,13 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
     }
 
     private Mono<ByteBuffer> readPart(BucketName bucketName, BlobId blobId, Integer partIndex) {
+        return readPartWithOptimisticConsistency(bucketName, blobId, partIndex)
+            .single()
+            .onErrorMap(NoSuchElementException.class, e ->
+                new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId.asString(), partIndex)));
+    }
+
+    private Mono<ByteBuffer> readPartWithOptimisticConsistency(BucketName bucketName, BlobId blobId, Integer partIndex) {
         if (configuration.isOptimisticConsistencyLevel()) {
             return readPartClOne(bucketName, blobId, partIndex)
                 .doOnNext(any -> metricClOneHitCount.increment())
@@ -226,43 +315,48 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
         }
     }
 
-    private Mono<Integer> selectRowCount(BucketName bucketName, BlobId blobId) {
+    private Mono<BlobParts> selectBlobParts(BucketName bucketName, BlobId blobId) {
+        return selectBlobPartsWithOptimisticConsistency(bucketName, blobId)
+            .single()
+            .onErrorMap(NoSuchElementException.class, e ->
+                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId)));
+    }
+
+    private Mono<BlobParts> selectBlobPartsWithOptimisticConsistency(BucketName bucketName, BlobId blobId) {
         if (configuration.isOptimisticConsistencyLevel()) {
-            return selectRowCountClOne(bucketName, blobId)
+            return selectBlobPartsClOne(bucketName, blobId)
                 .doOnNext(any -> metricClOneHitCount.increment())
                 .switchIfEmpty(Mono.fromRunnable(metricClOneMissCount::increment)
-                    .then(selectRowCountClDefault(bucketName, blobId)));
+                    .then(selectBlobPartsClDefault(bucketName, blobId)));
         } else {
-            return selectRowCountClDefault(bucketName, blobId);
+            return selectBlobPartsClDefault(bucketName, blobId);
         }
     }
 
-    private Mono<Integer> selectRowCountClOne(BucketName bucketName, BlobId blobId) {
+    private Mono<BlobParts> selectBlobPartsClOne(BucketName bucketName, BlobId blobId) {
         if (isDefaultBucket(bucketName)) {
-            return defaultBucketDAO.selectRowCountClOne(blobId);
+            return defaultBucketDAO.selectBlobPartsClOne(blobId);
         } else {
-            return bucketDAO.selectRowCountClOne(bucketName, blobId);
+            return bucketDAO.selectBlobPartsClOne(bucketName, blobId);
         }
     }
 
-    private Mono<Integer> selectRowCountClDefault(BucketName bucketName, BlobId blobId) {
+    private Mono<BlobParts> selectBlobPartsClDefault(BucketName bucketName, BlobId blobId) {
         if (isDefaultBucket(bucketName)) {
-            return defaultBucketDAO.selectRowCount(blobId);
+            return defaultBucketDAO.selectBlobParts(blobId);
         } else {
-            return bucketDAO.selectRowCount(bucketName, blobId);
+            return bucketDAO.selectBlobParts(bucketName, blobId);
         }
     }
 
     private Flux<ByteBuffer> readBlobParts(BucketName bucketName, BlobId blobId) {
-        return selectRowCount(bucketName, blobId)
-            .single()
-            .onErrorMap(NoSuchElementException.class, e ->
-                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId)))
-            .flatMapMany(rowCount -> Flux.range(0, rowCount)
-                .concatMap(partIndex -> readPart(bucketName, blobId, partIndex)
-                    .single()
-                    .onErrorMap(NoSuchElementException.class, e ->
-                        new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId.asString(), partIndex)))));
+        return selectBlobParts(bucketName, blobId)
+            .flatMapMany(blobParts -> readBlobParts(bucketName, blobId, blobParts.getNumberOfParts()));
+    }
+
+    private Flux<ByteBuffer> readBlobParts(BucketName bucketName, BlobId blobId, int numberOfParts) {
+        return Flux.range(0, numberOfParts)
+            .concatMap(partIndex -> readPart(bucketName, blobId, partIndex));
     }
 
     private byte[] byteBuffersToBytesArray(List<ByteBuffer> byteBuffers) {
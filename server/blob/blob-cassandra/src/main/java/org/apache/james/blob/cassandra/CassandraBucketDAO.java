@@ -28,8 +28,10 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.BUCKET;
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.ID;
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.NUMBER_OF_CHUNK;
+import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.PART_SIZE;
 
 import java.nio.ByteBuffer;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -119,7 +121,8 @@ public class CassandraBucketDAO {
         return session.prepare(insertInto(BlobTables.BucketBlobTable.TABLE_NAME)
             .value(BUCKET, bindMarker(BUCKET))
             .value(ID, bindMarker(ID))
-            .value(NUMBER_OF_CHUNK, bindMarker(NUMBER_OF_CHUNK)));
+            .value(NUMBER_OF_CHUNK, bindMarker(NUMBER_OF_CHUNK))
+            .value(PART_SIZE, bindMarker(PART_SIZE)));
     }
 
     private PreparedStatement prepareInsertPart(Session session) {
@@ -139,29 +142,30 @@ public class CassandraBucketDAO {
                 .setBytes(BucketBlobParts.DATA, data));
     }
 
-    Mono<Void> saveBlobPartsReferences(BucketName bucketName, BlobId blobId, int numberOfChunk) {
+    Mono<Void> saveBlobPartsReferences(BucketName bucketName, BlobId blobId, int numberOfChunk, int partSize) {
         return cassandraAsyncExecutor.executeVoid(
             insert.bind()
                 .setString(BUCKET, bucketName.asString())
                 .setString(ID, blobId.asString())
-                .setInt(NUMBER_OF_CHUNK, numberOfChunk));
+                .setInt(NUMBER_OF_CHUNK, numberOfChunk)
+                .setInt(PART_SIZE, partSize));
     }
 
-    Mono<Integer> selectRowCount(BucketName bucketName, BlobId blobId) {
+    Mono<BlobParts> selectBlobParts(BucketName bucketName, BlobId blobId) {
         return cassandraAsyncExecutor.executeSingleRow(
                 select.bind()
                     .setString(BUCKET, bucketName.asString())
                     .setString(ID, blobId.asString()))
-            .map(row -> row.getInt(NUMBER_OF_CHUNK));
+            .map(this::rowToBlobParts);
     }
 
-    Mono<Integer> selectRowCountClOne(BucketName bucketName, BlobId blobId) {
+    Mono<BlobParts> selectBlobPartsClOne(BucketName bucketName, BlobId blobId) {
         return cassandraAsyncExecutor.executeSingleRow(
             select.bind()
                 .setString(BUCKET, bucketName.asString())
                 .setString(ID, blobId.asString())
                 .setConsistencyLevel(LOCAL_ONE))
-            .map(row -> row.getInt(NUMBER_OF_CHUNK));
+            .map(this::rowToBlobParts);
     }
 
     Mono<ByteBuffer> readPart(BucketName bucketName, BlobId blobId, int position) {
@@ -208,6 +212,10 @@ public class CassandraBucketDAO {
             .map(row -> blobIdFactory.from(row.getString(ID)));
     }
 
+    private BlobParts rowToBlobParts(Row row) {
+        return new BlobParts(row.getInt(NUMBER_OF_CHUNK), Optional.ofNullable(row.get(PART_SIZE, Integer.class)));
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getBytes(BucketBlobParts.DATA);
     }
@@ -27,8 +27,10 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.ID;
 import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.NUMBER_OF_CHUNK;
+import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.PART_SIZE;
 
 import java.nio.ByteBuffer;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -90,7 +92,8 @@ public class CassandraDefaultBucketDAO {
     private PreparedStatement prepareInsert(Session session) {
         return session.prepare(insertInto(BlobTables.DefaultBucketBlobTable.TABLE_NAME)
             .value(ID, bindMarker(ID))
-            .value(NUMBER_OF_CHUNK, bindMarker(NUMBER_OF_CHUNK)));
+            .value(NUMBER_OF_CHUNK, bindMarker(NUMBER_OF_CHUNK))
+            .value(PART_SIZE, bindMarker(PART_SIZE)));
     }
 
     private PreparedStatement prepareInsertPart(Session session) {
@@ -120,26 +123,27 @@ public class CassandraDefaultBucketDAO {
                 .setBytes(DefaultBucketBlobParts.DATA, data));
     }
 
-    Mono<Void> saveBlobPartsReferences(BlobId blobId, int numberOfChunk) {
+    Mono<Void> saveBlobPartsReferences(BlobId blobId, int numberOfChunk, int partSize) {
         return cassandraAsyncExecutor.executeVoid(
             insert.bind()
                 .setString(ID, blobId.asString())
-                .setInt(NUMBER_OF_CHUNK, numberOfChunk));
+                .setInt(NUMBER_OF_CHUNK, numberOfChunk)
+                .setInt(PART_SIZE, partSize));
     }
 
-    Mono<Integer> selectRowCount(BlobId blobId) {
+    Mono<BlobParts> selectBlobParts(BlobId blobId) {
         return cassandraAsyncExecutor.executeSingleRow(
                 select.bind()
                     .setString(ID, blobId.asString()))
-            .map(row -> row.getInt(NUMBER_OF_CHUNK));
+            .map(this::rowToBlobParts);
     }
 
-    Mono<Integer> selectRowCountClOne(BlobId blobId) {
+    Mono<BlobParts> selectBlobPartsClOne(BlobId blobId) {
         return cassandraAsyncExecutor.executeSingleRow(
             select.bind()
                 .setString(ID, blobId.asString())
                 .setConsistencyLevel(LOCAL_ONE))
-            .map(row -> row.getInt(NUMBER_OF_CHUNK));
+            .map(this::rowToBlobParts);
     }
 
     Mono<ByteBuffer> readPart(BlobId blobId, int position) {
@@ -176,6 +180,10 @@ public class CassandraDefaultBucketDAO {
             .map(row -> blobIdFactory.from(row.getString(DefaultBucketBlobParts.ID)));
     }
 
+    private BlobParts rowToBlobParts(Row row) {
+        return new BlobParts(row.getInt(NUMBER_OF_CHUNK), Optional.ofNullable(row.get(PART_SIZE, Integer.class)));
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getBytes(DefaultBucketBlobParts.DATA);
     }
@@ -181,6 +181,12 @@ public class CachedBlobStore implements BlobStore {
         return read(bucketName, blobId, LOW_COST);
     }
 
+    @Override
+    public Publisher<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return metricFactory.decoratePublisherWithTimerMetric(BLOBSTORE_BACKEND_LATENCY_METRIC_NAME,
+            backend.readRange(bucketName, blobId, offset, length));
+    }
+
     private Mono<byte[]> readBytesInDefaultBucket(BucketName bucketName, BlobId blobId) {
         return readFromCache(blobId).switchIfEmpty(
             readBytesFromBackend(bucketName, blobId)
@@ -129,7 +129,7 @@ class CassandraBlobStoreClOneTest implements CassandraBlobStoreContract {
         String longString = Strings.repeat("0123456789\n", repeatCount);
         BlobId blobId = Mono.from(testee().save(testee().getDefaultBucketName(), longString, LOW_COST)).block();
 
-        when(defaultBucketDAO().selectRowCountClOne(blobId)).thenReturn(Mono.empty());
+        when(defaultBucketDAO().selectBlobPartsClOne(blobId)).thenReturn(Mono.empty());
 
         String data = IOUtils.toString(testee().read(testee().getDefaultBucketName(), blobId), StandardCharsets.UTF_8);
 
@@ -142,7 +142,7 @@ class CassandraBlobStoreClOneTest implements CassandraBlobStoreContract {
         String longString = Strings.repeat("0123456789\n", repeatCount);
         BlobId blobId = Mono.from(testee().save(testee().getDefaultBucketName(), longString, LOW_COST)).block();
 
-        when(defaultBucketDAO().selectRowCountClOne(blobId)).thenReturn(Mono.empty());
+        when(defaultBucketDAO().selectBlobPartsClOne(blobId)).thenReturn(Mono.empty());
 
         byte[] bytes = Mono.from(testee().readBytes(testee().getDefaultBucketName(), blobId)).block();
 
@@ -205,7 +205,7 @@ class CassandraBlobStoreClOneTest implements CassandraBlobStoreContract {
 
         BlobId blobId = Mono.from(store.save(store.getDefaultBucketName(), BYTES_CONTENT, LOW_COST)).block();
 
-        when(defaultBucketDAO().selectRowCountClOne(blobId)).thenReturn(Mono.empty());
+        when(defaultBucketDAO().selectBlobPartsClOne(blobId)).thenReturn(Mono.empty());
         store.read(store.getDefaultBucketName(), blobId);
 
         when(defaultBucketDAO().readPartClOne(blobId, 1)).thenReturn(Mono.empty());
@@ -222,7 +222,7 @@ class CassandraBlobStoreClOneTest implements CassandraBlobStoreContract {
 
         BlobId blobId = Mono.from(store.save(store.getDefaultBucketName(), BYTES_CONTENT, LOW_COST)).block();
 
-        when(defaultBucketDAO().selectRowCountClOne(blobId)).thenReturn(Mono.empty());
+        when(defaultBucketDAO().selectBlobPartsClOne(blobId)).thenReturn(Mono.empty());
         Mono.from(store.readBytes(store.getDefaultBucketName(), blobId)).block();
 
         when(defaultBucketDAO().readPartClOne(blobId, 1)).thenReturn(Mono.empty());
@@ -19,6 +19,17 @@
 
 package org.apache.james.blob.cassandra;
 
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BLOB_ID;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TWELVE_MEGABYTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+
 import org.apache.james.backends.cassandra.CassandraCluster;
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
 import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
@@ -29,8 +40,11 @@ import org.apache.james.blob.api.TestBlobId;
 import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import reactor.core.publisher.Mono;
+
 public class CassandraBlobStoreDAOTest implements BlobStoreDAOContract {
     private static final int CHUNK_SIZE = 10240;
 
@@ -39,12 +53,14 @@ public class CassandraBlobStoreDAOTest implements BlobStoreDAOContract {
 
     private BlobStoreDAO testee;
     private CassandraDefaultBucketDAO defaultBucketDAO;
+    private CassandraCluster cassandra;
 
     @BeforeEach
     void setUp(CassandraCluster cassandra) {
+        this.cassandra = cassandra;
         TestBlobId.Factory blobIdFactory = new TestBlobId.Factory();
         CassandraBucketDAO bucketDAO = new CassandraBucketDAO(blobIdFactory, cassandra.getConf());
-        defaultBucketDAO = new CassandraDefaultBucketDAO(cassandra.getConf(), blobIdFactory);
+        defaultBucketDAO = spy(new CassandraDefaultBucketDAO(cassandra.getConf(), blobIdFactory));
         testee = new CassandraBlobStoreDAO(
             defaultBucketDAO,
             bucketDAO,
@@ -60,6 +76,28 @@ public class CassandraBlobStoreDAOTest implements BlobStoreDAOContract {
         return testee;
     }
 
+    @Test
+    void readRangeShouldOnlyReadThePartsOfTheRange() {
+        Mono.from(testee.save(BucketName.DEFAULT, TEST_BLOB_ID, TWELVE_MEGABYTES)).block();
+
+        byte[] bytes = Mono.from(testee.readRange(BucketName.DEFAULT, TEST_BLOB_ID, 5_000_000, CHUNK_SIZE)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(TWELVE_MEGABYTES, 5_000_000, 5_000_000 + CHUNK_SIZE));
+        verify(defaultBucketDAO, atMost(2)).readPart(any(), anyInt());
+    }
+
+    @Test
+    void readRangeShouldSupportBlobsWithoutPartSize() {
+        Mono.from(testee.save(BucketName.DEFAULT, TEST_BLOB_ID, TWELVE_MEGABYTES)).block();
+        int numberOfParts = (TWELVE_MEGABYTES.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        cassandra.getConf().execute(String.format("DELETE partSize FROM blobs WHERE id = '%s' AND position = %d",
+            TEST_BLOB_ID.asString(), numberOfParts));
+
+        byte[] bytes = Mono.from(testee.readRange(BucketName.DEFAULT, TEST_BLOB_ID, 5_000_000, CHUNK_SIZE)).block();
+
+        assertThat(bytes).isEqualTo(Arrays.copyOfRange(TWELVE_MEGABYTES, 5_000_000, 5_000_000 + CHUNK_SIZE));
+    }
+
     @Override
     @Disabled("Not supported by the Cassandra blob store")
     public void listBucketsShouldReturnBucketsWithNoBlob() {
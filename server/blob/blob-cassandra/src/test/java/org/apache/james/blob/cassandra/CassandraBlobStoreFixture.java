@@ -31,6 +31,7 @@ public interface CassandraBlobStoreFixture {
     int POSITION = 42;
     int POSITION_2 = 43;
     int NUMBER_OF_CHUNK = 17;
+    int PART_SIZE = 1024;
     int NUMBER_OF_CHUNK_2 = 18;
     BlobId BLOB_ID = new HashBlobId.Factory().from("05dcb33b-8382-4744-923a-bc593ad84d23");
     BlobId BLOB_ID_2 = new HashBlobId.Factory().from("05dcb33b-8382-4744-923a-bc593ad84d24");
@@ -26,6 +26,7 @@ import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.BUCKET_N
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.DATA;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.DATA_2;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.NUMBER_OF_CHUNK;
+import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.PART_SIZE;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.POSITION;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.POSITION_2;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -74,11 +75,11 @@ class CassandraBucketDAOTest {
 
     @Test
     void selectRowCountShouldNotReturnDeletedData() {
-        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
         testee.deletePosition(BUCKET_NAME, BLOB_ID).block();
 
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BUCKET_NAME, BLOB_ID).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BUCKET_NAME, BLOB_ID).map(BlobParts::getNumberOfParts).blockOptional();
         assertThat(maybeRowCount).isEmpty();
     }
 
@@ -144,25 +145,34 @@ class CassandraBucketDAOTest {
 
     @Test
     void selectRowCountShouldReturnEmptyByDefault() {
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BUCKET_NAME, BLOB_ID).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BUCKET_NAME, BLOB_ID).map(BlobParts::getNumberOfParts).blockOptional();
 
         assertThat(maybeRowCount).isEmpty();
     }
 
     @Test
     void selectRowCountShouldReturnPreviouslySavedValue() {
-        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BUCKET_NAME, BLOB_ID).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BUCKET_NAME, BLOB_ID).map(BlobParts::getNumberOfParts).blockOptional();
 
         assertThat(maybeRowCount).contains(NUMBER_OF_CHUNK);
     }
 
+    @Test
+    void selectBlobPartsShouldReturnPreviouslySavedPartSize() {
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
+
+        Optional<BlobParts> maybeBlobParts = testee.selectBlobParts(BUCKET_NAME, BLOB_ID).blockOptional();
+
+        assertThat(maybeBlobParts).contains(new BlobParts(NUMBER_OF_CHUNK, Optional.of(PART_SIZE)));
+    }
+
     @Test
     void selectRowCountShouldNotReturnOtherBlobIdValue() {
-        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BUCKET_NAME, BLOB_ID_2).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BUCKET_NAME, BLOB_ID_2).map(BlobParts::getNumberOfParts).blockOptional();
 
         assertThat(maybeRowCount).isEmpty();
     }
@@ -174,9 +184,9 @@ class CassandraBucketDAOTest {
 
     @Test
     void listAllShouldReturnPreviouslyInsertedData() {
-        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK).block();
-        testee.saveBlobPartsReferences(BUCKET_NAME_2, BLOB_ID, NUMBER_OF_CHUNK).block();
-        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID_2, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME_2, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID_2, NUMBER_OF_CHUNK, PART_SIZE).block();
 
         assertThat(testee.listAll().toStream()).containsOnly(
             Pair.of(BUCKET_NAME, BLOB_ID),
@@ -186,7 +196,7 @@ class CassandraBucketDAOTest {
 
     @Test
     void listAllShouldNotReturnDeletedData() {
-        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BUCKET_NAME, BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
         testee.deletePosition(BUCKET_NAME, BLOB_ID).block();
 
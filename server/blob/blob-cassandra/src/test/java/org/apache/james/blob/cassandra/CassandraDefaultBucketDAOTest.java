@@ -24,6 +24,7 @@ import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.BLOB_ID_
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.DATA;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.DATA_2;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.NUMBER_OF_CHUNK;
+import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.PART_SIZE;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.POSITION;
 import static org.apache.james.blob.cassandra.CassandraBlobStoreFixture.POSITION_2;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -88,25 +89,34 @@ class CassandraDefaultBucketDAOTest {
 
     @Test
     void selectRowCountShouldReturnEmptyByDefault() {
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BLOB_ID).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BLOB_ID).map(BlobParts::getNumberOfParts).blockOptional();
 
         assertThat(maybeRowCount).isEmpty();
     }
 
     @Test
     void selectRowCountShouldReturnPreviouslySavedValue() {
-        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BLOB_ID).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BLOB_ID).map(BlobParts::getNumberOfParts).blockOptional();
 
         assertThat(maybeRowCount).contains(NUMBER_OF_CHUNK);
     }
 
+    @Test
+    void selectBlobPartsShouldReturnPreviouslySavedPartSize() {
+        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
+
+        Optional<BlobParts> maybeBlobParts = testee.selectBlobParts(BLOB_ID).blockOptional();
+
+        assertThat(maybeBlobParts).contains(new BlobParts(NUMBER_OF_CHUNK, Optional.of(PART_SIZE)));
+    }
+
     @Test
     void selectRowCountShouldNotReturnOtherBlobIdValue() {
-        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BLOB_ID_2).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BLOB_ID_2).map(BlobParts::getNumberOfParts).blockOptional();
 
         assertThat(maybeRowCount).isEmpty();
     }
@@ -125,11 +135,11 @@ class CassandraDefaultBucketDAOTest {
 
     @Test
     void selectRowCountShouldNotReturnDeletedData() {
-        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK).block();
+        testee.saveBlobPartsReferences(BLOB_ID, NUMBER_OF_CHUNK, PART_SIZE).block();
 
         testee.deletePosition(BLOB_ID).block();
 
-        Optional<Integer> maybeRowCount = testee.selectRowCount(BLOB_ID).blockOptional();
+        Optional<Integer> maybeRowCount = testee.selectBlobParts(BLOB_ID).map(BlobParts::getNumberOfParts).blockOptional();
         assertThat(maybeRowCount).isEmpty();
     }
 
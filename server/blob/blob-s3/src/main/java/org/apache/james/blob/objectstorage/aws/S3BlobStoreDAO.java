@@ -41,6 +41,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ByteRanges;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.lifecycle.api.Startable;
@@ -80,6 +81,7 @@ import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
@@ -90,6 +92,7 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
     private static final Duration FIRST_BACK_OFF = Duration.ofMillis(100);
     private static final boolean LAZY = false;
     private static final int MAX_RETRIES = 5;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
 
     private final BucketNameResolver bucketNameResolver;
     private final S3AsyncClient client;
@@ -221,6 +224,35 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
             .map(BytesWrapper::asByteArray);
     }
 
+    @Override
+    public Mono<byte[]> readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRanges.check(offset, length);
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+
+        return Mono.fromFuture(() ->
+                client.getObject(
+                    builder -> builder.bucket(resolvedBucketName.asString()).key(blobId.asString()).range(rangeHeader(offset, length)),
+                    AsyncResponseTransformer.toBytes()))
+            .onErrorMap(NoSuchBucketException.class, e -> new ObjectNotFoundException("Bucket not found " + resolvedBucketName.asString(), e))
+            .onErrorMap(NoSuchKeyException.class, e -> new ObjectNotFoundException("Blob not found " + resolvedBucketName.asString(), e))
+            .publishOn(Schedulers.parallel())
+            .map(BytesWrapper::asByteArray)
+            .onErrorResume(S3Exception.class, e -> {
+                // The range starts after the end of the object
+                if (e.statusCode() == HTTP_RANGE_NOT_SATISFIABLE) {
+                    return Mono.just(new byte[0]);
+                }
+                return Mono.error(e);
+            });
+    }
+
+    private String rangeHeader(long offset, long length) {
+        if (ByteRanges.isUnbounded(offset, length)) {
+            return "bytes=" + offset + "-";
+        }
+        return "bytes=" + offset + "-" + ByteRanges.lastOffset(offset, length);
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
@@ -68,6 +68,12 @@ class PassThroughBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
     blobStoreDAO.readBytes(bucketName, blobId)
   }
 
+  override def readRange(bucketName: BucketName, blobId: BlobId, offset: Long, length: Long): Publisher[Array[Byte]] = {
+    Preconditions.checkNotNull(bucketName)
+
+    blobStoreDAO.readRange(bucketName, blobId, offset, length)
+  }
+
   override def read(bucketName: BucketName, blobId: BlobId): InputStream = {
     Preconditions.checkNotNull(bucketName)
 
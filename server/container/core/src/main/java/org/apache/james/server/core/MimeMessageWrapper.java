@@ -124,10 +124,24 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
         this(Session.getDefaultInstance(System.getProperties()), source);
     }
 
+    /**
+     * Copy the given message.
+     *
+     * When the original message is a {@link MimeMessageWrapper} whose body had not been modified, its source is shared
+     * rather than copied and only its headers are copied: both messages can then be modified independently, the
+     * shared source being disposed once both messages are disposed.
+     *
+     * @param original the message to copy
+     * @throws MessagingException
+     */
     public MimeMessageWrapper(MimeMessage original) throws MessagingException {
         this(Session.getDefaultInstance(System.getProperties()));
         flags = original.getFlags();
 
+        if (original instanceof MimeMessageWrapper) {
+            shareSourceOf((MimeMessageWrapper) original);
+        }
+
         if (source == null) {
             InputStream in;
 
@@ -167,6 +181,36 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
         }
     }
 
+    private void shareSourceOf(MimeMessageWrapper original) {
+        if (original.source == null || original.bodyModified) {
+            return;
+        }
+        source = original.shareSource();
+        if (original.headers != null) {
+            headers = copyHeaders(original.headers);
+            initialHeaderSize = original.initialHeaderSize;
+        }
+        modified = original.modified;
+        saved = original.saved;
+        headersModified = original.headersModified;
+    }
+
+    private synchronized SharedMimeMessageSource shareSource() {
+        if (!(source instanceof SharedMimeMessageSource)) {
+            source = SharedMimeMessageSource.of(source);
+        }
+        return ((SharedMimeMessageSource) source).share();
+    }
+
+    private static MailHeaders copyHeaders(InternetHeaders headers) {
+        MailHeaders copy = new MailHeaders();
+        Enumeration<String> headerLines = headers.getAllHeaderLines();
+        while (headerLines.hasMoreElements()) {
+            copy.addHeaderLine(headerLines.nextElement());
+        }
+        return copy;
+    }
+
     /**
      * Overrides default javamail behaviour by not altering the Message-ID by
      * default, see <a href="https://issues.apache.org/jira/browse/JAMES-875">JAMES-875</a> and
@@ -0,0 +1,93 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.lifecycle.api.Disposable;
+import org.apache.james.lifecycle.api.LifecycleUtil;
+
+/**
+ * Reference to a {@link MimeMessageSource} shared by several {@link MimeMessageWrapper}.
+ *
+ * Each wrapper holds its own reference, and the underlying source is disposed once every reference to it has been
+ * disposed. Access to the underlying source is serialized as sources are not expected to be thread safe.
+ */
+class SharedMimeMessageSource extends MimeMessageSource implements Disposable {
+
+    private static class References {
+        private final MimeMessageSource source;
+        private final AtomicInteger count;
+
+        private References(MimeMessageSource source) {
+            this.source = source;
+            this.count = new AtomicInteger();
+        }
+    }
+
+    static SharedMimeMessageSource of(MimeMessageSource source) {
+        return new SharedMimeMessageSource(new References(source));
+    }
+
+    private final References references;
+    private final AtomicBoolean disposed;
+
+    private SharedMimeMessageSource(References references) {
+        this.references = references;
+        this.disposed = new AtomicBoolean(false);
+        references.count.incrementAndGet();
+    }
+
+    /**
+     * @return a new reference to the underlying source
+     */
+    SharedMimeMessageSource share() {
+        return new SharedMimeMessageSource(references);
+    }
+
+    @Override
+    public String getSourceId() {
+        return references.source.getSourceId();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        synchronized (references) {
+            return references.source.getInputStream();
+        }
+    }
+
+    @Override
+    public long getMessageSize() throws IOException {
+        synchronized (references) {
+            return references.source.getMessageSize();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed.compareAndSet(false, true) && references.count.decrementAndGet() == 0) {
+            LifecycleUtil.dispose(references.source);
+        }
+    }
+}
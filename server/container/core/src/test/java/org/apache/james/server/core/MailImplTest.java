@@ -178,6 +178,24 @@ public class MailImplTest extends ContractMailTest {
         assertThat(mail.getPerRecipientSpecificHeaders()).isEqualTo(duplicate.getPerRecipientSpecificHeaders());
     }
 
+    @Test
+    void duplicateShouldShareMessageSourceAndCopyHeadersOnWrite() throws Exception {
+        MailImpl mail = MailImpl.builder()
+            .name(MailUtil.newId())
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder()
+                .setSubject("subject")
+                .setText("content"))
+            .build();
+
+        MailImpl duplicate = MailImpl.duplicate(mail);
+        duplicate.getMessage().setSubject("other");
+
+        assertThat(((MimeMessageWrapper) duplicate.getMessage()).getSourceId())
+            .isEqualTo(((MimeMessageWrapper) mail.getMessage()).getSourceId());
+        assertThat(mail.getMessage().getSubject()).isEqualTo("subject");
+        assertThat(duplicate.getMessage().getContent()).isEqualTo("content");
+    }
+
     @Test
     void setAttributeShouldThrowOnNullAttributeName() {
         MailImpl mail = newMail();
@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.Enumeration;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.mail.MessagingException;
 import javax.mail.Session;
@@ -365,4 +366,90 @@ public class MimeMessageWrapperTest extends MimeMessageFromStreamTest {
         assertThat(wrapper.getMessageSize()).isEqualTo(
             IOUtils.consume(wrapper.getMessageInputStream()));
     }
+
+    @Test
+    public void copyShouldShareSourceOfOriginal() throws Exception {
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        assertThat(copy.getSourceId()).isEqualTo(mw.getSourceId());
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    public void copyShouldNotShareSourceWhenBodyIsModified() throws Exception {
+        mw.setText("other");
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        assertThat(copy.getSourceId()).isNotEqualTo(mw.getSourceId());
+        assertThat(copy.getContent()).isEqualTo("other");
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    public void copyShouldKeepModifiedHeadersOfOriginal() throws Exception {
+        mw.setHeader("X-Test", "X-Value");
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        ByteArrayOutputStream rawMessage = new ByteArrayOutputStream();
+        copy.writeTo(rawMessage);
+
+        assertThat(rawMessage.toString())
+            .contains("X-Test: X-Value")
+            .endsWith(sep + body);
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    public void modifyingCopyHeadersShouldNotAlterOriginal() throws Exception {
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+        copy.setHeader("X-Test", "X-Value");
+        copy.setSubject("modified");
+
+        assertThat(mw.getHeader("X-Test")).isNull();
+        assertThat(mw.getSubject()).isEqualTo("foo");
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    public void modifyingOriginalHeadersShouldNotAlterCopy() throws Exception {
+        mw.getSubject();
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+        mw.setSubject("modified");
+
+        assertThat(copy.getSubject()).isEqualTo("foo");
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    public void modifyingCopyBodyShouldNotAlterOriginal() throws Exception {
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+        copy.setText("other");
+        copy.saveChanges();
+
+        assertThat(copy.getContent()).isEqualTo("other");
+        assertThat(mw.getContent()).isEqualTo(body);
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    public void sharedSourceShouldBeDisposedOnceEveryCopyIsDisposed() throws Exception {
+        AtomicInteger disposals = new AtomicInteger();
+        MimeMessageInputStreamSource source = new MimeMessageInputStreamSource("test", new SharedByteArrayInputStream((content + sep + body).getBytes())) {
+            @Override
+            public void dispose() {
+                disposals.incrementAndGet();
+                super.dispose();
+            }
+        };
+        MimeMessageWrapper original = new MimeMessageWrapper(source);
+        MimeMessageWrapper copy = new MimeMessageWrapper(original);
+
+        LifecycleUtil.dispose(original);
+        LifecycleUtil.dispose(original);
+        assertThat(disposals.get()).isZero();
+        assertThat(copy.getSubject()).isEqualTo("foo");
+
+        LifecycleUtil.dispose(copy);
+        assertThat(disposals.get()).isEqualTo(1);
+    }
 }
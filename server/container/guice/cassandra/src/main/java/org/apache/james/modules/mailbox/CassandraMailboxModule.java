@@ -70,6 +70,7 @@ import org.apache.james.mailbox.cassandra.mail.CassandraMailboxDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxMapper;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxPathV3DAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMailboxRecentsDAO;
+import org.apache.james.mailbox.cassandra.mail.CassandraMessageChangeLogDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAOV3;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageIdDAO;
@@ -87,6 +88,7 @@ import org.apache.james.mailbox.cassandra.modules.CassandraDeletedMessageModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraFirstUnseenModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxCounterModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxRecentsModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraMessageChangeLogModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraSubscriptionModule;
@@ -142,6 +144,7 @@ public class CassandraMailboxModule extends AbstractModule {
         bind(CassandraACLDAOV2.class).in(Scopes.SINGLETON);
         bind(CassandraMailboxPathV3DAO.class).in(Scopes.SINGLETON);
         bind(CassandraMailboxRecentsDAO.class).in(Scopes.SINGLETON);
+        bind(CassandraMessageChangeLogDAO.class).in(Scopes.SINGLETON);
         bind(CassandraMessageDAO.class).in(Scopes.SINGLETON);
         bind(CassandraMessageDAOV3.class).in(Scopes.SINGLETON);
         bind(CassandraMessageIdDAO.class).in(Scopes.SINGLETON);
@@ -216,6 +219,7 @@ public class CassandraMailboxModule extends AbstractModule {
         cassandraDataDefinitions.addBinding().toInstance(CassandraAnnotationModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraApplicableFlagsModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraDeletedMessageModule.MODULE);
+        cassandraDataDefinitions.addBinding().toInstance(CassandraMessageChangeLogModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraFirstUnseenModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraMailboxRecentsModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraModSeqModule.MODULE);
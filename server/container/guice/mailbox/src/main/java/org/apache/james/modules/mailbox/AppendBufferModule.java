@@ -0,0 +1,60 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.modules.mailbox;
+
+import java.io.FileNotFoundException;
+import java.util.Optional;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.mailbox.store.AppendBuffer;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.Size;
+import org.apache.james.utils.PropertiesProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.primitives.Ints;
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+
+public class AppendBufferModule extends AbstractModule {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppendBufferModule.class);
+    private static final String FILENAME = "batchsizes";
+    private static final String THRESHOLD_PROPERTY = "append.buffer.threshold";
+    private static final String POOL_SIZE_PROPERTY = "append.buffer.pool.size";
+
+    @Singleton
+    @Provides
+    AppendBuffer appendBuffer(PropertiesProvider propertiesProvider, MetricFactory metricFactory) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(FILENAME);
+            int threshold = Optional.ofNullable(configuration.getString(THRESHOLD_PROPERTY, null))
+                .map(Size::parse)
+                .map(size -> Ints.checkedCast(size.asBytes()))
+                .orElse(AppendBuffer.DEFAULT_IN_MEMORY_THRESHOLD);
+            int poolSize = configuration.getInt(POOL_SIZE_PROPERTY, AppendBuffer.DEFAULT_POOL_SIZE);
+            return new AppendBuffer(threshold, poolSize, metricFactory);
+        } catch (FileNotFoundException e) {
+            LOGGER.info("Could not find {} configuration file, using default append buffer", FILENAME);
+            return new AppendBuffer(metricFactory);
+        }
+    }
+}
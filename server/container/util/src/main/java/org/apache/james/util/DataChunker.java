@@ -53,6 +53,9 @@ public class DataChunker {
         return Mono.just(ByteBuffer.wrap(data, offset, data.length - offset));
     }
 
+    /**
+     * All chunks but the last one are exactly chunkSize long, even when the underlying stream returns short reads.
+     */
     public static Flux<ByteBuffer> chunkStream(InputStream data, int chunkSize) {
         Preconditions.checkNotNull(data);
         Preconditions.checkArgument(chunkSize > 0, CHUNK_SIZE_MUST_BE_STRICTLY_POSITIVE);
@@ -62,7 +65,7 @@ public class DataChunker {
                 try {
                     byte[] buffer = new byte[chunkSize];
 
-                    int size = bufferedInputStream.read(buffer);
+                    int size = bufferedInputStream.readNBytes(buffer, 0, chunkSize);
                     if (size <= 0) {
                         sink.complete();
                     } else {
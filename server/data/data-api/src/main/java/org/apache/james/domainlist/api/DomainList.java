@@ -28,6 +28,14 @@ import org.apache.james.core.Domain;
  */
 public interface DomainList {
 
+    /**
+     * Notified of the domains added to or removed from this list by the current James node.
+     */
+    @FunctionalInterface
+    interface ChangeListener {
+        void onDomainChanged(Domain domain);
+    }
+
     /**
      * Return list of domains which should be used as localdomains. Return empty
      * if no domain is found.
@@ -71,4 +79,11 @@ public interface DomainList {
      */
     Domain getDefaultDomain() throws DomainListException;
 
+    /**
+     * Register a listener notified of the changes made to this list. Implementations not supporting it ignore
+     * listeners.
+     */
+    default void addChangeListener(ChangeListener listener) {
+
+    }
 }
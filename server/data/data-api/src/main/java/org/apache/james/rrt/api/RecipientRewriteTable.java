@@ -47,6 +47,14 @@ public interface RecipientRewriteTable {
         }
     }
 
+    /**
+     * Notified of the mappings changed by the current James node.
+     */
+    @FunctionalInterface
+    interface ChangeListener {
+        void onMappingChanged(MappingSource source);
+    }
+
     EnumSet<Mapping.Type> listSourcesSupportedType = EnumSet.of(
         Mapping.Type.Group,
         Mapping.Type.Forward,
@@ -128,6 +136,14 @@ public interface RecipientRewriteTable {
 
     RecipientRewriteTableConfiguration getConfiguration();
 
+    /**
+     * Register a listener notified of the changes made to the mappings. Implementations not supporting it ignore
+     * listeners.
+     */
+    default void addChangeListener(ChangeListener listener) {
+
+    }
+
     default Stream<MappingSource> listSources(Mapping mapping) throws RecipientRewriteTableException {
         Preconditions.checkArgument(listSourcesSupportedType.contains(mapping.getType()),
             "Not supported mapping of type %s", mapping.getType());
@@ -33,6 +33,14 @@ import org.reactivestreams.Publisher;
  */
 public interface UsersRepository {
 
+    /**
+     * Notified of the users added to or removed from this repository by the current James node.
+     */
+    @FunctionalInterface
+    interface ChangeListener {
+        void onUserChanged(Username username);
+    }
+
     /**
      * Adds a user to the repository with the specified password
      * 
@@ -163,6 +171,14 @@ public interface UsersRepository {
      */
     boolean isReadOnly();
 
+    /**
+     * Register a listener notified of the changes made to this repository. Implementations not supporting it ignore
+     * listeners.
+     */
+    default void addChangeListener(ChangeListener listener) {
+
+    }
+
     default void assertValid(Username username) throws UsersRepositoryException {
         if (username.getDomainPart().isPresent() != supportVirtualHosting()) {
             throw new UsersRepositoryException(username.asString() + " username candidate do not match the virtualHosting strategy");
@@ -105,6 +105,7 @@ public class CassandraDomainList extends AbstractDomainList {
         if (!executed) {
             throw new DomainListException(domain.name() + " already exists.");
         }
+        notifyDomainChanged(domain);
     }
 
     @Override
@@ -50,6 +50,7 @@ public class CassandraRecipientRewriteTable extends AbstractRecipientRewriteTabl
         cassandraRecipientRewriteTableDAO.addMapping(source, mapping)
             .then(cassandraMappingsSourcesDAO.addMapping(mapping, source))
             .block();
+        notifyMappingChanged(source);
     }
 
     @Override
@@ -57,6 +58,7 @@ public class CassandraRecipientRewriteTable extends AbstractRecipientRewriteTabl
         cassandraRecipientRewriteTableDAO.removeMapping(source, mapping)
             .then(cassandraMappingsSourcesDAO.removeMapping(mapping, source))
             .block();
+        notifyMappingChanged(source);
     }
 
     @Override
@@ -69,6 +69,7 @@ public class XMLDomainList extends AbstractDomainList implements Configurable {
             throw new DomainListException("Read-Only DomainList implementation");
         }
         domainNames.add(domain);
+        notifyDomainChanged(domain);
     }
 
     @Override
@@ -119,6 +119,7 @@ public class JPADomainList extends AbstractDomainList {
             JPADomain jpaDomain = new JPADomain(domain);
             entityManager.persist(jpaDomain);
             transaction.commit();
+            notifyDomainChanged(domain);
         } catch (PersistenceException e) {
             LOGGER.error("Failed to save domain", e);
             rollback(transaction);
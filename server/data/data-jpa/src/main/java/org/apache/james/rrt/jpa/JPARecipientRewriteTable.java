@@ -71,6 +71,7 @@ public class JPARecipientRewriteTable extends AbstractRecipientRewriteTable {
         } else {
             doAddMapping(source, mapping.asString());
         }
+        notifyMappingChanged(source);
     }
 
     @Override
@@ -135,6 +136,7 @@ public class JPARecipientRewriteTable extends AbstractRecipientRewriteTable {
         } else {
             doRemoveMapping(source, mapping.asString());
         }
+        notifyMappingChanged(source);
     }
 
     /**
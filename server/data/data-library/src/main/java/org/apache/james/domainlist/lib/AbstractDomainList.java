@@ -24,6 +24,7 @@ import java.net.UnknownHostException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
@@ -71,6 +72,7 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
     private LoadingCache<Domain, Boolean> cache;
     private DomainListConfiguration configuration;
     private Domain defaultDomain;
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public AbstractDomainList(DNSService dns, EnvDetector envDetector) {
         this.dns = dns;
@@ -292,6 +294,22 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
         }
 
         doRemoveDomain(domain);
+        notifyDomainChanged(domain);
+    }
+
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * To be called by implementations once the given domain had been added or removed.
+     */
+    protected void notifyDomainChanged(Domain domain) {
+        if (cache != null) {
+            cache.invalidate(domain);
+        }
+        changeListeners.forEach(listener -> listener.onDomainChanged(domain));
     }
 
     private boolean isAutoDetected(Domain domain) throws DomainListException {
@@ -24,6 +24,7 @@ import static org.apache.james.UserEntityValidator.EntityType.GROUP;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -68,6 +69,7 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
     private UserEntityValidator userEntityValidator;
     private UsersRepository usersRepository;
     private DomainList domainList;
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public void setConfiguration(RecipientRewriteTableConfiguration configuration) {
         Preconditions.checkState(this.configuration == null, "A configuration cannot be set twice");
@@ -100,6 +102,18 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
 
     }
 
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * To be called by implementations once a mapping of the given source had been stored or removed.
+     */
+    protected void notifyMappingChanged(MappingSource source) {
+        changeListeners.forEach(listener -> listener.onMappingChanged(source));
+    }
+
     @Override
     public RecipientRewriteTableConfiguration getConfiguration() {
         return configuration;
@@ -22,6 +22,7 @@ package org.apache.james.user.lib;
 import java.time.temporal.ChronoUnit;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.inject.Inject;
 
@@ -57,6 +58,7 @@ public class UsersRepositoryImpl<T extends UsersDAO> implements UsersRepository,
     private Optional<Username> administratorId;
     private long verifyFailureDelay;
     private UserEntityValidator validator;
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     @Inject
     public UsersRepositoryImpl(DomainList domainList, T usersDAO) {
@@ -127,6 +129,16 @@ public class UsersRepositoryImpl<T extends UsersDAO> implements UsersRepository,
         ensureNoConflict(username);
         assertValid(username);
         usersDAO.addUser(username, password);
+        notifyUserChanged(username);
+    }
+
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    private void notifyUserChanged(Username username) {
+        changeListeners.forEach(listener -> listener.onUserChanged(username));
     }
 
     private void ensureNoConflict(Username username) throws UsersRepositoryException {
@@ -177,6 +189,7 @@ public class UsersRepositoryImpl<T extends UsersDAO> implements UsersRepository,
     public void removeUser(Username name) throws UsersRepositoryException {
         assertDomainPartValid(name);
         usersDAO.removeUser(name);
+        notifyUserChanged(name);
     }
 
     @Override
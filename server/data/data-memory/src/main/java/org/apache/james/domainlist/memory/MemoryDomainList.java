@@ -57,6 +57,7 @@ public class MemoryDomainList extends AbstractDomainList {
             throw new DomainListException(domain.name() + " already exists.");
         }
         domains.add(domain);
+        notifyDomainChanged(domain);
     }
 
     @Override
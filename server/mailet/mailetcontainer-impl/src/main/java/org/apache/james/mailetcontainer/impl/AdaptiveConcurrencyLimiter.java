@@ -0,0 +1,194 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Additive increase / multiplicative decrease (AIMD) concurrency limit, in the spirit of Netflix concurrency-limits.
+ *
+ * The limit grows by one upon each timely success observed while at least half of the permits are in use, and is
+ * multiplied by {@link #BACKOFF_RATIO} upon each failure or each execution slower than the latency threshold. It is
+ * kept between the configured minimum and maximum. Callers asking for a permit while the limit is reached wait
+ * without blocking until one is released. Their permit is then emitted on the thread releasing it.
+ */
+class AdaptiveConcurrencyLimiter {
+    static final double BACKOFF_RATIO = 0.9;
+
+    class Permit {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        /**
+         * Release the permit, increasing the limit unless the execution took longer than the latency threshold
+         */
+        void onSuccess(Duration latency) {
+            if (released.compareAndSet(false, true)) {
+                release(latency.compareTo(latencyThreshold) <= 0);
+            }
+        }
+
+        /**
+         * Release the permit, decreasing the limit
+         */
+        void onDropped() {
+            if (released.compareAndSet(false, true)) {
+                release(false);
+            }
+        }
+
+        /**
+         * Release the permit without changing the limit, for instance upon cancellation
+         */
+        void onIgnore() {
+            if (released.compareAndSet(false, true)) {
+                releaseWithoutAdjusting();
+            }
+        }
+    }
+
+    private class Waiter {
+        private final MonoSink<Permit> sink;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyThreshold;
+    private final Deque<Waiter> waiters;
+    private final AtomicInteger limit;
+    private int inFlight;
+
+    AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Duration latencyThreshold) {
+        Preconditions.checkArgument(minLimit > 0, "'minLimit' needs to be strictly positive");
+        Preconditions.checkArgument(maxLimit >= minLimit, "'maxLimit' needs to be greater than or equal to 'minLimit'");
+        Preconditions.checkArgument(!latencyThreshold.isNegative() && !latencyThreshold.isZero(), "'latencyThreshold' needs to be strictly positive");
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.waiters = new ArrayDeque<>();
+        this.limit = new AtomicInteger(minLimit);
+    }
+
+    /**
+     * @return a Mono emitting a permit once the number of permits in use is below the limit. The permit needs to be
+     * released through one of its callbacks.
+     */
+    Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> cancel(waiter));
+            boolean granted;
+            synchronized (this) {
+                granted = inFlight < limit.get();
+                if (granted) {
+                    inFlight++;
+                } else {
+                    waiters.add(waiter);
+                }
+            }
+            if (granted) {
+                grant(waiter);
+            }
+        });
+    }
+
+    int getLimit() {
+        return limit.get();
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    private void grant(Waiter waiter) {
+        Permit permit = new Permit();
+        waiter.permit = permit;
+        if (waiter.done.compareAndSet(false, true)) {
+            waiter.sink.success(permit);
+        } else {
+            // Cancelled before the permit could be handed over
+            permit.onIgnore();
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        synchronized (this) {
+            waiters.remove(waiter);
+        }
+        if (!waiter.done.compareAndSet(false, true)) {
+            // Granted concurrently: the permit might never reach the caller
+            waiter.permit.onIgnore();
+        }
+    }
+
+    private void release(boolean success) {
+        synchronized (this) {
+            int currentLimit = limit.get();
+            if (!success) {
+                limit.set(Math.max(minLimit, (int) (currentLimit * BACKOFF_RATIO)));
+            } else if (inFlight * 2 >= currentLimit) {
+                limit.set(Math.min(maxLimit, currentLimit + 1));
+            }
+        }
+        releaseWithoutAdjusting();
+    }
+
+    private void releaseWithoutAdjusting() {
+        ImmutableList.Builder<Waiter> granted = ImmutableList.builder();
+        synchronized (this) {
+            inFlight--;
+            while (inFlight < limit.get() && !waiters.isEmpty()) {
+                granted.add(waiters.poll());
+                inFlight++;
+            }
+        }
+        granted.build().forEach(this::grant);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("minLimit", minLimit)
+            .add("maxLimit", maxLimit)
+            .add("latencyThreshold", latencyThreshold)
+            .add("limit", limit.get())
+            .toString();
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.james.mailetcontainer.impl;
 
+import java.util.Optional;
+
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
@@ -45,6 +47,7 @@ public class CompositeProcessorImpl extends AbstractStateCompositeProcessor {
     private final MailetContext mailetContext;
     private final MatcherLoader matcherLoader;
     private final MailetLoader mailetLoader;
+    private Optional<MatcherResultCache> matcherResultCache = Optional.empty();
 
     @Inject
     CompositeProcessorImpl(MetricFactory metricFactory, MailetContext mailetContext, MatcherLoader matcherLoader, MailetLoader mailetLoader) {
@@ -54,6 +57,14 @@ public class CompositeProcessorImpl extends AbstractStateCompositeProcessor {
         this.mailetLoader = mailetLoader;
     }
 
+    @Override
+    public void configure(HierarchicalConfiguration<ImmutableNode> config) {
+        super.configure(config);
+        if (config.getBoolean("[@enableMatcherMemoization]", false)) {
+            this.matcherResultCache = Optional.of(new MatcherResultCache(metricFactory));
+        }
+    }
+
     @Override
     @PostConstruct
     public void init() throws Exception {
@@ -67,6 +78,7 @@ public class CompositeProcessorImpl extends AbstractStateCompositeProcessor {
             processor.setMailetContext(mailetContext);
             processor.setMailetLoader(mailetLoader);
             processor.setMatcherLoader(matcherLoader);
+            processor.setMatcherResultCache(matcherResultCache);
             processor.configure(config);
             processor.setRootMailProcessor(this);
             processor.init();
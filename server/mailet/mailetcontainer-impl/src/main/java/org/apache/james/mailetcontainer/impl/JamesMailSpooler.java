@@ -20,8 +20,11 @@
 package org.apache.james.mailetcontainer.impl;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -46,6 +49,7 @@ import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueue.MailQueueItem;
 import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.util.DurationParser;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeValue;
@@ -69,12 +73,14 @@ import reactor.core.scheduler.Schedulers;
 public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMBean {
     private static class Runner {
         private final AtomicInteger processingActive = new AtomicInteger(0);
+        private final AtomicLong lastQueueWaitTimeInMs = new AtomicLong(0);
         private final MetricFactory metricFactory;
         private final MailProcessor mailProcessor;
         private final MailRepository errorRepository;
         private final reactor.core.Disposable disposable;
         private final MailQueue queue;
         private final Configuration configuration;
+        private final Optional<AdaptiveConcurrencyLimiter> limiter;
 
         private Runner(MetricFactory metricFactory, GaugeRegistry gaugeRegistry, MailProcessor mailProcessor,
                        MailRepository errorRepository, MailQueue queue, Configuration configuration) {
@@ -83,22 +89,55 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
             this.errorRepository = errorRepository;
             this.queue = queue;
             this.configuration = configuration;
+            this.limiter = configuration.getAdaptiveConcurrency()
+                .map(adaptiveConcurrency -> new AdaptiveConcurrencyLimiter(adaptiveConcurrency.getMinConcurrencyLevel(),
+                    configuration.getConcurrencyLevel(), adaptiveConcurrency.getLatencyThreshold()));
 
             this.disposable = run(queue);
 
             gaugeRegistry.register(SPOOL_PROCESSING + ".inFlight",
                 processingActive::get);
+            limiter.ifPresent(adaptiveLimiter -> {
+                gaugeRegistry.register(SPOOL_PROCESSING + ".concurrencyLimit", adaptiveLimiter::getLimit);
+                gaugeRegistry.register(SPOOL_PROCESSING + ".waiting", adaptiveLimiter::getWaiting);
+                gaugeRegistry.register(SPOOL_PROCESSING + ".queueWaitTimeInMs", lastQueueWaitTimeInMs::get);
+            });
         }
 
         private reactor.core.Disposable run(MailQueue queue) {
             return Flux.from(queue.deQueue())
-                .flatMap(item -> handleOnQueueItem(item).subscribeOn(Schedulers.elastic()), configuration.getConcurrencyLevel())
+                .flatMap(item -> limitConcurrency(item).subscribeOn(Schedulers.elastic()), configuration.getConcurrencyLevel())
                 .onErrorContinue((throwable, item) -> LOGGER.error("Exception processing mail while spooling {}", item, throwable))
                 .subscribeOn(Schedulers.elastic())
                 .subscribe();
         }
 
-        private Mono<Void> handleOnQueueItem(MailQueueItem queueItem) {
+        private Mono<Void> limitConcurrency(MailQueueItem queueItem) {
+            if (!limiter.isPresent()) {
+                return handleOnQueueItem(queueItem).then();
+            }
+            long waitStart = System.nanoTime();
+            return limiter.get().acquire()
+                // Permits released by another mail are granted on its thread: hand the processing over
+                .publishOn(Schedulers.elastic())
+                .flatMap(permit -> {
+                    long processingStart = System.nanoTime();
+                    lastQueueWaitTimeInMs.set(Duration.ofNanos(processingStart - waitStart).toMillis());
+                    return handleOnQueueItem(queueItem)
+                        .doOnNext(success -> {
+                            if (success) {
+                                permit.onSuccess(Duration.ofNanos(System.nanoTime() - processingStart));
+                            } else {
+                                permit.onDropped();
+                            }
+                        })
+                        .doOnError(e -> permit.onDropped())
+                        .doFinally(any -> permit.onIgnore());
+                })
+                .then();
+        }
+
+        private Mono<Boolean> handleOnQueueItem(MailQueueItem queueItem) {
             TimeMetric timeMetric = metricFactory.timer(SPOOL_PROCESSING);
             return Mono.fromCallable(processingActive::incrementAndGet)
                 .flatMap(ignore -> processMail(queueItem))
@@ -106,15 +145,18 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
                 .doOnTerminate(processingActive::decrementAndGet);
         }
 
-        private Mono<Void> processMail(MailQueueItem queueItem) {
+        private Mono<Boolean> processMail(MailQueueItem queueItem) {
             return Mono
                 .using(
                     queueItem::getMail,
-                    mail -> Mono.fromRunnable(() -> performProcessMail(queueItem, mail)),
+                    mail -> Mono.fromCallable(() -> performProcessMail(queueItem, mail)),
                     LifecycleUtil::dispose);
         }
 
-        private void performProcessMail(MailQueueItem queueItem, Mail mail) {
+        /**
+         * @return true if the mail was successfully processed, false if error handling was applied
+         */
+        private boolean performProcessMail(MailQueueItem queueItem, Mail mail) {
             LOGGER.debug("==== Begin processing mail {} ====", mail.getName());
             ImmutableList<MailAddress> originalRecipients = ImmutableList.copyOf(mail.getRecipients());
             try {
@@ -124,8 +166,10 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
                     throw new InterruptedException("Thread has been interrupted");
                 }
                 queueItem.done(true);
+                return true;
             } catch (Exception e) {
                 handleError(queueItem, mail, originalRecipients, e);
+                return false;
             } finally {
                 LOGGER.debug("==== End processing mail {} ====", mail.getName());
             }
@@ -195,6 +239,49 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     }
 
     public static class Configuration {
+        public static class AdaptiveConcurrency {
+            public static final int DEFAULT_MIN_CONCURRENCY_LEVEL = 1;
+            public static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(5);
+
+            public static Optional<AdaptiveConcurrency> from(HierarchicalConfiguration<ImmutableNode> config) {
+                if (!config.getBoolean("adaptiveConcurrency", false)) {
+                    return Optional.empty();
+                }
+                int minConcurrencyLevel = config.getInt("minThreads", DEFAULT_MIN_CONCURRENCY_LEVEL);
+                Duration latencyThreshold = Optional.ofNullable(config.getString("latencyThreshold", null))
+                    .map(value -> DurationParser.parse(value, ChronoUnit.MILLIS))
+                    .orElse(DEFAULT_LATENCY_THRESHOLD);
+                return Optional.of(new AdaptiveConcurrency(minConcurrencyLevel, latencyThreshold));
+            }
+
+            private final int minConcurrencyLevel;
+            private final Duration latencyThreshold;
+
+            public AdaptiveConcurrency(int minConcurrencyLevel, Duration latencyThreshold) {
+                Preconditions.checkArgument(minConcurrencyLevel > 0, "'minThreads' needs to be strictly positive");
+                Preconditions.checkArgument(!latencyThreshold.isNegative() && !latencyThreshold.isZero(), "'latencyThreshold' needs to be strictly positive");
+
+                this.minConcurrencyLevel = minConcurrencyLevel;
+                this.latencyThreshold = latencyThreshold;
+            }
+
+            public int getMinConcurrencyLevel() {
+                return minConcurrencyLevel;
+            }
+
+            public Duration getLatencyThreshold() {
+                return latencyThreshold;
+            }
+
+            @Override
+            public String toString() {
+                return MoreObjects.toStringHelper(this)
+                    .add("minConcurrencyLevel", minConcurrencyLevel)
+                    .add("latencyThreshold", latencyThreshold)
+                    .toString();
+            }
+        }
+
         public static Configuration from(MailRepositoryStore mailRepositoryStore, HierarchicalConfiguration<ImmutableNode> config) {
             int concurrencyLevel = config.getInt("threads", 100);
             MailRepositoryUrl errorRepositoryURL = Optional.ofNullable(config.getString("errorRepository", null))
@@ -204,17 +291,25 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
                         .orElseThrow(() -> new IllegalStateException("Cannot retrieve mailRepository URL, you need to configure an `errorRepository` property for the spooler.0")),
                     ERROR_REPOSITORY_PATH));
 
-            return new Configuration(concurrencyLevel, errorRepositoryURL);
+            return new Configuration(concurrencyLevel, errorRepositoryURL, AdaptiveConcurrency.from(config));
         }
 
         private final int concurrencyLevel;
         private final MailRepositoryUrl errorRepositoryURL;
+        private final Optional<AdaptiveConcurrency> adaptiveConcurrency;
 
         public Configuration(int concurrencyLevel, MailRepositoryUrl errorRepositoryURL) {
+            this(concurrencyLevel, errorRepositoryURL, Optional.empty());
+        }
+
+        public Configuration(int concurrencyLevel, MailRepositoryUrl errorRepositoryURL, Optional<AdaptiveConcurrency> adaptiveConcurrency) {
             Preconditions.checkArgument(concurrencyLevel >= 0, "'threads' needs to be greater than or equal to zero");
+            adaptiveConcurrency.ifPresent(adaptive -> Preconditions.checkArgument(concurrencyLevel == 0 || adaptive.getMinConcurrencyLevel() <= concurrencyLevel,
+                "'minThreads' needs to be lower than or equal to 'threads'"));
             
             this.concurrencyLevel = concurrencyLevel;
             this.errorRepositoryURL = errorRepositoryURL;
+            this.adaptiveConcurrency = adaptiveConcurrency;
         }
 
         public int getConcurrencyLevel() {
@@ -229,11 +324,20 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
             return errorRepositoryURL;
         }
 
+        /**
+         * @return the adaptive concurrency settings when the number of mails processed simultaneously should adapt to
+         * the observed processing latency and errors, up to {@link #getConcurrencyLevel()}
+         */
+        public Optional<AdaptiveConcurrency> getAdaptiveConcurrency() {
+            return adaptiveConcurrency;
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this)
                 .add("concurrencyLevel", concurrencyLevel)
                 .add("errorRepositoryURL", errorRepositoryURL)
+                .add("adaptiveConcurrency", adaptiveConcurrency)
                 .toString();
         }
     }
@@ -291,6 +395,8 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
         if (configuration.isEnabled()) {
             LOGGER.info("init...");
             LOGGER.info("Concurrency level is {}", configuration.getConcurrencyLevel());
+            configuration.getAdaptiveConcurrency()
+                .ifPresent(adaptiveConcurrency -> LOGGER.info("Adaptive concurrency is enabled: {}", adaptiveConcurrency));
             queue = queueFactory.createQueue(MailQueueFactory.SPOOL, MailQueueFactory.prefetchCount(configuration.getConcurrencyLevel()));
             runner = Optional.of(new Runner(metricFactory, gaugeRegistry,
                 mailProcessor, errorRepository(), queue, configuration));
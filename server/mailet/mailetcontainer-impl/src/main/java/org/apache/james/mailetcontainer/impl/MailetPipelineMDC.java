@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.util.MDCBuilder;
+import org.apache.mailet.Mail;
+import org.slf4j.MDC;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+/**
+ * Sets the MDC context of matcher and mailet executions.
+ *
+ * The values derived from the mail, like its recipients, are computed once per mail and reused by every matcher and
+ * mailet of the pipeline until they change. Setting the MDC context can be disabled altogether by setting the
+ * <code>james.mailet.pipeline.mdc</code> system property to false.
+ */
+class MailetPipelineMDC {
+    static final String ENABLED_PROPERTY = "james.mailet.pipeline.mdc";
+    static final MailetPipelineMDC DEFAULT = new MailetPipelineMDC(Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")));
+
+    private static final String PROTOCOL = "MAILET";
+    private static final String MATCHER_ACTION = "MATCHER";
+    private static final String MAILET_ACTION = "MAILET";
+    private static final String MATCHER = "matcher";
+    private static final String MAILET = "mailet";
+    private static final String STATE = "state";
+    private static final String MAIL = "mail";
+    private static final String RECIPIENTS = "recipients";
+    private static final String SENDER = "sender";
+    private static final Closeable NO_CONTEXT = () -> { };
+    private static final Closeable MATCHER_CONTEXT = () -> removeMailContext(MATCHER);
+    private static final Closeable MAILET_CONTEXT = () -> removeMailContext(MAILET);
+
+    private static class MailContext {
+        private MaybeSender sender;
+        private String senderAsString;
+        private List<MailAddress> recipients;
+        private String recipientsAsString;
+
+        String sender(Mail mail) {
+            MaybeSender currentSender = mail.getMaybeSender();
+            if (senderAsString == null || !currentSender.equals(sender)) {
+                sender = currentSender;
+                senderAsString = currentSender.asString();
+            }
+            return senderAsString;
+        }
+
+        String recipients(Mail mail) {
+            Collection<MailAddress> currentRecipients = mail.getRecipients();
+            if (recipientsAsString == null || !Iterables.elementsEqual(recipients, currentRecipients)) {
+                recipients = ImmutableList.copyOf(currentRecipients);
+                recipientsAsString = recipients.toString();
+            }
+            return recipientsAsString;
+        }
+    }
+
+    /**
+     * Mails are processed by a single thread at a time, weak keys let the contexts go along with the mails.
+     */
+    private static final ThreadLocal<Map<Mail, MailContext>> MAIL_CONTEXTS = ThreadLocal.withInitial(WeakHashMap::new);
+
+    private static void removeMailContext(String componentKey) {
+        MDC.remove(MDCBuilder.PROTOCOL);
+        MDC.remove(MDCBuilder.ACTION);
+        MDC.remove(MDCBuilder.IP);
+        MDC.remove(MDCBuilder.HOST);
+        MDC.remove(componentKey);
+        MDC.remove(STATE);
+        MDC.remove(MAIL);
+        MDC.remove(RECIPIENTS);
+        MDC.remove(SENDER);
+    }
+
+    private final boolean enabled;
+
+    @VisibleForTesting
+    MailetPipelineMDC(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    Closeable forMatcher(Mail mail, String matcherInfo) {
+        if (!enabled) {
+            return NO_CONTEXT;
+        }
+        putMailContext(mail, MATCHER_ACTION, MATCHER, matcherInfo);
+        put(MDCBuilder.IP, mail.getRemoteAddr());
+        return MATCHER_CONTEXT;
+    }
+
+    Closeable forMailet(Mail mail, String mailetName) {
+        if (!enabled) {
+            return NO_CONTEXT;
+        }
+        putMailContext(mail, MAILET_ACTION, MAILET, mailetName);
+        return MAILET_CONTEXT;
+    }
+
+    private void putMailContext(Mail mail, String action, String componentKey, String componentName) {
+        MailContext context = mailContext(mail);
+        put(MDCBuilder.PROTOCOL, PROTOCOL);
+        put(MDCBuilder.ACTION, action);
+        put(MDCBuilder.HOST, mail.getRemoteHost());
+        put(componentKey, componentName);
+        put(STATE, mail.getState());
+        put(MAIL, mail.getName());
+        put(RECIPIENTS, context.recipients(mail));
+        put(SENDER, context.sender(mail));
+    }
+
+    private MailContext mailContext(Mail mail) {
+        return MAIL_CONTEXTS.get().computeIfAbsent(mail, any -> new MailContext());
+    }
+
+    private void put(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        }
+    }
+}
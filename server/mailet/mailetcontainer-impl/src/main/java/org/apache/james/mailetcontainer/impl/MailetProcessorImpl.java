@@ -22,6 +22,7 @@ import static org.apache.james.mailetcontainer.impl.MatcherSplitter.MATCHER_MATC
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -117,6 +118,7 @@ public class MailetProcessorImpl extends AbstractStateMailetProcessor {
     private final MetricFactory metricFactory;
     private List<MatcherMailetPair> pairs;
     private Map<MatcherSplitter, ProcessorImpl> pairsToBeProcessed;
+    private Optional<MatcherResultCache> matcherResultCache = Optional.empty();
 
     public MailetProcessorImpl(MetricFactory metricFactory) {
         this.metricFactory = metricFactory;
@@ -186,6 +188,13 @@ public class MailetProcessorImpl extends AbstractStateMailetProcessor {
         return "direct:processor." + getState();
     }
 
+    /**
+     * Memoize the results of pure matchers in the given cache, shared with the other processors
+     */
+    public void setMatcherResultCache(Optional<MatcherResultCache> matcherResultCache) {
+        this.matcherResultCache = matcherResultCache;
+    }
+
     @Override
     @PostConstruct
     public void init() throws Exception {
@@ -197,7 +206,7 @@ public class MailetProcessorImpl extends AbstractStateMailetProcessor {
         try {
             this.pairs = pairs;
             this.pairsToBeProcessed = pairs.stream()
-                .map(pair -> Pair.of(new MatcherSplitter(metricFactory, this, pair),
+                .map(pair -> Pair.of(new MatcherSplitter(metricFactory, this, pair, matcherResultCache),
                     new ProcessorImpl(metricFactory, this, pair.getMailet())))
                 .collect(ImmutableMap.toImmutableMap(Pair::getKey, Pair::getValue));
         } catch (Exception e) {
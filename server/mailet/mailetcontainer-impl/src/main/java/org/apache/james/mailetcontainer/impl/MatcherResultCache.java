@@ -0,0 +1,127 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.mail.MessagingException;
+
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.mailet.Mail;
+import org.apache.mailet.Matcher;
+import org.apache.mailet.MatcherConfig;
+import org.apache.mailet.PureMatcher;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+/**
+ * Memoizes the results of {@link PureMatcher} matchers for the lifetime of a mail, across processors.
+ *
+ * Matchers are identified by their name and condition, so that the same matcher configured in several places is
+ * evaluated once. Results of a mail are discarded as soon as its recipients, sender or remote address change.
+ */
+public class MatcherResultCache {
+    private static final String CACHE_HIT_METRIC = "matcherResultCacheHit";
+    private static final String CACHE_MISS_METRIC = "matcherResultCacheMiss";
+
+    public static boolean isMemoizable(Matcher matcher) {
+        return matcher.getClass().isAnnotationPresent(PureMatcher.class);
+    }
+
+    private static class MailResults {
+        private final ImmutableList<MailAddress> recipients;
+        private final MaybeSender sender;
+        private final String remoteAddr;
+        private final Map<String, Optional<ImmutableList<MailAddress>>> results;
+
+        private MailResults(Mail mail) {
+            this.recipients = ImmutableList.copyOf(mail.getRecipients());
+            this.sender = mail.getMaybeSender();
+            this.remoteAddr = mail.getRemoteAddr();
+            this.results = new ConcurrentHashMap<>();
+        }
+
+        boolean isValidFor(Mail mail) {
+            return Iterables.elementsEqual(recipients, mail.getRecipients())
+                && sender.equals(mail.getMaybeSender())
+                && Objects.equals(remoteAddr, mail.getRemoteAddr());
+        }
+    }
+
+    private final Cache<Mail, MailResults> mailResults;
+    private final Metric cacheHitMetric;
+    private final Metric cacheMissMetric;
+
+    public MatcherResultCache(MetricFactory metricFactory) {
+        this.mailResults = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+        this.cacheHitMetric = metricFactory.generate(CACHE_HIT_METRIC);
+        this.cacheMissMetric = metricFactory.generate(CACHE_MISS_METRIC);
+    }
+
+    /**
+     * @param matcher a matcher for which {@link #isMemoizable(Matcher)} holds
+     * @return the result of a previous evaluation of this matcher on this mail if still valid, the result of the
+     * matcher otherwise
+     */
+    public Collection<MailAddress> match(Matcher matcher, Mail mail) throws MessagingException {
+        MailResults results = resultsFor(mail);
+        String key = key(matcher);
+
+        Optional<ImmutableList<MailAddress>> cachedResult = results.results.get(key);
+        if (cachedResult != null) {
+            cacheHitMetric.increment();
+            return cachedResult.orElse(null);
+        }
+        cacheMissMetric.increment();
+
+        Collection<MailAddress> result = matcher.match(mail);
+        results.results.put(key, Optional.ofNullable(result).map(ImmutableList::copyOf));
+        return result;
+    }
+
+    private MailResults resultsFor(Mail mail) {
+        MailResults results = mailResults.getIfPresent(mail);
+        if (results == null || !results.isValidFor(mail)) {
+            results = new MailResults(mail);
+            mailResults.put(mail, results);
+        }
+        return results;
+    }
+
+    private String key(Matcher matcher) {
+        MatcherConfig matcherConfig = matcher.getMatcherConfig();
+        if (matcherConfig == null) {
+            return matcher.getClass().getName();
+        }
+        return matcherConfig.getMatcherName() + "=" + Strings.nullToEmpty(matcherConfig.getCondition());
+    }
+}
@@ -33,7 +33,6 @@ import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor.MailetP
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.server.core.MailImpl;
-import org.apache.james.util.MDCBuilder;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeValue;
@@ -42,8 +41,6 @@ import org.apache.mailet.Matcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.ImmutableList;
-
 /**
  * A Splitter for use with Camel to split the MailMessage into many pieces if
  * needed. This is done by use a Matcher.
@@ -58,16 +55,29 @@ public class MatcherSplitter {
     private final MailetProcessorImpl container;
     private final Matcher matcher;
     private final String onMatchException;
+    private final Optional<MatcherResultCache> matcherResultCache;
 
     public MatcherSplitter(MetricFactory metricFactory, MailetProcessorImpl container, MatcherMailetPair pair) {
+        this(metricFactory, container, pair, Optional.empty());
+    }
+
+    public MatcherSplitter(MetricFactory metricFactory, MailetProcessorImpl container, MatcherMailetPair pair, Optional<MatcherResultCache> matcherResultCache) {
         this.metricFactory = metricFactory;
         this.container = container;
         this.matcher = pair.getMatcher();
+        this.matcherResultCache = matcherResultCache.filter(any -> MatcherResultCache.isMemoizable(matcher));
         this.onMatchException = Optional.ofNullable(pair.getOnMatchException())
             .map(s -> s.trim().toLowerCase(Locale.US))
             .orElse(Mail.ERROR);
     }
 
+    private Collection<MailAddress> match(Mail mail) throws MessagingException {
+        if (matcherResultCache.isPresent()) {
+            return matcherResultCache.get().match(matcher, mail);
+        }
+        return matcher.match(mail);
+    }
+
     /**
      * Generate a List of MailMessage instances for the give @Body. This is done
      * by using the given Matcher to see if we need more then one instance of
@@ -88,20 +98,9 @@ public class MatcherSplitter {
             List<Mail> mails = new ArrayList<>();
             boolean fullMatch = false;
 
-            try (Closeable closeable =
-                     MDCBuilder.create()
-                         .addToContext(MDCBuilder.PROTOCOL, "MAILET")
-                         .addToContext(MDCBuilder.ACTION, "MATCHER")
-                         .addToContext(MDCBuilder.IP, mail.getRemoteAddr())
-                         .addToContext(MDCBuilder.HOST, mail.getRemoteHost())
-                         .addToContext("matcher", matcher.getMatcherInfo())
-                         .addToContext("state", mail.getState())
-                         .addToContext("mail", mail.getName())
-                         .addToContext("recipients", ImmutableList.copyOf(mail.getRecipients()).toString())
-                         .addToContext("sender", mail.getMaybeSender().asString())
-                         .build()) {
+            try (Closeable closeable = MailetPipelineMDC.DEFAULT.forMatcher(mail, matcher.getMatcherInfo())) {
                 // call the matcher
-                matchedRcpts = matcher.match(mail);
+                matchedRcpts = match(mail);
 
                 if (matchedRcpts == null) {
                     // In case the matcher returned null, create an empty
@@ -25,7 +25,6 @@ import java.util.Locale;
 import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor.MailetProcessorListener;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
-import org.apache.james.util.MDCBuilder;
 import org.apache.mailet.Mail;
 import org.apache.mailet.Mailet;
 import org.apache.mailet.MailetConfig;
@@ -33,8 +32,6 @@ import org.apache.mailet.base.MailetPipelineLogging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.ImmutableList;
-
 /**
  * Mailet wrapper which execute a Mailet in a Processor
  */
@@ -44,11 +41,13 @@ public class ProcessorImpl {
     private final MetricFactory metricFactory;
     private final Mailet mailet;
     private final MailetProcessorImpl processor;
+    private final String mailetName;
 
     public ProcessorImpl(MetricFactory metricFactory, MailetProcessorImpl processor, Mailet mailet) {
         this.metricFactory = metricFactory;
         this.processor = processor;
         this.mailet = mailet;
+        this.mailetName = mailet.getClass().getSimpleName();
     }
 
     /**
@@ -56,19 +55,9 @@ public class ProcessorImpl {
      */
     public void process(Mail mail) throws Exception {
         long start = System.currentTimeMillis();
-        TimeMetric timeMetric = metricFactory.timer(mailet.getClass().getSimpleName());
+        TimeMetric timeMetric = metricFactory.timer(mailetName);
         Throwable ex = null;
-        try (Closeable closeable =
-                 MDCBuilder.create()
-                     .addToContext(MDCBuilder.PROTOCOL, "MAILET")
-                     .addToContext(MDCBuilder.ACTION, "MAILET")
-                     .addToContext(MDCBuilder.HOST, mail.getRemoteHost())
-                     .addToContext("state", mail.getState())
-                     .addToContext("mailet", mailet.getClass().getSimpleName())
-                     .addToContext("mail", mail.getName())
-                     .addToContext("recipients", ImmutableList.copyOf(mail.getRecipients()).toString())
-                     .addToContext("sender", mail.getMaybeSender().asString())
-                     .build()) {
+        try (Closeable closeable = MailetPipelineMDC.DEFAULT.forMailet(mail, mailetName)) {
             MailetPipelineLogging.logBeginOfMailetProcess(mailet, mail);
             mailet.service(mail);
         } catch (Exception | NoClassDefFoundError me) {
@@ -0,0 +1,184 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.james.mailetcontainer.impl.AdaptiveConcurrencyLimiter.Permit;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final Duration LATENCY_THRESHOLD = Duration.ofSeconds(1);
+    private static final Duration FAST = Duration.ofMillis(10);
+    private static final Duration SLOW = Duration.ofSeconds(2);
+
+    private void growLimitTo(AdaptiveConcurrencyLimiter testee, int limit) {
+        while (testee.getLimit() < limit) {
+            List<Permit> permits = Flux.range(0, testee.getLimit())
+                .flatMap(any -> testee.acquire())
+                .collectList()
+                .block();
+            permits.get(0).onSuccess(FAST);
+            permits.subList(1, permits.size()).forEach(Permit::onIgnore);
+        }
+    }
+
+    @Test
+    void constructorShouldThrowWhenMinIsNotPositive() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(0, 10, LATENCY_THRESHOLD))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructorShouldThrowWhenMaxIsLowerThanMin() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 4, LATENCY_THRESHOLD))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void limitShouldStartAtMin() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(2, 10, LATENCY_THRESHOLD);
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void acquireShouldWaitWhenLimitIsReached() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(2, 10, LATENCY_THRESHOLD);
+
+        testee.acquire().block();
+        testee.acquire().block();
+        CompletableFuture<Permit> third = testee.acquire().toFuture();
+
+        assertThat(third).isNotDone();
+    }
+
+    @Test
+    void getWaitingShouldCountCallersWaitingForAPermit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(1, 1, LATENCY_THRESHOLD);
+
+        testee.acquire().block();
+        testee.acquire().toFuture();
+        testee.acquire().toFuture();
+
+        assertThat(testee.getWaiting()).isEqualTo(2);
+    }
+
+    @Test
+    void releaseShouldHandOverPermitToWaiter() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(1, 1, LATENCY_THRESHOLD);
+
+        Permit first = testee.acquire().block();
+        CompletableFuture<Permit> second = testee.acquire().toFuture();
+        first.onIgnore();
+
+        assertThat(second).isDone();
+        assertThat(testee.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void fastSuccessShouldIncreaseLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(2, 10, LATENCY_THRESHOLD);
+
+        testee.acquire().block().onSuccess(FAST);
+
+        assertThat(testee.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void limitShouldNotExceedMax() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(2, 3, LATENCY_THRESHOLD);
+
+        testee.acquire().block().onSuccess(FAST);
+        testee.acquire().block().onSuccess(FAST);
+
+        assertThat(testee.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void droppedShouldDecreaseLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(1, 100, LATENCY_THRESHOLD);
+        growLimitTo(testee, 20);
+
+        testee.acquire().block().onDropped();
+
+        assertThat(testee.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    void slowSuccessShouldDecreaseLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(1, 100, LATENCY_THRESHOLD);
+        growLimitTo(testee, 20);
+
+        testee.acquire().block().onSuccess(SLOW);
+
+        assertThat(testee.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    void successShouldNotIncreaseLimitWhenUnderUtilized() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(4, 10, LATENCY_THRESHOLD);
+
+        testee.acquire().block().onSuccess(FAST);
+
+        assertThat(testee.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limitShouldNotGoBelowMin() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(2, 10, LATENCY_THRESHOLD);
+
+        testee.acquire().block().onDropped();
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void releaseShouldBeIdempotent() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(2, 10, LATENCY_THRESHOLD);
+        testee.acquire().block();
+        Permit permit = testee.acquire().block();
+
+        permit.onSuccess(FAST);
+        permit.onDropped();
+
+        assertThat(testee.getInFlight()).isEqualTo(1);
+        assertThat(testee.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void cancelledWaiterShouldNotHoldPermit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(1, 1, LATENCY_THRESHOLD);
+        Permit first = testee.acquire().block();
+        Disposable cancelled = testee.acquire().subscribe();
+
+        cancelled.dispose();
+        first.onIgnore();
+
+        assertThat(testee.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,131 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.mailetcontainer.api.MailProcessor;
+import org.apache.james.mailrepository.api.MailRepository;
+import org.apache.james.mailrepository.api.MailRepositoryStore;
+import org.apache.james.mailrepository.api.MailRepositoryUrl;
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.mailet.Mail;
+import org.apache.mailet.base.test.FakeMail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+class JamesMailSpoolerTest {
+    private static final MailRepositoryUrl ERROR_REPOSITORY_URL = MailRepositoryUrl.from("memory://var/mail/error");
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMinutes(1);
+    private static final String FIRST = "first";
+
+    private final Map<String, Gauge<?>> gauges = new ConcurrentHashMap<>();
+    private JamesMailSpooler spooler;
+
+    @AfterEach
+    void tearDown() {
+        if (spooler != null) {
+            spooler.dispose();
+        }
+    }
+
+    @Test
+    void mailsGrantedTogetherByTheAdaptiveLimiterShouldBeProcessedConcurrently() throws Exception {
+        CountDownLatch firstMayComplete = new CountDownLatch(1);
+        CountDownLatch othersStarted = new CountDownLatch(2);
+        ConcurrentLinkedQueue<Boolean> othersRanConcurrently = new ConcurrentLinkedQueue<>();
+        MailProcessor mailProcessor = mail -> {
+            try {
+                if (mail.getName().equals(FIRST)) {
+                    firstMayComplete.await();
+                } else {
+                    othersStarted.countDown();
+                    othersRanConcurrently.add(othersStarted.await(10, TimeUnit.SECONDS));
+                }
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        MailQueue.MailQueueItem first = queueItem(FIRST);
+        MailQueue.MailQueueItem second = queueItem("second");
+        MailQueue.MailQueueItem third = queueItem("third");
+        spooler = startSpooler(mailProcessor, Flux.just(first, second, third));
+
+        // The limit is 1 until the first mail succeeds, then 2: both other mails are granted a permit at once
+        await().atMost(Duration.ofSeconds(10))
+            .until(() -> gauges.get(JamesMailSpooler.SPOOL_PROCESSING + ".waiting").get().equals(2));
+        firstMayComplete.countDown();
+
+        verify(second, timeout(30000)).done(true);
+        verify(third, timeout(30000)).done(true);
+        assertThat(othersRanConcurrently).containsExactly(true, true);
+    }
+
+    private JamesMailSpooler startSpooler(MailProcessor mailProcessor, Flux<MailQueue.MailQueueItem> items) throws Exception {
+        MailQueue queue = mock(MailQueue.class);
+        when(queue.deQueue()).thenReturn(items);
+        MailQueueFactory<MailQueue> queueFactory = mock(MailQueueFactory.class);
+        when(queueFactory.createQueue(eq(MailQueueFactory.SPOOL), any())).thenReturn(queue);
+        MailRepositoryStore mailRepositoryStore = mock(MailRepositoryStore.class);
+        when(mailRepositoryStore.select(ERROR_REPOSITORY_URL)).thenReturn(mock(MailRepository.class));
+        GaugeRegistry gaugeRegistry = new GaugeRegistry() {
+            @Override
+            public <T> GaugeRegistry register(String name, Gauge<T> gauge) {
+                gauges.put(name, gauge);
+                return this;
+            }
+        };
+
+        JamesMailSpooler mailSpooler = new JamesMailSpooler(new RecordingMetricFactory(), gaugeRegistry, mailProcessor, mailRepositoryStore, queueFactory);
+        mailSpooler.configure(new JamesMailSpooler.Configuration(3, ERROR_REPOSITORY_URL,
+            Optional.of(new JamesMailSpooler.Configuration.AdaptiveConcurrency(1, LATENCY_THRESHOLD))));
+        mailSpooler.init();
+        return mailSpooler;
+    }
+
+    private MailQueue.MailQueueItem queueItem(String name) throws Exception {
+        Mail mail = FakeMail.builder()
+            .name(name)
+            .build();
+        MailQueue.MailQueueItem item = mock(MailQueue.MailQueueItem.class);
+        when(item.getMail()).thenReturn(mail);
+        return item;
+    }
+}
@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Closeable;
+
+import org.apache.mailet.base.MailAddressFixture;
+import org.apache.mailet.base.test.FakeMail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.google.common.collect.ImmutableList;
+
+class MailetPipelineMDCTest {
+    private FakeMail mail;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MDC.clear();
+        mail = FakeMail.builder()
+            .name("name")
+            .state("root")
+            .sender(MailAddressFixture.SENDER)
+            .recipients(MailAddressFixture.RECIPIENT1, MailAddressFixture.RECIPIENT2)
+            .remoteAddr("127.0.0.1")
+            .remoteHost("localhost")
+            .build();
+    }
+
+    @Test
+    void forMailetShouldPopulateMailContext() throws Exception {
+        try (Closeable closeable = new MailetPipelineMDC(true).forMailet(mail, "Mailet")) {
+            assertThat(MDC.getCopyOfContextMap())
+                .containsEntry("protocol", "MAILET")
+                .containsEntry("action", "MAILET")
+                .containsEntry("host", "localhost")
+                .containsEntry("mailet", "Mailet")
+                .containsEntry("state", "root")
+                .containsEntry("mail", "name")
+                .containsEntry("recipients", "[" + MailAddressFixture.RECIPIENT1 + ", " + MailAddressFixture.RECIPIENT2 + "]")
+                .containsEntry("sender", MailAddressFixture.SENDER.asString());
+        }
+    }
+
+    @Test
+    void forMatcherShouldPopulateMailContext() throws Exception {
+        try (Closeable closeable = new MailetPipelineMDC(true).forMatcher(mail, "Matcher")) {
+            assertThat(MDC.getCopyOfContextMap())
+                .containsEntry("action", "MATCHER")
+                .containsEntry("ip", "127.0.0.1")
+                .containsEntry("matcher", "Matcher")
+                .containsEntry("mail", "name");
+        }
+    }
+
+    @Test
+    void closingShouldClearMailContext() throws Exception {
+        new MailetPipelineMDC(true).forMatcher(mail, "Matcher").close();
+
+        assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+    }
+
+    @Test
+    void recipientsShouldBeUpdatedWhenChanged() throws Exception {
+        MailetPipelineMDC testee = new MailetPipelineMDC(true);
+        testee.forMailet(mail, "Mailet").close();
+
+        mail.setRecipients(ImmutableList.of(MailAddressFixture.RECIPIENT3));
+
+        try (Closeable closeable = testee.forMailet(mail, "Mailet")) {
+            assertThat(MDC.get("recipients")).isEqualTo("[" + MailAddressFixture.RECIPIENT3 + "]");
+        }
+    }
+
+    @Test
+    void disabledShouldNotPopulateMailContext() throws Exception {
+        try (Closeable closeable = new MailetPipelineMDC(false).forMailet(mail, "Mailet")) {
+            assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+        }
+    }
+}
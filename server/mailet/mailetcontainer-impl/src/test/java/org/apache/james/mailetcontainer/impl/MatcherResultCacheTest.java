@@ -0,0 +1,178 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.MessagingException;
+
+import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.server.core.MailImpl;
+import org.apache.mailet.Mail;
+import org.apache.mailet.PureMatcher;
+import org.apache.mailet.base.GenericMatcher;
+import org.apache.mailet.base.test.FakeMatcherConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MatcherResultCacheTest {
+    @PureMatcher
+    static class CountingMatcher extends GenericMatcher {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Collection<MailAddress> match(Mail mail) throws MessagingException {
+            calls.incrementAndGet();
+            if (getCondition().equals("fail")) {
+                throw new MessagingException("fail");
+            }
+            return ImmutableList.of(mail.getRecipients().iterator().next());
+        }
+    }
+
+    static class ImpureMatcher extends GenericMatcher {
+        @Override
+        public Collection<MailAddress> match(Mail mail) {
+            return mail.getRecipients();
+        }
+    }
+
+    private RecordingMetricFactory metricFactory;
+    private MatcherResultCache testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new MatcherResultCache(metricFactory);
+    }
+
+    private CountingMatcher matcher(String condition) throws MessagingException {
+        CountingMatcher matcher = new CountingMatcher();
+        matcher.init(FakeMatcherConfig.builder()
+            .matcherName("Counting")
+            .condition(condition)
+            .build());
+        return matcher;
+    }
+
+    private MailImpl mail() throws MessagingException {
+        return MailImpl.builder()
+            .name("mail")
+            .sender("sender@domain.tld")
+            .addRecipients("rcpt1@domain.tld", "rcpt2@domain.tld")
+            .build();
+    }
+
+    @Test
+    void isMemoizableShouldReturnTrueForPureMatchers() {
+        assertThat(MatcherResultCache.isMemoizable(new CountingMatcher())).isTrue();
+    }
+
+    @Test
+    void isMemoizableShouldReturnFalseForOtherMatchers() {
+        assertThat(MatcherResultCache.isMemoizable(new ImpureMatcher())).isFalse();
+    }
+
+    @Test
+    void matchShouldReturnMatcherResult() throws Exception {
+        Mail mail = mail();
+
+        assertThat(testee.match(matcher("a"), mail)).containsOnly(new MailAddress("rcpt1@domain.tld"));
+    }
+
+    @Test
+    void matchShouldReuseResultForTheSameMail() throws Exception {
+        Mail mail = mail();
+        CountingMatcher first = matcher("a");
+        CountingMatcher second = matcher("a");
+
+        testee.match(first, mail);
+        Collection<MailAddress> result = testee.match(second, mail);
+
+        assertThat(result).containsOnly(new MailAddress("rcpt1@domain.tld"));
+        assertThat(first.calls.get() + second.calls.get()).isEqualTo(1);
+        assertThat(metricFactory.countFor("matcherResultCacheHit")).isEqualTo(1);
+        assertThat(metricFactory.countFor("matcherResultCacheMiss")).isEqualTo(1);
+    }
+
+    @Test
+    void matchShouldNotShareResultsBetweenConditions() throws Exception {
+        Mail mail = mail();
+        CountingMatcher first = matcher("a");
+        CountingMatcher second = matcher("b");
+
+        testee.match(first, mail);
+        testee.match(second, mail);
+
+        assertThat(second.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void matchShouldNotShareResultsBetweenMails() throws Exception {
+        CountingMatcher matcher = matcher("a");
+
+        testee.match(matcher, mail());
+        testee.match(matcher, mail());
+
+        assertThat(matcher.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void matchShouldEvaluateAgainWhenRecipientsChange() throws Exception {
+        Mail mail = mail();
+        CountingMatcher matcher = matcher("a");
+
+        testee.match(matcher, mail);
+        mail.setRecipients(ImmutableList.of(new MailAddress("rcpt2@domain.tld")));
+        Collection<MailAddress> result = testee.match(matcher, mail);
+
+        assertThat(result).containsOnly(new MailAddress("rcpt2@domain.tld"));
+        assertThat(matcher.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void matchShouldEvaluateAgainWhenSenderChanges() throws Exception {
+        MailImpl mail = mail();
+        CountingMatcher matcher = matcher("a");
+
+        testee.match(matcher, mail);
+        mail.setSender(new MailAddress("other@domain.tld"));
+        testee.match(matcher, mail);
+
+        assertThat(matcher.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void matchShouldNotCacheFailures() throws Exception {
+        Mail mail = mail();
+        CountingMatcher matcher = matcher("fail");
+
+        assertThatThrownBy(() -> testee.match(matcher, mail)).isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> testee.match(matcher, mail)).isInstanceOf(MessagingException.class);
+
+        assertThat(matcher.calls.get()).isEqualTo(2);
+    }
+}
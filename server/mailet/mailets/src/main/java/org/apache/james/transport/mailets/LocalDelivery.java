@@ -40,6 +40,18 @@ import org.apache.mailet.base.GenericMailet;
  * This mailet is a composition of RecipientRewriteTable, SieveMailet 
  * and MailboxManager configured to mimic the old "LocalDelivery"
  * James 2.3 behavior.
+ *
+ * Setting the <code>serializeOnce</code> parameter to true serializes multi-recipient messages only once, each
+ * recipient getting its specific headers prepended to the shared content, and allows delivering up to
+ * <code>concurrency</code> recipients at the same time (default to 1). Each recipient still gets its own copy of
+ * the message stored.
+ *
+ * <pre><code>
+ * &lt;mailet match="RecipientIsLocal" class="LocalDelivery"&gt;
+ *   &lt;serializeOnce&gt;true&lt;/serializeOnce&gt;
+ *   &lt;concurrency&gt;8&lt;/concurrency&gt;
+ * &lt;/mailet&gt;
+ * </code></pre>
  */
 public class LocalDelivery extends GenericMailet {
 
@@ -77,8 +89,24 @@ public class LocalDelivery extends GenericMailet {
                 .metric(metricFactory.generate(LOCAL_DELIVERED_MAILS_METRIC_NAME))
                 .build())
             .consume(getInitParameter("consume", true))
+            .serializeOnce(getInitParameter("serializeOnce", false))
+            .concurrency(parseConcurrency())
             .mailetContext(getMailetContext())
             .build();
     }
 
+    private int parseConcurrency() throws MessagingException {
+        try {
+            int concurrency = getInitParameterAsOptional("concurrency")
+                .map(Integer::parseInt)
+                .orElse(1);
+            if (concurrency < 1) {
+                throw new MessagingException("'concurrency' should be strictly positive");
+            }
+            return concurrency;
+        } catch (NumberFormatException e) {
+            throw new MessagingException("'concurrency' should be a number", e);
+        }
+    }
+
 }
@@ -26,6 +26,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.james.core.MailAddress;
 import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.sieverepository.api.SieveRepository;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
 import org.apache.james.transport.mailets.jsieve.delivery.SieveExecutor;
@@ -39,16 +40,18 @@ import org.apache.mailet.base.GenericMailet;
  */
 public class Sieve extends GenericMailet {
 
+    private final MetricFactory metricFactory;
     private final UsersRepository usersRepository;
     private final ResourceLocator resourceLocator;
     private SieveExecutor sieveExecutor;
 
     @Inject
-    public Sieve(UsersRepository usersRepository, SieveRepository sieveRepository) {
-        this(usersRepository, new ResourceLocator(sieveRepository, usersRepository));
+    public Sieve(MetricFactory metricFactory, UsersRepository usersRepository, SieveRepository sieveRepository) {
+        this(metricFactory, usersRepository, new ResourceLocator(sieveRepository, usersRepository));
     }
 
-    public Sieve(UsersRepository usersRepository, ResourceLocator resourceLocator) {
+    public Sieve(MetricFactory metricFactory, UsersRepository usersRepository, ResourceLocator resourceLocator) {
+        this.metricFactory = metricFactory;
         this.usersRepository = usersRepository;
         this.resourceLocator = resourceLocator;
     }
@@ -65,6 +68,7 @@ public class Sieve extends GenericMailet {
             .resourceLocator(resourceLocator)
             .mailetContext(getMailetContext())
             .log(log)
+            .metricFactory(metricFactory)
             .sievePoster(new SievePoster(usersRepository, MailboxConstants.INBOX))
             .build();
     }
@@ -18,6 +18,8 @@
  ****************************************************************/
 package org.apache.james.transport.mailets.delivery;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
@@ -29,6 +31,8 @@ import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.lifecycle.api.LifecycleUtil;
+import org.apache.james.mailbox.model.ByteSourceContent;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.server.core.MailImpl;
 import org.apache.mailet.Mail;
 import org.apache.mailet.MailetContext;
@@ -41,15 +45,29 @@ import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
+import com.google.common.io.FileBackedOutputStream;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
+/**
+ * Delivers a mail to each of its recipients through a {@link MailStore}.
+ *
+ * By default the message is altered with the recipient specific headers and stored once per recipient, one recipient
+ * after the other. When serializing once, the message is serialized a single time and each recipient gets its
+ * specific headers prepended to that shared content, which allows delivering recipients concurrently. Only the
+ * serialization is shared: every recipient still gets a full append, hence its own parsing and its own copy of the
+ * content in the mailbox storage.
+ */
 public class MailDispatcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(MailDispatcher.class);
     private static final String[] NO_HEADERS = {};
+    private static final int FILE_THRESHOLD = 1024 * 100;
+    private static final String HEADER_SEPARATOR = ": ";
+    private static final String CRLF = "\r\n";
     private static final int RETRIES = 3;
     private static final Duration FIRST_BACKOFF = Duration.ofMillis(200);
     private static final Duration MAX_BACKOFF = Duration.ofSeconds(1);
@@ -60,8 +78,12 @@ public class MailDispatcher {
 
     public static class Builder {
         static final boolean CONSUME = true;
+        static final boolean SERIALIZE_ONCE = false;
+        static final int CONCURRENCY = 1;
         private MailStore mailStore;
         private Optional<Boolean> consume = Optional.empty();
+        private Optional<Boolean> serializeOnce = Optional.empty();
+        private Optional<Integer> concurrency = Optional.empty();
         private MailetContext mailetContext;
 
         public Builder consume(boolean consume) {
@@ -69,6 +91,21 @@ public class MailDispatcher {
             return this;
         }
 
+        public Builder serializeOnce(boolean serializeOnce) {
+            this.serializeOnce = Optional.of(serializeOnce);
+            return this;
+        }
+
+        /**
+         * Maximum count of recipients being delivered at the same time. Only applies when serializing once, as the
+         * default delivery mode alters the shared message for each recipient.
+         */
+        public Builder concurrency(int concurrency) {
+            Preconditions.checkArgument(concurrency > 0, "concurrency should be strictly positive");
+            this.concurrency = Optional.of(concurrency);
+            return this;
+        }
+
         public Builder mailStore(MailStore mailStore) {
             this.mailStore = mailStore;
             return this;
@@ -82,18 +119,23 @@ public class MailDispatcher {
         public MailDispatcher build() {
             Preconditions.checkNotNull(mailStore);
             Preconditions.checkNotNull(mailetContext);
-            return new MailDispatcher(mailStore, consume.orElse(CONSUME), mailetContext);
+            return new MailDispatcher(mailStore, consume.orElse(CONSUME), serializeOnce.orElse(SERIALIZE_ONCE),
+                concurrency.orElse(CONCURRENCY), mailetContext);
         }
 
     }
 
     private final MailStore mailStore;
     private final boolean consume;
+    private final boolean serializeOnce;
+    private final int concurrency;
     private final MailetContext mailetContext;
 
-    private MailDispatcher(MailStore mailStore, boolean consume, MailetContext mailetContext) {
+    private MailDispatcher(MailStore mailStore, boolean consume, boolean serializeOnce, int concurrency, MailetContext mailetContext) {
         this.mailStore = mailStore;
         this.consume = consume;
+        this.serializeOnce = serializeOnce;
+        this.concurrency = concurrency;
         this.mailetContext = mailetContext;
     }
 
@@ -129,9 +171,59 @@ public class MailDispatcher {
         // This only works because there is a placeholder inserted by MimeMessageWrapper
         message.setHeader(RFC2822Headers.RETURN_PATH, mail.getMaybeSender().asPrettyString());
 
+        if (serializeOnce) {
+            return deliverSerializingOnce(mail, message);
+        }
         return deliver(mail, message);
     }
 
+    private List<MailAddress> deliverSerializingOnce(Mail mail, MimeMessage message) throws MessagingException {
+        FileBackedOutputStream sharedContent = new FileBackedOutputStream(FILE_THRESHOLD);
+        try {
+            message.writeTo(sharedContent);
+            ByteSource sharedMessage = sharedContent.asByteSource();
+
+            return Flux.fromIterable(mail.getRecipients())
+                .flatMapSequential(recipient -> scheduleDelivery(
+                    storeMailWithRetry(mail, recipient, recipientContent(mail, recipient, sharedMessage))
+                        .then(Mono.<MailAddress>empty())
+                        .onErrorResume(ex -> {
+                            LOGGER.error("Error while storing mail. This is a final exception.", ex);
+                            return Mono.just(recipient);
+                        })), concurrency)
+                .collectList()
+                .block();
+        } catch (IOException e) {
+            throw new MessagingException("Unable to serialize message " + mail.getName(), e);
+        } finally {
+            release(sharedContent);
+        }
+    }
+
+    private Mono<MailAddress> scheduleDelivery(Mono<MailAddress> delivery) {
+        if (concurrency > 1) {
+            return delivery.subscribeOn(Schedulers.boundedElastic());
+        }
+        return delivery;
+    }
+
+    private Content recipientContent(Mail mail, MailAddress recipient, ByteSource sharedMessage) {
+        StringBuilder recipientHeaders = new StringBuilder();
+        for (Header header: mail.getPerRecipientSpecificHeaders().getHeadersForRecipient(recipient)) {
+            recipientHeaders.append(header.getName()).append(HEADER_SEPARATOR).append(header.getValue()).append(CRLF);
+        }
+        ByteSource headers = ByteSource.wrap(recipientHeaders.toString().getBytes(StandardCharsets.UTF_8));
+        return new ByteSourceContent(ByteSource.concat(headers, sharedMessage), () -> { });
+    }
+
+    private void release(FileBackedOutputStream sharedContent) {
+        try {
+            sharedContent.reset();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to release serialized message", e);
+        }
+    }
+
     private List<MailAddress> deliver(Mail mail, MimeMessage message) {
         return Flux.fromIterable(mail.getRecipients())
             .concatMap(recipient ->
@@ -158,6 +250,13 @@ public class MailDispatcher {
            .then();
     }
 
+    private Mono<Void> storeMailWithRetry(Mail mail, MailAddress recipient, Content content) {
+        return Mono.defer(() -> Mono.from(mailStore.storeMail(recipient, mail, content)))
+            .doOnError(error -> LOGGER.warn("Error While storing mail. This error will be retried.", error))
+            .retryWhen(Retry.backoff(RETRIES, FIRST_BACKOFF).maxBackoff(MAX_BACKOFF).scheduler(Schedulers.elastic()))
+            .then();
+    }
+
     private Map<String, List<String>> saveHeaders(Mail mail, MailAddress recipient) throws MessagingException {
         ImmutableMap.Builder<String, List<String>> backup = ImmutableMap.builder();
         Collection<String> headersToSave = mail.getPerRecipientSpecificHeaders().getHeaderNamesForRecipient(recipient);
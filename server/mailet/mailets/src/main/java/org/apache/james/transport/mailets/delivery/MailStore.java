@@ -20,6 +20,7 @@
 package org.apache.james.transport.mailets.delivery;
 
 import org.apache.james.core.MailAddress;
+import org.apache.james.mailbox.model.Content;
 import org.apache.mailet.Mail;
 import org.reactivestreams.Publisher;
 
@@ -27,4 +28,9 @@ public interface MailStore {
     String DELIVERY_PATH_PREFIX = "DeliveryPath_";
 
     Publisher<Void> storeMail(MailAddress recipient, Mail mail);
+
+    /**
+     * Store the given recipient specific content of the mail, the message of the mail being left untouched.
+     */
+    Publisher<Void> storeMail(MailAddress recipient, Mail mail, Content content);
 }
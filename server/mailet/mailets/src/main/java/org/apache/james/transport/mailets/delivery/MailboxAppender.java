@@ -24,8 +24,15 @@ import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.Username;
 import org.apache.james.mailbox.model.ComposedMessageId;
+import org.apache.james.mailbox.model.Content;
 import org.reactivestreams.Publisher;
 
 public interface MailboxAppender {
     Publisher<ComposedMessageId> append(MimeMessage mail, Username user, String folder) throws MessagingException;
+
+    /**
+     * Append already serialized content, allowing callers delivering the same message to several mailboxes
+     * to serialize it only once.
+     */
+    Publisher<ComposedMessageId> append(Content content, Username user, String folder) throws MessagingException;
 }
@@ -56,9 +56,15 @@ public class MailboxAppenderImpl implements MailboxAppender {
         this.mailboxManager = mailboxManager;
     }
 
+    @Override
     public Mono<ComposedMessageId> append(MimeMessage mail, Username user, String folder) throws MessagingException {
+        return append(extractContent(mail), user, folder);
+    }
+
+    @Override
+    public Mono<ComposedMessageId> append(Content content, Username user, String folder) throws MessagingException {
         MailboxSession session = createMailboxSession(user);
-        return append(mail, user, useSlashAsSeparator(folder, session), session)
+        return append(content, user, useSlashAsSeparator(folder, session), session)
             .map(AppendResult::getId);
     }
 
@@ -73,24 +79,24 @@ public class MailboxAppenderImpl implements MailboxAppender {
         return destination;
     }
 
-    private Mono<AppendResult> append(MimeMessage mail, Username user, String folder, MailboxSession mailboxSession) {
+    private Mono<AppendResult> append(Content content, Username user, String folder, MailboxSession mailboxSession) {
         MailboxPath mailboxPath = MailboxPath.forUser(user, folder);
         return Mono.using(
             () -> {
                 mailboxManager.startProcessingRequest(mailboxSession);
                 return mailboxSession;
             },
-            session -> appendMessageToMailbox(mail, session, mailboxPath),
+            session -> appendMessageToMailbox(content, session, mailboxPath),
             this::closeProcessing)
             .onErrorMap(MailboxException.class, e -> new MessagingException("Unable to access mailbox.", e));
     }
 
-    protected Mono<AppendResult> appendMessageToMailbox(MimeMessage mail, MailboxSession session, MailboxPath path) {
+    protected Mono<AppendResult> appendMessageToMailbox(Content content, MailboxSession session, MailboxPath path) {
         return createMailboxIfNotExist(session, path)
             .flatMap(mailbox -> Mono.from(mailbox.appendMessageReactive(
                 MessageManager.AppendCommand.builder()
                     .recent()
-                    .build(extractContent(mail)),
+                    .build(content),
                 session)));
     }
 
@@ -23,12 +23,15 @@ import javax.mail.MessagingException;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.Username;
+import org.apache.james.mailbox.model.ComposedMessageId;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeUtils;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,18 +100,34 @@ public class SimpleMailStore implements MailStore {
         String locatedFolder = locateFolder(username, mail);
 
         try {
-            return Mono.from(mailboxAppender.append(mail.getMessage(), username, locatedFolder))
-                .doOnSuccess(ids -> {
-                    metric.increment();
-                    LOGGER.info("Local delivered mail {} successfully from {} to {} in folder {} with composedMessageId {}", mail.getName(),
-                        mail.getMaybeSender().asString(), recipient.asPrettyString(), locatedFolder, ids);
-                })
-                .then();
+            return logDelivery(mailboxAppender.append(mail.getMessage(), username, locatedFolder), recipient, mail, locatedFolder);
         } catch (MessagingException e) {
             throw new RuntimeException("Could not retrieve mail message content", e);
         }
     }
 
+    @Override
+    public Mono<Void> storeMail(MailAddress recipient, Mail mail, Content content) {
+        Username username = computeUsername(recipient);
+        String locatedFolder = locateFolder(username, mail);
+
+        try {
+            return logDelivery(mailboxAppender.append(content, username, locatedFolder), recipient, mail, locatedFolder);
+        } catch (MessagingException e) {
+            throw new RuntimeException("Could not append mail content", e);
+        }
+    }
+
+    private Mono<Void> logDelivery(Publisher<ComposedMessageId> append, MailAddress recipient, Mail mail, String locatedFolder) {
+        return Mono.from(append)
+            .doOnSuccess(ids -> {
+                metric.increment();
+                LOGGER.info("Local delivered mail {} successfully from {} to {} in folder {} with composedMessageId {}", mail.getName(),
+                    mail.getMaybeSender().asString(), recipient.asPrettyString(), locatedFolder, ids);
+            })
+            .then();
+    }
+
     private String locateFolder(Username username, Mail mail) {
         return AttributeUtils
             .getValueAndCastFromMail(mail, AttributeName.of(DELIVERY_PATH_PREFIX + username.asString()), String.class)
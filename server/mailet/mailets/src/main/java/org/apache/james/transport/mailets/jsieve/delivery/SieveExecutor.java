@@ -20,10 +20,13 @@
 
 package org.apache.james.transport.mailets.jsieve.delivery;
 
+import java.io.IOException;
+
 import javax.mail.MessagingException;
 
 import org.apache.commons.logging.Log;
 import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.sieverepository.api.exception.ScriptNotFoundException;
 import org.apache.james.transport.mailets.jsieve.ActionDispatcher;
@@ -60,6 +63,7 @@ public class SieveExecutor {
         private SievePoster sievePoster;
         private ResourceLocator resourceLocator;
         private Log log;
+        private MetricFactory metricFactory;
 
         public Builder sievePoster(SievePoster sievePoster) {
             this.sievePoster = sievePoster;
@@ -81,12 +85,18 @@ public class SieveExecutor {
             return this;
         }
 
+        public Builder metricFactory(MetricFactory metricFactory) {
+            this.metricFactory = metricFactory;
+            return this;
+        }
+
         public SieveExecutor build() throws MessagingException {
             Preconditions.checkNotNull(mailetContext);
             Preconditions.checkNotNull(resourceLocator);
             Preconditions.checkNotNull(log);
             Preconditions.checkNotNull(sievePoster);
-            return new SieveExecutor(mailetContext, sievePoster, resourceLocator, log);
+            Preconditions.checkNotNull(metricFactory);
+            return new SieveExecutor(mailetContext, sievePoster, resourceLocator, log, metricFactory);
         }
     }
 
@@ -94,14 +104,16 @@ public class SieveExecutor {
     private final SievePoster sievePoster;
     private final ResourceLocator resourceLocator;
     private final SieveFactory factory;
+    private final SieveScriptCache scriptCache;
     private final ActionDispatcher actionDispatcher;
 
     public SieveExecutor(MailetContext mailetContext, SievePoster sievePoster,
-                         ResourceLocator resourceLocator, Log log) throws MessagingException {
+                         ResourceLocator resourceLocator, Log log, MetricFactory metricFactory) throws MessagingException {
         this.mailetContext = mailetContext;
         this.sievePoster = sievePoster;
         this.resourceLocator = resourceLocator;
         factory = createFactory(log);
+        this.scriptCache = new SieveScriptCache(factory, metricFactory);
         this.actionDispatcher = new ActionDispatcher();
     }
 
@@ -145,11 +157,13 @@ public class SieveExecutor {
                 // This logging operation is potentially costly
                 LOGGER.debug("Evaluating {} against \"{}\"", aMailAdapter.toString(), recipient.asPrettyString());
             }
-            factory.evaluate(aMailAdapter, factory.parse(userSieveInformation.getScriptContent()));
+            factory.evaluate(aMailAdapter, scriptCache.parse(userSieveInformation.getScriptContent()));
         } catch (SieveException | ParseException ex) {
             handleFailure(recipient, aMail, ex);
         } catch (TokenMgrError ex) {
             handleFailure(recipient, aMail, new SieveException(ex));
+        } catch (IOException ex) {
+            throw new MessagingException("Unable to read the Sieve script of " + recipient.asPrettyString(), ex);
         }
     }
 
@@ -0,0 +1,102 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.transport.mailets.jsieve.delivery;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.jsieve.SieveFactory;
+import org.apache.jsieve.parser.generated.Node;
+import org.apache.jsieve.parser.generated.ParseException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Bounded cache of parsed Sieve scripts, sparing to parse the same script again for each mail a user receives.
+ *
+ * Entries are keyed by a digest of the script content: a script updated or activated through ManageSieve or WebAdmin,
+ * on any node, is parsed again on its next use while the stale entry ages out. Users sharing the same script, for
+ * instance generated by a webmail, share the same entry.
+ *
+ * Scripts failing to parse are not cached.
+ */
+public class SieveScriptCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_EXPIRE_AFTER_ACCESS = Duration.ofHours(1);
+
+    private static final String PARSE_METRIC = "sieveScriptParse";
+    private static final String CACHE_HIT_METRIC = "sieveScriptCacheHit";
+    private static final String CACHE_MISS_METRIC = "sieveScriptCacheMiss";
+
+    private final SieveFactory factory;
+    private final MetricFactory metricFactory;
+    private final Cache<HashCode, Node> parsedScripts;
+    private final Metric cacheHitMetric;
+    private final Metric cacheMissMetric;
+
+    public SieveScriptCache(SieveFactory factory, MetricFactory metricFactory) {
+        this(factory, metricFactory, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @VisibleForTesting
+    SieveScriptCache(SieveFactory factory, MetricFactory metricFactory, long maximumSize) {
+        this.factory = factory;
+        this.metricFactory = metricFactory;
+        this.parsedScripts = CacheBuilder.newBuilder()
+            .expireAfterAccess(DEFAULT_EXPIRE_AFTER_ACCESS)
+            .maximumSize(maximumSize)
+            .build();
+        this.cacheHitMetric = metricFactory.generate(CACHE_HIT_METRIC);
+        this.cacheMissMetric = metricFactory.generate(CACHE_MISS_METRIC);
+    }
+
+    /**
+     * @return the parsed script. The returned node is shared and must only be evaluated.
+     */
+    public Node parse(InputStream scriptContent) throws IOException, ParseException {
+        byte[] content = IOUtils.toByteArray(scriptContent);
+        HashCode key = Hashing.sha256().hashBytes(content);
+
+        Node cached = parsedScripts.getIfPresent(key);
+        if (cached != null) {
+            cacheHitMetric.increment();
+            return cached;
+        }
+        cacheMissMetric.increment();
+
+        TimeMetric timeMetric = metricFactory.timer(PARSE_METRIC);
+        try {
+            Node parsed = factory.parse(new ByteArrayInputStream(content));
+            parsedScripts.put(key, parsed);
+            return parsed;
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+}
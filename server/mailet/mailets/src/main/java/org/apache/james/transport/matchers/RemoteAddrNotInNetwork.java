@@ -23,6 +23,7 @@ import java.util.Collection;
 
 import org.apache.james.core.MailAddress;
 import org.apache.mailet.Mail;
+import org.apache.mailet.PureMatcher;
 
 /**
  * <p>
@@ -33,6 +34,7 @@ import org.apache.mailet.Mail;
  * See AbstractNetworkMatcher for details on how to specify entries.
  * </p>
  */
+@PureMatcher
 public class RemoteAddrNotInNetwork extends AbstractNetworkMatcher {
     @Override
     public Collection<MailAddress> match(Mail mail) {
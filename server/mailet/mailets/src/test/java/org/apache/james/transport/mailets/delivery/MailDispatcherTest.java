@@ -21,21 +21,28 @@ package org.apache.james.transport.mailets.delivery;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.builder.MimeMessageBuilder;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.util.MimeMessageUtil;
 import org.apache.mailet.Mail;
 import org.apache.mailet.PerRecipientHeaders.Header;
@@ -336,6 +343,165 @@ class MailDispatcherTest {
         assertThat(mail.getMessage().getHeader(TEST_HEADER_NAME)).containsOnly(headerValue);
     }
 
+    @Test
+    void serializeOnceShouldStoreMailForEachRecipient() throws Exception {
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .serializeOnce(true)
+            .build();
+        when(mailStore.storeMail(any(), any(), any())).thenReturn(Mono.empty());
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .state("state")
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder().setText("content"))
+            .build();
+        testee.dispatch(mail);
+
+        verify(mailStore).storeMail(eq(MailAddressFixture.ANY_AT_JAMES), eq(mail), any(Content.class));
+        verify(mailStore).storeMail(eq(MailAddressFixture.ANY_AT_JAMES2), eq(mail), any(Content.class));
+        verifyNoMoreInteractions(mailStore);
+    }
+
+    @Test
+    void serializeOnceShouldStoreMessageWithReturnPath() throws Exception {
+        AccumulatorHeaderMailStore accumulatorReturnPathMailStore = new AccumulatorHeaderMailStore(RFC2822Headers.RETURN_PATH);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(accumulatorReturnPathMailStore)
+            .serializeOnce(true)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder().setText("content"))
+            .state("state")
+            .build();
+        testee.dispatch(mail);
+
+        assertThat(accumulatorReturnPathMailStore.getHeaderValues(MailAddressFixture.ANY_AT_JAMES))
+            .containsOnly(new String[]{"<" + MailAddressFixture.OTHER_AT_JAMES + ">"});
+    }
+
+    @Test
+    void serializeOnceShouldAddSpecificHeaderToEachRecipients() throws Exception {
+        AccumulatorHeaderMailStore accumulatorTestHeaderMailStore = new AccumulatorHeaderMailStore(TEST_HEADER_NAME);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(accumulatorTestHeaderMailStore)
+            .serializeOnce(true)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2, MailAddressFixture.OTHER_AT_JAMES)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder().setText("content"))
+            .state("state")
+            .build();
+        mail.addSpecificHeaderForRecipient(TEST_HEADER_USER1, MailAddressFixture.ANY_AT_JAMES);
+        mail.addSpecificHeaderForRecipient(TEST_HEADER_USER2, MailAddressFixture.ANY_AT_JAMES2);
+        testee.dispatch(mail);
+
+        assertThat(accumulatorTestHeaderMailStore.getHeaderValues(MailAddressFixture.ANY_AT_JAMES))
+            .containsOnly(new String[]{VALUE_FOR_USER_1});
+        assertThat(accumulatorTestHeaderMailStore.getHeaderValues(MailAddressFixture.ANY_AT_JAMES2))
+            .containsOnly(new String[]{VALUE_FOR_USER_2});
+        assertThat(accumulatorTestHeaderMailStore.getHeaderValues(MailAddressFixture.OTHER_AT_JAMES))
+            .isEmpty();
+    }
+
+    @Test
+    void serializeOnceShouldNotAlterOriginalMessage() throws Exception {
+        AccumulatorHeaderMailStore accumulatorTestHeaderMailStore = new AccumulatorHeaderMailStore(TEST_HEADER_NAME);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(accumulatorTestHeaderMailStore)
+            .serializeOnce(true)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder().setText("content"))
+            .state("state")
+            .build();
+        mail.addSpecificHeaderForRecipient(TEST_HEADER_USER1, MailAddressFixture.ANY_AT_JAMES);
+        mail.addSpecificHeaderForRecipient(TEST_HEADER_USER2, MailAddressFixture.ANY_AT_JAMES2);
+        testee.dispatch(mail);
+
+        assertThat(mail.getMessage().getHeader(TEST_HEADER_NAME)).isNull();
+    }
+
+    @Test
+    void serializeOnceErrorsShouldBeWellHandled() throws Exception {
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .serializeOnce(true)
+            .concurrency(4)
+            .build();
+        when(mailStore.storeMail(any(), any(), any())).thenReturn(Mono.empty());
+        doReturn(Mono.error(new MessagingException()))
+            .when(mailStore)
+            .storeMail(eq(MailAddressFixture.ANY_AT_JAMES2), any(Mail.class), any(Content.class));
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder().setText("content"))
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .state("state")
+            .build();
+        testee.dispatch(mail);
+
+        assertThat(fakeMailContext.getSentMails())
+            .containsOnly(FakeMailContext.sentMailBuilder()
+                .sender(MailAddressFixture.OTHER_AT_JAMES)
+                .recipient(MailAddressFixture.ANY_AT_JAMES2)
+                .fromMailet()
+                .state(Mail.ERROR).build());
+    }
+
+    @Test
+    void serializeOnceShouldDeliverRecipientsConcurrently() throws Exception {
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .serializeOnce(true)
+            .concurrency(4)
+            .build();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ConcurrentHashMap.KeySetView<MailAddress, Boolean> stored = ConcurrentHashMap.newKeySet();
+        when(mailStore.storeMail(any(), any(), any())).thenAnswer(invocation -> Mono.fromRunnable(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                stored.add(invocation.getArgument(0));
+            })
+            .then(Mono.delay(Duration.ofMillis(100)))
+            .doFinally(any -> inFlight.decrementAndGet())
+            .then());
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2,
+                MailAddressFixture.OTHER_AT_JAMES, MailAddressFixture.OTHER_AT_JAMES2)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder().setText("content"))
+            .state("state")
+            .build();
+        testee.dispatch(mail);
+
+        assertThat(stored).hasSize(4);
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+    }
+
     public static class AccumulatorHeaderMailStore implements MailStore {
         private final ArrayListMultimap<MailAddress, String[]> headerValues;
         private final String headerName;
@@ -347,15 +513,26 @@ class MailDispatcherTest {
 
         @Override
         public Publisher<Void> storeMail(MailAddress recipient, Mail mail) {
+            return Mono.fromRunnable(Throwing.runnable(() -> accumulate(recipient, mail.getMessage())));
+        }
+
+        @Override
+        public Publisher<Void> storeMail(MailAddress recipient, Mail mail, Content content) {
             return Mono.fromRunnable(Throwing.runnable(() -> {
-                String[] header = mail.getMessage().getHeader(headerName);
-                if (header != null) {
-                    headerValues.put(recipient, header);
+                try (InputStream inputStream = content.getInputStream()) {
+                    accumulate(recipient, MimeMessageUtil.mimeMessageFromStream(inputStream));
                 }
             }));
         }
 
-        public Collection<String[]> getHeaderValues(MailAddress recipient) {
+        private synchronized void accumulate(MailAddress recipient, MimeMessage message) throws MessagingException {
+            String[] header = message.getHeader(headerName);
+            if (header != null) {
+                headerValues.put(recipient, header);
+            }
+        }
+
+        public synchronized Collection<String[]> getHeaderValues(MailAddress recipient) {
             return headerValues.get(recipient);
         }
     }
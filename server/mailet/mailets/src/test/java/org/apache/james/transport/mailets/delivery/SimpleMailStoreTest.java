@@ -25,11 +25,15 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+
 import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.Username;
 import org.apache.james.core.builder.MimeMessageBuilder;
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
@@ -50,7 +54,8 @@ class SimpleMailStoreTest {
     @BeforeEach
     void setUp() throws Exception {
         mailboxAppender = mock(MailboxAppenderImpl.class);
-        when(mailboxAppender.append(any(), any(), any())).thenReturn(Mono.empty());
+        when(mailboxAppender.append(any(MimeMessage.class), any(), any())).thenReturn(Mono.empty());
+        when(mailboxAppender.append(any(Content.class), any(), any())).thenReturn(Mono.empty());
         usersRepository = mock(UsersRepository.class);
         testee = SimpleMailStore.builder()
             .usersRepository(usersRepository)
@@ -104,4 +109,18 @@ class SimpleMailStoreTest {
 
         verify(mailboxAppender).append(any(MimeMessage.class), eq(Username.of(recipient.toString())), eq(FOLDER));
     }
+
+    @Test
+    void storeMailShouldAppendGivenContent() throws Exception {
+        MailAddress recipient = MailAddressFixture.OTHER_AT_JAMES;
+        when(usersRepository.getUsername(recipient)).thenReturn(Username.of(recipient.asString()));
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .mimeMessage(mimeMessage)
+            .build();
+        Content content = new ByteContent("Subject: test\r\n\r\nbody".getBytes(StandardCharsets.UTF_8));
+        testee.storeMail(recipient, mail, content);
+
+        verify(mailboxAppender).append(eq(content), eq(Username.of(recipient.asString())), eq(FOLDER));
+    }
 }
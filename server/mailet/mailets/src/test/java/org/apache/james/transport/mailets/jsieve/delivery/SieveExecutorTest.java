@@ -26,6 +26,7 @@ import static org.mockito.Mockito.mock;
 
 import org.apache.commons.logging.Log;
 import org.apache.james.core.builder.MimeMessageBuilder;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
 import org.apache.mailet.base.test.FakeMailContext;
@@ -44,6 +45,7 @@ class SieveExecutorTest {
             .sievePoster(mock(SievePoster.class))
             .resourceLocator(mock(ResourceLocator.class))
             .log(mock(Log.class))
+            .metricFactory(new RecordingMetricFactory())
             .build();
     }
 
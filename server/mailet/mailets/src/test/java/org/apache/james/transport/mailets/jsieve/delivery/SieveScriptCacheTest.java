@@ -0,0 +1,89 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.transport.mailets.jsieve.delivery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.jsieve.ConfigurationManager;
+import org.apache.jsieve.SieveFactory;
+import org.apache.jsieve.parser.generated.ParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SieveScriptCacheTest {
+    private static final String SCRIPT = "require \"fileinto\";\r\nif header :contains \"subject\" \"spam\" {\r\n  fileinto \"Junk\";\r\n}\r\n";
+    private static final String OTHER_SCRIPT = "keep;\r\n";
+
+    private RecordingMetricFactory metricFactory;
+    private SieveScriptCache testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SieveFactory factory = new ConfigurationManager().build();
+        metricFactory = new RecordingMetricFactory();
+        testee = new SieveScriptCache(factory, metricFactory);
+    }
+
+    private InputStream stream(String script) {
+        return new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parseShouldReturnTheSameNodeForTheSameScript() throws Exception {
+        assertThat(testee.parse(stream(SCRIPT)))
+            .isSameAs(testee.parse(stream(SCRIPT)));
+    }
+
+    @Test
+    void parseShouldParseAgainWhenTheScriptChanged() throws Exception {
+        assertThat(testee.parse(stream(SCRIPT)))
+            .isNotSameAs(testee.parse(stream(OTHER_SCRIPT)));
+    }
+
+    @Test
+    void parseShouldThrowOnInvalidScript() {
+        assertThatThrownBy(() -> testee.parse(stream("if {")))
+            .isInstanceOf(ParseException.class);
+    }
+
+    @Test
+    void parseShouldNotCacheInvalidScripts() {
+        assertThatThrownBy(() -> testee.parse(stream("if {"))).isInstanceOf(ParseException.class);
+        assertThatThrownBy(() -> testee.parse(stream("if {"))).isInstanceOf(ParseException.class);
+
+        assertThat(metricFactory.countFor("sieveScriptCacheMiss")).isEqualTo(2);
+    }
+
+    @Test
+    void parseShouldRecordMetrics() throws Exception {
+        testee.parse(stream(SCRIPT));
+        testee.parse(stream(SCRIPT));
+        testee.parse(stream(OTHER_SCRIPT));
+
+        assertThat(metricFactory.countFor("sieveScriptCacheHit")).isEqualTo(1);
+        assertThat(metricFactory.countFor("sieveScriptCacheMiss")).isEqualTo(2);
+        assertThat(metricFactory.executionTimesFor("sieveScriptParse")).hasSize(2);
+    }
+}
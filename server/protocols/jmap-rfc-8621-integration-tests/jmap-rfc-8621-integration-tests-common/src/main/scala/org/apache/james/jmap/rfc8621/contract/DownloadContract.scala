@@ -22,10 +22,10 @@ package org.apache.james.jmap.rfc8621.contract
 import java.io.ByteArrayInputStream
 import java.nio.charset.StandardCharsets
 
-import io.netty.handler.codec.http.HttpHeaderNames.ACCEPT
+import io.netty.handler.codec.http.HttpHeaderNames.{ACCEPT, CONTENT_LENGTH, CONTENT_RANGE, RANGE}
 import io.restassured.RestAssured.{`given`, requestSpecification}
 import org.apache.commons.io.IOUtils
-import org.apache.http.HttpStatus.{SC_FORBIDDEN, SC_NOT_FOUND, SC_OK, SC_UNAUTHORIZED}
+import org.apache.http.HttpStatus.{SC_FORBIDDEN, SC_NOT_FOUND, SC_OK, SC_PARTIAL_CONTENT, SC_REQUESTED_RANGE_NOT_SATISFIABLE, SC_UNAUTHORIZED}
 import org.apache.james.GuiceJamesServer
 import org.apache.james.jmap.http.UserCredential
 import org.apache.james.jmap.rfc8621.contract.DownloadContract.accountId
@@ -87,6 +87,56 @@ trait DownloadContract {
       .hasContent(expectedResponse)
   }
 
+  @Test
+  def downloadMessageShouldServeRequestedRange(server: GuiceJamesServer): Unit = {
+    val path = MailboxPath.inbox(BOB)
+    server.getProbe(classOf[MailboxProbeImpl]).createMailbox(path)
+    val messageId: MessageId = server.getProbe(classOf[MailboxProbeImpl])
+      .appendMessage(BOB.asString, path, AppendCommand.from(
+        ClassLoaderUtils.getSystemResourceAsSharedStream("eml/multipart_simple.eml")))
+      .getMessageId
+
+    val expectedContent: Array[Byte] = IOUtils.toByteArray(ClassLoaderUtils.getSystemResourceAsSharedStream("eml/multipart_simple.eml"))
+
+    val response = `given`
+        .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header(RANGE.toString, "bytes=10-29")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_PARTIAL_CONTENT)
+      .header(CONTENT_RANGE.toString, s"bytes 10-29/${expectedContent.length}")
+      .header(CONTENT_LENGTH.toString, "20")
+      .extract
+      .body
+      .asByteArray
+
+    assertThat(response).isEqualTo(expectedContent.slice(10, 30))
+  }
+
+  @Test
+  def downloadMessageShouldRejectRangesStartingAfterTheContent(server: GuiceJamesServer): Unit = {
+    val path = MailboxPath.inbox(BOB)
+    server.getProbe(classOf[MailboxProbeImpl]).createMailbox(path)
+    val messageId: MessageId = server.getProbe(classOf[MailboxProbeImpl])
+      .appendMessage(BOB.asString, path, AppendCommand.from(
+        ClassLoaderUtils.getSystemResourceAsSharedStream("eml/multipart_simple.eml")))
+      .getMessageId
+
+    val size: Int = IOUtils.toByteArray(ClassLoaderUtils.getSystemResourceAsSharedStream("eml/multipart_simple.eml")).length
+
+    `given`
+        .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header(RANGE.toString, s"bytes=$size-")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+      .header(CONTENT_RANGE.toString, s"bytes */$size")
+  }
+
   @Test
   def downloadMessageShouldFailWhenUnauthentified(server: GuiceJamesServer): Unit = {
     val path = MailboxPath.inbox(BOB)
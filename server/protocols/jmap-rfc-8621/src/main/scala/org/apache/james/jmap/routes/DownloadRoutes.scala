@@ -24,11 +24,12 @@ import java.util.stream
 import java.util.stream.Stream
 
 import com.google.common.base.CharMatcher
+import com.google.common.io.ByteStreams
 import eu.timepit.refined.numeric.NonNegative
 import eu.timepit.refined.refineV
 import io.netty.buffer.Unpooled
-import io.netty.handler.codec.http.HttpHeaderNames.{CONTENT_LENGTH, CONTENT_TYPE}
-import io.netty.handler.codec.http.HttpResponseStatus.{BAD_REQUEST, FORBIDDEN, INTERNAL_SERVER_ERROR, NOT_FOUND, OK, UNAUTHORIZED}
+import io.netty.handler.codec.http.HttpHeaderNames.{ACCEPT_RANGES, CONTENT_LENGTH, CONTENT_RANGE, CONTENT_TYPE, RANGE}
+import io.netty.handler.codec.http.HttpResponseStatus.{BAD_REQUEST, FORBIDDEN, INTERNAL_SERVER_ERROR, NOT_FOUND, OK, PARTIAL_CONTENT, REQUESTED_RANGE_NOT_SATISFIABLE, UNAUTHORIZED}
 import io.netty.handler.codec.http.{HttpMethod, HttpResponseStatus, QueryStringDecoder}
 import javax.inject.{Inject, Named}
 import org.apache.james.jmap.HttpConstants.JSON_CONTENT_TYPE
@@ -59,6 +60,7 @@ import reactor.netty.http.server.{HttpServerRequest, HttpServerResponse}
 
 import scala.compat.java8.FunctionConverters._
 import scala.jdk.CollectionConverters._
+import scala.util.matching.Regex
 import scala.util.{Failure, Success, Try}
 
 object DownloadRoutes {
@@ -86,6 +88,52 @@ trait Blob {
   def contentType: ContentType
   def size: Try[Size]
   def content: InputStream
+
+  /**
+   * At most length bytes of the content, starting at offset.
+   *
+   * Blobs backed by a storage able to serve ranged reads should override it.
+   */
+  def contentRange(offset: Long, length: Long): InputStream = {
+    val stream = content
+    ByteStreams.exhaust(ByteStreams.limit(stream, offset))
+    ByteStreams.limit(stream, length)
+  }
+}
+
+sealed trait ByteRange
+case object FullContent extends ByteRange
+case class PartialContent(offset: Long, length: Long, size: Long) extends ByteRange {
+  def asContentRange: String = s"bytes $offset-${offset + length - 1}/$size"
+}
+case class UnsatisfiableRange(size: Long) extends ByteRange {
+  def asContentRange: String = s"bytes */$size"
+}
+
+/**
+ * Resolves the HTTP Range header of a download (RFC 7233).
+ *
+ * Only single byte ranges are supported. As allowed by the RFC, the full content is served
+ * for other range requests, as well as when the size of the blob is unknown.
+ */
+object ByteRange {
+  private val SINGLE_BYTE_RANGE: Regex = """bytes=(\d*)-(\d*)""".r
+
+  def resolve(rangeHeader: Option[String], size: Try[Size]): ByteRange = (rangeHeader.map(_.trim), size) match {
+    case (Some(SINGLE_BYTE_RANGE(first, last)), Success(size)) => resolve(first, last, size.value)
+    case _ => FullContent
+  }
+
+  private def resolve(first: String, last: String, size: Long): ByteRange = (first.toLongOption, last.toLongOption) match {
+    case (Some(start), _) if start >= size => UnsatisfiableRange(size)
+    case (Some(start), Some(end)) if end >= start => PartialContent(start, math.min(end, size - 1) - start + 1, size)
+    case (Some(start), None) if last.isEmpty => PartialContent(start, size - start, size)
+    case (None, Some(suffixLength)) if first.isEmpty && (suffixLength == 0 || size == 0) => UnsatisfiableRange(size)
+    case (None, Some(suffixLength)) if first.isEmpty =>
+      val length = math.min(suffixLength, size)
+      PartialContent(size - length, length, size)
+    case _ => FullContent
+  }
 }
 
 case class BlobNotFoundException(blobId: BlobId) extends RuntimeException
@@ -100,6 +148,8 @@ case class MessageBlob(blobId: BlobId, message: MessageResult) extends Blob {
   }
 
   override def content: InputStream = message.getFullContent.getInputStream
+
+  override def contentRange(offset: Long, length: Long): InputStream = message.getFullContent.getInputStream(offset, length)
 }
 
 case class UploadedBlob(blobId: BlobId, upload: Upload) extends Blob {
@@ -110,12 +160,15 @@ case class UploadedBlob(blobId: BlobId, upload: Upload) extends Blob {
   override def content: InputStream = upload.content()
 }
 
-case class AttachmentBlob(attachmentMetadata: AttachmentMetadata, fileContent: InputStream) extends Blob {
+case class AttachmentBlob(attachmentMetadata: AttachmentMetadata, attachmentManager: AttachmentManager, mailboxSession: MailboxSession) extends Blob {
   override def size: Try[Size] = Success(sanitizeSize(attachmentMetadata.getSize))
 
   override def contentType: ContentType = attachmentMetadata.getType
 
-  override def content: InputStream = fileContent
+  override def content: InputStream = attachmentManager.load(attachmentMetadata, mailboxSession)
+
+  override def contentRange(offset: Long, length: Long): InputStream =
+    attachmentManager.loadAttachmentContent(attachmentMetadata.getAttachmentId, offset, length, mailboxSession)
 
   override def blobId: BlobId = BlobId.of(attachmentMetadata.getAttachmentId.getId).get
 }
@@ -173,7 +226,7 @@ class AttachmentBlobResolver @Inject()(val attachmentManager: AttachmentManager)
       case attachmentId: AttachmentId =>
         Try(attachmentManager.getAttachment(attachmentId, mailboxSession)) match {
           case Success(attachmentMetadata) => Applicable(
-            SMono.fromCallable(() => AttachmentBlob(attachmentMetadata, attachmentManager.load(attachmentMetadata, mailboxSession))))
+            SMono.just(AttachmentBlob(attachmentMetadata, attachmentManager, mailboxSession)))
           case Failure(_) => NonApplicable
         }
       case _ => NonApplicable
@@ -285,7 +338,8 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
         blobContentType = queryParam(request, contentTypeParam)
           .map(ContentType.of)
           .getOrElse(blob.contentType),
-        blob = blob)
+        blob = blob,
+        range = ByteRange.resolve(Option(request.requestHeaders().get(RANGE)), blob.size))
         .`then`())
 
   private def getIfOwner(request: HttpServerRequest, response: HttpServerResponse, mailboxSession: MailboxSession): SMono[Unit] =
@@ -306,14 +360,36 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
   private def downloadBlob(optionalName: Option[String],
                            response: HttpServerResponse,
                            blobContentType: ContentType,
-                           blob: Blob): SMono[Unit] =
+                           blob: Blob,
+                           range: ByteRange): SMono[Unit] =
+    range match {
+      case FullContent =>
+        sendContent(() => blob.content, addContentDispositionHeader(optionalName)
+          .compose(addContentLengthHeader(blob.size))
+          .apply(response)
+          .header(CONTENT_TYPE, blobContentType.asString)
+          .header(ACCEPT_RANGES, "bytes")
+          .status(OK))
+      case partialContent: PartialContent =>
+        sendContent(() => blob.contentRange(partialContent.offset, partialContent.length), addContentDispositionHeader(optionalName)
+          .apply(response)
+          .header(CONTENT_LENGTH, partialContent.length.toString)
+          .header(CONTENT_RANGE, partialContent.asContentRange)
+          .header(CONTENT_TYPE, blobContentType.asString)
+          .header(ACCEPT_RANGES, "bytes")
+          .status(PARTIAL_CONTENT))
+      case unsatisfiableRange: UnsatisfiableRange =>
+        SMono.fromPublisher(response.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(CONTENT_RANGE, unsatisfiableRange.asContentRange)
+          .header(CONTENT_LENGTH, "0")
+          .send())
+          .`then`
+    }
+
+  private def sendContent(content: () => InputStream, response: HttpServerResponse): SMono[Unit] =
     SMono.fromPublisher(Mono.using(
-      () => blob.content,
-      (stream: InputStream) => addContentDispositionHeader(optionalName)
-        .compose(addContentLengthHeader(blob.size))
-        .apply(response)
-        .header(CONTENT_TYPE, blobContentType.asString)
-        .status(OK)
+      () => content(),
+      (stream: InputStream) => response
         .send(ReactorUtils.toChunks(stream, BUFFER_SIZE)
           .map(Unpooled.wrappedBuffer(_))
           .subscribeOn(Schedulers.elastic))
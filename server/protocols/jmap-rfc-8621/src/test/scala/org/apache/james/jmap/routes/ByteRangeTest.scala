@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.routes
+
+import org.apache.james.jmap.api.model.Size.sanitizeSize
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.util.{Failure, Success}
+
+class ByteRangeTest extends AnyWordSpec with Matchers {
+  private val size = Success(sanitizeSize(100))
+
+  "resolve" should {
+    "serve full content when no range is requested" in {
+      ByteRange.resolve(None, size) should equal(FullContent)
+    }
+
+    "serve full content when size is unknown" in {
+      ByteRange.resolve(Some("bytes=0-9"), Failure(new IllegalArgumentException())) should equal(FullContent)
+    }
+
+    "serve full content when range is malformed" in {
+      ByteRange.resolve(Some("bytes=abc"), size) should equal(FullContent)
+    }
+
+    "serve full content when several ranges are requested" in {
+      ByteRange.resolve(Some("bytes=0-9,20-29"), size) should equal(FullContent)
+    }
+
+    "serve full content when range ends before its start" in {
+      ByteRange.resolve(Some("bytes=9-0"), size) should equal(FullContent)
+    }
+
+    "serve bounded ranges" in {
+      ByteRange.resolve(Some("bytes=10-19"), size) should equal(PartialContent(10, 10, 100))
+    }
+
+    "truncate ranges ending after the content" in {
+      ByteRange.resolve(Some("bytes=90-199"), size) should equal(PartialContent(90, 10, 100))
+    }
+
+    "serve open ended ranges" in {
+      ByteRange.resolve(Some("bytes=40-"), size) should equal(PartialContent(40, 60, 100))
+    }
+
+    "serve suffix ranges" in {
+      ByteRange.resolve(Some("bytes=-30"), size) should equal(PartialContent(70, 30, 100))
+    }
+
+    "serve full content for suffix ranges longer than the content" in {
+      ByteRange.resolve(Some("bytes=-300"), size) should equal(PartialContent(0, 100, 100))
+    }
+
+    "reject ranges starting after the content" in {
+      ByteRange.resolve(Some("bytes=100-199"), size) should equal(UnsatisfiableRange(100))
+    }
+
+    "reject empty suffix ranges" in {
+      ByteRange.resolve(Some("bytes=-0"), size) should equal(UnsatisfiableRange(100))
+    }
+  }
+
+  "asContentRange" should {
+    "describe partial content" in {
+      PartialContent(10, 10, 100).asContentRange should equal("bytes 10-19/100")
+    }
+
+    "describe unsatisfiable ranges" in {
+      UnsatisfiableRange(100).asContentRange should equal("bytes */100")
+    }
+  }
+}
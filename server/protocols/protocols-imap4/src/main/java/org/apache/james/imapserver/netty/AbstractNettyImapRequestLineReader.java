@@ -26,22 +26,34 @@ import org.jboss.netty.channel.Channel;
 public abstract class AbstractNettyImapRequestLineReader extends ImapRequestLineReader {
     private final Channel channel;
     private final ChannelBuffer cRequest = ChannelBuffers.wrappedBuffer("+ Ok\r\n".getBytes());
-    private final boolean retry;
+    private final int sentContinuationRequests;
+    private int continuationRequests = 0;
 
-    public AbstractNettyImapRequestLineReader(Channel channel, boolean retry) {
+    /**
+     * @param sentContinuationRequests count of command continuation requests already sent to the client
+     *                                 by previous attempts to decode this request
+     */
+    public AbstractNettyImapRequestLineReader(Channel channel, int sentContinuationRequests) {
         this.channel = channel;
-        this.retry = retry;
-
+        this.sentContinuationRequests = sentContinuationRequests;
     }
 
     @Override
     protected void commandContinuationRequest() {
-        // only write the request out if this is not a retry to process the
-        // request..
-
-        if (!retry) {
-            channel.write(cRequest);
+        // only write the request out if it was not already sent by a previous
+        // attempt to process the request. A request carrying several
+        // synchronizing literals (MULTIAPPEND) needs one per literal.
+        if (continuationRequests >= sentContinuationRequests) {
+            channel.write(cRequest.duplicate());
         }
+        continuationRequests++;
     }
 
+    /**
+     * @return the count of command continuation requests that had been sent to the client once this reader
+     * is done
+     */
+    public int getContinuationRequests() {
+        return Math.max(continuationRequests, sentContinuationRequests);
+    }
 }
@@ -28,6 +28,7 @@ import org.apache.james.imap.encode.ImapResponseWriter;
 import org.apache.james.imap.message.Literal;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.DefaultFileRegion;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
@@ -35,6 +36,7 @@ import org.jboss.netty.handler.codec.compression.ZlibEncoder;
 import org.jboss.netty.handler.ssl.SslHandler;
 import org.jboss.netty.handler.stream.ChunkedNioFile;
 import org.jboss.netty.handler.stream.ChunkedStream;
+import org.jboss.netty.util.internal.DeadLockProofWorker;
 
 /**
  * {@link ImapResponseWriter} implementation which writes the data to a
@@ -44,6 +46,7 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
 
     private final Channel channel;
     private final boolean zeroCopy;
+    private volatile ChannelFuture lastWrite;
 
     public ChannelImapResponseWriter(Channel channel) {
         this(channel, true);
@@ -57,7 +60,7 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
     @Override
     public void write(byte[] buffer) throws IOException {
         if (channel.isConnected()) {
-            channel.write(ChannelBuffers.wrappedBuffer(buffer));
+            lastWrite = channel.write(ChannelBuffers.wrappedBuffer(buffer));
         }
     }
 
@@ -72,16 +75,27 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
                 // See JAMES-1305 and JAMES-1306
                 ChannelPipeline cp = channel.getPipeline();
                 if (zeroCopy && cp.get(SslHandler.class) == null && cp.get(ZlibEncoder.class) == null) {
-                    channel.write(new DefaultFileRegion(fc, fc.position(), literal.size()));
+                    lastWrite = channel.write(new DefaultFileRegion(fc, fc.position(), literal.size()));
                 } else {
-                    channel.write(new ChunkedNioFile(fc, 8192));
+                    lastWrite = channel.write(new ChunkedNioFile(fc, 8192));
                 }
             } else {
-                channel.write(new ChunkedStream(literal.getInputStream()));
+                lastWrite = channel.write(new ChunkedStream(literal.getInputStream()));
             }
         }
     }
-    
-    
+
+    /**
+     * While the channel outbound buffer is above its high water mark, waits for the pending writes to be flushed to
+     * the client. Interest change events are not waited for as the execution handler only delivers them once the
+     * command being processed completes. Waiting is skipped on IO threads as it would deadlock.
+     */
+    @Override
+    public void awaitWritability() {
+        ChannelFuture pendingWrite = lastWrite;
+        if (pendingWrite != null && !channel.isWritable() && DeadLockProofWorker.PARENT.get() == null) {
+            pendingWrite.awaitUninterruptibly();
+        }
+    }
 
 }
@@ -186,6 +186,7 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
                 .idleTimeInterval(configuration.getLong("idleTimeInterval", ImapConfiguration.DEFAULT_HEARTBEAT_INTERVAL_IN_SECONDS))
                 .idleTimeIntervalUnit(getTimeIntervalUnit(configuration.getString("idleTimeIntervalUnit", DEFAULT_TIME_UNIT)))
                 .disabledCaps(disabledCaps)
+                .binarySizeCacheSize(configuration.getLong("binarySizeCacheSize", ImapConfiguration.DEFAULT_BINARY_SIZE_CACHE_SIZE))
                 .build();
     }
 
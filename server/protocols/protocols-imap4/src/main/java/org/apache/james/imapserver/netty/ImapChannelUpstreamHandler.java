@@ -43,6 +43,7 @@ import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelLocal;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.ExceptionEvent;
@@ -58,6 +59,7 @@ import org.slf4j.LoggerFactory;
 public class ImapChannelUpstreamHandler extends SimpleChannelUpstreamHandler implements NettyConstants {
     private static final Logger LOGGER = LoggerFactory.getLogger(ImapChannelUpstreamHandler.class);
     public static final String MDC_KEY = "bound_MDC";
+    private static final ChannelLocal<Boolean> READ_PAUSED_FOR_WRITABILITY = new ChannelLocal<>();
 
     public static class ImapChannelUpstreamHandlerBuilder {
         private String hello;
@@ -202,6 +204,22 @@ public class ImapChannelUpstreamHandler extends SimpleChannelUpstreamHandler imp
         }
     }
 
+    /**
+     * Stop reading further commands while the outbound buffer is above its high water mark, and resume once it
+     * drained. This bounds the memory used by responses to clients that do not read them fast enough.
+     */
+    @Override
+    public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        Channel channel = ctx.getChannel();
+        if (!channel.isWritable() && channel.isReadable()) {
+            READ_PAUSED_FOR_WRITABILITY.set(channel, true);
+            channel.setReadable(false);
+        } else if (channel.isWritable() && READ_PAUSED_FOR_WRITABILITY.remove(channel) != null) {
+            channel.setReadable(true);
+        }
+        super.channelInterestChanged(ctx, e);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) throws Exception {
         try (Closeable closeable = mdc(ctx).build()) {
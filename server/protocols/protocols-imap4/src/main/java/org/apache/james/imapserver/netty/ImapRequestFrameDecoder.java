@@ -23,14 +23,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.ImapSessionState;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.decode.ImapDecoder;
-import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.message.Literal;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
@@ -55,6 +57,8 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
     private static final String STORED_DATA = "STORED_DATA";
     private static final String WRITTEN_DATA = "WRITTEN_DATA";
     private static final String OUTPUT_STREAM = "OUTPUT_STREAM";
+    private static final String CONTINUATION_REQUESTS = "CONTINUATION_REQUESTS";
+    private static final String DECODED_LITERALS = "DECODED_LITERALS";
 
     public ImapRequestFrameDecoder(ImapDecoder decoder, int inMemorySizeLimit, int literalSizeLimit) {
         this.decoder = decoder;
@@ -71,23 +75,27 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
     @Override
     @SuppressWarnings("unchecked")
     protected Object decode(ChannelHandlerContext ctx, Channel channel, ChannelBuffer buffer) throws Exception {
-        buffer.markReaderIndex();
-        boolean retry = false;
+        // Not relying on the buffer mark: reading a literal through a ChannelBufferInputStream moves it
+        int readerIndex = buffer.readerIndex();
+        int sentContinuationRequests = 0;
+        boolean spooled = false;
 
-        ImapRequestLineReader reader;
+        AbstractNettyImapRequestLineReader reader;
         // check if we failed before and if we already know how much data we
         // need to sucess next run
         Map<String, Object> attachment = (Map<String, Object>) ctx.getAttachment();
         int size = -1;
         if (attachment.containsKey(NEEDED_DATA)) {
-            retry = true;
+            sentContinuationRequests = (Integer) attachment.getOrDefault(CONTINUATION_REQUESTS, 0);
             size = (Integer) attachment.get(NEEDED_DATA);
+            boolean unknownSize = size == NettyImapRequestLineReader.NotEnoughDataException.UNKNOWN_SIZE;
             // now see if the buffer hold enough data to process.
-            if (size != NettyImapRequestLineReader.NotEnoughDataException.UNKNOWN_SIZE && size > buffer.readableBytes()) {
+            // Once spooling started, the following data of the request (MULTIAPPEND) is spooled as well.
+            if (attachment.containsKey(STORED_DATA) || (!unknownSize && size > buffer.readableBytes())) {
 
                 // check if we have a inMemorySize limit and if so if the
                 // expected size will fit into it
-                if (inMemorySizeLimit > 0 && inMemorySizeLimit < size) {
+                if (attachment.containsKey(STORED_DATA) || (inMemorySizeLimit > 0 && inMemorySizeLimit < size)) {
 
                     // ok seems like it will not fit in the memory limit so we
                     // need to store it in a temporary file
@@ -112,8 +120,19 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
                     }
 
 
+                    int amount;
+                    boolean complete;
+                    if (unknownSize) {
+                        // only spool the current line as other requests may be pipelined after this one
+                        int lineEnd = buffer.indexOf(buffer.readerIndex(), buffer.writerIndex(), (byte) '\n');
+                        amount = lineEnd == -1 ? buffer.readableBytes() : lineEnd + 1 - buffer.readerIndex();
+                        complete = lineEnd != -1;
+                    } else {
+                        amount = Math.min(buffer.readableBytes(), size - written);
+                        complete = written + amount == size;
+                    }
+
                     try {
-                        int amount = Math.min(buffer.readableBytes(), size - written);
                         buffer.readBytes(out, amount);
                         written += amount;
                     } catch (Exception e) {
@@ -124,31 +143,25 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
                         }
                         throw e;
                     }
+                    attachment.put(WRITTEN_DATA, written);
                     // Check if all needed data was streamed to the file.
-                    if (written == size) {
-                        try {
-                            out.close();
-                        } catch (IOException ignored) {
-                            //ignore exception during close
-                        }
-
-                        reader = new NettyStreamImapRequestLineReader(channel, f, retry);
-                    } else {
-                        attachment.put(WRITTEN_DATA, written);
+                    if (!complete) {
                         return null;
                     }
+                    reader = new NettyStreamImapRequestLineReader(channel, f, sentContinuationRequests);
+                    spooled = true;
 
                 } else {
-                    buffer.resetReaderIndex();
+                    buffer.readerIndex(readerIndex);
                     return null;
                 }
 
             } else {
 
-                reader = new NettyImapRequestLineReader(channel, buffer, retry, literalSizeLimit);
+                reader = inMemoryReader(channel, buffer, attachment, sentContinuationRequests);
             }
         } else {
-            reader = new NettyImapRequestLineReader(channel, buffer, retry, literalSizeLimit);
+            reader = inMemoryReader(channel, buffer, attachment, sentContinuationRequests);
         }
 
         ImapSession session = (ImapSession) attributes.get(channel);
@@ -169,6 +182,7 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
                 
                 ((SwitchableLineBasedFrameDecoder) channel.getPipeline().get(FRAMER)).enableFraming();
                 
+                closeSpoolingStream(attachment);
                 attachment.clear();
                 return message;
             } catch (NettyImapRequestLineReader.NotEnoughDataException e) {
@@ -177,6 +191,8 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
                 int neededData = e.getNeededSize();
                 // store the needed data size for later usage
                 attachment.put(NEEDED_DATA, neededData);
+                // continuation requests must not be sent twice when decoding again
+                attachment.put(CONTINUATION_REQUESTS, reader.getContinuationRequests());
                 
                 final ChannelPipeline pipeline = channel.getPipeline();
                 final ChannelHandlerContext framerContext = pipeline.getContext(FRAMER);
@@ -185,7 +201,12 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
                 final SwitchableLineBasedFrameDecoder framer = (SwitchableLineBasedFrameDecoder) pipeline.get(FRAMER);
                 framer.disableFraming(framerContext);
                 
-                buffer.resetReaderIndex();
+                if (spooled) {
+                    // the data read so far is in the spool file
+                    ((NettyStreamImapRequestLineReader) reader).close();
+                } else {
+                    buffer.readerIndex(readerIndex);
+                }
                 return null;
             }
         } else {
@@ -198,6 +219,24 @@ public class ImapRequestFrameDecoder extends FrameDecoder implements NettyConsta
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private NettyImapRequestLineReader inMemoryReader(Channel channel, ChannelBuffer buffer, Map<String, Object> attachment, int sentContinuationRequests) {
+        // Literals decoded by previous attempts are not copied again, keeping MULTIAPPEND decoding linear
+        List<Literal> decodedLiterals = (List<Literal>) attachment.computeIfAbsent(DECODED_LITERALS, any -> new ArrayList<Literal>());
+        return new NettyImapRequestLineReader(channel, buffer, sentContinuationRequests, literalSizeLimit, decodedLiterals);
+    }
+
+    private void closeSpoolingStream(Map<String, Object> attachment) {
+        OutputStream out = (OutputStream) attachment.get(OUTPUT_STREAM);
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                //ignore exception during close
+            }
+        }
+    }
+
     @Override
     protected synchronized ChannelBuffer newCumulationBuffer(ChannelHandlerContext ctx, int minimumCapacity) {
         Map<String, Object> attachment = (Map<String, Object>) ctx.getAttachment();
@@ -21,6 +21,8 @@ package org.apache.james.imapserver.netty;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.james.imap.api.display.HumanReadableText;
@@ -44,11 +46,22 @@ public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineRead
     private final ChannelBuffer buffer;
     private int read = 0;
     private final int maxLiteralSize;
+    private final List<Literal> decodedLiterals;
+    private int literalCount = 0;
 
-    public NettyImapRequestLineReader(Channel channel, ChannelBuffer buffer, boolean retry, int maxLiteralSize) {
-        super(channel, retry);
+    public NettyImapRequestLineReader(Channel channel, ChannelBuffer buffer, int sentContinuationRequests, int maxLiteralSize) {
+        this(channel, buffer, sentContinuationRequests, maxLiteralSize, new ArrayList<>());
+    }
+
+    /**
+     * @param decodedLiterals literals of this request decoded by previous attempts, which get skipped rather than
+     *                        copied again. Literals decoded by this attempt are appended to it.
+     */
+    public NettyImapRequestLineReader(Channel channel, ChannelBuffer buffer, int sentContinuationRequests, int maxLiteralSize, List<Literal> decodedLiterals) {
+        super(channel, sentContinuationRequests);
         this.buffer = buffer;
         this.maxLiteralSize  = maxLiteralSize;
+        this.decodedLiterals = decodedLiterals;
     }
     
 
@@ -103,15 +116,30 @@ public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineRead
         nextSeen = false;
         nextChar = 0;
 
+        if (literalCount < decodedLiterals.size()) {
+            // Already decoded while waiting for a following literal (MULTIAPPEND)
+            buffer.skipBytes(size);
+            read += size;
+            if (extraCRLF) {
+                eol();
+            }
+            return decodedLiterals.get(literalCount++);
+        }
 
         try {
             // limit the size via commons-io as ChannelBufferInputStream size limiting is buggy
             InputStream in = new BoundedInputStream(new ChannelBufferInputStream(buffer), size);
+            // count the literal so that the size needed by a following literal (MULTIAPPEND) is accurate
+            read += size;
+            Literal literal;
             if (extraCRLF) {
-                return BytesBackedLiteral.copy(new EolInputStream(this, in));
+                literal = BytesBackedLiteral.copy(new EolInputStream(this, in));
             } else {
-                return BytesBackedLiteral.copy(in);
+                literal = BytesBackedLiteral.copy(in);
             }
+            decodedLiterals.add(literal);
+            literalCount++;
+            return literal;
         } catch (IOException e) {
             throw new DecodingException(HumanReadableText.SOCKET_IO_FAILURE, "Can not read literal", e);
         }
@@ -76,8 +76,8 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
     private final File backingFile;
     private final CountingInputStream in;
 
-    public NettyStreamImapRequestLineReader(Channel channel, File file, boolean retry) {
-        super(channel, retry);
+    public NettyStreamImapRequestLineReader(Channel channel, File file, int sentContinuationRequests) {
+        super(channel, sentContinuationRequests);
         this.backingFile = file;
         try {
             this.in = new CountingInputStream(new FileInputStream(file));
@@ -95,7 +95,9 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
      *         cannot be determine at the token level; this char is not accurate
      *         reported; should be an octet
      * @throws DecodingException
-     *             If the end-of-stream is reached.
+     *             If the backing file can not be read.
+     * @throws NettyImapRequestLineReader.NotEnoughDataException
+     *             If the end of the data received so far is reached.
      */
     @Override
     public char nextChar() throws DecodingException {
@@ -108,7 +110,7 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
                 throw new DecodingException(HumanReadableText.SOCKET_IO_FAILURE, "Error reading from stream.", e);
             }
             if (next == -1) {
-                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unexpected end of stream.");
+                throw new NettyImapRequestLineReader.NotEnoughDataException();
             }
             nextSeen = true;
             nextChar = (char) next;
@@ -132,6 +134,15 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
      */
     @Override
     public Literal read(int size, boolean extraCRLF) throws DecodingException {
+        long offset = in.getCount();
+        int crlf = 0;
+        if (extraCRLF) {
+            crlf = 2;
+        }
+        // Check the literal was fully received, for instance the second literal of a MULTIAPPEND
+        if (offset + size + crlf > backingFile.length()) {
+            throw new NettyImapRequestLineReader.NotEnoughDataException(Math.toIntExact(offset + size + crlf));
+        }
 
         // Unset the next char.
         nextSeen = false;
@@ -139,7 +150,6 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
 
         //TODO move this copy in netty stack and try to avoid it
         try {
-            long offset = in.getCount();
             in.skip(size);
             return new FileLiteral(offset, size, extraCRLF, backingFile, this);
         } catch (IOException e) {
@@ -0,0 +1,74 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChannelImapResponseWriterTest {
+    private Channel channel;
+    private ChannelFuture writeFuture;
+    private ChannelImapResponseWriter testee;
+
+    @BeforeEach
+    void setUp() {
+        channel = mock(Channel.class);
+        writeFuture = mock(ChannelFuture.class);
+        when(channel.isConnected()).thenReturn(true);
+        when(channel.write(any())).thenReturn(writeFuture);
+        testee = new ChannelImapResponseWriter(channel);
+    }
+
+    @Test
+    void awaitWritabilityShouldWaitForPendingWritesWhenChannelIsNotWritable() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+        testee.write("* OK\r\n".getBytes());
+
+        testee.awaitWritability();
+
+        verify(writeFuture).awaitUninterruptibly();
+    }
+
+    @Test
+    void awaitWritabilityShouldNotWaitWhenChannelIsWritable() throws Exception {
+        when(channel.isWritable()).thenReturn(true);
+        testee.write("* OK\r\n".getBytes());
+
+        testee.awaitWritability();
+
+        verify(writeFuture, never()).awaitUninterruptibly();
+    }
+
+    @Test
+    void awaitWritabilityShouldNotFailWhenNothingWasWritten() {
+        when(channel.isWritable()).thenReturn(false);
+
+        testee.awaitWritability();
+
+        verify(channel, never()).write(any());
+    }
+}
@@ -21,17 +21,23 @@ package org.apache.james.imapserver.netty;
 
 import static javax.mail.Folder.READ_WRITE;
 import static org.apache.james.jmap.JMAPTestingConstants.LOCALHOST_IP;
+import static org.apache.james.jmap.JMAPTestingConstants.calmlyAwait;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.IntStream;
 
 import javax.mail.FetchProfile;
 import javax.mail.Folder;
@@ -86,6 +92,7 @@ import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
 import com.sun.mail.imap.IMAPFolder;
 
 import ch.qos.logback.classic.Logger;
@@ -320,6 +327,182 @@ class IMAPServerTest {
         }
     }
 
+    @Nested
+    class MultiAppend {
+        IMAPServer imapServer;
+        private Socket socket;
+        private BufferedReader reader;
+
+        @BeforeEach
+        void beforeEach() throws Exception {
+            imapServer = createImapServer("imapServerNoLimits.xml");
+            int port = imapServer.getListenAddresses().get(0).getPort();
+            socket = new Socket(LOCALHOST_IP, port);
+            socket.setSoTimeout(10000);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            readLine();
+            send("a0 LOGIN " + USER.asString() + " " + USER_PASS + "\r\n");
+            readTaggedResponse("a0");
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            socket.close();
+            imapServer.destroy();
+        }
+
+        @Test
+        void capabilityShouldAdvertiseMultiAppend() throws Exception {
+            send("a1 CAPABILITY\r\n");
+
+            assertThat(readTaggedResponse("a1")).contains("MULTIAPPEND");
+        }
+
+        @Test
+        void multiAppendShouldSendAContinuationRequestPerSynchronizingLiteral() throws Exception {
+            send("a1 APPEND INBOX {" + SMALL_MESSAGE.length() + "}\r\n");
+            assertThat(readLine()).startsWith("+");
+            send(SMALL_MESSAGE + " (\\Seen) {" + SMALL_MESSAGE.length() + "}\r\n");
+            assertThat(readLine()).startsWith("+");
+            send(SMALL_MESSAGE + "\r\n");
+
+            assertThat(readTaggedResponse("a1")).containsPattern("a1 OK \\[APPENDUID \\d+ 1:2\\]");
+            assertThat(countMessagesInInbox()).isEqualTo(2);
+        }
+
+        @Test
+        void multiAppendShouldSupportLiteralsSpooledToDisk() throws Exception {
+            send("a1 APPEND INBOX {" + _129K_MESSAGE.length() + "}\r\n");
+            assertThat(readLine()).startsWith("+");
+            send(_129K_MESSAGE + " {" + _129K_MESSAGE.length() + "}\r\n");
+            assertThat(readLine()).startsWith("+");
+            send(_129K_MESSAGE + " {" + SMALL_MESSAGE.length() + "+}\r\n" + SMALL_MESSAGE + "\r\n");
+
+            assertThat(readTaggedResponse("a1")).containsPattern("a1 OK \\[APPENDUID \\d+ 1:3\\]");
+            assertThat(countMessagesInInbox()).isEqualTo(3);
+        }
+
+        private long countMessagesInInbox() throws Exception {
+            InMemoryMailboxManager mailboxManager = memoryIntegrationResources.getMailboxManager();
+            MailboxSession mailboxSession = mailboxManager.createSystemSession(USER);
+            return mailboxManager.getMailbox(MailboxPath.inbox(USER), mailboxSession)
+                .getMessageCount(mailboxSession);
+        }
+
+        private void send(String data) throws IOException {
+            socket.getOutputStream().write(data.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+        }
+
+        private String readLine() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new EOFException("Connection closed");
+            }
+            return line;
+        }
+
+        private String readTaggedResponse(String tag) throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            do {
+                line = readLine();
+                response.append(line).append("\r\n");
+            } while (!line.startsWith(tag + " "));
+            return response.toString();
+        }
+    }
+
+    @Nested
+    class StreamingFetch {
+        private static final int MESSAGE_COUNT = 30;
+        private static final int SMALL_RECEIVE_BUFFER_SIZE = 4096;
+
+        IMAPServer imapServer;
+        private Socket socket;
+        private BufferedReader reader;
+
+        @BeforeEach
+        void beforeEach() throws Exception {
+            imapServer = createImapServer("imapServerNoLimits.xml");
+            int port = imapServer.getListenAddresses().get(0).getPort();
+
+            MailboxSession mailboxSession = memoryIntegrationResources.getMailboxManager().createSystemSession(USER);
+            memoryIntegrationResources.getMailboxManager().createMailbox(MailboxPath.inbox(USER), mailboxSession);
+            MessageManager inbox = memoryIntegrationResources.getMailboxManager().getMailbox(MailboxPath.inbox(USER), mailboxSession);
+            for (int i = 0; i < MESSAGE_COUNT; i++) {
+                inbox.appendMessage(MessageManager.AppendCommand.builder().build(_65K_MESSAGE), mailboxSession);
+            }
+
+            socket = new Socket();
+            // A small receive buffer makes the server outbound buffer fill up while the client does not read
+            socket.setReceiveBufferSize(SMALL_RECEIVE_BUFFER_SIZE);
+            socket.connect(new InetSocketAddress(LOCALHOST_IP, port));
+            socket.setSoTimeout(10000);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            readLine();
+            send("a0 LOGIN " + USER.asString() + " " + USER_PASS + "\r\n");
+            readTaggedResponse("a0");
+            send("a1 SELECT INBOX\r\n");
+            readTaggedResponse("a1");
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            socket.close();
+            imapServer.destroy();
+        }
+
+        @Test
+        void fetchShouldReturnAllMessagesInOrder() throws Exception {
+            send("a2 FETCH 1:* (UID BODY.PEEK[])\r\n");
+
+            assertThat(fetchedSequenceNumbers(readTaggedResponse("a2")))
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, MESSAGE_COUNT).boxed().collect(ImmutableList.toImmutableList()));
+        }
+
+        @Test
+        void pipelinedCommandsShouldBeAnsweredWhenTheClientReadsSlowly() throws Exception {
+            send("a2 FETCH 1:* (BODY.PEEK[])\r\na3 NOOP\r\n");
+
+            // The server starts answering, and then waits for the client to read
+            calmlyAwait.until(() -> socket.getInputStream().available() > 0);
+
+            assertThat(fetchedSequenceNumbers(readTaggedResponse("a2"))).hasSize(MESSAGE_COUNT);
+            assertThat(readTaggedResponse("a3")).contains("a3 OK");
+        }
+
+        private ImmutableList<Integer> fetchedSequenceNumbers(String response) {
+            return Arrays.stream(response.split("\r\n"))
+                .filter(line -> line.startsWith("* ") && line.contains(" FETCH ("))
+                .map(line -> Integer.parseInt(line.substring(2, line.indexOf(' ', 2))))
+                .collect(ImmutableList.toImmutableList());
+        }
+
+        private void send(String data) throws IOException {
+            socket.getOutputStream().write(data.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+        }
+
+        private String readLine() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new EOFException("Connection closed");
+            }
+            return line;
+        }
+
+        private String readTaggedResponse(String tag) throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            do {
+                line = readLine();
+                response.append(line).append("\r\n");
+            } while (!line.startsWith(tag + " "));
+            return response.toString();
+        }
+    }
+
     @Nested
     class Compress {
         IMAPServer imapServer;
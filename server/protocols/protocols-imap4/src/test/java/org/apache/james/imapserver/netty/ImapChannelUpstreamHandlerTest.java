@@ -0,0 +1,107 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImapChannelUpstreamHandlerTest {
+    private ImapChannelUpstreamHandler testee;
+    private ChannelHandlerContext context;
+    private Channel channel;
+    private ChannelStateEvent event;
+
+    @BeforeEach
+    void setUp() {
+        testee = ImapChannelUpstreamHandler.builder()
+            .imapMetrics(new ImapMetrics(new RecordingMetricFactory()))
+            .build();
+        channel = mock(Channel.class);
+        context = mock(ChannelHandlerContext.class);
+        event = mock(ChannelStateEvent.class);
+        when(context.getChannel()).thenReturn(channel);
+    }
+
+    @Test
+    void channelInterestChangedShouldStopReadingWhenChannelIsNotWritable() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+        when(channel.isReadable()).thenReturn(true);
+
+        testee.channelInterestChanged(context, event);
+
+        verify(channel).setReadable(false);
+    }
+
+    @Test
+    void channelInterestChangedShouldResumeReadingOnceChannelIsWritableAgain() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+        when(channel.isReadable()).thenReturn(true);
+        testee.channelInterestChanged(context, event);
+
+        when(channel.isWritable()).thenReturn(true);
+        when(channel.isReadable()).thenReturn(false);
+        testee.channelInterestChanged(context, event);
+
+        verify(channel).setReadable(true);
+    }
+
+    @Test
+    void channelInterestChangedShouldResumeReadingOnlyOnce() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+        when(channel.isReadable()).thenReturn(true);
+        testee.channelInterestChanged(context, event);
+
+        when(channel.isWritable()).thenReturn(true);
+        when(channel.isReadable()).thenReturn(false);
+        testee.channelInterestChanged(context, event);
+        testee.channelInterestChanged(context, event);
+
+        verify(channel).setReadable(true);
+    }
+
+    @Test
+    void channelInterestChangedShouldNotResumeReadingItDidNotPause() throws Exception {
+        when(channel.isWritable()).thenReturn(true);
+        when(channel.isReadable()).thenReturn(false);
+
+        testee.channelInterestChanged(context, event);
+
+        verify(channel, never()).setReadable(true);
+    }
+
+    @Test
+    void channelInterestChangedShouldNotTouchWritableChannels() throws Exception {
+        when(channel.isWritable()).thenReturn(true);
+        when(channel.isReadable()).thenReturn(true);
+
+        testee.channelInterestChanged(context, event);
+
+        verify(channel, never()).setReadable(false);
+        verify(channel, never()).setReadable(true);
+    }
+}
@@ -0,0 +1,75 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.james.imap.message.Literal;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.junit.jupiter.api.Test;
+
+class NettyImapRequestLineReaderTest {
+    private static final int NO_LIMIT = 0;
+
+    @Test
+    void readShouldRecordDecodedLiterals() throws Exception {
+        List<Literal> decodedLiterals = new ArrayList<>();
+        NettyImapRequestLineReader testee = new NettyImapRequestLineReader(mock(Channel.class),
+            ChannelBuffers.copiedBuffer("abc", US_ASCII), 0, NO_LIMIT, decodedLiterals);
+
+        Literal literal = testee.read(3, false);
+
+        assertThat(decodedLiterals).containsExactly(literal);
+    }
+
+    @Test
+    void readShouldReuseLiteralsDecodedByPreviousAttempts() throws Exception {
+        ChannelBuffer buffer = ChannelBuffers.copiedBuffer("abc\r\ndef", US_ASCII);
+        List<Literal> decodedLiterals = new ArrayList<>();
+        new NettyImapRequestLineReader(mock(Channel.class), buffer.duplicate(), 0, NO_LIMIT, decodedLiterals)
+            .read(3, true);
+
+        NettyImapRequestLineReader testee = new NettyImapRequestLineReader(mock(Channel.class), buffer, 0, NO_LIMIT, decodedLiterals);
+        Literal reused = testee.read(3, true);
+        Literal next = testee.read(3, false);
+
+        assertThat(reused).isSameAs(decodedLiterals.get(0));
+        assertThat(new String(next.getInputStream().readAllBytes(), US_ASCII)).isEqualTo("def");
+        assertThat(decodedLiterals).containsExactly(reused, next);
+    }
+
+    @Test
+    void readShouldNotRecordLiteralsNotFullyReceived() {
+        List<Literal> decodedLiterals = new ArrayList<>();
+        NettyImapRequestLineReader testee = new NettyImapRequestLineReader(mock(Channel.class),
+            ChannelBuffers.copiedBuffer("ab", US_ASCII), 0, NO_LIMIT, decodedLiterals);
+
+        assertThatThrownBy(() -> testee.read(3, false))
+            .isInstanceOf(NettyImapRequestLineReader.NotEnoughDataException.class);
+        assertThat(decodedLiterals).isEmpty();
+    }
+}
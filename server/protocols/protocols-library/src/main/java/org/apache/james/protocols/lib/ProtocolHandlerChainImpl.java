@@ -55,6 +55,11 @@ public class ProtocolHandlerChainImpl implements ProtocolHandlerChain {
     public void init() throws Exception {
         List<org.apache.commons.configuration2.HierarchicalConfiguration<ImmutableNode>> children = handlerchainConfig.configurationsAt("handler");
 
+        // let the handlers know the server they are part of, for instance to name their metrics
+        children.stream()
+            .filter(child -> !child.containsKey("jmxName"))
+            .forEach(child -> child.addProperty("jmxName", jmxName));
+
         // check if the coreHandlersPackage was specified in the config, if
         // not add the default
         if (handlerchainConfig.getString("[@coreHandlersPackage]") == null) {
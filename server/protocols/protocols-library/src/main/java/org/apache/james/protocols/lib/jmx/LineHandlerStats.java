@@ -58,7 +58,8 @@ public class LineHandlerStats extends StandardMBean implements HandlerStatsMBean
      */
     public void increment(Response response) {
         all.incrementAndGet();
-        if (response.isEndSession()) {
+        // A line handler might answer later, eg when a BDAT chunk is fully received
+        if (response != null && response.isEndSession()) {
             disconnect.incrementAndGet();
         }
     }
@@ -205,6 +205,8 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
         jmxName = config.getString("jmxName", getDefaultJMXName());
         int ioWorker = config.getInt("ioWorkerCount", DEFAULT_IO_WORKER_COUNT);
         setIoWorkerCount(ioWorker);
+        setUseSharedIoPools(config.getBoolean("ioWorkerShared", false));
+        setUseDirectBuffers(config.getBoolean("ioBufferDirect", false));
 
         maxExecutorThreads = config.getInt("maxExecutorCount", DEFAULT_MAX_EXECUTOR_COUNT);
 
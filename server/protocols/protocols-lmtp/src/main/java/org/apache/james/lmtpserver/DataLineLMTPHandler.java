@@ -19,14 +19,17 @@
 package org.apache.james.lmtpserver;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.protocols.api.Response;
 import org.apache.james.protocols.api.handler.WiringException;
+import org.apache.james.protocols.lmtp.LMTPConfiguration;
 import org.apache.james.protocols.lmtp.LMTPMultiResponse;
 import org.apache.james.protocols.lmtp.hook.DeliverToRecipientHook;
 import org.apache.james.protocols.smtp.SMTPResponse;
@@ -35,10 +38,23 @@ import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.core.AbstractHookableCmdHandler;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.smtpserver.DataLineJamesMessageHookHandler;
+import org.apache.james.util.MDCBuilder;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
+import org.slf4j.MDC;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Handler which takes care of deliver the mail to the recipients INBOX
+ *
+ * Recipients are delivered concurrently, up to {@link LMTPConfiguration#getDeliveryConcurrency()}, all of them sharing
+ * the same envelope. Replies are emitted in the order of the recipients.
+ *
+ * The {@link SMTPSession} is not thread safe: concurrent deliveries are only possible when no
+ * {@link DeliverToRecipientHook} modifies the session state, which is the case of the default mailbox delivery.
  */
 public class DataLineLMTPHandler extends DataLineJamesMessageHookHandler {
 
@@ -46,32 +62,63 @@ public class DataLineLMTPHandler extends DataLineJamesMessageHookHandler {
 
 
     @Override
-    protected Response processExtensions(SMTPSession session, Mail mail) {
-        LMTPMultiResponse mResponse = null;
+    protected Publisher<Response> processExtensionsReactive(SMTPSession session, Mail mail) {
+        return Mono.defer(() -> deliver(session, mail));
+    }
+
+    private Mono<Response> deliver(SMTPSession session, Mail mail) {
         executeJamesMessageHooks(session, mail);
 
         // build a wrapper around the Mail
         final ReadOnlyMailEnvelope env = new ReadOnlyMailEnvelope(mail);
+        int concurrency = deliveryConcurrency(session);
 
-        for (MailAddress recipient : mail.getRecipients()) {
-            Response response = null;
-            for (DeliverToRecipientHook handler : handlers) {
-                response = AbstractHookableCmdHandler.calcDefaultSMTPResponse(handler.deliver(session, recipient, env));
-                if (response != null) {
-                    break;
-                }
-            }
-            if (response == null) {
-                // Add some default response for not handled responses
-                response = new SMTPResponse(SMTPRetCode.LOCAL_ERROR, DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.UNDEFINED_STATUS) + "Temporary error deliver message to " + recipient);
-            }
-            if (mResponse == null) {
-                mResponse = new LMTPMultiResponse(response);
-            } else {
-                mResponse.addResponse(response);
+        return Flux.fromIterable(mail.getRecipients())
+            .flatMapSequential(recipient -> deliver(session, recipient, env, concurrency), concurrency)
+            .collectList()
+            .filter(responses -> !responses.isEmpty())
+            .map(responses -> {
+                LMTPMultiResponse mResponse = new LMTPMultiResponse(responses.get(0));
+                responses.stream()
+                    .skip(1)
+                    .forEach(mResponse::addResponse);
+                return mResponse;
+            });
+    }
+
+    private int deliveryConcurrency(SMTPSession session) {
+        if (session.getConfiguration() instanceof LMTPConfiguration) {
+            return ((LMTPConfiguration) session.getConfiguration()).getDeliveryConcurrency();
+        }
+        return 1;
+    }
+
+    private Mono<Response> deliver(SMTPSession session, MailAddress recipient, ReadOnlyMailEnvelope env, int concurrency) {
+        if (concurrency > 1) {
+            // Hooks are blocking, deliver each recipient on its own thread, with the logging context of the session
+            MDCBuilder mdc = currentMdc();
+            return Mono.fromCallable(() -> mdc.execute(() -> deliver(session, recipient, env)))
+                .subscribeOn(Schedulers.boundedElastic());
+        }
+        return Mono.fromCallable(() -> deliver(session, recipient, env));
+    }
+
+    private MDCBuilder currentMdc() {
+        MDCBuilder mdc = MDCBuilder.create();
+        Optional.ofNullable(MDC.getCopyOfContextMap())
+            .ifPresent(context -> context.forEach(mdc::addToContext));
+        return mdc;
+    }
+
+    private Response deliver(SMTPSession session, MailAddress recipient, ReadOnlyMailEnvelope env) {
+        for (DeliverToRecipientHook handler : handlers) {
+            Response response = AbstractHookableCmdHandler.calcDefaultSMTPResponse(handler.deliver(session, recipient, env));
+            if (response != null) {
+                return response;
             }
         }
-        return mResponse;
+        // Add some default response for not handled responses
+        return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.UNDEFINED_STATUS) + "Temporary error deliver message to " + recipient);
     }
 
     @Override
@@ -89,10 +136,26 @@ public class DataLineLMTPHandler extends DataLineJamesMessageHookHandler {
         }
     }
 
+    /**
+     * Envelope shared by the concurrent deliveries. The underlying message is not thread safe: opening the streams is
+     * serialized while the returned streams, each backed by the spooled content, can be read concurrently.
+     */
     private static final class ReadOnlyMailEnvelope extends MailToMailEnvelopeWrapper {
+        private final long size;
 
         public ReadOnlyMailEnvelope(Mail mail) {
             super(mail, null);
+            this.size = super.getSize();
+        }
+
+        @Override
+        public synchronized InputStream getMessageInputStream() throws IOException {
+            return super.getMessageInputStream();
+        }
+
+        @Override
+        public long getSize() {
+            return size;
         }
 
         @Override
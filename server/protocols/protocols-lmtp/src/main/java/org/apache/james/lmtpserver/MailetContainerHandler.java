@@ -39,9 +39,12 @@ import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.smtpserver.DataLineJamesMessageHookHandler;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Mono;
+
 public class MailetContainerHandler extends DataLineJamesMessageHookHandler {
     private static class Configuration {
         static Configuration DEFAULT = new Configuration(false);
@@ -90,7 +93,11 @@ public class MailetContainerHandler extends DataLineJamesMessageHookHandler {
     }
 
     @Override
-    protected Response processExtensions(SMTPSession session, Mail mail) {
+    protected Publisher<Response> processExtensionsReactive(SMTPSession session, Mail mail) {
+        return Mono.fromCallable(() -> deliver(session, mail));
+    }
+
+    private Response deliver(SMTPSession session, Mail mail) {
         Collection<MailAddress> recipients = ImmutableList.copyOf(mail.getRecipients());
         executeJamesMessageHooks(session, mail);
 
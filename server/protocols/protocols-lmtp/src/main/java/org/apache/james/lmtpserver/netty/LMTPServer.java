@@ -40,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 public class LMTPServer extends AbstractProtocolAsyncServer implements LMTPServerMBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(LMTPServer.class);
+    private static final int DEFAULT_DELIVERY_CONCURRENCY = 1;
 
     /**
      * The maximum message size allowed by this SMTP server. The default value,
@@ -49,6 +50,7 @@ public class LMTPServer extends AbstractProtocolAsyncServer implements LMTPServe
     private final LMTPConfigurationImpl lmtpConfig = new LMTPConfigurationImpl();
     private final LMTPMetricsImpl lmtpMetrics;
     private String lmtpGreeting;
+    private int deliveryConcurrency = DEFAULT_DELIVERY_CONCURRENCY;
 
     public LMTPServer(LMTPMetricsImpl lmtpMetrics) {
         this.lmtpMetrics = lmtpMetrics;
@@ -81,6 +83,11 @@ public class LMTPServer extends AbstractProtocolAsyncServer implements LMTPServe
             // get the lmtpGreeting
             lmtpGreeting = configuration.getString("lmtpGreeting", null);
 
+            deliveryConcurrency = configuration.getInt("deliveryConcurrency", DEFAULT_DELIVERY_CONCURRENCY);
+            if (deliveryConcurrency < 1) {
+                throw new ConfigurationException("'deliveryConcurrency' needs to be strictly positive");
+            }
+
         }
     }
 
@@ -107,6 +114,11 @@ public class LMTPServer extends AbstractProtocolAsyncServer implements LMTPServe
             return LMTPServer.this.lmtpGreeting;
         }
 
+        @Override
+        public int getDeliveryConcurrency() {
+            return LMTPServer.this.deliveryConcurrency;
+        }
+
         @Override
         public boolean isPlainAuthEnabled() {
             return false;
@@ -35,6 +35,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.UserEntityValidator;
@@ -80,6 +82,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.name.Names;
 
 import reactor.core.publisher.Flux;
@@ -481,6 +484,49 @@ class LmtpServerTest {
                     "250 2.6.0 Message received <cedric@examplebis.local>");
         }
 
+        @Test
+        void dataShouldReplyInRecipientOrderWhenDeliveringConcurrently() throws Exception {
+            List<String> recipients = IntStream.range(0, 10)
+                .mapToObj(i -> "user" + i + "@examplebis.local")
+                .collect(ImmutableList.toImmutableList());
+            for (String recipient : recipients) {
+                usersRepository.addUser(Username.of(recipient), "pwd");
+            }
+
+            SocketChannel server = SocketChannel.open();
+            server.connect(new InetSocketAddress(LOCALHOST_IP, getLmtpPort(lmtpServerFactory)));
+            readBytes(server);
+
+            server.write(ByteBuffer.wrap(("LHLO <" + DOMAIN + ">\r\n").getBytes(StandardCharsets.UTF_8)));
+            readBytes(server);
+            server.write(ByteBuffer.wrap(("MAIL FROM: <bob@" + DOMAIN + ">\r\n").getBytes(StandardCharsets.UTF_8)));
+            readBytes(server);
+            for (String recipient : recipients) {
+                server.write(ByteBuffer.wrap(("RCPT TO: <" + recipient + ">\r\n").getBytes(StandardCharsets.UTF_8)));
+                readBytes(server);
+            }
+            server.write(ByteBuffer.wrap(("DATA\r\n").getBytes(StandardCharsets.UTF_8)));
+            readBytes(server); // needed to synchronize
+            server.write(ByteBuffer.wrap(("header:value\r\n\r\nbody\r\n.\r\n").getBytes(StandardCharsets.UTF_8)));
+            byte[] dataResponse = readBytes(server);
+            server.write(ByteBuffer.wrap(("QUIT\r\n").getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(new String(dataResponse, StandardCharsets.UTF_8))
+                .startsWith(recipients.stream()
+                    .map(recipient -> "250 2.6.0 Message received <" + recipient + ">\r\n")
+                    .collect(Collectors.joining()));
+            for (String recipient : recipients) {
+                Username username = Username.of(recipient);
+                MailboxSession systemSession = mailboxManager.createSystemSession(username);
+                assertThat(IOUtils.toString(mailboxManager.getMailbox(MailboxPath.inbox(username), systemSession)
+                        .getMessages(MessageRange.all(), FetchGroup.FULL_CONTENT, systemSession)
+                        .next()
+                        .getFullContent()
+                        .getInputStream(), StandardCharsets.UTF_8))
+                    .endsWith("header:value\r\n\r\nbody\r\n");
+            }
+        }
+
         @Test
         void ehloShouldBeRejected() throws Exception {
             SocketChannel server = SocketChannel.open();
@@ -37,6 +37,7 @@ import org.apache.james.protocols.smtp.core.RsetCmdHandler;
 import org.apache.james.protocols.smtp.core.UnknownCmdHandler;
 import org.apache.james.protocols.smtp.core.VrfyCmdHandler;
 import org.apache.james.protocols.smtp.core.esmtp.AuthCmdHandler;
+import org.apache.james.protocols.smtp.core.esmtp.ChunkingEsmtpExtension;
 import org.apache.james.protocols.smtp.core.esmtp.EhloCmdHandler;
 import org.apache.james.protocols.smtp.core.esmtp.MailSizeEsmtpExtension;
 import org.apache.james.protocols.smtp.core.esmtp.StartTlsCmdHandler;
@@ -67,6 +68,7 @@ public class CoreCmdHandlerLoader implements HandlersPackage {
             RsetCmdHandler.class,
             VrfyCmdHandler.class,
             MailSizeEsmtpExtension.class,
+            ChunkingEsmtpExtension.class,
             UsersRepositoryAuthHook.class,
             AuthRequiredToRelayRcptHook.class,
             SenderAuthIdentifyVerificationRcptHook.class,
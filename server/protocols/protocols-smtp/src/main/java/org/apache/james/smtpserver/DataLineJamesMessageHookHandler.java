@@ -43,20 +43,27 @@ import org.apache.james.protocols.smtp.SMTPRetCode;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.core.AbstractHookableCmdHandler;
 import org.apache.james.protocols.smtp.core.DataLineFilter;
+import org.apache.james.protocols.smtp.core.DotStuffing;
 import org.apache.james.protocols.smtp.core.SMTPMDCContextFactory;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.apache.james.protocols.smtp.hook.Hook;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookResultHook;
 import org.apache.james.protocols.smtp.hook.MessageHook;
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.server.core.MimeMessageInputStream;
 import org.apache.james.server.core.MimeMessageInputStreamSource;
+import org.apache.james.util.MDCBuilder;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
  * Handles the calling of JamesMessageHooks
  */
@@ -71,9 +78,16 @@ public class DataLineJamesMessageHookHandler implements DataLineFilter, Extensib
 
     @Override
     public Response onLine(SMTPSession session, ByteBuffer lineByteBuffer, LineHandler<SMTPSession> next) {
+        return Mono.from(onLineReactive(session, lineByteBuffer, next)).block();
+    }
+
+    @Override
+    public boolean acceptsBodyBlocks() {
+        return true;
+    }
 
-        byte[] line = new byte[lineByteBuffer.remaining()];
-        lineByteBuffer.get(line, 0, line.length);
+    @Override
+    public Publisher<Response> onLineReactive(SMTPSession session, ByteBuffer lineByteBuffer, LineHandler<SMTPSession> next) {
 
         MimeMessageInputStreamSource mmiss = session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction)
             .orElseThrow(() -> new RuntimeException("'" + SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE.asString() + "' has not been filled."));
@@ -83,128 +97,140 @@ public class DataLineJamesMessageHookHandler implements DataLineFilter, Extensib
 
             // 46 is "."
             // Stream terminated
-            if (line.length == 3 && line[0] == 46) {
-                String mailName = MailImpl.getId();
-                try (Closeable closeable = SMTPMDCContextFactory.forSession(session).addToContext("mail", mailName).build()) {
-                    out.flush();
-                    out.close();
-
-                    List<MailAddress> recipientCollection = session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).orElse(ImmutableList.of());
-                    MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
-
-                    MailImpl mail = MailImpl.builder()
-                        .name(mailName)
-                        .sender(sender)
-                        .addRecipients(recipientCollection)
-                        .build();
-
-                    // store mail in the session so we can be sure it get disposed later
-                    session.setAttachment(SMTPConstants.MAIL, mail, State.Transaction);
-
-                    try {
-                        mail.setMessageContent(mmiss);
-
-                        Response response = processExtensions(session, mail);
-
-                        session.popLineHandler();
-                        return response;
-
-                    } catch (MessagingException e) {
-                        // TODO probably return a temporary problem
-                        LOGGER.info("Unexpected error handling DATA stream", e);
-                        return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error handling DATA stream.");
-                    } finally {
-                        LifecycleUtil.dispose(mmiss);
-                        LifecycleUtil.dispose(mail);
-                    }
-                }
-
-                // DotStuffing.
-            } else if (line[0] == 46 && line[1] == 46) {
-                out.write(line, 1, line.length - 1);
-                // Standard write
-            } else {
-                // TODO: maybe we should handle the Header/Body recognition here
-                // and if needed let a filter to cache the headers to apply some
-                // transformation before writing them to output.
-                out.write(line);
+            if (lineByteBuffer.remaining() == 3 && lineByteBuffer.get(lineByteBuffer.position()) == 46) {
+                return onDataTerminated(session, mmiss, out);
             }
+            // Lines, possibly a block of body lines, are written as is to the spool, without their dot stuffing
+            DotStuffing.writeUnstuffed(lineByteBuffer, out);
         } catch (IOException e) {
             LifecycleUtil.dispose(mmiss);
             SMTPResponse response = new SMTPResponse(SMTPRetCode.LOCAL_ERROR, DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.UNDEFINED_STATUS) + " Error processing message: " + e.getMessage());
             LOGGER.error("Unknown error occurred while processing DATA.", e);
-            return response;
+            return Mono.just(response);
         }
-        return null;
+        return Mono.empty();
     }
 
-    protected Response processExtensions(SMTPSession session, Mail mail) {
-        if (mail != null && messageHandlers != null) {
+    private Mono<Response> onDataTerminated(SMTPSession session, MimeMessageInputStreamSource mmiss, OutputStream out) throws IOException {
+        String mailName = MailImpl.getId();
+        MDCBuilder mdc = SMTPMDCContextFactory.forSession(session).addToContext("mail", mailName);
+        try (Closeable closeable = mdc.build()) {
+            out.flush();
+            out.close();
+
+            List<MailAddress> recipientCollection = session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).orElse(ImmutableList.of());
+            MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
+
+            MailImpl mail = MailImpl.builder()
+                .name(mailName)
+                .sender(sender)
+                .addRecipients(recipientCollection)
+                .build();
+
+            // store mail in the session so we can be sure it get disposed later
+            session.setAttachment(SMTPConstants.MAIL, mail, State.Transaction);
+
             try {
-                MimeMessageInputStreamSource mmiss = session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction)
-                    .orElseThrow(() -> new RuntimeException("'" + SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE.asString() + "' has not been filled."));
-                OutputStream out;
-                out = mmiss.getWritableOutputStream();
-                for (MessageHook rawHandler : mHandlers) {
-                    LOGGER.debug("executing james message handler {}", rawHandler);
-                    long start = System.currentTimeMillis();
+                mail.setMessageContent(mmiss);
+            } catch (MessagingException e) {
+                // TODO probably return a temporary problem
+                LOGGER.info("Unexpected error handling DATA stream", e);
+                LifecycleUtil.dispose(mmiss);
+                LifecycleUtil.dispose(mail);
+                return Mono.just(new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error handling DATA stream."));
+            }
+
+            return withMdc(mdc, processExtensionsReactive(session, mail))
+                .doOnSuccess(any -> session.popLineHandler())
+                .doFinally(any -> MDCBuilder.withMdc(mdc, () -> {
+                    LifecycleUtil.dispose(mmiss);
+                    LifecycleUtil.dispose(mail);
+                }));
+        }
+    }
 
-                    HookResult hRes = rawHandler.onMessage(session, new MailToMailEnvelopeWrapper(mail, out));
-                    long executionTime = System.currentTimeMillis() - start;
+    private Mono<Response> withMdc(MDCBuilder mdc, Publisher<Response> publisher) {
+        // Subscribe within the MDC so that hooks answering synchronously log with the mail context
+        return Mono.create(sink -> {
+            try (Closeable closeable = mdc.build()) {
+                Mono.from(publisher).subscribe(sink::success, sink::error, () -> sink.success());
+            } catch (IOException e) {
+                sink.error(e);
+            }
+        });
+    }
 
-                    if (rHooks != null) {
-                        for (HookResultHook rHook : rHooks) {
-                            LOGGER.debug("executing hook {}", rHook);
-                            hRes = rHook.onHookResult(session, hRes, executionTime, rawHandler);
-                        }
-                    }
+    protected Response processExtensions(SMTPSession session, Mail mail) {
+        return Mono.from(processExtensionsReactive(session, mail)).block();
+    }
 
-                    SMTPResponse response = AbstractHookableCmdHandler.calcDefaultSMTPResponse(hRes);
+    /**
+     * Reactive counterpart of {@link #processExtensions(SMTPSession, Mail)}: {@link MessageHook}s are given a chance to
+     * answer asynchronously, see {@link MessageHook#onMessageReactive(SMTPSession, MailEnvelope)}.
+     */
+    protected Publisher<Response> processExtensionsReactive(SMTPSession session, Mail mail) {
+        if (mail != null && messageHandlers != null) {
+            return Mono.defer(() -> {
+                MimeMessageInputStreamSource mmiss = session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction)
+                    .orElseThrow(() -> new RuntimeException("'" + SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE.asString() + "' has not been filled."));
+                OutputStream out = mmiss.getWritableOutputStream();
 
+                return Flux.fromIterable(mHandlers)
+                    .concatMap(rawHandler -> executeMessageHook(session, new MailToMailEnvelopeWrapper(mail, out), rawHandler))
                     // if the response is received, stop processing of command
                     // handlers
-                    if (response != null) {
-                        return response;
-                    }
-                }
-
-                return executeJamesMessageHooks(session, mail);
-
-            } finally {
-                // Dispose the mail object and remove it\
+                    .next()
+                    .switchIfEmpty(executeJamesMessageHooksReactive(session, mail));
+            }).doFinally(any -> {
+                // Dispose the mail object and remove it
                 LifecycleUtil.dispose(mail);
-                mail = null;
                 // do the clean up
                 session.resetState();
-            }
+            });
         }
-        return null;
+        return Mono.empty();
+    }
+
+    private Mono<Response> executeMessageHook(SMTPSession session, MailEnvelope envelope, MessageHook rawHandler) {
+        return Mono.defer(() -> {
+            LOGGER.debug("executing james message handler {}", rawHandler);
+            long start = System.currentTimeMillis();
+
+            return Mono.from(rawHandler.onMessageReactive(session, envelope))
+                .flatMap(result -> Mono.justOrEmpty(onHookResult(session, result, System.currentTimeMillis() - start, rawHandler)));
+        });
     }
 
     protected SMTPResponse executeJamesMessageHooks(SMTPSession session, Mail mail) {
-        if (messageHandlers != null) {
-            for (JamesMessageHook messageHandler : messageHandlers) {
-                LOGGER.debug("executing james message handler {}", messageHandler);
-                long start = System.currentTimeMillis();
-                HookResult hRes = messageHandler.onMessage(session, mail);
-                long executionTime = System.currentTimeMillis() - start;
-                if (rHooks != null) {
-                    for (HookResultHook rHook : rHooks) {
-                        LOGGER.debug("executing hook {}", rHook);
-                        hRes = rHook.onHookResult(session, hRes, executionTime, messageHandler);
-                    }
-                }
-
-                SMTPResponse response = AbstractHookableCmdHandler.calcDefaultSMTPResponse(hRes);
+        return executeJamesMessageHooksReactive(session, mail).block();
+    }
 
+    protected Mono<SMTPResponse> executeJamesMessageHooksReactive(SMTPSession session, Mail mail) {
+        if (messageHandlers != null) {
+            return Flux.fromIterable(messageHandlers)
+                .concatMap(messageHandler -> Mono.defer(() -> {
+                    LOGGER.debug("executing james message handler {}", messageHandler);
+                    long start = System.currentTimeMillis();
+                    return Mono.from(messageHandler.onMessageReactive(session, mail))
+                        .flatMap(result -> Mono.justOrEmpty(onHookResult(session, result, System.currentTimeMillis() - start, messageHandler)));
+                }))
                 // if the response is received, stop processing of command
                 // handlers
-                if (response != null) {
-                    return response;
-                }
+                .next();
+        }
+        return Mono.empty();
+    }
+
+    private SMTPResponse onHookResult(SMTPSession session, HookResult result, long executionTime, Hook hook) {
+        HookResult hRes = result;
+        if (rHooks != null) {
+            for (HookResultHook rHook : rHooks) {
+                LOGGER.debug("executing hook {}", rHook);
+                hRes = rHook.onHookResult(session, hRes, executionTime, hook);
             }
         }
-        return null;
+
+        return AbstractHookableCmdHandler.calcDefaultSMTPResponse(hRes);
     }
 
     @SuppressWarnings("unchecked")
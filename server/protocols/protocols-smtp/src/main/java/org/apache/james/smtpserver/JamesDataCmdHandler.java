@@ -18,6 +18,9 @@
  ****************************************************************/
 package org.apache.james.smtpserver;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import javax.inject.Inject;
 
 import org.apache.james.metrics.api.MetricFactory;
@@ -32,7 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * handles DATA command
+ * handles DATA and BDAT commands
  */
 public class JamesDataCmdHandler extends DataCmdHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(JamesDataCmdHandler.class);
@@ -51,6 +54,18 @@ public class JamesDataCmdHandler extends DataCmdHandler {
      */
     @Override
     protected SMTPResponse doDATA(SMTPSession session, String argument) {
+        SMTPResponse response = prepareMessageStorage(session);
+        if (response != null) {
+            return response;
+        }
+
+        session.pushLineHandler(getLineHandler());
+
+        return new SMTPResponse(SMTPRetCode.DATA_READY, "Ok Send data ending with <CRLF>.<CRLF>");
+    }
+
+    @Override
+    protected SMTPResponse prepareMessageStorage(SMTPSession session) {
         try {
             MimeMessageInputStreamSource mmiss = new MimeMessageInputStreamSource(MailImpl.getId());
             session.setAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, mmiss, State.Transaction);
@@ -58,10 +73,21 @@ public class JamesDataCmdHandler extends DataCmdHandler {
             LOGGER.warn("Error creating mimemessagesource for incoming data", e);
             return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error preparing to receive DATA.");
         }
+        return null;
+    }
 
-        session.pushLineHandler(getLineHandler());
+    @Override
+    protected OutputStream getMessageOutputStream(SMTPSession session) throws IOException {
+        return session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction)
+            .orElseThrow(() -> new IOException("Message storage has not been prepared"))
+            .getWritableOutputStream();
+    }
 
-        return new SMTPResponse(SMTPRetCode.DATA_READY, "Ok Send data ending with <CRLF>.<CRLF>");
+    @Override
+    protected void abortMessage(SMTPSession session) {
+        session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction)
+            .ifPresent(MimeMessageInputStreamSource::dispose);
+        super.abortMessage(session);
     }
 
 }
@@ -22,6 +22,9 @@ import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.hook.Hook;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Custom message handlers must implement this interface The message hooks will
@@ -34,4 +37,14 @@ public interface JamesMessageHook extends Hook {
      */
     HookResult onMessage(SMTPSession session, Mail mail);
 
+    /**
+     * Reactive counterpart of {@link #onMessage(SMTPSession, Mail)}.
+     *
+     * Hooks relying on remote lookups should override it in order not to block the SMTP thread while waiting for
+     * the answer.
+     */
+    default Publisher<HookResult> onMessageReactive(SMTPSession session, Mail mail) {
+        return Mono.fromCallable(() -> onMessage(session, mail));
+    }
+
 }
@@ -0,0 +1,140 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.smtpserver.fastfail;
+
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.james.dnsservice.api.DNSService;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Node wide cache of DNS listing lookups (DNSBL and URIBL queries), shared by every SMTP handler doing such lookups.
+ *
+ * Both listed and not listed results are cached, not listed ones for a shorter period of time so that newly listed
+ * hosts get noticed quickly. Concurrent lookups of the same query are collapsed into a single DNS query.
+ */
+@Singleton
+public class DNSListingCache {
+    public static final Duration DEFAULT_LISTED_TTL = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_NOT_LISTED_TTL = Duration.ofMinutes(2);
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final String LOOKUP_METRIC = "dnsListingLookup";
+    private static final String CACHE_HIT_METRIC = "dnsListingCacheHit";
+    private static final String CACHE_MISS_METRIC = "dnsListingCacheMiss";
+
+    private static class Listing {
+        private final boolean listed;
+        private final long resolvedAtNanos;
+
+        private Listing(boolean listed, long resolvedAtNanos) {
+            this.listed = listed;
+            this.resolvedAtNanos = resolvedAtNanos;
+        }
+    }
+
+    private final DNSService dnsService;
+    private final MetricFactory metricFactory;
+    private final Duration listedTtl;
+    private final Duration notListedTtl;
+    private final Ticker ticker;
+    private final Cache<String, Listing> listings;
+    private final Metric cacheHitMetric;
+    private final Metric cacheMissMetric;
+
+    @Inject
+    public DNSListingCache(DNSService dnsService, MetricFactory metricFactory) {
+        this(dnsService, metricFactory, DEFAULT_LISTED_TTL, DEFAULT_NOT_LISTED_TTL, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    DNSListingCache(DNSService dnsService, MetricFactory metricFactory, Duration listedTtl, Duration notListedTtl, Ticker ticker) {
+        this.dnsService = dnsService;
+        this.metricFactory = metricFactory;
+        this.listedTtl = listedTtl;
+        this.notListedTtl = notListedTtl;
+        this.ticker = ticker;
+        this.listings = CacheBuilder.newBuilder()
+            .expireAfterWrite(listedTtl.compareTo(notListedTtl) > 0 ? listedTtl : notListedTtl)
+            .maximumSize(DEFAULT_MAXIMUM_SIZE)
+            .ticker(ticker)
+            .build();
+        this.cacheHitMetric = metricFactory.generate(CACHE_HIT_METRIC);
+        this.cacheMissMetric = metricFactory.generate(CACHE_MISS_METRIC);
+    }
+
+    /**
+     * @param query the fully qualified DNS listing query, eg 2.0.0.127.zen.spamhaus.org
+     * @return true when the query resolves, meaning the queried host or domain is listed
+     */
+    public boolean isListed(String query) {
+        AtomicBoolean resolved = new AtomicBoolean(false);
+        Listing listing = lookup(query, resolved);
+        if (isExpired(listing)) {
+            // Entries share the longest TTL: drop the outdated one, unless a concurrent lookup already replaced it
+            listings.asMap().remove(query, listing);
+            listing = lookup(query, resolved);
+        }
+
+        if (resolved.get()) {
+            cacheMissMetric.increment();
+        } else {
+            cacheHitMetric.increment();
+        }
+        return listing.listed;
+    }
+
+    private Listing lookup(String query, AtomicBoolean resolved) {
+        try {
+            return listings.get(query, () -> {
+                resolved.set(true);
+                boolean listed = metricFactory.decorateSupplierWithTimerMetric(LOOKUP_METRIC, () -> resolve(query));
+                return new Listing(listed, ticker.read());
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private boolean isExpired(Listing listing) {
+        Duration ttl = listing.listed ? listedTtl : notListedTtl;
+        return ticker.read() - listing.resolvedAtNanos >= ttl.toNanos();
+    }
+
+    private boolean resolve(String query) {
+        try {
+            dnsService.getByName(query);
+            return true;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -18,7 +18,6 @@
  ****************************************************************/
 package org.apache.james.smtpserver.fastfail;
 
-import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,13 +30,16 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
+import org.apache.james.util.DurationParser;
 
 public class DNSRBLHandler extends org.apache.james.protocols.smtp.core.fastfail.DNSRBLHandler implements ProtocolHandler {
     private final DNSService dns;
+    private final DNSListingCache listingCache;
 
     @Inject
-    public DNSRBLHandler(DNSService dns) {
+    public DNSRBLHandler(DNSService dns, DNSListingCache listingCache) {
         this.dns = dns;
+        this.listingCache = listingCache;
     }
 
     @Override
@@ -65,16 +67,16 @@ public class DNSRBLHandler extends org.apache.james.protocols.smtp.core.fastfail
         }
 
         setGetDetail(handlerConfiguration.getBoolean("getDetail", false));
+
+        String lookupTimeout = handlerConfiguration.getString("lookupTimeout", null);
+        if (lookupTimeout != null) {
+            setLookupTimeout(DurationParser.parse(lookupTimeout));
+        }
     }
 
     @Override
     protected boolean resolve(String ip) {
-        try {
-            dns.getByName(ip);
-            return true;
-        } catch (UnknownHostException e) {
-            return false;
-        }
+        return listingCache.isListed(ip);
     }
 
     @Override
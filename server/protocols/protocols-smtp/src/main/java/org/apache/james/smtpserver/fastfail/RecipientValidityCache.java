@@ -0,0 +1,182 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.smtpserver.fastfail;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.Username;
+import org.apache.james.domainlist.api.DomainList;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.james.rrt.api.RecipientRewriteTable;
+import org.apache.james.rrt.api.RecipientRewriteTable.ErrorMappingException;
+import org.apache.james.rrt.api.RecipientRewriteTableException;
+import org.apache.james.user.api.UsersRepository;
+import org.apache.james.user.api.UsersRepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Node wide cache of recipient validity decisions, used by {@link ValidRcptHandler}.
+ *
+ * Unknown recipients are cached too, for a shorter period of time, as they are the ones dictionary attacks and
+ * backscatter hammer. Errors are never cached.
+ *
+ * Changes done on this node to the users, to the recipient rewrite table or to the domains invalidate the cache. A
+ * decision looked up while such a change happens is not cached. Changes done by other nodes are noticed once the
+ * cached decisions expire.
+ */
+@Singleton
+public class RecipientValidityCache {
+    public enum Validity {
+        USER,
+        MAPPING,
+        ERROR_MAPPING,
+        UNKNOWN;
+
+        public boolean isValid(boolean supportsRecipientRewriteTable) {
+            return this == USER || (supportsRecipientRewriteTable && this != UNKNOWN);
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecipientValidityCache.class);
+
+    public static final Duration DEFAULT_VALID_TTL = Duration.ofMinutes(2);
+    public static final Duration DEFAULT_UNKNOWN_TTL = Duration.ofSeconds(30);
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final String LOOKUP_METRIC = "recipientValidityLookup";
+    private static final String CACHE_HIT_METRIC = "recipientValidityCacheHit";
+    private static final String CACHE_MISS_METRIC = "recipientValidityCacheMiss";
+
+    private final UsersRepository users;
+    private final RecipientRewriteTable recipientRewriteTable;
+    private final MetricFactory metricFactory;
+    private final Cache<MailAddress, Validity> valid;
+    private final Cache<MailAddress, Validity> unknown;
+    private final Metric cacheHitMetric;
+    private final Metric cacheMissMetric;
+    // Incremented by each invalidation, so that decisions looked up concurrently are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public RecipientValidityCache(UsersRepository users, RecipientRewriteTable recipientRewriteTable, DomainList domainList,
+                                  MetricFactory metricFactory) {
+        this(users, recipientRewriteTable, domainList, metricFactory, DEFAULT_VALID_TTL, DEFAULT_UNKNOWN_TTL, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    RecipientValidityCache(UsersRepository users, RecipientRewriteTable recipientRewriteTable, DomainList domainList,
+                           MetricFactory metricFactory, Duration validTtl, Duration unknownTtl, Ticker ticker) {
+        this.users = users;
+        this.recipientRewriteTable = recipientRewriteTable;
+        this.metricFactory = metricFactory;
+        this.valid = CacheBuilder.newBuilder()
+            .expireAfterWrite(validTtl)
+            .maximumSize(DEFAULT_MAXIMUM_SIZE)
+            .ticker(ticker)
+            .build();
+        this.unknown = CacheBuilder.newBuilder()
+            .expireAfterWrite(unknownTtl)
+            .maximumSize(DEFAULT_MAXIMUM_SIZE)
+            .ticker(ticker)
+            .build();
+        this.cacheHitMetric = metricFactory.generate(CACHE_HIT_METRIC);
+        this.cacheMissMetric = metricFactory.generate(CACHE_MISS_METRIC);
+
+        // A user or a mapping change can affect any recipient through domain, group or forward mappings
+        users.addChangeListener(username -> invalidateAll());
+        recipientRewriteTable.addChangeListener(source -> invalidateAll());
+        domainList.addChangeListener(domain -> invalidateAll());
+    }
+
+    public Validity validity(MailAddress recipient) throws UsersRepositoryException, RecipientRewriteTableException {
+        Validity cached = valid.getIfPresent(recipient);
+        if (cached == null) {
+            cached = unknown.getIfPresent(recipient);
+        }
+        if (cached != null) {
+            cacheHitMetric.increment();
+            return cached;
+        }
+        cacheMissMetric.increment();
+
+        long lookupGeneration = generation.get();
+        Validity result = timedLookup(recipient);
+        Cache<MailAddress, Validity> cache = cacheFor(result);
+        if (generation.get() == lookupGeneration) {
+            cache.put(recipient, result);
+            // An invalidation may have cleared the cache before this put: it must not survive it
+            if (generation.get() != lookupGeneration) {
+                cache.invalidate(recipient);
+            }
+        }
+        return result;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        valid.invalidateAll();
+        unknown.invalidateAll();
+    }
+
+    private Cache<MailAddress, Validity> cacheFor(Validity validity) {
+        if (validity == Validity.UNKNOWN) {
+            return unknown;
+        }
+        return valid;
+    }
+
+    private Validity timedLookup(MailAddress recipient) throws UsersRepositoryException, RecipientRewriteTableException {
+        TimeMetric timeMetric = metricFactory.timer(LOOKUP_METRIC);
+        try {
+            return lookup(recipient);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private Validity lookup(MailAddress recipient) throws UsersRepositoryException, RecipientRewriteTableException {
+        Username username = users.getUsername(recipient);
+        if (users.contains(username)) {
+            return Validity.USER;
+        }
+
+        LOGGER.debug("Unknown user {} check if it's an alias", username.asString());
+        try {
+            if (!recipientRewriteTable.getResolvedMappings(recipient.getLocalPart(), recipient.getDomain()).isEmpty()) {
+                return Validity.MAPPING;
+            }
+            return Validity.UNKNOWN;
+        } catch (ErrorMappingException e) {
+            return Validity.ERROR_MAPPING;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import org.apache.james.protocols.api.ProtocolSession.State;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
 import org.apache.james.protocols.smtp.SMTPRetCode;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.fastfail.BlockingLookups;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
@@ -46,9 +47,11 @@ import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeValue;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+
 public class SPFHandler implements JamesMessageHook, MailHook, RcptHook, ProtocolHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SPFHandler.class);
@@ -181,6 +184,11 @@ public class SPFHandler implements JamesMessageHook, MailHook, RcptHook, Protoco
         return HookResult.DECLINED;
     }
 
+    @Override
+    public Publisher<HookResult> doMailReactive(SMTPSession session, MaybeSender sender) {
+        return BlockingLookups.lookup(() -> doMail(session, sender));
+    }
+
     /**
      * Adapts service log.
      */
@@ -0,0 +1,191 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.smtpserver.fastfail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.protocols.api.handler.ProtocolHandler;
+import org.apache.james.protocols.smtp.SMTPRetCode;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.apache.james.protocols.smtp.hook.HookResult;
+import org.apache.james.protocols.smtp.hook.HookReturnCode;
+import org.apache.james.protocols.smtp.hook.MailHook;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.util.DurationParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Temporarily reject new transactions at MAIL FROM while the spool is overloaded, so that the spooler can catch up
+ * instead of letting the spool grow unbounded.
+ *
+ * The spool size is polled periodically, through {@link ManageableMailQueue#getApproximateSize()}. A check is skipped
+ * while the previous one is still running, and failures keep the previous admission decision. Admission stops once it reaches <code>spoolHighWatermark</code> and resumes
+ * once it goes back under <code>spoolLowWatermark</code>, so that the server does not flap around a single threshold.
+ * Transactions already started are let through.
+ *
+ * The state is exposed by the <code>smtpAdmission.[jmxName].spoolSize</code> and
+ * <code>smtpAdmission.[jmxName].overloaded</code> gauges, jmxName being the one of the SMTP server.
+ *
+ * Example configuration:
+ *
+ * <pre><code>
+ * &lt;handler class="org.apache.james.smtpserver.fastfail.SpoolAdmissionHandler"&gt;
+ *     &lt;spoolHighWatermark&gt;100000&lt;/spoolHighWatermark&gt;
+ *     &lt;spoolLowWatermark&gt;80000&lt;/spoolLowWatermark&gt;
+ *     &lt;checkInterval&gt;10s&lt;/checkInterval&gt;
+ * &lt;/handler&gt;
+ * </code></pre>
+ */
+public class SpoolAdmissionHandler implements MailHook, ProtocolHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoolAdmissionHandler.class);
+
+    private static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(10);
+    private static final double DEFAULT_LOW_WATERMARK_RATIO = 0.8;
+    private static final String REJECTED_METRIC = "smtpAdmissionRejected";
+    private static final String DEFAULT_SERVER_NAME = "smtpserver";
+    private static final String GAUGE_PREFIX = "smtpAdmission.";
+    private static final String SPOOL_SIZE_GAUGE = ".spoolSize";
+    private static final String OVERLOADED_GAUGE = ".overloaded";
+
+    private static final HookResult OVERLOADED = HookResult.builder()
+        .hookReturnCode(HookReturnCode.denySoft())
+        .smtpReturnCode(SMTPRetCode.LOCAL_ERROR)
+        .smtpDescription(DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.SYSTEM_NOT_ACCEPTING) + " System overloaded, try again later")
+        .build();
+
+    private final MailQueueFactory<?> queueFactory;
+    private final GaugeRegistry gaugeRegistry;
+    private final Metric rejectedMetric;
+    private final AtomicLong spoolSize = new AtomicLong();
+    private final AtomicBoolean overloaded = new AtomicBoolean(false);
+
+    private long highWatermark;
+    private long lowWatermark;
+    private MailQueue queue;
+    private Disposable polling;
+
+    @Inject
+    public SpoolAdmissionHandler(MailQueueFactory<?> queueFactory, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this.queueFactory = queueFactory;
+        this.gaugeRegistry = gaugeRegistry;
+        this.rejectedMetric = metricFactory.generate(REJECTED_METRIC);
+    }
+
+    @Override
+    public void init(Configuration config) throws ConfigurationException {
+        long highWatermark = config.getLong("spoolHighWatermark", 0);
+        if (highWatermark <= 0) {
+            throw new ConfigurationException("'spoolHighWatermark' needs to be strictly positive");
+        }
+        long lowWatermark = config.getLong("spoolLowWatermark", (long) (highWatermark * DEFAULT_LOW_WATERMARK_RATIO));
+        if (lowWatermark < 0 || lowWatermark > highWatermark) {
+            throw new ConfigurationException("'spoolLowWatermark' needs to be positive and lower than or equal to 'spoolHighWatermark'");
+        }
+        setWatermarks(highWatermark, lowWatermark);
+
+        Duration checkInterval = DurationParser.parse(config.getString("checkInterval", DEFAULT_CHECK_INTERVAL.toMillis() + "ms"));
+
+        queue = queueFactory.createQueue(MailQueueFactory.SPOOL);
+        if (!(queue instanceof ManageableMailQueue)) {
+            LOGGER.warn("The spool does not expose its size, SMTP admission control is disabled");
+            return;
+        }
+        ManageableMailQueue manageableQueue = (ManageableMailQueue) queue;
+
+        String serverName = config.getString("jmxName", DEFAULT_SERVER_NAME);
+        gaugeRegistry.register(GAUGE_PREFIX + serverName + SPOOL_SIZE_GAUGE, spoolSize::get);
+        gaugeRegistry.register(GAUGE_PREFIX + serverName + OVERLOADED_GAUGE, () -> overloaded.get() ? 1 : 0);
+
+        polling = Flux.interval(Duration.ZERO, checkInterval)
+            .onBackpressureDrop(tick -> LOGGER.debug("Previous spool size check still running, skipping this one"))
+            .concatMap(any -> Mono.fromCallable(manageableQueue::getApproximateSize)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(this::onSpoolSize)
+                .onErrorResume(e -> {
+                    LOGGER.warn("Could not retrieve the spool size, keeping the previous admission decision", e);
+                    return Mono.empty();
+                }), 1)
+            .doOnError(e -> LOGGER.error("Spool size polling failed, restarting it", e))
+            .retry()
+            .subscribe();
+    }
+
+    @VisibleForTesting
+    void setWatermarks(long highWatermark, long lowWatermark) {
+        Preconditions.checkArgument(lowWatermark <= highWatermark, "'lowWatermark' should be lower than or equal to 'highWatermark'");
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+    }
+
+    @VisibleForTesting
+    void onSpoolSize(long size) {
+        spoolSize.set(size);
+        if (size >= highWatermark && overloaded.compareAndSet(false, true)) {
+            LOGGER.warn("Spool size {} reached {}, new SMTP transactions are temporarily rejected", size, highWatermark);
+        } else if (size < lowWatermark && overloaded.compareAndSet(true, false)) {
+            LOGGER.info("Spool size {} went back under {}, new SMTP transactions are accepted again", size, lowWatermark);
+        }
+    }
+
+    @Override
+    public HookResult doMail(SMTPSession session, MaybeSender sender) {
+        if (overloaded.get()) {
+            rejectedMetric.increment();
+            return OVERLOADED;
+        }
+        return HookResult.DECLINED;
+    }
+
+    @Override
+    public void destroy() {
+        if (polling != null) {
+            polling.dispose();
+        }
+        if (queue != null) {
+            try {
+                queue.close();
+            } catch (IOException e) {
+                LOGGER.debug("error closing queue", e);
+            }
+        }
+    }
+}
@@ -19,17 +19,15 @@
 package org.apache.james.smtpserver.fastfail;
 
 import java.io.IOException;
-import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Optional;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeBodyPart;
-import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
 import javax.mail.internet.MimePart;
 
@@ -40,14 +38,20 @@ import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.ProtocolSession.State;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.fastfail.BlockingLookups;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.smtpserver.JamesMessageHook;
+import org.apache.james.util.DurationParser;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
  * Extract domains from message and check against URIRBLServer. For more
  * information see <a href="http://www.surbl.org">www.surbl.org</a>
@@ -61,12 +65,36 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
 
     private static final ProtocolSession.AttachmentKey<String> URBLSERVER = ProtocolSession.AttachmentKey.of("URBL_SERVER", String.class);
 
-    private DNSService dnsService;
+    public static final Duration DEFAULT_LOOKUP_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int MAX_CONCURRENT_LOOKUPS = 16;
+
+    private final DNSService dnsService;
+
+    private final DNSListingCache listingCache;
 
     private Collection<String> uriRbl;
 
     private boolean getDetail = false;
 
+    private Duration lookupTimeout = DEFAULT_LOOKUP_TIMEOUT;
+
+    private static class Listing {
+        private final String domain;
+        private final String uRblServer;
+
+        private Listing(String domain, String uRblServer) {
+            this.domain = domain;
+            this.uRblServer = uRblServer;
+        }
+    }
+
+    @Inject
+    public URIRBLHandler(DNSService dnsService, DNSListingCache listingCache) {
+        this.dnsService = dnsService;
+        this.listingCache = listingCache;
+    }
+
     /**
      * Gets the DNS service.
      * 
@@ -76,17 +104,6 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
         return dnsService;
     }
 
-    /**
-     * Sets the DNS service.
-     * 
-     * @param dnsService
-     *            the dnsService to set
-     */
-    @Inject
-    public final void setDNSService(DNSService dnsService) {
-        this.dnsService = dnsService;
-    }
-
     /**
      * Set the UriRBL Servers
      * 
@@ -107,40 +124,42 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
         this.getDetail = getDetail;
     }
 
+    /**
+     * Set the maximum time to wait for the URIRBL lookups of a message.
+     *
+     * @param lookupTimeout
+     *            Lookups not answered within this delay are considered as not listed
+     */
+    public void setLookupTimeout(Duration lookupTimeout) {
+        this.lookupTimeout = lookupTimeout;
+    }
+
     @Override
     public HookResult onMessage(SMTPSession session, Mail mail) {
-        if (check(session, mail)) {
-            Optional<String> uRblServer = session.getAttachment(URBLSERVER, State.Transaction);
-            Optional<String> target = session.getAttachment(LISTED_DOMAIN, State.Transaction);
-            String detail = null;
-
-            // we should try to retrieve details
-            if (uRblServer.isPresent() && target.isPresent() && getDetail) {
-                Collection<String> txt = dnsService.findTXTRecords(target.get() + "." + uRblServer.get());
-
-                // Check if we found a txt record
-                if (!txt.isEmpty()) {
-                    // Set the detail
-                    detail = txt.iterator().next();
-
-                }
-            }
+        return Mono.from(onMessageReactive(session, mail)).block();
+    }
 
-            if (detail != null) {
-                return HookResult.builder()
+    @Override
+    public Publisher<HookResult> onMessageReactive(SMTPSession session, Mail mail) {
+        return checkReactive(session, mail)
+            .flatMap(listing -> retrieveDetail(listing)
+                .map(detail -> HookResult.builder()
                     .hookReturnCode(HookReturnCode.deny())
-                    .smtpDescription(DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SECURITY_OTHER) + "Rejected: message contains domain " + target.get() + " listed by " + uRblServer + " . Details: " + detail)
-                    .build();
-            } else {
-                return HookResult.builder()
+                    .smtpDescription(DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SECURITY_OTHER) + "Rejected: message contains domain " + listing.domain + " listed by " + listing.uRblServer + " . Details: " + detail)
+                    .build())
+                .defaultIfEmpty(HookResult.builder()
                     .hookReturnCode(HookReturnCode.deny())
-                    .smtpDescription(DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SECURITY_OTHER) + " Rejected: message contains domain " + target.orElse("[target not set]") + " listed by " + uRblServer)
-                    .build();
-            }
+                    .smtpDescription(DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SECURITY_OTHER) + " Rejected: message contains domain " + listing.domain + " listed by " + listing.uRblServer)
+                    .build()))
+            .defaultIfEmpty(HookResult.DECLINED);
+    }
 
-        } else {
-            return HookResult.DECLINED;
+    private Mono<String> retrieveDetail(Listing listing) {
+        if (!getDetail) {
+            return Mono.empty();
         }
+        return BlockingLookups.lookup(() -> dnsService.findTXTRecords(listing.domain + "." + listing.uRblServer))
+            .flatMap(txt -> Mono.justOrEmpty(txt.stream().findFirst()));
     }
 
     /**
@@ -189,41 +208,45 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
      * Check method
      */
     protected boolean check(SMTPSession session, Mail mail) {
-        MimeMessage message;
-
-        try {
-            message = mail.getMessage();
-
-            HashSet<String> domains = scanMailForDomains(message, session);
-
-            for (String domain : domains) {
-                Iterator<String> uRbl = uriRbl.iterator();
-                String target = domain;
-
-                while (uRbl.hasNext()) {
-                    try {
-                        String uRblServer = uRbl.next();
-                        String address = target + "." + uRblServer;
-
-                        LOGGER.debug("Lookup {}", address);
-
-                        dnsService.getByName(address);
+        return checkReactive(session, mail)
+            .blockOptional()
+            .isPresent();
+    }
 
-                        // store server name for later use
-                        session.setAttachment(URBLSERVER, uRblServer, State.Transaction);
-                        session.setAttachment(LISTED_DOMAIN, target, State.Transaction);
+    private Mono<Listing> checkReactive(SMTPSession session, Mail mail) {
+        return BlockingLookups.lookup(() -> scanMailForDomains(mail.getMessage(), session))
+            .onErrorResume(e -> e instanceof MessagingException || e instanceof IOException, e -> {
+                LOGGER.error(e.getMessage());
+                return Mono.empty();
+            })
+            .flatMap(this::firstListing)
+            .doOnNext(listing -> {
+                // store server name for later use
+                session.setAttachment(URBLSERVER, listing.uRblServer, State.Transaction);
+                session.setAttachment(LISTED_DOMAIN, listing.domain, State.Transaction);
+            });
+    }
 
-                        return true;
+    /**
+     * Fans the (domain, server) lookups out on the blocking lookups scheduler: latency no longer grows with the
+     * number of links.
+     */
+    private Mono<Listing> firstListing(Set<String> domains) {
+        return Flux.fromIterable(domains)
+            .flatMap(domain -> Flux.fromIterable(uriRbl)
+                .map(uRblServer -> new Listing(domain, uRblServer)))
+            .flatMap(candidate -> BlockingLookups.lookup(() -> isListed(candidate))
+                .filter(listed -> listed)
+                .map(listed -> candidate), MAX_CONCURRENT_LOOKUPS)
+            .next()
+            .timeout(lookupTimeout, Mono.fromRunnable(() ->
+                LOGGER.warn("URIRBL lookups did not complete within {}, considering the message as not listed", lookupTimeout)));
+    }
 
-                    } catch (UnknownHostException uhe) {
-                        // domain not found. keep processing
-                    }
-                }
-            }
-        } catch (MessagingException | IOException e) {
-            LOGGER.error(e.getMessage());
-        }
-        return false;
+    private boolean isListed(Listing candidate) {
+        String address = candidate.domain + "." + candidate.uRblServer;
+        LOGGER.debug("Lookup {}", address);
+        return listingCache.isListed(address);
     }
 
     @Override
@@ -240,6 +263,11 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
             throw new ConfigurationException("Please provide at least one server");
         }
 
-        setGetDetail(config.getBoolean("getDetail", false));        
+        setGetDetail(config.getBoolean("getDetail", false));
+
+        String lookupTimeout = config.getString("lookupTimeout", null);
+        if (lookupTimeout != null) {
+            setLookupTimeout(DurationParser.parse(lookupTimeout));
+        }
     }
 }
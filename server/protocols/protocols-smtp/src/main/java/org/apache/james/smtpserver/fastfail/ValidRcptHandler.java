@@ -24,37 +24,28 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.core.Domain;
 import org.apache.james.core.MailAddress;
-import org.apache.james.core.Username;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.domainlist.api.DomainListException;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.core.fastfail.AbstractValidRcptHandler;
-import org.apache.james.rrt.api.RecipientRewriteTable;
-import org.apache.james.rrt.api.RecipientRewriteTable.ErrorMappingException;
 import org.apache.james.rrt.api.RecipientRewriteTableException;
-import org.apache.james.rrt.lib.Mappings;
-import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Handler which reject invalid recipients
+ *
+ * Recipient validity decisions are shared node wide through the {@link RecipientValidityCache}.
  */
 public class ValidRcptHandler extends AbstractValidRcptHandler implements ProtocolHandler {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ValidRcptHandler.class);
-
-    private final UsersRepository users;
-    private final RecipientRewriteTable recipientRewriteTable;
+    private final RecipientValidityCache recipientValidityCache;
     private final DomainList domains;
 
     private boolean supportsRecipientRewriteTable = true;
 
     @Inject
-    public ValidRcptHandler(UsersRepository users, RecipientRewriteTable recipientRewriteTable, DomainList domains) {
-        this.users = users;
-        this.recipientRewriteTable = recipientRewriteTable;
+    public ValidRcptHandler(RecipientValidityCache recipientValidityCache, DomainList domains) {
+        this.recipientValidityCache = recipientValidityCache;
         this.domains = domains;
     }
 
@@ -64,28 +55,8 @@ public class ValidRcptHandler extends AbstractValidRcptHandler implements Protoc
 
     @Override
     protected boolean isValidRecipient(SMTPSession session, MailAddress recipient) throws UsersRepositoryException, RecipientRewriteTableException {
-        Username username = users.getUsername(recipient);
-
-        if (users.contains(username)) {
-            return true;
-        } else {
-            return supportsRecipientRewriteTable && isRedirected(recipient, username.asString());
-        }
-    }
-
-    private boolean isRedirected(MailAddress recipient, String username) throws RecipientRewriteTableException {
-        LOGGER.debug("Unknown user {} check if it's an alias", username);
-
-        try {
-            Mappings targetString = recipientRewriteTable.getResolvedMappings(recipient.getLocalPart(), recipient.getDomain());
-
-            if (!targetString.isEmpty()) {
-                return true;
-            }
-        } catch (ErrorMappingException e) {
-            return true;
-        }
-        return false;
+        return recipientValidityCache.validity(recipient)
+            .isValid(supportsRecipientRewriteTable);
     }
 
     @Override
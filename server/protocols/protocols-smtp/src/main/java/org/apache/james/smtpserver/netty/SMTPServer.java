@@ -38,10 +38,10 @@ import org.apache.james.protocols.api.ProtocolTransport;
 import org.apache.james.protocols.lib.handler.HandlersPackage;
 import org.apache.james.protocols.lib.netty.AbstractProtocolAsyncServer;
 import org.apache.james.protocols.netty.AbstractChannelPipelineFactory;
-import org.apache.james.protocols.netty.AllButStartTlsLineChannelHandlerFactory;
 import org.apache.james.protocols.netty.ChannelHandlerFactory;
 import org.apache.james.protocols.smtp.SMTPConfiguration;
 import org.apache.james.protocols.smtp.SMTPProtocol;
+import org.apache.james.protocols.smtp.netty.ChunkingLineChannelHandlerFactory;
 import org.apache.james.smtpserver.CoreCmdHandlerLoader;
 import org.apache.james.smtpserver.ExtendedSMTPSession;
 import org.apache.james.smtpserver.jmx.JMXHandlersLoader;
@@ -183,6 +183,8 @@ public class SMTPServer extends AbstractProtocolAsyncServer implements SMTPServe
 
     private boolean verifyIdentity;
 
+    private boolean chunkingEnabled = true;
+
     private DNSService dns;
     private String authorizedAddresses;
     
@@ -248,6 +250,8 @@ public class SMTPServer extends AbstractProtocolAsyncServer implements SMTPServe
 
             verifyIdentity = configuration.getBoolean("verifyIdentity", false);
 
+            chunkingEnabled = configuration.getBoolean("chunking", true);
+
             if (authenticationConfiguration.getAuthenticationAnnounceMode() == NEVER && verifyIdentity) {
                 throw new ConfigurationException(
                     "SMTP configuration: 'verifyIdentity' can't be set to true if 'authRequired' is set to false.");
@@ -330,6 +334,11 @@ public class SMTPServer extends AbstractProtocolAsyncServer implements SMTPServe
             return SMTPServer.this.verifyIdentity;
         }
 
+        @Override
+        public boolean isChunkingEnabled() {
+            return SMTPServer.this.chunkingEnabled;
+        }
+
         @Override
         public String getGreeting() {
             return SMTPServer.this.smtpGreeting;
@@ -403,7 +412,7 @@ public class SMTPServer extends AbstractProtocolAsyncServer implements SMTPServe
 
     @Override
     protected ChannelHandlerFactory createFrameHandlerFactory() {
-        return new AllButStartTlsLineChannelHandlerFactory("starttls", AbstractChannelPipelineFactory.MAX_LINE_LENGTH);
+        return new ChunkingLineChannelHandlerFactory("starttls", AbstractChannelPipelineFactory.MAX_LINE_LENGTH);
     }
 
     public AuthenticationAnnounceMode getAuthRequired() {
@@ -431,7 +431,7 @@ public class SMTPServerTest {
 
         assertThat(capabilitieslist)
             .as("capabilities")
-            .hasSize(3);
+            .hasSize(5);
         assertThat(capabilitieslist.contains("PIPELINING"))
             .as("capabilities present PIPELINING")
             .isTrue();
@@ -441,6 +441,9 @@ public class SMTPServerTest {
         assertThat(capabilitieslist.contains("8BITMIME"))
             .as("capabilities present 8BITMIME")
             .isTrue();
+        assertThat(capabilitieslist.contains("CHUNKING"))
+            .as("capabilities present CHUNKING")
+            .isTrue();
 
         smtpProtocol.setSender("mail@localhost");
         smtpProtocol.addRecipient("mail@localhost");
@@ -455,6 +458,59 @@ public class SMTPServerTest {
             .isNotNull();
     }
 
+    @Test
+    public void bdatShouldDeliverChunkedMessage() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = new SMTPClient();
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        smtpProtocol.connect(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+
+        // The client terminates each command with CRLF, it ends the chunks
+        String headers = "Subject: test\r\n";
+        String body = "Body\r\n.";
+        smtpProtocol.sendCommand("BDAT " + (headers.length() + 2) + "\r\n" + headers);
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        smtpProtocol.sendCommand("BDAT " + (body.length() + 2) + " LAST\r\n" + body);
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        Mail mail = queue.getLastMail();
+        assertThat(mail)
+            .as("mail received by mail server")
+            .isNotNull();
+        assertThat(mail.getMessage().getSubject()).isEqualTo("test");
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        mail.getMessage().writeTo(content);
+        assertThat(content.toString()).endsWith(body + "\r\n");
+    }
+
+    @Test
+    public void bdatShouldBeRejectedWhenChunkingIsDisabled() throws Exception {
+        smtpConfiguration.setChunking(false);
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = new SMTPClient();
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        smtpProtocol.connect(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        assertThat(smtpProtocol.getReplyStrings()).noneMatch(line -> line.contains("CHUNKING"));
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+
+        smtpProtocol.sendCommand("BDAT 0 LAST");
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(502);
+
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+    }
+
     @Test
     public void messageExceedingMessageSizeShouldBeDiscarded() throws Exception {
         // Given
@@ -543,10 +599,10 @@ public class SMTPServerTest {
 
         assertThat(capabilitieslist)
             .as("capabilities")
-            .hasSize(4);
+            .hasSize(6);
         assertThat(capabilitieslist)
-            .as("capabilities present PIPELINING ENHANCEDSTATUSCODES 8BITMIME STARTTLS")
-            .containsOnly("PIPELINING", "ENHANCEDSTATUSCODES", "8BITMIME", "STARTTLS");
+            .as("capabilities present PIPELINING ENHANCEDSTATUSCODES 8BITMIME CHUNKING BINARYMIME STARTTLS")
+            .containsOnly("PIPELINING", "ENHANCEDSTATUSCODES", "8BITMIME", "CHUNKING", "BINARYMIME", "STARTTLS");
 
         smtpProtocol.quit();
         smtpProtocol.disconnect();
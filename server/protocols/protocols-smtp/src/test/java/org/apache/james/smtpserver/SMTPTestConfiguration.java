@@ -45,6 +45,7 @@ public class SMTPTestConfiguration extends BaseHierarchicalConfiguration {
     private boolean useRBL = false;
     private boolean addressBracketsEnforcement = true;
     private boolean startTLS = false;
+    private boolean chunking = true;
 
     public void setCheckAuthNetworks(boolean checkAuth) {
         checkAuthNetworks = checkAuth;
@@ -112,6 +113,10 @@ public class SMTPTestConfiguration extends BaseHierarchicalConfiguration {
         verifyIdentity = true;
     }
 
+    public void setChunking(boolean chunking) {
+        this.chunking = chunking;
+    }
+
     public void init() {
 
         addProperty("[@enabled]", true);
@@ -137,6 +142,7 @@ public class SMTPTestConfiguration extends BaseHierarchicalConfiguration {
         addProperty("tls.secret", "jamestest");
         addProperty("auth.requireSSL", false);
         addProperty("verifyIdentity", verifyIdentity);
+        addProperty("chunking", chunking);
 
         // add the rbl handler
         if (useRBL) {
@@ -38,10 +38,12 @@ import org.apache.james.core.MaybeSender;
 import org.apache.james.core.builder.MimeMessageBuilder;
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.dnsservice.api.mock.MockDNSService;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
+import org.apache.james.smtpserver.fastfail.DNSListingCache;
 import org.apache.james.smtpserver.fastfail.URIRBLHandler;
 import org.apache.mailet.Mail;
 import org.apache.mailet.base.test.FakeMail;
@@ -183,9 +185,9 @@ class URIRBLHandlerTest {
         SMTPSession session = setupMockedSMTPSession(setupMockedMail(setupMockedMimeMessage(
                 "http://" + GOOD_DOMAIN + "/")));
 
-        URIRBLHandler handler = new URIRBLHandler();
+        DNSService dnsService = setupMockedDnsServer();
+        URIRBLHandler handler = new URIRBLHandler(dnsService, new DNSListingCache(dnsService, new RecordingMetricFactory()));
 
-        handler.setDNSService(setupMockedDnsServer());
         handler.setUriRblServer(servers);
         HookResult response = handler.onMessage(session, mockedMail);
 
@@ -201,9 +203,9 @@ class URIRBLHandlerTest {
         SMTPSession session = setupMockedSMTPSession(setupMockedMail(setupMockedMimeMessage(
                 "http://" + BAD_DOMAIN1 + "/")));
 
-        URIRBLHandler handler = new URIRBLHandler();
+        DNSService dnsService = setupMockedDnsServer();
+        URIRBLHandler handler = new URIRBLHandler(dnsService, new DNSListingCache(dnsService, new RecordingMetricFactory()));
 
-        handler.setDNSService(setupMockedDnsServer());
         handler.setUriRblServer(servers);
         HookResult response = handler.onMessage(session, mockedMail);
 
@@ -219,9 +221,9 @@ class URIRBLHandlerTest {
         SMTPSession session = setupMockedSMTPSession(setupMockedMail(setupMockedMimeMessageMP(
                 "http://" + BAD_DOMAIN1 + "/" + " " + "http://" + GOOD_DOMAIN + "/")));
 
-        URIRBLHandler handler = new URIRBLHandler();
+        DNSService dnsService = setupMockedDnsServer();
+        URIRBLHandler handler = new URIRBLHandler(dnsService, new DNSListingCache(dnsService, new RecordingMetricFactory()));
 
-        handler.setDNSService(setupMockedDnsServer());
         handler.setUriRblServer(servers);
         HookResult response = handler.onMessage(session, mockedMail);
 
@@ -34,12 +34,14 @@ import org.apache.james.core.Username;
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.domainlist.lib.DomainListConfiguration;
 import org.apache.james.domainlist.memory.MemoryDomainList;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
 import org.apache.james.rrt.api.RecipientRewriteTableConfiguration;
 import org.apache.james.rrt.lib.MappingSource;
 import org.apache.james.rrt.memory.MemoryRecipientRewriteTable;
+import org.apache.james.smtpserver.fastfail.RecipientValidityCache;
 import org.apache.james.smtpserver.fastfail.ValidRcptHandler;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
@@ -79,7 +81,7 @@ class ValidRcptHandlerTest {
         memoryRecipientRewriteTable = new MemoryRecipientRewriteTable();
         memoryRecipientRewriteTable.setDomainList(memoryDomainList);
         memoryRecipientRewriteTable.setConfiguration(RecipientRewriteTableConfiguration.DEFAULT_ENABLED);
-        handler = new ValidRcptHandler(users, memoryRecipientRewriteTable, memoryDomainList);
+        handler = new ValidRcptHandler(new RecipientValidityCache(users, memoryRecipientRewriteTable, memoryDomainList, new RecordingMetricFactory()), memoryDomainList);
 
         validUserEmail = new MailAddress(VALID_USER.asString() + "@localhost");
         user1mail = new MailAddress(USER1 + "@localhost");
@@ -230,7 +232,7 @@ class ValidRcptHandlerTest {
         UsersRepository users = mock(UsersRepository.class);
         when(users.contains(any()))
             .thenThrow(new UsersRepositoryException("simulated error"));
-        ValidRcptHandler handler = new ValidRcptHandler(users, memoryRecipientRewriteTable, memoryDomainList);
+        ValidRcptHandler handler = new ValidRcptHandler(new RecipientValidityCache(users, memoryRecipientRewriteTable, memoryDomainList, new RecordingMetricFactory()), memoryDomainList);
         HookReturnCode rCode = handler.doRcpt(session, MAYBE_SENDER, validUserEmail).getResult();
 
         assertThat(rCode).isEqualTo(HookReturnCode.denySoft());
@@ -0,0 +1,156 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.smtpserver.fastfail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.dnsservice.api.DNSService;
+import org.apache.james.dnsservice.api.mock.MockDNSService;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Ticker;
+
+class DNSListingCacheTest {
+    private static final String LISTED = "2.0.0.127.bl.spamcop.net.";
+    private static final String NOT_LISTED = "1.0.168.192.bl.spamcop.net.";
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+
+    private AtomicInteger lookups;
+    private DNSService dnsService;
+    private RecordingMetricFactory metricFactory;
+
+    @BeforeEach
+    void setUp() {
+        lookups = new AtomicInteger();
+        metricFactory = new RecordingMetricFactory();
+        dnsService = new MockDNSService() {
+            @Override
+            public InetAddress getByName(String host) throws UnknownHostException {
+                lookups.incrementAndGet();
+                if (LISTED.equals(host)) {
+                    return InetAddress.getByName("127.0.0.2");
+                }
+                throw new UnknownHostException(host);
+            }
+        };
+    }
+
+    @Test
+    void isListedShouldReturnTrueWhenQueryResolves() {
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory);
+
+        assertThat(testee.isListed(LISTED)).isTrue();
+    }
+
+    @Test
+    void isListedShouldReturnFalseWhenQueryDoesNotResolve() {
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory);
+
+        assertThat(testee.isListed(NOT_LISTED)).isFalse();
+    }
+
+    @Test
+    void isListedShouldCacheListedResults() {
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory);
+
+        testee.isListed(LISTED);
+        testee.isListed(LISTED);
+
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void isListedShouldCacheNotListedResults() {
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory);
+
+        testee.isListed(NOT_LISTED);
+
+        assertThat(testee.isListed(NOT_LISTED)).isFalse();
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void isListedShouldLookupAgainOnceExpired() {
+        FakeTicker ticker = new FakeTicker();
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory, Duration.ofMinutes(10), Duration.ofMinutes(2), ticker);
+
+        testee.isListed(NOT_LISTED);
+        ticker.advance(Duration.ofMinutes(2));
+        testee.isListed(NOT_LISTED);
+
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void isListedShouldKeepListedResultsLongerThanNotListedOnes() {
+        FakeTicker ticker = new FakeTicker();
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory, Duration.ofMinutes(10), Duration.ofMinutes(2), ticker);
+
+        testee.isListed(LISTED);
+        ticker.advance(Duration.ofMinutes(5));
+        testee.isListed(LISTED);
+
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void isListedShouldLookupListedResultsAgainOnceExpired() {
+        FakeTicker ticker = new FakeTicker();
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory, Duration.ofMinutes(10), Duration.ofMinutes(2), ticker);
+
+        testee.isListed(LISTED);
+        ticker.advance(Duration.ofMinutes(10));
+        testee.isListed(LISTED);
+
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void isListedShouldRecordMetrics() {
+        DNSListingCache testee = new DNSListingCache(dnsService, metricFactory);
+
+        testee.isListed(LISTED);
+        testee.isListed(LISTED);
+        testee.isListed(NOT_LISTED);
+
+        assertThat(metricFactory.countFor("dnsListingCacheHit")).isEqualTo(1);
+        assertThat(metricFactory.countFor("dnsListingCacheMiss")).isEqualTo(2);
+        assertThat(metricFactory.executionTimesFor("dnsListingLookup")).hasSize(2);
+    }
+}
@@ -0,0 +1,245 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.smtpserver.fastfail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.core.Domain;
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.Username;
+import org.apache.james.dnsservice.api.DNSService;
+import org.apache.james.domainlist.lib.DomainListConfiguration;
+import org.apache.james.domainlist.memory.MemoryDomainList;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.rrt.api.RecipientRewriteTableConfiguration;
+import org.apache.james.rrt.lib.MappingSource;
+import org.apache.james.rrt.memory.MemoryRecipientRewriteTable;
+import org.apache.james.smtpserver.fastfail.RecipientValidityCache.Validity;
+import org.apache.james.user.api.UsersRepository;
+import org.apache.james.user.memory.MemoryUsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Ticker;
+
+class RecipientValidityCacheTest {
+    private static final Username USER = Username.of("user");
+    private static final String PASSWORD = "secret";
+    private static final Domain OTHER_DOMAIN = Domain.of("other.tld");
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+
+    private MemoryDomainList domainList;
+    private UsersRepository users;
+    private MemoryRecipientRewriteTable recipientRewriteTable;
+    private RecordingMetricFactory metricFactory;
+    private MailAddress userAddress;
+    private MailAddress unknownAddress;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        domainList = new MemoryDomainList(mock(DNSService.class));
+        domainList.configure(DomainListConfiguration.builder()
+            .defaultDomain(Domain.LOCALHOST)
+            .build());
+        users = spy(MemoryUsersRepository.withoutVirtualHosting(domainList));
+        users.addUser(USER, PASSWORD);
+        recipientRewriteTable = new MemoryRecipientRewriteTable();
+        recipientRewriteTable.setDomainList(domainList);
+        recipientRewriteTable.setConfiguration(RecipientRewriteTableConfiguration.DEFAULT_ENABLED);
+        metricFactory = new RecordingMetricFactory();
+
+        userAddress = new MailAddress("user@localhost");
+        unknownAddress = new MailAddress("unknown@localhost");
+    }
+
+    @Test
+    void validityShouldReturnUserWhenUserExists() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+
+        assertThat(testee.validity(userAddress)).isEqualTo(Validity.USER);
+    }
+
+    @Test
+    void validityShouldReturnMappingWhenAddressIsMapped() throws Exception {
+        recipientRewriteTable.addAddressMapping(MappingSource.fromUser("unknown", Domain.LOCALHOST), "user@localhost");
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+
+        assertThat(testee.validity(unknownAddress)).isEqualTo(Validity.MAPPING);
+    }
+
+    @Test
+    void validityShouldReturnErrorMappingWhenAddressHasErrorMapping() throws Exception {
+        recipientRewriteTable.addErrorMapping(MappingSource.fromUser("unknown", Domain.LOCALHOST), "554 BOUNCE");
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+
+        assertThat(testee.validity(unknownAddress)).isEqualTo(Validity.ERROR_MAPPING);
+    }
+
+    @Test
+    void validityShouldReturnUnknownWhenNoUserNorMapping() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+
+        assertThat(testee.validity(unknownAddress)).isEqualTo(Validity.UNKNOWN);
+    }
+
+    @Test
+    void validityShouldCacheUnknownRecipients() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+
+        testee.validity(unknownAddress);
+        testee.validity(unknownAddress);
+
+        verify(users, times(1)).contains(Username.of("unknown"));
+    }
+
+    @Test
+    void validityShouldLookupAgainOnceExpired() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory,
+            Duration.ofMinutes(2), Duration.ofSeconds(30), ticker);
+
+        testee.validity(unknownAddress);
+        ticker.advance(Duration.ofSeconds(30));
+        testee.validity(unknownAddress);
+
+        verify(users, times(2)).contains(Username.of("unknown"));
+    }
+
+    @Test
+    void validityShouldKeepValidDecisionsLongerThanUnknownOnes() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory,
+            Duration.ofMinutes(2), Duration.ofSeconds(30), ticker);
+
+        testee.validity(userAddress);
+        ticker.advance(Duration.ofSeconds(30));
+        testee.validity(userAddress);
+
+        verify(users, times(1)).contains(USER);
+    }
+
+    @Test
+    void validityShouldNotCacheDecisionsLookedUpDuringAnInvalidation() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+        doAnswer(invocation -> {
+            boolean result = (boolean) invocation.callRealMethod();
+            testee.invalidateAll();
+            return result;
+        }).when(users).contains(Username.of("unknown"));
+
+        testee.validity(unknownAddress);
+        testee.validity(unknownAddress);
+
+        verify(users, times(2)).contains(Username.of("unknown"));
+    }
+
+    @Test
+    void addingADomainShouldInvalidateDecisions() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+        testee.validity(unknownAddress);
+
+        domainList.addDomain(OTHER_DOMAIN);
+        testee.validity(unknownAddress);
+
+        verify(users, times(2)).contains(Username.of("unknown"));
+    }
+
+    @Test
+    void removingADomainShouldInvalidateDecisions() throws Exception {
+        domainList.addDomain(OTHER_DOMAIN);
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+        testee.validity(userAddress);
+
+        domainList.removeDomain(OTHER_DOMAIN);
+        testee.validity(userAddress);
+
+        verify(users, times(2)).contains(USER);
+    }
+
+    @Test
+    void addingAUserShouldInvalidateUnknownDecisions() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+        testee.validity(unknownAddress);
+
+        users.addUser(Username.of("unknown"), PASSWORD);
+
+        assertThat(testee.validity(unknownAddress)).isEqualTo(Validity.USER);
+    }
+
+    @Test
+    void removingAUserShouldInvalidateValidDecisions() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+        testee.validity(userAddress);
+
+        users.removeUser(USER);
+
+        assertThat(testee.validity(userAddress)).isEqualTo(Validity.UNKNOWN);
+    }
+
+    @Test
+    void addingAMappingShouldInvalidateUnknownDecisions() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+        testee.validity(unknownAddress);
+
+        recipientRewriteTable.addAddressMapping(MappingSource.fromUser("unknown", Domain.LOCALHOST), "user@localhost");
+
+        assertThat(testee.validity(unknownAddress)).isEqualTo(Validity.MAPPING);
+    }
+
+    @Test
+    void validityShouldRecordMetrics() throws Exception {
+        RecipientValidityCache testee = new RecipientValidityCache(users, recipientRewriteTable, domainList, metricFactory);
+
+        testee.validity(userAddress);
+        testee.validity(userAddress);
+        testee.validity(unknownAddress);
+
+        assertThat(metricFactory.countFor("recipientValidityCacheHit")).isEqualTo(1);
+        assertThat(metricFactory.countFor("recipientValidityCacheMiss")).isEqualTo(2);
+        assertThat(metricFactory.executionTimesFor("recipientValidityLookup")).hasSize(2);
+    }
+
+    @Test
+    void userValidityShouldBeTheOnlyOneValidWithoutRecipientRewriteTable() {
+        assertThat(Validity.USER.isValid(false)).isTrue();
+        assertThat(Validity.MAPPING.isValid(false)).isFalse();
+        assertThat(Validity.ERROR_MAPPING.isValid(false)).isFalse();
+        assertThat(Validity.UNKNOWN.isValid(false)).isFalse();
+    }
+}
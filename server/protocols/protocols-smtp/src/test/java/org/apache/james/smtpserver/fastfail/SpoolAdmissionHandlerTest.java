@@ -0,0 +1,167 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.smtpserver.fastfail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.protocols.smtp.hook.HookReturnCode;
+import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpoolAdmissionHandlerTest {
+    private static final MaybeSender SENDER = MaybeSender.nullSender();
+
+    private ManageableMailQueue queue;
+    private RecordingMetricFactory metricFactory;
+    private SpoolAdmissionHandler testee;
+
+    @BeforeEach
+    void setUp() {
+        queue = mock(ManageableMailQueue.class);
+        MailQueueFactory<ManageableMailQueue> queueFactory = mock(MailQueueFactory.class);
+        when(queueFactory.createQueue(any())).thenReturn(queue);
+        metricFactory = new RecordingMetricFactory();
+        testee = new SpoolAdmissionHandler(queueFactory, metricFactory, new NoopGaugeRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        testee.destroy();
+    }
+
+    private BaseConfiguration configuration(long highWatermark, long lowWatermark) {
+        BaseConfiguration configuration = new BaseConfiguration();
+        configuration.addProperty("spoolHighWatermark", highWatermark);
+        configuration.addProperty("spoolLowWatermark", lowWatermark);
+        configuration.addProperty("checkInterval", "10ms");
+        return configuration;
+    }
+
+    @Test
+    void doMailShouldDeclineWhenSpoolIsUnderHighWatermark() throws Exception {
+        when(queue.getApproximateSize()).thenReturn(99L);
+        testee.init(configuration(100, 80));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(testee.doMail(new BaseFakeSMTPSession(), SENDER).getResult()).isEqualTo(HookReturnCode.declined()));
+    }
+
+    @Test
+    void doMailShouldDenySoftWhenSpoolReachesHighWatermark() throws Exception {
+        when(queue.getApproximateSize()).thenReturn(100L);
+        testee.init(configuration(100, 80));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(testee.doMail(new BaseFakeSMTPSession(), SENDER).getResult()).isEqualTo(HookReturnCode.denySoft()));
+        assertThat(metricFactory.countFor("smtpAdmissionRejected")).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void pollingShouldGoOnAfterAFailure() throws Exception {
+        when(queue.getApproximateSize())
+            .thenThrow(new MailQueue.MailQueueException("failure"))
+            .thenReturn(100L);
+        testee.init(configuration(100, 80));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(testee.doMail(new BaseFakeSMTPSession(), SENDER).getResult()).isEqualTo(HookReturnCode.denySoft()));
+    }
+
+    @Test
+    void pollingShouldGoOnWhenACheckTakesLongerThanTheCheckInterval() throws Exception {
+        when(queue.getApproximateSize())
+            .thenAnswer(invocation -> {
+                Thread.sleep(100);
+                return 0L;
+            })
+            .thenReturn(100L);
+        testee.init(configuration(100, 80));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(testee.doMail(new BaseFakeSMTPSession(), SENDER).getResult()).isEqualTo(HookReturnCode.denySoft()));
+    }
+
+    @Test
+    void doMailShouldKeepDenyingUntilSpoolGoesUnderLowWatermark() throws Exception {
+        testee.init(configuration(100, 80));
+
+        testee.onSpoolSize(100);
+        testee.onSpoolSize(90);
+        testee.onSpoolSize(80);
+
+        assertThat(testee.doMail(new BaseFakeSMTPSession(), SENDER).getResult()).isEqualTo(HookReturnCode.denySoft());
+    }
+
+    @Test
+    void doMailShouldDeclineOnceSpoolWentUnderLowWatermark() throws Exception {
+        testee.init(configuration(100, 80));
+
+        testee.onSpoolSize(100);
+        testee.onSpoolSize(79);
+
+        assertThat(testee.doMail(new BaseFakeSMTPSession(), SENDER).getResult()).isEqualTo(HookReturnCode.declined());
+    }
+
+    @Test
+    void initShouldNameGaugesAfterTheServer() throws Exception {
+        GaugeRegistry gaugeRegistry = mock(GaugeRegistry.class);
+        MailQueueFactory<ManageableMailQueue> queueFactory = mock(MailQueueFactory.class);
+        when(queueFactory.createQueue(any())).thenReturn(queue);
+        testee = new SpoolAdmissionHandler(queueFactory, metricFactory, gaugeRegistry);
+        BaseConfiguration configuration = configuration(100, 80);
+        configuration.addProperty("jmxName", "smtpserver-ssl");
+
+        testee.init(configuration);
+
+        verify(gaugeRegistry).register(eq("smtpAdmission.smtpserver-ssl.spoolSize"), any());
+        verify(gaugeRegistry).register(eq("smtpAdmission.smtpserver-ssl.overloaded"), any());
+    }
+
+    @Test
+    void initShouldThrowWhenHighWatermarkIsMissing() {
+        assertThatThrownBy(() -> testee.init(new BaseConfiguration()))
+            .isInstanceOf(ConfigurationException.class);
+    }
+
+    @Test
+    void initShouldThrowWhenLowWatermarkIsGreaterThanHighWatermark() {
+        assertThatThrownBy(() -> testee.init(configuration(100, 101)))
+            .isInstanceOf(ConfigurationException.class);
+    }
+}
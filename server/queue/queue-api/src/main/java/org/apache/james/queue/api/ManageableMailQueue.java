@@ -43,6 +43,18 @@ public interface ManageableMailQueue extends MailQueue {
      */
     long getSize() throws MailQueueException;
 
+    /**
+     * Return the number of mails waiting in the queue, possibly approximated, in a way cheap enough to be polled
+     * frequently. Defaults to {@link #getSize()}, implementations computing it by browsing the queue should override
+     * it.
+     *
+     * @return approximate size
+     * @throws MailQueueException
+     */
+    default long getApproximateSize() throws MailQueueException {
+        return getSize();
+    }
+
     /**
      * Flush the queue, which means it will make all message ready for dequeue
      * 
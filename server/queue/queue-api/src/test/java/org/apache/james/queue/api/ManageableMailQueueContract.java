@@ -82,6 +82,14 @@ public interface ManageableMailQueueContract extends MailQueueContract {
         Awaitility.await().untilAsserted(() -> assertThat(getManageableMailQueue().getSize()).isEqualTo(2L));
     }
 
+    @Test
+    default void getApproximateSizeShouldReturnMessageCount() throws Exception {
+        enQueue(defaultMail().name("1").build());
+        enQueue(defaultMail().name("2").build());
+
+        Awaitility.await().untilAsserted(() -> assertThat(getManageableMailQueue().getApproximateSize()).isEqualTo(2L));
+    }
+
     @Test
     default void dequeueShouldDecreaseQueueSize() throws Exception {
         enQueue(defaultMail().name("name").build());
@@ -41,6 +41,8 @@ import com.google.common.base.MoreObjects;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.rabbitmq.QueueSpecification;
+import reactor.rabbitmq.Sender;
 
 public class RabbitMQMailQueue implements ManageableMailQueue {
 
@@ -52,16 +54,19 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
     private final Dequeuer dequeuer;
     private final MailQueueView<CassandraMailQueueBrowser.CassandraMailQueueItemView> mailQueueView;
     private final MailQueueItemDecoratorFactory decoratorFactory;
+    private final Sender sender;
 
     RabbitMQMailQueue(MetricFactory metricFactory, MailQueueName name,
                       Enqueuer enqueuer, Dequeuer dequeuer,
-                      MailQueueView<CassandraMailQueueBrowser.CassandraMailQueueItemView> mailQueueView, MailQueueItemDecoratorFactory decoratorFactory) {
+                      MailQueueView<CassandraMailQueueBrowser.CassandraMailQueueItemView> mailQueueView, MailQueueItemDecoratorFactory decoratorFactory,
+                      Sender sender) {
         this.metricFactory = metricFactory;
         this.name = name;
         this.enqueuer = enqueuer;
         this.dequeuer = dequeuer;
         this.mailQueueView = mailQueueView;
         this.decoratorFactory = decoratorFactory;
+        this.sender = sender;
     }
 
     @Override
@@ -108,6 +113,17 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
         return mailQueueView.getSize();
     }
 
+    /**
+     * Counts the messages of the work queue ready for delivery, as reported by RabbitMQ, rather than browsing the
+     * Cassandra view. Mails being processed are not counted.
+     */
+    @Override
+    public long getApproximateSize() {
+        return sender.declareQueue(QueueSpecification.queue(name.toWorkQueueName().asString()).passive(true))
+            .map(declareOk -> (long) declareOk.getMessageCount())
+            .block();
+    }
+
     @Override
     public long flush() {
         LOGGER.warn("Delays are not supported by RabbitMQ. Flush is a NOOP.");
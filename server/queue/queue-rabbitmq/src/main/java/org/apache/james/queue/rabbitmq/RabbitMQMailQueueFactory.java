@@ -104,7 +104,8 @@ public class RabbitMQMailQueueFactory implements MailQueueFactory<RabbitMQMailQu
                 new Dequeuer(mailQueueName, receiverProvider, mailLoader, mailReferenceSerializer,
                     metricFactory, mailQueueView, prefetchCount),
                 mailQueueView,
-                decoratorFactory);
+                decoratorFactory,
+                sender);
 
             registerGaugeFor(rabbitMQMailQueue);
             return rabbitMQMailQueue;